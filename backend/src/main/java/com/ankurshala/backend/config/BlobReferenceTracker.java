@@ -0,0 +1,98 @@
+package com.ankurshala.backend.config;
+
+import com.ankurshala.backend.entity.StudentDocument;
+import com.ankurshala.backend.entity.StudentProfile;
+import com.ankurshala.backend.entity.TeacherDocument;
+import com.ankurshala.backend.entity.TeacherProfile;
+import com.ankurshala.backend.entity.TopicNote;
+import com.ankurshala.backend.service.BlobStorageService;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.*;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Keeps {@code blobs.ref_count} in step with the entity fields that hold blob
+ * URLs.
+ *
+ * <p>At flush time the blob hashes in the old and new field values are diffed
+ * and the difference is applied in the same transaction, so counts roll back
+ * with the write. Fields holding other URLs are ignored.</p>
+ */
+@Component
+public class BlobReferenceTracker implements PostInsertEventListener, PostUpdateEventListener, PostDeleteEventListener {
+
+    private static final Map<Class<?>, List<String>> BLOB_FIELDS = Map.of(
+            StudentDocument.class, List.of("documentUrl"),
+            TeacherDocument.class, List.of("documentUrl"),
+            StudentProfile.class, List.of("studentPhotoUrl", "schoolIdCardUrl"),
+            TeacherProfile.class, List.of("profilePhotoUrl", "govtIdProofUrl"),
+            TopicNote.class, List.of("attachments"));
+
+    private final SessionFactoryImplementor sessionFactory;
+    private final BlobStorageService blobStorageService;
+
+    public BlobReferenceTracker(EntityManagerFactory entityManagerFactory, BlobStorageService blobStorageService) {
+        this.sessionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+        this.blobStorageService = blobStorageService;
+    }
+
+    @PostConstruct
+    void register() {
+        EventListenerRegistry registry = sessionFactory.getServiceRegistry().getService(EventListenerRegistry.class);
+        registry.appendListeners(EventType.POST_INSERT, this);
+        registry.appendListeners(EventType.POST_UPDATE, this);
+        registry.appendListeners(EventType.POST_DELETE, this);
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        apply(event.getPersister(), null, event.getState());
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        // Only reattached detached entities lack the loaded state; JPA merges always load it
+        if (event.getOldState() != null) {
+            apply(event.getPersister(), event.getOldState(), event.getState());
+        }
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        apply(event.getPersister(), event.getDeletedState(), null);
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        return false;
+    }
+
+    private void apply(EntityPersister persister, Object[] oldState, Object[] newState) {
+        List<String> fields = BLOB_FIELDS.get(persister.getMappedClass());
+        if (fields == null) {
+            return;
+        }
+        String[] names = persister.getPropertyNames();
+        Map<String, Integer> deltas = new HashMap<>();
+        for (int i = 0; i < names.length; i++) {
+            if (!fields.contains(names[i])) {
+                continue;
+            }
+            if (oldState != null) {
+                BlobStorageService.referencedHashes((String) oldState[i]).forEach(hash -> deltas.merge(hash, -1, Integer::sum));
+            }
+            if (newState != null) {
+                BlobStorageService.referencedHashes((String) newState[i]).forEach(hash -> deltas.merge(hash, 1, Integer::sum));
+            }
+        }
+        blobStorageService.adjustReferences(deltas, persister.getMappedClass() == TopicNote.class);
+    }
+}
@@ -1,5 +1,9 @@
 package com.ankurshala.backend.config;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
 import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.EnableCaching;
 import org.springframework.context.annotation.Bean;
@@ -45,4 +49,22 @@ public class CacheConfig {
         
         return cacheManager;
     }
+
+    /**
+     * Second-level cache for the read-mostly reference entities (boards, subjects,
+     * grades, chapters). Regions live in local Caffeine caches; writes on other
+     * nodes are evicted through {@link SecondLevelCacheInvalidator}.
+     */
+    @Bean
+    public HibernatePropertiesCustomizer secondLevelCacheCustomizer(
+            MeterRegistry meterRegistry,
+            @Value("${app.cache.hibernate.max-entries:10000}") long maxEntries,
+            @Value("${app.cache.hibernate.ttl:10m}") Duration ttl) {
+        return properties -> {
+            properties.put(AvailableSettings.USE_SECOND_LEVEL_CACHE, true);
+            properties.put(AvailableSettings.USE_QUERY_CACHE, true);
+            properties.put(AvailableSettings.CACHE_REGION_FACTORY, new CaffeineRegionFactory(meterRegistry, maxEntries, ttl));
+            properties.put(AvailableSettings.CACHE_REGION_PREFIX, "hibernate");
+        };
+    }
 }
@@ -0,0 +1,112 @@
+package com.ankurshala.backend.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.hibernate.boot.spi.SessionFactoryOptions;
+import org.hibernate.cache.cfg.spi.DomainDataRegionBuildingContext;
+import org.hibernate.cache.cfg.spi.DomainDataRegionConfig;
+import org.hibernate.cache.spi.support.DomainDataStorageAccess;
+import org.hibernate.cache.spi.support.RegionFactoryTemplate;
+import org.hibernate.cache.spi.support.StorageAccess;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Hibernate second-level cache regions backed by local Caffeine caches.
+ *
+ * <p>Entity, natural-id and query-result regions are bounded and expire after
+ * {@code ttl}, which also caps staleness if a cross-node invalidation is lost
+ * (see {@link SecondLevelCacheInvalidator}). The update-timestamps region is
+ * unbounded: Hibernate treats a missing timestamp as "never updated", so
+ * evicting one could serve stale query results. It holds one entry per table.</p>
+ *
+ * <p>Each region reports hits, misses and evictions as Micrometer
+ * {@code cache.*} meters tagged {@code cache=<region>}.</p>
+ */
+public class CaffeineRegionFactory extends RegionFactoryTemplate {
+
+    private final MeterRegistry meterRegistry;
+    private final long maxEntries;
+    private final Duration ttl;
+
+    public CaffeineRegionFactory(MeterRegistry meterRegistry, long maxEntries, Duration ttl) {
+        this.meterRegistry = meterRegistry;
+        this.maxEntries = maxEntries;
+        this.ttl = ttl;
+    }
+
+    @Override
+    protected DomainDataStorageAccess createDomainDataStorageAccess(DomainDataRegionConfig regionConfig,
+                                                                    DomainDataRegionBuildingContext buildingContext) {
+        return new CaffeineStorageAccess(bounded(regionConfig.getRegionName()));
+    }
+
+    @Override
+    protected StorageAccess createQueryResultsRegionStorageAccess(String regionName, SessionFactoryImplementor sessionFactory) {
+        return new CaffeineStorageAccess(bounded(regionName));
+    }
+
+    @Override
+    protected StorageAccess createTimestampsRegionStorageAccess(String regionName, SessionFactoryImplementor sessionFactory) {
+        return new CaffeineStorageAccess(monitor(regionName, Caffeine.newBuilder().recordStats().build()));
+    }
+
+    @Override
+    protected void prepareForUse(SessionFactoryOptions settings, Map<String, Object> configValues) {
+    }
+
+    @Override
+    protected void releaseFromUse() {
+    }
+
+    private Cache<Object, Object> bounded(String regionName) {
+        return monitor(regionName, Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build());
+    }
+
+    private Cache<Object, Object> monitor(String regionName, Cache<Object, Object> cache) {
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, regionName);
+        return cache;
+    }
+
+    private record CaffeineStorageAccess(Cache<Object, Object> cache) implements DomainDataStorageAccess {
+
+        @Override
+        public Object getFromCache(Object key, SharedSessionContractImplementor session) {
+            return cache.getIfPresent(key);
+        }
+
+        @Override
+        public void putIntoCache(Object key, Object value, SharedSessionContractImplementor session) {
+            cache.put(key, value);
+        }
+
+        @Override
+        public boolean contains(Object key) {
+            return cache.asMap().containsKey(key);
+        }
+
+        @Override
+        public void evictData() {
+            cache.invalidateAll();
+        }
+
+        @Override
+        public void evictData(Object key) {
+            cache.invalidate(key);
+        }
+
+        @Override
+        public void release() {
+            cache.invalidateAll();
+        }
+    }
+}
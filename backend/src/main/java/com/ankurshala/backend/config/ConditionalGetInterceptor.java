@@ -0,0 +1,84 @@
+package com.ankurshala.backend.config;
+
+import com.ankurshala.backend.security.UserPrincipal;
+import com.ankurshala.backend.service.ResourceVersionService;
+import com.ankurshala.backend.service.ResourceVersionService.ResourceVersion;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import java.nio.charset.StandardCharsets;
+import java.util.zip.CRC32;
+
+/**
+ * Answers conditional GETs on {@link VersionedResource} handlers before the
+ * handler runs.
+ *
+ * <p>The strong ETag is the scope version plus a checksum of the scope, path,
+ * query and response encoding, so it is computed from one Redis lookup and
+ * never from the body. Matching {@code If-None-Match} or
+ * {@code If-Modified-Since} requests get {@code 304 Not Modified} without
+ * touching the database; other reads carry the validators on the full
+ * response. When the version cannot be read the request is served normally.</p>
+ */
+@Component
+public class ConditionalGetInterceptor implements HandlerInterceptor {
+
+    private final ResourceVersionService versionService;
+
+    public ConditionalGetInterceptor(ResourceVersionService versionService) {
+        this.versionService = versionService;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (!(handler instanceof HandlerMethod handlerMethod)
+                || !("GET".equals(request.getMethod()) || "HEAD".equals(request.getMethod()))) {
+            return true;
+        }
+        VersionedResource versioned = AnnotatedElementUtils.findMergedAnnotation(handlerMethod.getMethod(), VersionedResource.class);
+        if (versioned == null) {
+            versioned = AnnotatedElementUtils.findMergedAnnotation(handlerMethod.getBeanType(), VersionedResource.class);
+        }
+        String scope = versioned != null ? scopeOf(versioned.value()) : null;
+        if (scope == null) {
+            return true;
+        }
+        ResourceVersion version = versionService.current(scope);
+        if (version == null) {
+            return true;
+        }
+
+        // Clients may keep the response but must revalidate it on every use
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "private, no-cache");
+        String etag = "\"" + Long.toHexString(version.version()) + "-" + checksum(scope, request) + "\"";
+        return !new ServletWebRequest(request, response).checkNotModified(etag, version.lastModified());
+    }
+
+    private static String scopeOf(VersionedResource.Scope scope) {
+        if (scope == VersionedResource.Scope.CONTENT) {
+            return ResourceVersionService.CONTENT;
+        }
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof UserPrincipal principal) {
+            return ResourceVersionService.user(principal.getId());
+        }
+        return null;
+    }
+
+    private static String checksum(String scope, HttpServletRequest request) {
+        String acceptEncoding = request.getHeader(HttpHeaders.ACCEPT_ENCODING);
+        boolean gzip = acceptEncoding != null && acceptEncoding.toLowerCase().contains("gzip");
+        CRC32 crc = new CRC32();
+        crc.update((scope + '\n' + request.getRequestURI() + '?' + request.getQueryString() + '\n' + gzip)
+                .getBytes(StandardCharsets.UTF_8));
+        return Long.toHexString(crc.getValue());
+    }
+}
@@ -0,0 +1,38 @@
+package com.ankurshala.backend.config;
+
+import org.hibernate.boot.model.FunctionContributions;
+import org.hibernate.boot.model.FunctionContributor;
+import org.hibernate.type.BasicType;
+import org.hibernate.type.StandardBasicTypes;
+
+/**
+ * Registers HQL/Criteria functions for the {@code search_vector} full-text
+ * columns added in V11. The tsvector columns are not mapped on the entities
+ * (they would be loaded with every row), so the match is expressed as an id
+ * semi-join that Postgres answers from the GIN index.
+ *
+ * <p>Both functions take the entity id and a {@code to_tsquery} expression,
+ * e.g. {@code cb.isTrue(cb.function("topic_fts_match", Boolean.class, root.get("id"), query))}.
+ * Registered through {@code META-INF/services}.</p>
+ */
+public class FullTextSearchFunctionContributor implements FunctionContributor {
+
+    public static final String TOPIC_MATCH = "topic_fts_match";
+    public static final String TOPIC_NOTE_MATCH = "topic_note_fts_match";
+
+    @Override
+    public void contributeFunctions(FunctionContributions functionContributions) {
+        BasicType<Boolean> booleanType = functionContributions.getTypeConfiguration()
+                .getBasicTypeRegistry()
+                .resolve(StandardBasicTypes.BOOLEAN);
+
+        functionContributions.getFunctionRegistry().registerPattern(
+                TOPIC_MATCH,
+                "(?1 in (select fts.id from topics fts where fts.search_vector @@ to_tsquery('english', ?2)))",
+                booleanType);
+        functionContributions.getFunctionRegistry().registerPattern(
+                TOPIC_NOTE_MATCH,
+                "(?1 in (select fts.id from topic_notes fts where fts.search_vector @@ to_tsquery('english', ?2)))",
+                booleanType);
+    }
+}
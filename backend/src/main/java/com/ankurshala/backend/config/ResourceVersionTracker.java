@@ -0,0 +1,149 @@
+package com.ankurshala.backend.config;
+
+import com.ankurshala.backend.entity.*;
+import com.ankurshala.backend.service.ContentTaxonomyChangedEvent;
+import com.ankurshala.backend.service.ResourceVersionService;
+import com.ankurshala.backend.service.TopicLinksChangedEvent;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.*;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Bumps the {@link ResourceVersionService} scopes touched by a write once it
+ * commits.
+ *
+ * <p>JPA writes are seen at flush time, where the owning user of a profile row
+ * can still be resolved; the scopes are collected per transaction and bumped
+ * once after commit, so a save of many rows is one Redis call per scope. JDBC
+ * content writers bypass Hibernate and are covered by their events.</p>
+ */
+@Component
+public class ResourceVersionTracker implements PostInsertEventListener, PostUpdateEventListener, PostDeleteEventListener {
+
+    private static final Set<Class<?>> CONTENT_ENTITIES = Set.of(
+            Board.class, Subject.class, Grade.class, Chapter.class, Topic.class, TopicNote.class, TopicLink.class);
+
+    private final SessionFactoryImplementor sessionFactory;
+    private final ResourceVersionService versionService;
+
+    public ResourceVersionTracker(EntityManagerFactory entityManagerFactory, ResourceVersionService versionService) {
+        this.sessionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+        this.versionService = versionService;
+    }
+
+    @PostConstruct
+    void register() {
+        EventListenerRegistry registry = sessionFactory.getServiceRegistry().getService(EventListenerRegistry.class);
+        registry.appendListeners(EventType.POST_INSERT, this);
+        registry.appendListeners(EventType.POST_UPDATE, this);
+        registry.appendListeners(EventType.POST_DELETE, this);
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        touch(scopeOf(event.getEntity()));
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        touch(scopeOf(event.getEntity()));
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        touch(scopeOf(event.getEntity()));
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        return false;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onTaxonomyChanged(ContentTaxonomyChangedEvent event) {
+        versionService.bump(Set.of(ResourceVersionService.CONTENT));
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onTopicLinksChanged(TopicLinksChangedEvent event) {
+        versionService.bump(Set.of(ResourceVersionService.CONTENT));
+    }
+
+    private static String scopeOf(Object entity) {
+        if (CONTENT_ENTITIES.stream().anyMatch(type -> type.isInstance(entity))) {
+            return ResourceVersionService.CONTENT;
+        }
+        User owner = ownerOf(entity);
+        return owner != null ? ResourceVersionService.user(owner.getId()) : null;
+    }
+
+    private static User ownerOf(Object entity) {
+        if (entity instanceof User user) {
+            return user;
+        }
+        if (entity instanceof StudentProfile profile) {
+            return profile.getUser();
+        }
+        if (entity instanceof StudentDocument document) {
+            return document.getStudentProfile() != null ? document.getStudentProfile().getUser() : null;
+        }
+        if (entity instanceof TeacherProfile profile) {
+            return profile.getUser();
+        }
+        Teacher teacher = teacherOf(entity);
+        return teacher != null ? teacher.getUser() : null;
+    }
+
+    private static Teacher teacherOf(Object entity) {
+        if (entity instanceof Teacher teacher) return teacher;
+        if (entity instanceof TeacherAddress address) return address.getTeacher();
+        if (entity instanceof TeacherAvailability availability) return availability.getTeacher();
+        if (entity instanceof TeacherBankDetails bankDetails) return bankDetails.getTeacher();
+        if (entity instanceof TeacherCertification certification) return certification.getTeacher();
+        if (entity instanceof TeacherDocument document) return document.getTeacher();
+        if (entity instanceof TeacherExperience experience) return experience.getTeacher();
+        if (entity instanceof TeacherProfessionalInfo info) return info.getTeacher();
+        if (entity instanceof TeacherQualification qualification) return qualification.getTeacher();
+        return null;
+    }
+
+    private void touch(String scope) {
+        if (scope == null) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            versionService.bump(Set.of(scope));
+            return;
+        }
+        // Synchronizations are per transaction, so REQUIRES_NEW writes get their own batch
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            if (synchronization instanceof PendingBumps pending) {
+                pending.scopes.add(scope);
+                return;
+            }
+        }
+        PendingBumps pending = new PendingBumps();
+        pending.scopes.add(scope);
+        TransactionSynchronizationManager.registerSynchronization(pending);
+    }
+
+    private class PendingBumps implements TransactionSynchronization {
+        private final Set<String> scopes = new HashSet<>();
+
+        @Override
+        public void afterCommit() {
+            versionService.bump(scopes);
+        }
+    }
+}
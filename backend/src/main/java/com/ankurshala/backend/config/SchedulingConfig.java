@@ -0,0 +1,12 @@
+package com.ankurshala.backend.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Enables {@code @Scheduled} background jobs (cache resyncs, sweepers).
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
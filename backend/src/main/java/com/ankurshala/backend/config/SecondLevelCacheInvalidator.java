@@ -0,0 +1,230 @@
+package com.ankurshala.backend.config;
+
+import com.ankurshala.backend.entity.Board;
+import com.ankurshala.backend.entity.Chapter;
+import com.ankurshala.backend.entity.Grade;
+import com.ankurshala.backend.entity.Subject;
+import com.ankurshala.backend.service.ContentTaxonomyChangedEvent;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Cache;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.*;
+import org.hibernate.persister.entity.EntityPersister;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.*;
+
+/**
+ * Keeps the node-local second-level cache regions of the reference entities
+ * consistent across nodes.
+ *
+ * <p>Hibernate already updates the local regions on JPA writes. JDBC writers
+ * bypass Hibernate, so the ids carried by {@link ContentTaxonomyChangedEvent}
+ * are evicted locally as well. Changed ids are collected per transaction and,
+ * once it commits, published as one message on {@value #CHANNEL}; other nodes
+ * evict those ids and, once per message, the natural-id regions of the
+ * touched types and the query-result region. Changes outside a transaction
+ * are published right away.</p>
+ */
+@Component
+public class SecondLevelCacheInvalidator implements MessageListener,
+        PostInsertEventListener, PostUpdateEventListener, PostDeleteEventListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(SecondLevelCacheInvalidator.class);
+
+    static final String CHANNEL = "cache:second-level";
+
+    private static final Map<String, Class<?>> CACHED_ENTITIES = Map.of(
+            Board.class.getSimpleName(), Board.class,
+            Subject.class.getSimpleName(), Subject.class,
+            Grade.class.getSimpleName(), Grade.class,
+            Chapter.class.getSimpleName(), Chapter.class);
+
+    private final SessionFactoryImplementor sessionFactory;
+    private final StringRedisTemplate redisTemplate;
+    private final RedisMessageListenerContainer listenerContainer;
+    private final ObjectMapper objectMapper;
+
+    private final String nodeId = UUID.randomUUID().toString();
+
+    public SecondLevelCacheInvalidator(EntityManagerFactory entityManagerFactory,
+                                       StringRedisTemplate redisTemplate,
+                                       RedisMessageListenerContainer listenerContainer,
+                                       ObjectMapper objectMapper) {
+        this.sessionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+        this.redisTemplate = redisTemplate;
+        this.listenerContainer = listenerContainer;
+        this.objectMapper = objectMapper;
+    }
+
+    @PostConstruct
+    void register() {
+        EventListenerRegistry registry = sessionFactory.getServiceRegistry().getService(EventListenerRegistry.class);
+        registry.appendListeners(EventType.POST_INSERT, this);
+        registry.appendListeners(EventType.POST_UPDATE, this);
+        registry.appendListeners(EventType.POST_DELETE, this);
+        listenerContainer.addMessageListener(this, new ChannelTopic(CHANNEL));
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        changed(event.getPersister().getMappedClass(), Set.of(event.getId()), false);
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        changed(event.getPersister().getMappedClass(), Set.of(event.getId()), false);
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        changed(event.getPersister().getMappedClass(), Set.of(event.getId()), false);
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        return false;
+    }
+
+    /**
+     * Runs where the event is published, so JDBC changes join the writer's
+     * transaction batch.
+     */
+    @EventListener
+    public void onTaxonomyChanged(ContentTaxonomyChangedEvent event) {
+        changed(Board.class, event.getBoardIds(), true);
+        changed(Grade.class, event.getGradeIds(), true);
+        changed(Subject.class, event.getSubjectIds(), true);
+        changed(Chapter.class, event.getChapterIds(), true);
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        try {
+            EvictMessage evict = objectMapper.readValue(message.getBody(), EvictMessage.class);
+            if (nodeId.equals(evict.origin)) {
+                return;
+            }
+            Map<Class<?>, Set<?>> ids = new HashMap<>();
+            evict.ids.forEach((entity, entityIds) -> {
+                Class<?> type = CACHED_ENTITIES.get(entity);
+                if (type != null) {
+                    ids.put(type, new HashSet<>(entityIds));
+                }
+            });
+            evict(ids);
+        } catch (Exception e) {
+            logger.warn("Could not apply second-level cache eviction from another node: {}", e.getMessage());
+        }
+    }
+
+    private void changed(Class<?> type, Set<?> ids, boolean evictLocally) {
+        if (ids.isEmpty() || !CACHED_ENTITIES.containsValue(type)) {
+            return;
+        }
+        Batch batch = currentBatch();
+        if (batch == null) {
+            if (evictLocally) {
+                evict(Map.of(type, ids));
+            }
+            broadcast(Map.of(type, ids));
+            return;
+        }
+        batch.add(batch.broadcast, type, ids);
+        if (evictLocally) {
+            batch.add(batch.local, type, ids);
+        }
+    }
+
+    /**
+     * The transaction's batch, registered on first use; null outside a transaction.
+     */
+    private Batch currentBatch() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return null;
+        }
+        Batch batch = (Batch) TransactionSynchronizationManager.getResource(this);
+        if (batch == null) {
+            Batch created = new Batch();
+            TransactionSynchronizationManager.bindResource(this, created);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    if (!created.local.isEmpty()) {
+                        evict(created.local);
+                    }
+                    broadcast(created.broadcast);
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(SecondLevelCacheInvalidator.this);
+                }
+            });
+            batch = created;
+        }
+        return batch;
+    }
+
+    private void evict(Map<Class<?>, Set<?>> changed) {
+        Cache cache = sessionFactory.getCache();
+        changed.forEach((type, ids) -> {
+            ids.forEach(id -> cache.evictEntityData(type, id));
+            // Natural-id and query regions are keyed by value, not id
+            cache.evictNaturalIdData(type);
+        });
+        cache.evictDefaultQueryRegion();
+    }
+
+    private void broadcast(Map<Class<?>, Set<?>> changed) {
+        if (changed.isEmpty()) {
+            return;
+        }
+        try {
+            EvictMessage evict = new EvictMessage();
+            evict.origin = nodeId;
+            evict.ids = new HashMap<>();
+            changed.forEach((type, ids) -> evict.ids.put(type.getSimpleName(),
+                    ids.stream().map(id -> ((Number) id).longValue()).toList()));
+            redisTemplate.convertAndSend(CHANNEL, objectMapper.writeValueAsString(evict));
+        } catch (Exception e) {
+            // Other nodes fall back to the region TTL
+            logger.warn("Could not broadcast second-level cache eviction: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Ids changed in one transaction: all of them are broadcast, JDBC ones are
+     * also evicted locally.
+     */
+    private static class Batch {
+        final Map<Class<?>, Set<?>> broadcast = new HashMap<>();
+        final Map<Class<?>, Set<?>> local = new HashMap<>();
+
+        @SuppressWarnings("unchecked")
+        void add(Map<Class<?>, Set<?>> target, Class<?> type, Set<?> ids) {
+            ((Set<Object>) target.computeIfAbsent(type, t -> new HashSet<>())).addAll(ids);
+        }
+    }
+
+    /**
+     * Pub/sub payload: ids to evict by entity type, plus the publishing node.
+     */
+    static class EvictMessage {
+        public String origin;
+        public Map<String, List<Long>> ids = Map.of();
+    }
+}
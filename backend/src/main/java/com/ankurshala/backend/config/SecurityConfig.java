@@ -1,8 +1,11 @@
 package com.ankurshala.backend.config;
 
+import com.ankurshala.backend.security.BoundedPasswordEncoder;
 import com.ankurshala.backend.security.JwtAuthenticationEntryPoint;
 import com.ankurshala.backend.security.JwtAuthenticationFilter;
+import com.ankurshala.backend.security.PasswordHashingExecutor;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -32,9 +35,19 @@ public class SecurityConfig {
     @Autowired
     private JwtAuthenticationFilter jwtAuthenticationFilter;
 
+    @Value("${app.security.password-hashing.strength:12}")
+    private int bcryptStrength;
+
+    // 0 keeps the fixed strength; otherwise calibrate to this many ms per hash at startup
+    @Value("${app.security.password-hashing.target-ms:0}")
+    private long bcryptTargetMillis;
+
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder(12);
+    public PasswordEncoder passwordEncoder(PasswordHashingExecutor passwordHashingExecutor) {
+        int strength = bcryptTargetMillis > 0
+                ? BoundedPasswordEncoder.calibrateStrength(bcryptTargetMillis)
+                : bcryptStrength;
+        return new BoundedPasswordEncoder(new BCryptPasswordEncoder(strength), passwordHashingExecutor);
     }
 
     @Bean
@@ -51,6 +64,8 @@ public class SecurityConfig {
             .authorizeHttpRequests(auth -> auth
                 .requestMatchers("/auth/**", "/actuator/**").permitAll()
                 .requestMatchers("/test/**").permitAll()
+                // STOMP sessions authenticate on CONNECT (StompAuthenticationInterceptor)
+                .requestMatchers("/ws/**").permitAll()
                 .requestMatchers("/user/**").authenticated()
                 .requestMatchers("/student/**").hasRole("STUDENT")
                 .requestMatchers("/teacher/**").hasRole("TEACHER")
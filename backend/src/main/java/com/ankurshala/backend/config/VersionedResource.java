@@ -0,0 +1,24 @@
+package com.ankurshala.backend.config;
+
+import java.lang.annotation.*;
+
+/**
+ * Marks controller reads that answer conditional GETs from a
+ * {@link com.ankurshala.backend.service.ResourceVersionService} scope, see
+ * {@link ConditionalGetInterceptor}. Every GET under the annotated handler must
+ * depend only on data whose writes bump that scope.
+ */
+@Target({ElementType.TYPE, ElementType.METHOD})
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface VersionedResource {
+
+    Scope value();
+
+    enum Scope {
+        /** The content tree, shared by all callers. */
+        CONTENT,
+        /** Profile data of the signed-in user. */
+        CURRENT_USER
+    }
+}
@@ -0,0 +1,20 @@
+package com.ankurshala.backend.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+public class WebMvcConfig implements WebMvcConfigurer {
+
+    private final ConditionalGetInterceptor conditionalGetInterceptor;
+
+    public WebMvcConfig(ConditionalGetInterceptor conditionalGetInterceptor) {
+        this.conditionalGetInterceptor = conditionalGetInterceptor;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(conditionalGetInterceptor);
+    }
+}
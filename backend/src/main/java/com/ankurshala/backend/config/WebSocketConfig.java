@@ -0,0 +1,46 @@
+package com.ankurshala.backend.config;
+
+import com.ankurshala.backend.security.StompAuthenticationInterceptor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.messaging.simp.config.ChannelRegistration;
+import org.springframework.messaging.simp.config.MessageBrokerRegistry;
+import org.springframework.web.socket.config.annotation.EnableWebSocketMessageBroker;
+import org.springframework.web.socket.config.annotation.StompEndpointRegistry;
+import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerConfigurer;
+
+/**
+ * STOMP over WebSocket at {@code /api/ws} with an in-memory broker for
+ * {@code /topic}. Each node only reaches its own sessions; publishers that
+ * need every node (e.g. import progress) fan out over Redis first.
+ */
+@Configuration
+@EnableWebSocketMessageBroker
+public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
+
+    private final StompAuthenticationInterceptor stompAuthenticationInterceptor;
+    private final String[] allowedOrigins;
+
+    public WebSocketConfig(StompAuthenticationInterceptor stompAuthenticationInterceptor,
+                           @Value("${app.websocket.allowed-origins:http://localhost:3000}") String[] allowedOrigins) {
+        this.stompAuthenticationInterceptor = stompAuthenticationInterceptor;
+        this.allowedOrigins = allowedOrigins;
+    }
+
+    @Override
+    public void registerStompEndpoints(StompEndpointRegistry registry) {
+        registry.addEndpoint("/ws")
+                .setAllowedOriginPatterns(allowedOrigins);
+    }
+
+    @Override
+    public void configureMessageBroker(MessageBrokerRegistry registry) {
+        registry.enableSimpleBroker("/topic");
+        registry.setApplicationDestinationPrefixes("/app");
+    }
+
+    @Override
+    public void configureClientInboundChannel(ChannelRegistration registration) {
+        registration.interceptors(stompAuthenticationInterceptor);
+    }
+}
@@ -1,8 +1,16 @@
 package com.ankurshala.backend.controller;
 
+import com.ankurshala.backend.config.VersionedResource;
+import com.ankurshala.backend.dto.admin.CursorPage;
 import com.ankurshala.backend.dto.content.*;
 import com.ankurshala.backend.entity.*;
+import com.ankurshala.backend.service.ContentBulkUpdateService;
+import com.ankurshala.backend.service.ContentChangeLogService;
 import com.ankurshala.backend.service.ContentManagementService;
+import com.ankurshala.backend.service.ContentSearchService;
+import com.ankurshala.backend.service.ContentTreeStreamer;
+import com.ankurshala.backend.service.TaxonomyAutocompleteService;
+import com.ankurshala.backend.service.TopicGraphService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -10,16 +18,22 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import java.util.HashMap;
+import java.io.OutputStream;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.zip.GZIPOutputStream;
 
 @RestController
 @RequestMapping("/admin/content")
+@VersionedResource(VersionedResource.Scope.CONTENT)
 @CrossOrigin(origins = "http://localhost:3000", maxAge = 3600)
 @PreAuthorize("hasRole('ADMIN')")
 @RequiredArgsConstructor
@@ -27,6 +41,12 @@ import java.util.Map;
 public class AdminContentManagementController {
 
     private final ContentManagementService contentManagementService;
+    private final ContentBulkUpdateService contentBulkUpdateService;
+    private final ContentChangeLogService contentChangeLogService;
+    private final ContentTreeStreamer contentTreeStreamer;
+    private final ContentSearchService contentSearchService;
+    private final TaxonomyAutocompleteService taxonomyAutocompleteService;
+    private final TopicGraphService topicGraphService;
 
     // ============ BOARDS CRUD ============
     
@@ -49,6 +69,24 @@ public class AdminContentManagementController {
         return ResponseEntity.ok(boards);
     }
 
+    /**
+     * Keyset variant of {@code GET /boards}, selected by the {@code cursor}
+     * parameter (empty for the first slice). Subjects, chapters, topics and
+     * notes below follow the same convention.
+     */
+    @GetMapping(value = "/boards", params = "cursor")
+    public ResponseEntity<CursorPage<BoardDto>> getBoardsAfter(
+            @RequestParam String cursor,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(required = false) String search,
+            @RequestParam(required = false) Boolean active,
+            @RequestParam(defaultValue = "name") String sortBy,
+            @RequestParam(defaultValue = "asc") String sortDir) {
+
+        Sort.Direction direction = sortDir.equalsIgnoreCase("desc") ? Sort.Direction.DESC : Sort.Direction.ASC;
+        return ResponseEntity.ok(contentManagementService.getBoardsAfter(cursor, size, sortBy, direction, search, active));
+    }
+
     @PostMapping("/boards")
     public ResponseEntity<BoardDto> createBoard(@Valid @RequestBody CreateBoardRequest request) {
         BoardDto board = contentManagementService.createBoard(request);
@@ -101,6 +139,19 @@ public class AdminContentManagementController {
         return ResponseEntity.ok(subjects);
     }
 
+    @GetMapping(value = "/subjects", params = "cursor")
+    public ResponseEntity<CursorPage<SubjectDto>> getSubjectsAfter(
+            @RequestParam String cursor,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(required = false) String search,
+            @RequestParam(required = false) Boolean active,
+            @RequestParam(defaultValue = "name") String sortBy,
+            @RequestParam(defaultValue = "asc") String sortDir) {
+
+        Sort.Direction direction = sortDir.equalsIgnoreCase("desc") ? Sort.Direction.DESC : Sort.Direction.ASC;
+        return ResponseEntity.ok(contentManagementService.getSubjectsAfter(cursor, size, sortBy, direction, search, active));
+    }
+
     @PostMapping("/subjects")
     public ResponseEntity<SubjectDto> createSubject(@Valid @RequestBody CreateSubjectRequest request) {
         SubjectDto subject = contentManagementService.createSubject(request);
@@ -154,12 +205,35 @@ public class AdminContentManagementController {
         return ResponseEntity.ok(chapters);
     }
 
+    @GetMapping(value = "/chapters", params = "cursor")
+    public ResponseEntity<CursorPage<ChapterDto>> getChaptersAfter(
+            @RequestParam String cursor,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(required = false) String search,
+            @RequestParam(required = false) Boolean active,
+            @RequestParam(required = false) Long subjectId,
+            @RequestParam(defaultValue = "name") String sortBy,
+            @RequestParam(defaultValue = "asc") String sortDir) {
+
+        Sort.Direction direction = sortDir.equalsIgnoreCase("desc") ? Sort.Direction.DESC : Sort.Direction.ASC;
+        return ResponseEntity.ok(contentManagementService.getChaptersAfter(cursor, size, sortBy, direction, search, active, subjectId));
+    }
+
     @PostMapping("/chapters")
     public ResponseEntity<ChapterDto> createChapter(@Valid @RequestBody CreateChapterRequest request) {
         ChapterDto chapter = contentManagementService.createChapter(request);
         return ResponseEntity.ok(chapter);
     }
 
+    /**
+     * Bulk (de)activate, soft-delete, restore or move chapters selected by ids or a
+     * filter. Returns the matched and affected row counts.
+     */
+    @PostMapping("/chapters/bulk")
+    public ResponseEntity<Map<String, Object>> bulkUpdateChapters(@Valid @RequestBody BulkContentUpdateRequest request) {
+        return ResponseEntity.ok(contentBulkUpdateService.updateChapters(request));
+    }
+
     @PutMapping("/chapters/{id}")
     public ResponseEntity<ChapterDto> updateChapter(
             @PathVariable Long id, 
@@ -208,12 +282,53 @@ public class AdminContentManagementController {
         return ResponseEntity.ok(topics);
     }
 
+    /**
+     * Relevance-ranked topic search with highlighted snippets. Each word is
+     * matched as a prefix against title, summary and description.
+     */
+    @GetMapping("/topics/search")
+    public ResponseEntity<Page<ContentSearchResultDto>> searchTopics(
+            @RequestParam String q,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(required = false) Boolean active,
+            @RequestParam(required = false) Long chapterId) {
+
+        Pageable pageable = PageRequest.of(page, size);
+        return ResponseEntity.ok(contentSearchService.searchTopics(q, active, chapterId, pageable));
+    }
+
+    @GetMapping(value = "/topics", params = "cursor")
+    public ResponseEntity<CursorPage<TopicDto>> getTopicsAfter(
+            @RequestParam String cursor,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(required = false) String search,
+            @RequestParam(required = false) Boolean active,
+            @RequestParam(required = false) Long chapterId,
+            @RequestParam(required = false) Long subjectId,
+            @RequestParam(defaultValue = "title") String sortBy,
+            @RequestParam(defaultValue = "asc") String sortDir) {
+
+        Sort.Direction direction = sortDir.equalsIgnoreCase("desc") ? Sort.Direction.DESC : Sort.Direction.ASC;
+        return ResponseEntity.ok(
+            contentManagementService.getTopicsAfter(cursor, size, sortBy, direction, search, active, chapterId, subjectId));
+    }
+
     @PostMapping("/topics")
     public ResponseEntity<TopicDto> createTopic(@Valid @RequestBody CreateTopicRequest request) {
         TopicDto topic = contentManagementService.createTopic(request);
         return ResponseEntity.ok(topic);
     }
 
+    /**
+     * Bulk (de)activate, soft-delete, restore or move topics selected by ids or a
+     * filter. Returns the matched and affected row counts.
+     */
+    @PostMapping("/topics/bulk")
+    public ResponseEntity<Map<String, Object>> bulkUpdateTopics(@Valid @RequestBody BulkContentUpdateRequest request) {
+        return ResponseEntity.ok(contentBulkUpdateService.updateTopics(request));
+    }
+
     @PutMapping("/topics/{id}")
     public ResponseEntity<TopicDto> updateTopic(
             @PathVariable Long id, 
@@ -239,6 +354,63 @@ public class AdminContentManagementController {
         return ResponseEntity.ok(result);
     }
 
+    // ============ TOPIC LINKS ============
+
+    @GetMapping("/topics/{id}/prerequisites")
+    public ResponseEntity<List<TopicGraphNodeDto>> getTopicPrerequisites(
+            @PathVariable Long id,
+            @RequestParam(defaultValue = "false") boolean transitive) {
+        return ResponseEntity.ok(topicGraphService.getPrerequisites(id, transitive));
+    }
+
+    @GetMapping("/topics/{id}/dependents")
+    public ResponseEntity<List<TopicGraphNodeDto>> getTopicDependents(
+            @PathVariable Long id,
+            @RequestParam(defaultValue = "false") boolean transitive) {
+        return ResponseEntity.ok(topicGraphService.getDependents(id, transitive));
+    }
+
+    @GetMapping("/topics/{id}/related")
+    public ResponseEntity<List<TopicGraphNodeDto>> getRelatedTopics(@PathVariable Long id) {
+        return ResponseEntity.ok(topicGraphService.getRelated(id));
+    }
+
+    /**
+     * Adds a link; returns 400 when a prerequisite would create a cycle.
+     */
+    @PostMapping("/topics/{id}/links/{type}/{linkedTopicId}")
+    public ResponseEntity<Void> addTopicLink(
+            @PathVariable Long id,
+            @PathVariable TopicLink.TopicLinkType type,
+            @PathVariable Long linkedTopicId) {
+        topicGraphService.addLink(id, type, linkedTopicId);
+        return ResponseEntity.noContent().build();
+    }
+
+    @DeleteMapping("/topics/{id}/links/{type}/{linkedTopicId}")
+    public ResponseEntity<Void> removeTopicLink(
+            @PathVariable Long id,
+            @PathVariable TopicLink.TopicLinkType type,
+            @PathVariable Long linkedTopicId) {
+        topicGraphService.removeLink(id, type, linkedTopicId);
+        return ResponseEntity.noContent().build();
+    }
+
+    @GetMapping("/topics/{id}/learning-path")
+    public ResponseEntity<LearningPathDto> getTopicLearningPath(@PathVariable Long id) {
+        return ResponseEntity.ok(topicGraphService.getTopicLearningPath(id));
+    }
+
+    @GetMapping("/chapters/{id}/learning-path")
+    public ResponseEntity<LearningPathDto> getChapterLearningPath(@PathVariable Long id) {
+        return ResponseEntity.ok(topicGraphService.getChapterLearningPath(id));
+    }
+
+    @GetMapping("/subjects/{id}/learning-path")
+    public ResponseEntity<LearningPathDto> getSubjectLearningPath(@PathVariable Long id) {
+        return ResponseEntity.ok(topicGraphService.getSubjectLearningPath(id));
+    }
+
     // ============ TOPIC NOTES CRUD ============
     
     @GetMapping("/topics/{topicId}/notes")
@@ -261,6 +433,21 @@ public class AdminContentManagementController {
         return ResponseEntity.ok(notes);
     }
 
+    @GetMapping(value = "/topics/{topicId}/notes", params = "cursor")
+    public ResponseEntity<CursorPage<TopicNoteDto>> getTopicNotesAfter(
+            @PathVariable Long topicId,
+            @RequestParam String cursor,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(required = false) String search,
+            @RequestParam(required = false) Boolean active,
+            @RequestParam(defaultValue = "title") String sortBy,
+            @RequestParam(defaultValue = "asc") String sortDir) {
+
+        Sort.Direction direction = sortDir.equalsIgnoreCase("desc") ? Sort.Direction.DESC : Sort.Direction.ASC;
+        return ResponseEntity.ok(
+            contentManagementService.getTopicNotesAfter(cursor, size, sortBy, direction, search, active, topicId));
+    }
+
     @GetMapping("/notes")
     public ResponseEntity<Page<TopicNoteDto>> getAllTopicNotes(
             @RequestParam(defaultValue = "0") int page,
@@ -281,6 +468,63 @@ public class AdminContentManagementController {
         return ResponseEntity.ok(notes);
     }
 
+    /**
+     * Note list for list pages: size and a short excerpt instead of the body.
+     * Fetch a single note for its full content.
+     */
+    @GetMapping("/notes/summaries")
+    public ResponseEntity<Page<TopicNoteSummaryDto>> getTopicNoteSummaries(
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(required = false) String search,
+            @RequestParam(required = false) Boolean active,
+            @RequestParam(required = false) Long topicId,
+            @RequestParam(defaultValue = "title") String sortBy,
+            @RequestParam(defaultValue = "asc") String sortDir) {
+
+        Sort sort = sortDir.equalsIgnoreCase("desc") ?
+            Sort.by(sortBy).descending() :
+            Sort.by(sortBy).ascending();
+
+        Pageable pageable = PageRequest.of(page, size, sort);
+        return ResponseEntity.ok(contentManagementService.getTopicNoteSummaries(pageable, search, active, topicId));
+    }
+
+    @GetMapping("/notes/{id}")
+    public ResponseEntity<TopicNoteDto> getTopicNote(@PathVariable Long id) {
+        return ResponseEntity.ok(contentManagementService.getTopicNote(id));
+    }
+
+    /**
+     * Relevance-ranked note search with highlighted snippets from the note body.
+     */
+    @GetMapping("/notes/search")
+    public ResponseEntity<Page<ContentSearchResultDto>> searchTopicNotes(
+            @RequestParam String q,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(required = false) Boolean active,
+            @RequestParam(required = false) Long topicId) {
+
+        Pageable pageable = PageRequest.of(page, size);
+        return ResponseEntity.ok(contentSearchService.searchTopicNotes(q, active, topicId, pageable));
+    }
+
+    @GetMapping(value = "/notes", params = "cursor")
+    public ResponseEntity<CursorPage<TopicNoteDto>> getAllTopicNotesAfter(
+            @RequestParam String cursor,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(required = false) String search,
+            @RequestParam(required = false) Boolean active,
+            @RequestParam(required = false) Long topicId,
+            @RequestParam(defaultValue = "title") String sortBy,
+            @RequestParam(defaultValue = "asc") String sortDir) {
+
+        Sort.Direction direction = sortDir.equalsIgnoreCase("desc") ? Sort.Direction.DESC : Sort.Direction.ASC;
+        return ResponseEntity.ok(
+            contentManagementService.getTopicNotesAfter(cursor, size, sortBy, direction, search, active, topicId));
+    }
+
     @PostMapping("/topics/{topicId}/notes")
     public ResponseEntity<TopicNoteDto> createTopicNote(
             @PathVariable Long topicId,
@@ -335,8 +579,64 @@ public class AdminContentManagementController {
     
     @GetMapping("/content-tree")
     public ResponseEntity<Map<String, Object>> getContentTree() {
-        Map<String, Object> tree = new HashMap<>();
-        tree.put("test", "working");
-        return ResponseEntity.ok(tree);
+        return ResponseEntity.ok(contentManagementService.getContentTree());
+    }
+
+    /**
+     * Incremental sync: boards, subjects, chapters and topics changed after
+     * {@code since}, each once with its current state. Start from 0 and keep
+     * calling with {@code nextSince} while {@code hasMore} is true.
+     */
+    @GetMapping("/changes")
+    public ResponseEntity<ContentChangeFeedDto> getContentChanges(
+            @RequestParam(defaultValue = "0") long since,
+            @RequestParam(defaultValue = "1000") int limit) {
+        return ResponseEntity.ok(contentChangeLogService.getChanges(since, limit));
+    }
+
+    /**
+     * Picker autocomplete over board, subject, chapter and topic names, served
+     * from memory. Tolerates typos; each suggestion carries its hierarchy path.
+     */
+    @GetMapping("/autocomplete")
+    public ResponseEntity<List<TaxonomySuggestionDto>> autocomplete(
+            @RequestParam String q,
+            @RequestParam(required = false) Set<TaxonomyAutocompleteService.NodeType> types,
+            @RequestParam(defaultValue = "10") int limit) {
+        return ResponseEntity.ok(taxonomyAutocompleteService.suggest(q, types, limit));
+    }
+
+    /**
+     * Streaming variant of {@code /content-tree}: rows are written as they are read
+     * (chunked transfer), from the in-memory snapshot or, with {@code source=db},
+     * a database cursor. Gzipped when the client accepts it.
+     */
+    @GetMapping(value = "/content-tree", params = "stream=true")
+    public ResponseEntity<StreamingResponseBody> streamContentTree(
+            @RequestParam(defaultValue = "snapshot") String source,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+
+        boolean fromDatabase = "db".equalsIgnoreCase(source);
+        boolean gzip = acceptEncoding != null && acceptEncoding.toLowerCase().contains("gzip");
+
+        StreamingResponseBody body = outputStream -> {
+            OutputStream out = gzip ? new GZIPOutputStream(outputStream, 8192) : outputStream;
+            if (fromDatabase) {
+                contentTreeStreamer.writeFromDatabase(out);
+            } else {
+                contentTreeStreamer.writeFromSnapshot(out);
+            }
+            if (out instanceof GZIPOutputStream gzipStream) {
+                gzipStream.finish();
+            }
+        };
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+            .contentType(MediaType.APPLICATION_JSON)
+            .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return response.body(body);
     }
 }
\ No newline at end of file
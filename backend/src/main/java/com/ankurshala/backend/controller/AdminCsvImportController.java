@@ -1,7 +1,10 @@
 package com.ankurshala.backend.controller;
 
 import com.ankurshala.backend.entity.ImportJob;
+import com.ankurshala.backend.security.UserPrincipal;
 import com.ankurshala.backend.service.CsvContentImportService;
+import com.ankurshala.backend.service.ImportProgressService;
+import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
@@ -9,7 +12,13 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
 import java.util.Map;
 
 @RestController
@@ -21,15 +30,39 @@ public class AdminCsvImportController {
     @Autowired
     private CsvContentImportService csvImportService;
 
+    @Autowired
+    private ImportProgressService importProgressService;
+
+    /**
+     * Streams the CSV body to a spool file (never into memory) and queues it for import.
+     * {@code mode=copy} merges the whole file through the COPY staging table.
+     */
     @PostMapping(value = "/csv", consumes = "text/csv")
     public ResponseEntity<Map<String, Object>> uploadCsvContent(
-            @RequestBody byte[] csvContent,
+            InputStream csvContent,
             @RequestParam(defaultValue = "false") boolean dryRun,
+            @RequestParam(defaultValue = "batch") String mode,
             Authentication authentication) {
         
+        if (!"batch".equals(mode) && !"copy".equals(mode)) {
+            return ResponseEntity.badRequest()
+                .body(Map.of(
+                    "type", "https://ankurshala.com/problems/invalid-mode",
+                    "title", "Invalid Mode",
+                    "status", 400,
+                    "detail", "mode must be 'batch' or 'copy'",
+                    "instance", "/admin/content/import/csv"
+                ));
+        }
+
+        Path spool = null;
         try {
+            CsvContentImportService.SpooledFile upload = csvImportService.spool(csvContent);
+            spool = upload.path();
+            long fileSize = upload.size();
+
             // Validate content is not empty
-            if (csvContent == null || csvContent.length == 0) {
+            if (fileSize == 0) {
                 return ResponseEntity.badRequest()
                     .body(Map.of(
                         "type", "https://ankurshala.com/problems/invalid-file",
@@ -42,7 +75,7 @@ public class AdminCsvImportController {
             
             // Validate CSV headers synchronously before creating job
             try {
-                csvImportService.validateCsvHeaders(csvContent);
+                csvImportService.validateCsvHeaders(spool);
             } catch (IllegalArgumentException e) {
                 return ResponseEntity.badRequest()
                     .body(Map.of(
@@ -54,40 +87,28 @@ public class AdminCsvImportController {
                     ));
             }
             
-            // Get user ID from authentication
-            Long userId = null;
-            if (authentication != null && authentication.getPrincipal() instanceof org.springframework.security.core.userdetails.UserDetails) {
-                // This would need to be implemented based on your authentication setup
-                // For now, we'll proceed without user tracking
-            }
+            Long userId = authentication != null && authentication.getPrincipal() instanceof UserPrincipal principal
+                    ? principal.getId() : null;
             
             // Create import job
             ImportJob importJob = csvImportService.createImportJob(
                 "upload.csv", 
-                (long) csvContent.length,
+                fileSize,
                 userId
             );
             
-            // Process CSV content asynchronously
-            csvImportService.processFileAsync(importJob, csvContent, dryRun);
+            // The job owns the spool file from here on
+            csvImportService.processAsync(importJob.getId(), upload, dryRun, "copy".equals(mode));
+            spool = null;
             
             return ResponseEntity.ok(Map.of(
-                "message", dryRun ? "Dry run completed successfully" : "CSV uploaded and processing started",
+                "message", dryRun ? "Dry run started" : "CSV uploaded and processing started",
                 "jobId", importJob.getId(),
                 "status", importJob.getStatus().toString(),
-                "dryRun", dryRun
+                "dryRun", dryRun,
+                "mode", mode
             ));
             
-        } catch (IllegalArgumentException e) {
-            // Handle validation errors (missing headers, invalid data)
-            return ResponseEntity.badRequest()
-                .body(Map.of(
-                    "type", "https://ankurshala.com/problems/invalid-headers",
-                    "title", "Invalid Headers",
-                    "status", 400,
-                    "detail", e.getMessage(),
-                    "instance", "/admin/content/import/csv"
-                ));
         } catch (Exception e) {
             return ResponseEntity.internalServerError()
                 .body(Map.of(
@@ -97,6 +118,18 @@ public class AdminCsvImportController {
                     "detail", "Failed to process file: " + e.getMessage(),
                     "instance", "/admin/content/import/csv"
                 ));
+        } finally {
+            deleteSpool(spool);
+        }
+    }
+
+    private static void deleteSpool(Path spool) {
+        if (spool != null) {
+            try {
+                Files.deleteIfExists(spool);
+            } catch (IOException ignored) {
+                // Left in the spool directory; harmless
+            }
         }
     }
 
@@ -117,12 +150,55 @@ public class AdminCsvImportController {
 
     @GetMapping("/{jobId}")
     public ResponseEntity<Map<String, Object>> getImportJobStatus(@PathVariable Long jobId) {
-        // This would need to be implemented to fetch job details
-        // For now, return a placeholder response
+        ImportJob job = csvImportService.getImportJob(jobId);
+
+        Map<String, Object> body = new HashMap<>();
+        body.put("jobId", job.getId());
+        body.put("status", job.getStatus().toString());
+        body.put("totalRows", job.getTotalRows());
+        body.put("successRows", job.getSuccessRows());
+        body.put("errorRows", job.getErrorRows());
+        body.put("checkpointRows", job.getCheckpointRows());
+        body.put("stats", job.getStats());
+        body.put("errors", job.getErrors());
+        body.put("errorMessage", job.getErrorMessage());
+        body.put("startedAt", job.getStartedAt());
+        body.put("completedAt", job.getCompletedAt());
+        return ResponseEntity.ok(body);
+    }
+
+    /**
+     * Live progress of a job as Server-Sent Events ({@code progress} events),
+     * ending after the job finishes. The same events go to the STOMP topic
+     * {@code /topic/admin/imports/{jobId}}.
+     */
+    @GetMapping(value = "/{jobId}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamImportProgress(@PathVariable Long jobId, HttpServletResponse response) {
+        ImportJob job = csvImportService.getImportJob(jobId);
+        // Let nginx pass events through as they are sent
+        response.setHeader("X-Accel-Buffering", "no");
+        return importProgressService.subscribe(csvImportService.getProgress(job));
+    }
+
+    /**
+     * Resumes an interrupted job from its checkpoint on this node. Stale jobs
+     * are also picked up automatically; this skips the wait for the next scan.
+     */
+    @PostMapping("/{jobId}/resume")
+    public ResponseEntity<Map<String, Object>> resumeImportJob(@PathVariable Long jobId) {
+        if (!csvImportService.resume(jobId)) {
+            return ResponseEntity.status(409)
+                .body(Map.of(
+                    "type", "https://ankurshala.com/problems/not-resumable",
+                    "title", "Not Resumable",
+                    "status", 409,
+                    "detail", "Job is not interrupted, or its spooled file is not on this node",
+                    "instance", "/admin/content/import/" + jobId + "/resume"
+                ));
+        }
         return ResponseEntity.ok(Map.of(
-            "jobId", jobId,
-            "status", "SUCCEEDED",
-            "message", "Import job details endpoint - to be implemented"
+            "message", "Import resumed",
+            "jobId", jobId
         ));
     }
 
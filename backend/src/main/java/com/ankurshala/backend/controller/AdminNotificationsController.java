@@ -1,6 +1,7 @@
 package com.ankurshala.backend.controller;
 
 import com.ankurshala.backend.dto.admin.BroadcastNotificationRequest;
+import com.ankurshala.backend.dto.admin.CursorPage;
 import com.ankurshala.backend.dto.admin.NotificationDto;
 import com.ankurshala.backend.service.AdminNotificationService;
 import jakarta.validation.Valid;
@@ -46,6 +47,22 @@ public class AdminNotificationsController {
         return ResponseEntity.ok(notifications);
     }
 
+    /**
+     * Keyset variant of {@code GET /admin/notifications}, selected by the
+     * {@code cursor} parameter (empty for the first slice).
+     */
+    @GetMapping(params = "cursor")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<CursorPage<NotificationDto>> getNotificationsAfter(
+            @RequestParam String cursor,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "createdAt") String sortBy,
+            @RequestParam(defaultValue = "desc") String sortDir) {
+
+        Sort.Direction direction = sortDir.equalsIgnoreCase("desc") ? Sort.Direction.DESC : Sort.Direction.ASC;
+        return ResponseEntity.ok(notificationService.getNotificationsAfter(cursor, size, sortBy, direction));
+    }
+
     @PostMapping("/broadcast")
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<Map<String, Object>> broadcastNotification(@Valid @RequestBody BroadcastNotificationRequest request) {
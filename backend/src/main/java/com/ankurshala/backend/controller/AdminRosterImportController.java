@@ -0,0 +1,81 @@
+package com.ankurshala.backend.controller;
+
+import com.ankurshala.backend.entity.ImportJob;
+import com.ankurshala.backend.entity.Role;
+import com.ankurshala.backend.security.UserPrincipal;
+import com.ankurshala.backend.service.RosterProvisioningService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.HashMap;
+import java.util.Map;
+
+// NOTE: server.servlet.context-path=/api is set for the app.
+// Therefore controller @RequestMapping must NOT start with "/api".
+@RestController
+@RequestMapping("/admin/users/import")
+@CrossOrigin(origins = "http://localhost:3000", maxAge = 3600)
+@PreAuthorize("hasRole('ADMIN')")
+public class AdminRosterImportController {
+
+    @Autowired
+    private RosterProvisioningService rosterProvisioningService;
+
+    /**
+     * Provisions one account per roster row ({@code name,email,password}) for the given role.
+     */
+    @PostMapping(value = "/csv", consumes = "text/csv")
+    public ResponseEntity<Map<String, Object>> uploadRoster(
+            @RequestBody byte[] csvContent,
+            @RequestParam Role role,
+            @RequestParam(defaultValue = "roster.csv") String fileName,
+            Authentication authentication) {
+
+        if (csvContent == null || csvContent.length == 0) {
+            return ResponseEntity.badRequest()
+                .body(Map.of(
+                    "type", "https://ankurshala.com/problems/invalid-file",
+                    "title", "Invalid File",
+                    "status", 400,
+                    "detail", "CSV content is empty",
+                    "instance", "/admin/users/import/csv"
+                ));
+        }
+
+        // Throws IllegalArgumentException (400) for missing headers
+        rosterProvisioningService.validateHeaders(csvContent);
+
+        Long userId = authentication != null && authentication.getPrincipal() instanceof UserPrincipal principal
+                ? principal.getId() : null;
+        ImportJob importJob = rosterProvisioningService.createJob(fileName, csvContent.length, role, userId);
+        rosterProvisioningService.processAsync(importJob.getId(), csvContent, role);
+
+        return ResponseEntity.accepted().body(Map.of(
+            "message", "Roster uploaded and provisioning started",
+            "jobId", importJob.getId(),
+            "status", importJob.getStatus().toString(),
+            "role", role.name()
+        ));
+    }
+
+    @GetMapping("/{jobId}")
+    public ResponseEntity<Map<String, Object>> getRosterJob(@PathVariable Long jobId) {
+        ImportJob job = rosterProvisioningService.getJob(jobId);
+
+        Map<String, Object> body = new HashMap<>();
+        body.put("jobId", job.getId());
+        body.put("status", job.getStatus().toString());
+        body.put("totalRows", job.getTotalRows());
+        body.put("successRows", job.getSuccessRows());
+        body.put("errorRows", job.getErrorRows());
+        body.put("stats", job.getStats());
+        body.put("errors", job.getErrors());
+        body.put("errorMessage", job.getErrorMessage());
+        body.put("startedAt", job.getStartedAt());
+        body.put("completedAt", job.getCompletedAt());
+        return ResponseEntity.ok(body);
+    }
+}
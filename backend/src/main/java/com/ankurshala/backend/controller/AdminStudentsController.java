@@ -1,5 +1,6 @@
 package com.ankurshala.backend.controller;
 
+import com.ankurshala.backend.dto.admin.CursorPage;
 import com.ankurshala.backend.dto.admin.StudentDetailDto;
 import com.ankurshala.backend.dto.admin.StudentListDto;
 import com.ankurshala.backend.dto.admin.StudentUpdateDto;
@@ -60,6 +61,30 @@ public class AdminStudentsController {
         
         return ResponseEntity.ok(students);
     }
+
+    /**
+     * Keyset variant of {@code GET /admin/students}, selected by the {@code cursor}
+     * parameter (empty for the first slice). Sortable by createdAt, firstName,
+     * email or id.
+     */
+    @GetMapping(params = "cursor")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<CursorPage<StudentListDto>> getStudentsAfter(
+            @RequestParam String cursor,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "createdAt") String sortBy,
+            @RequestParam(defaultValue = "desc") String sortDir,
+            @RequestParam(required = false) String search,
+            @RequestParam(required = false) Boolean enabled,
+            @RequestParam(required = false) EducationalBoard educationalBoard,
+            @RequestParam(required = false) ClassLevel classLevel) {
+
+        Sort.Direction direction = sortDir.equalsIgnoreCase("desc") ? Sort.Direction.DESC : Sort.Direction.ASC;
+        String sortField = "id".equals(sortBy) ? sortBy : validateSortField(sortBy);
+
+        return ResponseEntity.ok(adminStudentService.getStudentsAfter(
+                cursor, size, sortField, direction, search, enabled, educationalBoard, classLevel));
+    }
     
     /**
      * Validates the sort field against the whitelist and maps frontend fields to backend fields
@@ -1,5 +1,6 @@
 package com.ankurshala.backend.controller;
 
+import com.ankurshala.backend.dto.admin.CursorPage;
 import com.ankurshala.backend.dto.admin.TeacherDetailDto;
 import com.ankurshala.backend.dto.admin.TeacherListDto;
 import com.ankurshala.backend.entity.TeacherStatus;
@@ -57,6 +58,29 @@ public class AdminTeachersController {
         return ResponseEntity.ok(teachers);
     }
 
+    /**
+     * Keyset variant of {@code GET /admin/teachers}, selected by the {@code cursor}
+     * parameter (empty for the first slice). Sortable by createdAt, email or id.
+     */
+    @GetMapping(params = "cursor")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<CursorPage<TeacherListDto>> getTeachersAfter(
+            @RequestParam String cursor,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "createdAt") String sortBy,
+            @RequestParam(defaultValue = "desc") String sortDir,
+            @RequestParam(required = false) String search,
+            @RequestParam(required = false) Boolean enabled,
+            @RequestParam(required = false) TeacherStatus status,
+            @RequestParam(required = false) Boolean verified) {
+
+        Sort.Direction direction = sortDir.equalsIgnoreCase("desc") ? Sort.Direction.DESC : Sort.Direction.ASC;
+        String sortField = "email".equalsIgnoreCase(sortBy) ? "user.email" : sortBy;
+
+        return ResponseEntity.ok(adminTeacherService.getTeachersAfter(
+                cursor, size, sortField, direction, search, enabled, status, verified));
+    }
+
     @GetMapping("/{id}")
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<TeacherDetailDto> getTeacher(@PathVariable Long id) {
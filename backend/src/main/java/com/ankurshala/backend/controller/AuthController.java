@@ -5,8 +5,10 @@ import com.ankurshala.backend.dto.auth.RefreshTokenRequest;
 import com.ankurshala.backend.dto.auth.SigninRequest;
 import com.ankurshala.backend.dto.auth.SignupRequest;
 import com.ankurshala.backend.service.AuthService;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -33,8 +35,9 @@ public class AuthController {
     }
 
     @PostMapping("/signin")
-    public ResponseEntity<AuthResponse> signin(@Valid @RequestBody SigninRequest signinRequest) {
-        AuthResponse response = authService.signin(signinRequest);
+    public ResponseEntity<AuthResponse> signin(@Valid @RequestBody SigninRequest signinRequest,
+                                               HttpServletRequest request) {
+        AuthResponse response = authService.signin(signinRequest, request.getRemoteAddr());
         return ResponseEntity.ok(response);
     }
 
@@ -45,8 +48,11 @@ public class AuthController {
     }
 
     @PostMapping("/logout")
-    public ResponseEntity<Void> logout(@RequestBody RefreshTokenRequest refreshTokenRequest) {
-        authService.logout(refreshTokenRequest.getRefreshToken());
+    public ResponseEntity<Void> logout(@RequestBody RefreshTokenRequest refreshTokenRequest,
+                                       @RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) String authorization) {
+        String accessToken = authorization != null && authorization.startsWith("Bearer ")
+                ? authorization.substring(7) : null;
+        authService.logout(refreshTokenRequest.getRefreshToken(), accessToken);
         return ResponseEntity.ok().build();
     }
 }
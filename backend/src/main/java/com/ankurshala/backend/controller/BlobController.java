@@ -0,0 +1,177 @@
+package com.ankurshala.backend.controller;
+
+import com.ankurshala.backend.dto.BlobDto;
+import com.ankurshala.backend.entity.Role;
+import com.ankurshala.backend.exception.ResourceNotFoundException;
+import com.ankurshala.backend.security.UserPrincipal;
+import com.ankurshala.backend.service.BlobStorageService;
+import com.ankurshala.backend.service.BlobStorageService.StoredBlob;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Set;
+
+// NOTE: server.servlet.context-path=/api is set for the app.
+// Therefore controller @RequestMapping must NOT start with "/api".
+@RestController
+@RequestMapping("/blobs")
+@CrossOrigin(origins = "http://localhost:3000", maxAge = 3600)
+public class BlobController {
+
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    // Uploaders choose the Content-Type; only these are rendered by the browser
+    private static final Set<MediaType> INLINE_TYPES = Set.of(
+            MediaType.IMAGE_PNG, MediaType.IMAGE_JPEG, MediaType.IMAGE_GIF,
+            MediaType.parseMediaType("image/webp"), MediaType.APPLICATION_PDF);
+    // No scripts or plugins; Chromium will not render PDFs in a sandboxed document
+    private static final String BLOB_POLICY = "default-src 'none'; img-src 'self'; style-src 'unsafe-inline'";
+
+    @Autowired
+    private BlobStorageService blobStorageService;
+
+    /**
+     * Stores an uploaded file; the returned URL goes into document, photo or
+     * attachment fields. Students and teachers are held to a daily quota.
+     */
+    @PostMapping(consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    @PreAuthorize("hasAnyRole('STUDENT', 'TEACHER', 'ADMIN')")
+    public ResponseEntity<BlobDto> upload(@RequestParam("file") MultipartFile file,
+                                          Authentication authentication) throws IOException {
+        UserPrincipal principal = (UserPrincipal) authentication.getPrincipal();
+        if (file.isEmpty()) {
+            throw new IllegalArgumentException("Uploaded file is empty");
+        }
+        boolean enforceQuota = principal.getRole() != Role.ADMIN;
+        if (enforceQuota) {
+            // Rejects before the body is copied; the size is checked again once stored
+            blobStorageService.checkQuota(principal.getId(), file.getSize());
+        }
+        try (InputStream in = file.getInputStream()) {
+            return ResponseEntity.ok(blobStorageService.store(in, file.getContentType(), principal.getId(), enforceQuota));
+        }
+    }
+
+    /**
+     * Serves a blob, honouring a single byte range. The body is sent with
+     * Tomcat's sendfile when the connector supports it, otherwise with
+     * {@link FileChannel#transferTo}; neither buffers the file. Only admins
+     * and users allowed by {@link BlobStorageService#canRead} get the blob;
+     * everyone else gets a 404, so hashes cannot be probed. Images and PDFs
+     * are shown inline; anything else, such as uploaded HTML or SVG, is sent
+     * as an {@code application/octet-stream} attachment so it never runs on
+     * the app origin.
+     */
+    @GetMapping("/{sha256}")
+    @PreAuthorize("isAuthenticated()")
+    public void download(@PathVariable String sha256,
+                         Authentication authentication,
+                         HttpServletRequest request,
+                         HttpServletResponse response) throws IOException {
+        UserPrincipal principal = (UserPrincipal) authentication.getPrincipal();
+        StoredBlob blob = blobStorageService.get(sha256);
+        if (principal.getRole() != Role.ADMIN && !blobStorageService.canRead(blob.sha256(), principal.getId())) {
+            throw new ResourceNotFoundException("Blob not found: " + sha256);
+        }
+        // Content-addressed, so the hash is a strong validator and the body never changes
+        String etag = "\"" + blob.sha256() + "\"";
+        if (new ServletWebRequest(request, response).checkNotModified(etag)) {
+            return;
+        }
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "private, max-age=31536000, immutable");
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        MediaType inlineType = inlineType(blob.contentType());
+        if (inlineType != null) {
+            response.setContentType(inlineType.toString());
+            response.setHeader(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.inline().build().toString());
+            response.setHeader("Content-Security-Policy",
+                    MediaType.APPLICATION_PDF.equals(inlineType) ? BLOB_POLICY : BLOB_POLICY + "; sandbox");
+        } else {
+            response.setContentType(MediaType.APPLICATION_OCTET_STREAM_VALUE);
+            response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                    ContentDisposition.attachment().filename(blob.sha256()).build().toString());
+            response.setHeader("Content-Security-Policy", BLOB_POLICY + "; sandbox");
+        }
+
+        long length = blob.sizeBytes();
+        long start = 0;
+        long end = length - 1;
+        String range = request.getHeader(HttpHeaders.RANGE);
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        if (range != null && (ifRange == null || ifRange.equals(etag))) {
+            try {
+                List<HttpRange> ranges = HttpRange.parseRanges(range);
+                // Multiple ranges are answered with the whole body, which RFC 9110 allows
+                if (ranges.size() == 1) {
+                    start = ranges.get(0).getRangeStart(length);
+                    end = ranges.get(0).getRangeEnd(length);
+                    response.setStatus(HttpStatus.PARTIAL_CONTENT.value());
+                    response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + length);
+                }
+            } catch (IllegalArgumentException e) {
+                response.setStatus(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE.value());
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + length);
+                return;
+            }
+        }
+
+        long count = end - start + 1;
+        response.setContentLengthLong(count);
+        if ("HEAD".equals(request.getMethod()) || count <= 0) {
+            return;
+        }
+        if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+            request.setAttribute(SENDFILE_FILENAME, blob.path().toRealPath().toString());
+            request.setAttribute(SENDFILE_START, start);
+            request.setAttribute(SENDFILE_END, end + 1);
+            return;
+        }
+        try (FileChannel channel = FileChannel.open(blob.path(), StandardOpenOption.READ)) {
+            WritableByteChannel out = Channels.newChannel(response.getOutputStream());
+            long position = start;
+            while (position <= end) {
+                long sent = channel.transferTo(position, end + 1 - position, out);
+                if (sent <= 0) {
+                    break;
+                }
+                position += sent;
+            }
+        }
+    }
+
+    private static MediaType inlineType(String contentType) {
+        if (contentType == null) {
+            return null;
+        }
+        try {
+            MediaType type = MediaType.parseMediaType(contentType);
+            MediaType bare = new MediaType(type.getType(), type.getSubtype());
+            return INLINE_TYPES.contains(bare) ? bare : null;
+        } catch (InvalidMediaTypeException e) {
+            return null;
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.ankurshala.backend.controller;
 
+import com.ankurshala.backend.config.VersionedResource;
 import com.ankurshala.backend.dto.student.StudentDocumentDto;
 import com.ankurshala.backend.dto.student.StudentProfileDto;
 import com.ankurshala.backend.security.UserPrincipal;
@@ -18,6 +19,7 @@ import java.util.List;
 @CrossOrigin(origins = "http://localhost:3000", maxAge = 3600)
 @RestController
 @RequestMapping("/student")
+@VersionedResource(VersionedResource.Scope.CURRENT_USER)
 @PreAuthorize("hasRole('STUDENT')")
 public class StudentProfileController {
 
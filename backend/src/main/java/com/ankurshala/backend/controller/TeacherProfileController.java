@@ -1,5 +1,6 @@
 package com.ankurshala.backend.controller;
 
+import com.ankurshala.backend.config.VersionedResource;
 import com.ankurshala.backend.dto.teacher.*;
 import com.ankurshala.backend.security.UserPrincipal;
 import com.ankurshala.backend.service.TeacherProfileService;
@@ -17,6 +18,7 @@ import java.util.List;
 @CrossOrigin(origins = "http://localhost:3000", maxAge = 3600)
 @RestController
 @RequestMapping("/teacher")
+@VersionedResource(VersionedResource.Scope.CURRENT_USER)
 @PreAuthorize("hasRole('TEACHER')")
 public class TeacherProfileController {
 
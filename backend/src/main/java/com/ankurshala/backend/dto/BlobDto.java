@@ -0,0 +1,15 @@
+package com.ankurshala.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BlobDto {
+    private String sha256;
+    private String url; // value to store in document, photo or attachment fields
+    private Long sizeBytes;
+    private String contentType;
+}
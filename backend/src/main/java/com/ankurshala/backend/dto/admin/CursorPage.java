@@ -0,0 +1,21 @@
+package com.ankurshala.backend.dto.admin;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * One slice of a keyset-paginated list. Pass {@code nextCursor} back as
+ * {@code cursor} to get the following slice; it is null on the last one.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CursorPage<T> {
+    private List<T> content;
+    private int size;
+    private boolean hasNext;
+    private String nextCursor;
+}
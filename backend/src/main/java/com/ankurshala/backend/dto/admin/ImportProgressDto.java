@@ -0,0 +1,23 @@
+package com.ankurshala.backend.dto.admin;
+
+import com.ankurshala.backend.entity.ImportJobStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Live progress of an import job, pushed over STOMP and SSE while it runs.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImportProgressDto {
+    private Long jobId;
+    private ImportJobStatus status;
+    private Integer parsedRows;
+    private Integer writtenRows;
+    private Integer errorRows;
+    private Double percent; // of the file read so far; null when unknown
+    private Long rowsPerSecond;
+    private Long etaSeconds; // null until there is enough progress to estimate
+}
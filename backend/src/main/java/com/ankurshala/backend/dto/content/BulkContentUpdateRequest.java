@@ -0,0 +1,43 @@
+package com.ankurshala.backend.dto.content;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Bulk change to chapters or topics. Targets either explicit {@code ids} or
+ * every row matching {@code filter}, never both.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkContentUpdateRequest {
+
+    public enum Action { ACTIVATE, DEACTIVATE, SOFT_DELETE, RESTORE, MOVE }
+
+    @NotNull(message = "Action is required")
+    private Action action;
+
+    @Size(max = 100000, message = "At most 100000 ids per request")
+    private List<Long> ids;
+
+    @Valid
+    private Filter filter;
+
+    // New parent for MOVE: a subject for chapters, a chapter for topics
+    private Long targetParentId;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Filter {
+        private Long subjectId;
+        private Long chapterId; // topics only
+        private Boolean active;
+    }
+}
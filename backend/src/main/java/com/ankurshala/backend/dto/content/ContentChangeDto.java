@@ -0,0 +1,16 @@
+package com.ankurshala.backend.dto.content;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ContentChangeDto {
+    private Long seq; // latest change to this entity
+    private String type; // BOARD, SUBJECT, CHAPTER or TOPIC
+    private Long id;
+    private String op; // UPSERT or DELETE
+    private Object data; // current BoardDto/SubjectDto/ChapterDto/TopicDto, null for DELETE
+}
@@ -0,0 +1,17 @@
+package com.ankurshala.backend.dto.content;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ContentChangeFeedDto {
+    private Long since;
+    private Long nextSince; // pass as since on the next call
+    private Boolean hasMore;
+    private List<ContentChangeDto> changes; // one entry per entity, oldest change first
+}
@@ -0,0 +1,17 @@
+package com.ankurshala.backend.dto.content;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ContentSearchResultDto {
+    private Long id;
+    private String title;
+    private String snippet; // matched terms wrapped in <mark>
+    private Long parentId; // chapter for topics, topic for notes
+    private String parentTitle;
+    private Double rank;
+}
@@ -0,0 +1,18 @@
+package com.ankurshala.backend.dto.content;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LearningPathDto {
+    private String scope; // TOPIC, CHAPTER or SUBJECT
+    private Long scopeId;
+    private List<TopicGraphNodeDto> topics; // every topic after its prerequisites
+    private Integer totalExpectedTimeMins;
+    private List<Long> cyclicTopicIds; // topics in a prerequisite cycle, left out of the order
+}
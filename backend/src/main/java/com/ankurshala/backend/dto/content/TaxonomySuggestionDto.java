@@ -0,0 +1,18 @@
+package com.ankurshala.backend.dto.content;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TaxonomySuggestionDto {
+    private String type; // BOARD, SUBJECT, CHAPTER or TOPIC
+    private Long id;
+    private String name;
+    private List<String> path; // ancestor names, outermost first
+    private Double score;
+}
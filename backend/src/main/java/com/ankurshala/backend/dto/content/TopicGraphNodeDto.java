@@ -0,0 +1,17 @@
+package com.ankurshala.backend.dto.content;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TopicGraphNodeDto {
+    private Long id;
+    private String title;
+    private String code;
+    private Long chapterId;
+    private String chapterName;
+    private Integer expectedTimeMins;
+}
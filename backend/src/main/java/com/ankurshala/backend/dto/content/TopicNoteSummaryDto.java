@@ -0,0 +1,21 @@
+package com.ankurshala.backend.dto.content;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TopicNoteSummaryDto {
+    private Long id;
+    private String title;
+    private Long topicId;
+    private String topicTitle;
+    private Integer sizeBytes; // uncompressed body size
+    private String excerpt; // first characters of the body
+    private Boolean active;
+    private LocalDateTime updatedAt;
+}
@@ -56,6 +56,26 @@ public class ImportJob {
     @Column(name = "error_message", columnDefinition = "TEXT")
     private String errorMessage;
 
+    @Column(name = "import_mode")
+    private String importMode; // BATCH, COPY, DRY_RUN
+
+    // Kept until the job finishes so an interrupted job can resume from it
+    @Column(name = "spool_path")
+    @JsonIgnore
+    private String spoolPath;
+
+    @Column(name = "file_sha256")
+    private String fileSha256;
+
+    @Column(name = "checkpoint_rows", nullable = false)
+    private Integer checkpointRows = 0;
+
+    @Column(name = "checkpoint_success_rows", nullable = false)
+    private Integer checkpointSuccessRows = 0;
+
+    @Column(name = "checkpoint_error_rows", nullable = false)
+    private Integer checkpointErrorRows = 0;
+
     @Column(name = "started_at")
     private LocalDateTime startedAt;
 
@@ -124,6 +144,24 @@ public class ImportJob {
     public String getErrorMessage() { return errorMessage; }
     public void setErrorMessage(String errorMessage) { this.errorMessage = errorMessage; }
 
+    public String getImportMode() { return importMode; }
+    public void setImportMode(String importMode) { this.importMode = importMode; }
+
+    public String getSpoolPath() { return spoolPath; }
+    public void setSpoolPath(String spoolPath) { this.spoolPath = spoolPath; }
+
+    public String getFileSha256() { return fileSha256; }
+    public void setFileSha256(String fileSha256) { this.fileSha256 = fileSha256; }
+
+    public Integer getCheckpointRows() { return checkpointRows; }
+    public void setCheckpointRows(Integer checkpointRows) { this.checkpointRows = checkpointRows; }
+
+    public Integer getCheckpointSuccessRows() { return checkpointSuccessRows; }
+    public void setCheckpointSuccessRows(Integer checkpointSuccessRows) { this.checkpointSuccessRows = checkpointSuccessRows; }
+
+    public Integer getCheckpointErrorRows() { return checkpointErrorRows; }
+    public void setCheckpointErrorRows(Integer checkpointErrorRows) { this.checkpointErrorRows = checkpointErrorRows; }
+
     public LocalDateTime getStartedAt() { return startedAt; }
     public void setStartedAt(LocalDateTime startedAt) { this.startedAt = startedAt; }
 
@@ -19,6 +19,9 @@ public class RefreshToken {
     @Column(name = "token_hash", nullable = false)
     private String tokenHash;
 
+    @Column(name = "family_id", nullable = false, length = 36)
+    private String familyId;
+
     @Column(name = "expires_at", nullable = false)
     private LocalDateTime expiresAt;
 
@@ -31,9 +34,10 @@ public class RefreshToken {
 
     public RefreshToken() {}
 
-    public RefreshToken(User user, String tokenHash, LocalDateTime expiresAt) {
+    public RefreshToken(User user, String tokenHash, String familyId, LocalDateTime expiresAt) {
         this.user = user;
         this.tokenHash = tokenHash;
+        this.familyId = familyId;
         this.expiresAt = expiresAt;
     }
 
@@ -62,6 +66,14 @@ public class RefreshToken {
         this.tokenHash = tokenHash;
     }
 
+    public String getFamilyId() {
+        return familyId;
+    }
+
+    public void setFamilyId(String familyId) {
+        this.familyId = familyId;
+    }
+
     public LocalDateTime getExpiresAt() {
         return expiresAt;
     }
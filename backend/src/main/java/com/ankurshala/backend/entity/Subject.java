@@ -1,7 +1,11 @@
 package com.ankurshala.backend.entity;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
 import org.hibernate.annotations.UpdateTimestamp;
 
 import java.time.LocalDateTime;
@@ -10,11 +14,15 @@ import java.util.List;
 
 @Entity
 @Table(name = "subjects")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "reference.subject")
+@NaturalIdCache(region = "reference.subject.by-name")
 public class Subject {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
+    @NaturalId(mutable = true)
     @Column(name = "name", nullable = false, unique = true, length = 100)
     private String name;
 
@@ -1,21 +1,22 @@
 package com.ankurshala.backend.repository;
 
 import com.ankurshala.backend.entity.Board;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
-import java.util.Optional;
 
 @Repository
-public interface BoardRepository extends JpaRepository<Board, Long>, JpaSpecificationExecutor<Board> {
-    Optional<Board> findByName(String name);
-    
+public interface BoardRepository extends JpaRepository<Board, Long>, JpaSpecificationExecutor<Board>, BoardRepositoryCustom {
+
     @Query("SELECT b FROM Board b WHERE " +
            "(:search IS NULL OR :search = '' OR LOWER(b.name) LIKE LOWER(CONCAT('%', :search, '%'))) AND " +
            "(:active IS NULL OR b.active = :active)")
@@ -27,5 +28,6 @@ public interface BoardRepository extends JpaRepository<Board, Long>, JpaSpecific
     long countByActiveTrue();
     
     // Find active boards for tree structure
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"))
     List<Board> findByActiveTrue();
 }
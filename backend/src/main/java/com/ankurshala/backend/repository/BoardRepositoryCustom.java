@@ -0,0 +1,9 @@
+package com.ankurshala.backend.repository;
+
+import com.ankurshala.backend.entity.Board;
+
+import java.util.Optional;
+
+public interface BoardRepositoryCustom {
+    Optional<Board> findByName(String name);
+}
@@ -0,0 +1,17 @@
+package com.ankurshala.backend.repository;
+
+import com.ankurshala.backend.entity.Board;
+
+import java.util.Optional;
+
+public class BoardRepositoryCustomImpl extends NaturalIdRepositorySupport<Board> implements BoardRepositoryCustom {
+
+    public BoardRepositoryCustomImpl() {
+        super(Board.class);
+    }
+
+    @Override
+    public Optional<Board> findByName(String name) {
+        return findByNaturalId(name);
+    }
+}
@@ -8,12 +8,10 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
-import java.util.Optional;
 
 @Repository
-public interface GradeRepository extends JpaRepository<Grade, Long> {
-    Optional<Grade> findByName(String name);
-    
+public interface GradeRepository extends JpaRepository<Grade, Long>, GradeRepositoryCustom {
+
     @Query("SELECT g FROM Grade g WHERE " +
            "(:search IS NULL OR :search = '' OR LOWER(g.name) LIKE LOWER(CONCAT('%', :search, '%')) OR LOWER(g.displayName) LIKE LOWER(CONCAT('%', :search, '%'))) AND " +
            "(:active IS NULL OR g.active = :active)")
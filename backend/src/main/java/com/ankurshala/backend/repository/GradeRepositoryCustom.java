@@ -0,0 +1,9 @@
+package com.ankurshala.backend.repository;
+
+import com.ankurshala.backend.entity.Grade;
+
+import java.util.Optional;
+
+public interface GradeRepositoryCustom {
+    Optional<Grade> findByName(String name);
+}
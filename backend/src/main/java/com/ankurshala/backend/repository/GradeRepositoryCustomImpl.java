@@ -0,0 +1,17 @@
+package com.ankurshala.backend.repository;
+
+import com.ankurshala.backend.entity.Grade;
+
+import java.util.Optional;
+
+public class GradeRepositoryCustomImpl extends NaturalIdRepositorySupport<Grade> implements GradeRepositoryCustom {
+
+    public GradeRepositoryCustomImpl() {
+        super(Grade.class);
+    }
+
+    @Override
+    public Optional<Grade> findByName(String name) {
+        return findByNaturalId(name);
+    }
+}
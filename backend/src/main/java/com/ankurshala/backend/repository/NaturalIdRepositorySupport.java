@@ -0,0 +1,33 @@
+package com.ankurshala.backend.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.Session;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Optional;
+
+/**
+ * Base for repository fragments that look entities up by their
+ * {@code @NaturalId}. Goes through Hibernate's natural-id API, so a cached
+ * natural id resolves to the id and then the entity region without a query.
+ */
+@Transactional(readOnly = true)
+public abstract class NaturalIdRepositorySupport<T> {
+
+    private final Class<T> entityType;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    protected NaturalIdRepositorySupport(Class<T> entityType) {
+        this.entityType = entityType;
+    }
+
+    protected Optional<T> findByNaturalId(Object naturalId) {
+        if (naturalId == null) {
+            return Optional.empty();
+        }
+        return entityManager.unwrap(Session.class).bySimpleNaturalId(entityType).loadOptional(naturalId);
+    }
+}
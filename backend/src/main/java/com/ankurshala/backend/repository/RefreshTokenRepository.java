@@ -2,6 +2,7 @@ package com.ankurshala.backend.repository;
 
 import com.ankurshala.backend.entity.RefreshToken;
 import com.ankurshala.backend.entity.User;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
@@ -25,4 +26,46 @@ public interface RefreshTokenRepository extends JpaRepository<RefreshToken, Long
     @Modifying
     @Query("DELETE FROM RefreshToken rt WHERE rt.expiresAt < :now")
     void deleteExpiredTokens(@Param("now") LocalDateTime now);
+
+    /**
+     * Marks a single token as used. Returns 0 if it was already revoked or expired,
+     * which is how concurrent reuse of the same refresh token is detected.
+     */
+    @Modifying
+    @Query("UPDATE RefreshToken rt SET rt.revokedAt = :now " +
+           "WHERE rt.tokenHash = :tokenHash AND rt.revokedAt IS NULL AND rt.expiresAt > :now")
+    int revokeIfActive(@Param("tokenHash") String tokenHash, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("UPDATE RefreshToken rt SET rt.revokedAt = :revokedAt WHERE rt.familyId = :familyId AND rt.revokedAt IS NULL")
+    int revokeFamily(@Param("familyId") String familyId, @Param("revokedAt") LocalDateTime revokedAt);
+
+    @Query("SELECT rt.tokenHash FROM RefreshToken rt WHERE rt.familyId = :familyId AND rt.revokedAt IS NULL")
+    List<String> findActiveHashesByFamilyId(@Param("familyId") String familyId);
+
+    @Query("SELECT rt.tokenHash FROM RefreshToken rt WHERE rt.user.id = :userId AND rt.revokedAt IS NULL")
+    List<String> findActiveHashesByUserId(@Param("userId") Long userId);
+
+    /**
+     * Next page of expired rows in (expiresAt, id) order, starting after the given key.
+     * Each element is {@code [Long id, LocalDateTime expiresAt]}.
+     */
+    @Query("SELECT rt.id, rt.expiresAt FROM RefreshToken rt " +
+           "WHERE rt.expiresAt < :cutoff " +
+           "AND (rt.expiresAt > :afterExpiresAt OR (rt.expiresAt = :afterExpiresAt AND rt.id > :afterId)) " +
+           "ORDER BY rt.expiresAt, rt.id")
+    List<Object[]> findExpiredKeysAfter(@Param("cutoff") LocalDateTime cutoff,
+                                        @Param("afterExpiresAt") LocalDateTime afterExpiresAt,
+                                        @Param("afterId") Long afterId,
+                                        Pageable pageable);
+
+    @Modifying
+    @Query("DELETE FROM RefreshToken rt WHERE rt.id IN :ids")
+    int deleteByIdIn(@Param("ids") List<Long> ids);
+
+    /**
+     * Transaction-scoped Postgres advisory lock; released automatically on commit/rollback.
+     */
+    @Query(value = "SELECT pg_try_advisory_xact_lock(:key)", nativeQuery = true)
+    boolean tryAdvisoryXactLock(@Param("key") long key);
 }
@@ -1,21 +1,22 @@
 package com.ankurshala.backend.repository;
 
 import com.ankurshala.backend.entity.Subject;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
-import java.util.Optional;
 
 @Repository
-public interface SubjectRepository extends JpaRepository<Subject, Long>, JpaSpecificationExecutor<Subject> {
-    Optional<Subject> findByName(String name);
-    
+public interface SubjectRepository extends JpaRepository<Subject, Long>, JpaSpecificationExecutor<Subject>, SubjectRepositoryCustom {
+
     @Query("SELECT s FROM Subject s WHERE " +
            "(:search IS NULL OR :search = '' OR LOWER(s.name) LIKE LOWER(CONCAT('%', :search, '%'))) AND " +
            "(:active IS NULL OR s.active = :active)")
@@ -27,5 +28,6 @@ public interface SubjectRepository extends JpaRepository<Subject, Long>, JpaSpec
     long countByActiveTrue();
     
     // Find active subjects for tree structure
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"))
     List<Subject> findByActiveTrue();
 }
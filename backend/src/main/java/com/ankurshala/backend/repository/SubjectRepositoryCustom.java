@@ -0,0 +1,9 @@
+package com.ankurshala.backend.repository;
+
+import com.ankurshala.backend.entity.Subject;
+
+import java.util.Optional;
+
+public interface SubjectRepositoryCustom {
+    Optional<Subject> findByName(String name);
+}
@@ -0,0 +1,17 @@
+package com.ankurshala.backend.repository;
+
+import com.ankurshala.backend.entity.Subject;
+
+import java.util.Optional;
+
+public class SubjectRepositoryCustomImpl extends NaturalIdRepositorySupport<Subject> implements SubjectRepositoryCustom {
+
+    public SubjectRepositoryCustomImpl() {
+        super(Subject.class);
+    }
+
+    @Override
+    public Optional<Subject> findByName(String name) {
+        return findByNaturalId(name);
+    }
+}
@@ -6,6 +6,7 @@ import com.ankurshala.backend.entity.User;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -14,7 +15,7 @@ import java.time.LocalDateTime;
 import java.util.Optional;
 
 @Repository
-public interface TeacherProfileRepository extends JpaRepository<TeacherProfile, Long> {
+public interface TeacherProfileRepository extends JpaRepository<TeacherProfile, Long>, JpaSpecificationExecutor<TeacherProfile> {
     Optional<TeacherProfile> findByUser(User user);
     Optional<TeacherProfile> findByUserId(Long userId);
     long countByUserEnabledTrue();
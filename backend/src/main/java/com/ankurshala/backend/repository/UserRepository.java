@@ -3,6 +3,7 @@ package com.ankurshala.backend.repository;
 import com.ankurshala.backend.entity.Role;
 import com.ankurshala.backend.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
@@ -18,4 +19,13 @@ public interface UserRepository extends JpaRepository<User, Long> {
     // Methods for notification service
     List<User> findByRole(Role role);
     List<User> findByRoleIn(List<Role> roles);
+
+    // Used to seed the in-memory disabled-account set for token authentication
+    @Query("SELECT u.id FROM User u WHERE u.enabled = false")
+    List<Long> findDisabledUserIds();
+
+    // Ids the users sequence has handed out that no longer have a row, i.e. deleted accounts
+    @Query(value = "SELECT s.id FROM generate_series(1, (SELECT last_value FROM users_id_seq)) AS s(id) " +
+            "WHERE NOT EXISTS (SELECT 1 FROM users u WHERE u.id = s.id)", nativeQuery = true)
+    List<Long> findDeletedUserIds();
 }
@@ -0,0 +1,181 @@
+package com.ankurshala.backend.security;
+
+import com.ankurshala.backend.util.BloomFilter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Revocation list for access tokens, keyed by the token's {@code jti}.
+ *
+ * <p>Revoked ids live in Redis under {@value #KEY_PREFIX}&lt;jti&gt; with a TTL
+ * equal to the token's remaining lifetime, so the list never grows beyond the
+ * tokens that could still be presented. Every node keeps a Bloom filter of
+ * revoked ids in front of Redis: the common not-revoked case is answered from
+ * memory and only Bloom hits cost a Redis round trip.</p>
+ *
+ * <p>Bloom filters cannot delete, so two generations are kept and rotated once
+ * per access-token lifetime; an id is therefore remembered for at least as
+ * long as the token it belongs to could be valid. Each new generation is
+ * seeded from a SCAN of the revoked keys, so a revocation whose pub/sub
+ * message this node missed is picked up at the next rotation at the latest.</p>
+ *
+ * <p>If Redis cannot be written, the revocation is still held on this node
+ * (id and expiry) and logout succeeds; other nodes will not see it.</p>
+ */
+@Service
+public class AccessTokenRevocationService implements MessageListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(AccessTokenRevocationService.class);
+
+    static final String KEY_PREFIX = "auth:revoked:";
+    static final String CHANNEL = "auth:token-revoked";
+
+    private final StringRedisTemplate redisTemplate;
+    private final long expectedRevocations;
+    private final double falsePositiveRate;
+
+    private volatile BloomFilter current;
+    private volatile BloomFilter previous;
+    // Revocations Redis did not take, until the token expires
+    private final Map<String, Instant> localRevocations = new ConcurrentHashMap<>();
+
+    public AccessTokenRevocationService(StringRedisTemplate redisTemplate,
+                                        RedisMessageListenerContainer listenerContainer,
+                                        @Value("${app.jwt.revocation.expected-revocations:100000}") long expectedRevocations,
+                                        @Value("${app.jwt.revocation.false-positive-rate:0.001}") double falsePositiveRate) {
+        this.redisTemplate = redisTemplate;
+        this.expectedRevocations = expectedRevocations;
+        this.falsePositiveRate = falsePositiveRate;
+        this.current = newFilter();
+        this.previous = newFilter();
+        listenerContainer.addMessageListener(this, new ChannelTopic(CHANNEL));
+    }
+
+    /**
+     * Revokes the token until it would have expired anyway. Tokens without a
+     * {@code jti} (issued before revocation support) cannot be revoked individually.
+     */
+    public void revoke(VerifiedToken token) {
+        if (token.getTokenId() == null || token.getExpiresAt() == null) {
+            return;
+        }
+        Duration remaining = Duration.between(Instant.now(), token.getExpiresAt());
+        if (remaining.isNegative() || remaining.isZero()) {
+            return;
+        }
+
+        remember(token.getTokenId());
+        try {
+            redisTemplate.opsForValue().set(KEY_PREFIX + token.getTokenId(), "1", remaining);
+        } catch (DataAccessException e) {
+            localRevocations.put(token.getTokenId(), token.getExpiresAt());
+            logger.warn("Could not store revocation of token {} in Redis, revoked on this node only: {}",
+                    token.getTokenId(), e.getMessage());
+            return;
+        }
+        try {
+            redisTemplate.convertAndSend(CHANNEL, token.getTokenId());
+        } catch (Exception e) {
+            // Other nodes find the key when their filters next rotate
+            logger.warn("Could not broadcast revocation of token {}: {}", token.getTokenId(), e.getMessage());
+        }
+    }
+
+    /**
+     * Returns true if the token has been revoked. Costs no network call unless
+     * the local Bloom filter reports a (possible) hit.
+     */
+    public boolean isRevoked(VerifiedToken token) {
+        String tokenId = token.getTokenId();
+        if (tokenId == null) {
+            return false;
+        }
+        if (!current.mightContain(tokenId) && !previous.mightContain(tokenId)) {
+            return false;
+        }
+        if (localRevocations.containsKey(tokenId)) {
+            return true;
+        }
+        try {
+            return Boolean.TRUE.equals(redisTemplate.hasKey(KEY_PREFIX + tokenId));
+        } catch (Exception e) {
+            // A Bloom hit we cannot confirm is treated as revoked
+            logger.warn("Could not confirm revocation of token {}: {}", tokenId, e.getMessage());
+            return true;
+        }
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        remember(new String(message.getBody(), StandardCharsets.UTF_8));
+    }
+
+    @Scheduled(fixedRateString = "#{${app.jwt.access-token-expiration:900} * 1000}",
+               initialDelayString = "#{${app.jwt.access-token-expiration:900} * 1000}")
+    public void rotate() {
+        Instant now = Instant.now();
+        localRevocations.values().removeIf(expiresAt -> expiresAt.isBefore(now));
+        BloomFilter next = newFilter();
+        localRevocations.keySet().forEach(next::put);
+        try {
+            scanRevokedIds(next);
+        } catch (Exception e) {
+            logger.warn("Could not reload revoked access-token ids, relying on pub/sub: {}", e.getMessage());
+        }
+        // Ids broadcast during the scan went into the current filter, which stays checked as the previous one
+        previous = current;
+        current = next;
+    }
+
+    /**
+     * Seeds the filter from ids already revoked in Redis so a freshly started
+     * node does not accept tokens revoked before it came up.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadRevokedIds() {
+        try {
+            logger.info("Loaded {} revoked access-token ids", scanRevokedIds(current));
+        } catch (Exception e) {
+            logger.warn("Could not load revoked access-token ids: {}", e.getMessage());
+        }
+    }
+
+    private int scanRevokedIds(BloomFilter filter) {
+        int loaded = 0;
+        ScanOptions options = ScanOptions.scanOptions().match(KEY_PREFIX + "*").count(1000).build();
+        try (Cursor<String> cursor = redisTemplate.scan(options)) {
+            while (cursor.hasNext()) {
+                filter.put(cursor.next().substring(KEY_PREFIX.length()));
+                loaded++;
+            }
+        }
+        return loaded;
+    }
+
+    private void remember(String tokenId) {
+        current.put(tokenId);
+    }
+
+    private BloomFilter newFilter() {
+        return new BloomFilter(expectedRevocations, falsePositiveRate);
+    }
+}
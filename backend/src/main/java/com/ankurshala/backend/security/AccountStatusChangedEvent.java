@@ -0,0 +1,37 @@
+package com.ankurshala.backend.security;
+
+/**
+ * Published by admin services whenever a user account is enabled, disabled or
+ * deleted. {@link AccountStatusRegistry} applies it after the surrounding
+ * transaction commits and fans it out to the other nodes.
+ */
+public class AccountStatusChangedEvent {
+
+    public enum Change {
+        ENABLED, DISABLED, DELETED
+    }
+
+    private final Long userId;
+    private final Change change;
+
+    public AccountStatusChangedEvent(Long userId, Change change) {
+        this.userId = userId;
+        this.change = change;
+    }
+
+    public static AccountStatusChangedEvent of(Long userId, boolean enabled) {
+        return new AccountStatusChangedEvent(userId, enabled ? Change.ENABLED : Change.DISABLED);
+    }
+
+    public static AccountStatusChangedEvent deleted(Long userId) {
+        return new AccountStatusChangedEvent(userId, Change.DELETED);
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public Change getChange() {
+        return change;
+    }
+}
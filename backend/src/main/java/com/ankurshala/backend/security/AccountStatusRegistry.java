@@ -0,0 +1,158 @@
+package com.ankurshala.backend.security;
+
+import com.ankurshala.backend.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Node-local set of user ids that must not authenticate: disabled accounts plus
+ * recently deleted ones. The JWT filter consults it instead of loading the user
+ * row on every request.
+ *
+ * <p>The set is loaded from the database at startup, kept current through the
+ * {@value #CHANNEL} Redis channel whenever an admin changes an account, and
+ * fully resynced on a fixed interval in case a pub/sub message was missed.
+ * Deletions broadcast on the channel are remembered for one access-token
+ * lifetime, since no token issued before the deletion can be valid after
+ * that. The resync also finds every deleted account, as an id the users
+ * sequence handed out that has no row, so a missed deletion is caught too. Changes that arrive while a resync reads
+ * the database are applied again on top of its result.</p>
+ */
+@Component
+public class AccountStatusRegistry implements MessageListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(AccountStatusRegistry.class);
+
+    static final String CHANNEL = "auth:account-status";
+
+    private final UserRepository userRepository;
+    private final StringRedisTemplate redisTemplate;
+    private final long deletedRetentionMillis;
+
+    private volatile Set<Long> disabledUserIds = ConcurrentHashMap.newKeySet();
+    private final Map<Long, Long> deletedUserIds = new ConcurrentHashMap<>();
+    // Deleted accounts as of the last resync
+    private volatile Set<Long> missingUserIds = Set.of();
+    // Changes received while a resync is reading, replayed onto its result; null when none runs
+    private Map<Long, AccountStatusChangedEvent.Change> changesDuringResync;
+
+    public AccountStatusRegistry(UserRepository userRepository,
+                                 StringRedisTemplate redisTemplate,
+                                 RedisMessageListenerContainer listenerContainer,
+                                 @Value("${app.jwt.access-token-expiration:900}") long accessTokenExpirationInSeconds) {
+        this.userRepository = userRepository;
+        this.redisTemplate = redisTemplate;
+        this.deletedRetentionMillis = accessTokenExpirationInSeconds * 1000L;
+        listenerContainer.addMessageListener(this, new ChannelTopic(CHANNEL));
+    }
+
+    /**
+     * Returns true if the account is disabled or was deleted recently.
+     */
+    public boolean isLocked(Long userId) {
+        return disabledUserIds.contains(userId) || deletedUserIds.containsKey(userId)
+                || missingUserIds.contains(userId);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        resync();
+    }
+
+    @Scheduled(fixedDelayString = "${app.security.account-status.resync-interval-ms:60000}",
+               initialDelayString = "${app.security.account-status.resync-interval-ms:60000}")
+    public void resync() {
+        synchronized (this) {
+            changesDuringResync = new LinkedHashMap<>();
+        }
+        try {
+            Set<Long> fresh = ConcurrentHashMap.newKeySet();
+            fresh.addAll(userRepository.findDisabledUserIds());
+            Set<Long> missing = Set.copyOf(userRepository.findDeletedUserIds());
+            synchronized (this) {
+                changesDuringResync.forEach((userId, change) -> apply(fresh, change, userId));
+                disabledUserIds = fresh;
+                missingUserIds = missing;
+            }
+
+            long now = System.currentTimeMillis();
+            deletedUserIds.values().removeIf(expiresAt -> expiresAt < now);
+            logger.debug("Account status resynced: {} disabled, {} deleted",
+                    fresh.size(), missing.size());
+        } catch (Exception e) {
+            logger.warn("Could not resync disabled accounts, keeping previous set: {}", e.getMessage());
+        } finally {
+            synchronized (this) {
+                changesDuringResync = null;
+            }
+        }
+    }
+
+    /**
+     * Applies the change locally and broadcasts it once the admin transaction has
+     * committed, so other nodes never see a change that was rolled back.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onAccountStatusChanged(AccountStatusChangedEvent event) {
+        apply(event.getChange(), event.getUserId());
+        try {
+            redisTemplate.convertAndSend(CHANNEL, event.getChange().name() + ":" + event.getUserId());
+        } catch (Exception e) {
+            logger.warn("Could not broadcast account status change for user {}: {}",
+                    event.getUserId(), e.getMessage());
+        }
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String body = new String(message.getBody(), StandardCharsets.UTF_8);
+        int separator = body.indexOf(':');
+        if (separator < 0) {
+            logger.warn("Ignoring malformed account status message: {}", body);
+            return;
+        }
+        try {
+            AccountStatusChangedEvent.Change change =
+                    AccountStatusChangedEvent.Change.valueOf(body.substring(0, separator));
+            apply(change, Long.parseLong(body.substring(separator + 1)));
+        } catch (IllegalArgumentException e) {
+            logger.warn("Ignoring malformed account status message: {}", body);
+        }
+    }
+
+    private synchronized void apply(AccountStatusChangedEvent.Change change, Long userId) {
+        apply(disabledUserIds, change, userId);
+        if (changesDuringResync != null) {
+            changesDuringResync.put(userId, change);
+        }
+    }
+
+    private void apply(Set<Long> disabled, AccountStatusChangedEvent.Change change, Long userId) {
+        switch (change) {
+            case ENABLED -> disabled.remove(userId);
+            case DISABLED -> disabled.add(userId);
+            case DELETED -> {
+                disabled.remove(userId);
+                deletedUserIds.put(userId, System.currentTimeMillis() + deletedRetentionMillis);
+            }
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.ankurshala.backend.security;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+/**
+ * BCrypt encoder whose work runs on the {@link PasswordHashingExecutor} instead
+ * of the calling request thread.
+ *
+ * <p>Hashes already stored keep working whatever strength is configured, since
+ * BCrypt records the cost in each hash.</p>
+ */
+public class BoundedPasswordEncoder implements PasswordEncoder {
+
+    private static final Logger logger = LoggerFactory.getLogger(BoundedPasswordEncoder.class);
+
+    private static final int MIN_STRENGTH = 10;
+    private static final int MAX_STRENGTH = 14;
+
+    private final PasswordEncoder delegate;
+    private final PasswordHashingExecutor executor;
+
+    public BoundedPasswordEncoder(PasswordEncoder delegate, PasswordHashingExecutor executor) {
+        this.delegate = delegate;
+        this.executor = executor;
+    }
+
+    /**
+     * The underlying encoder, for bulk jobs that schedule hashing on their own pool.
+     */
+    public PasswordEncoder getDelegate() {
+        return delegate;
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return executor.encode(() -> delegate.encode(rawPassword));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return executor.matches(() -> delegate.matches(rawPassword, encodedPassword));
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+
+    /**
+     * Picks the highest BCrypt strength whose hash time on this machine stays
+     * within {@code targetMillis}. Each step doubles the cost, so the time is
+     * measured once at the minimum strength and extrapolated.
+     */
+    public static int calibrateStrength(long targetMillis) {
+        BCryptPasswordEncoder probe = new BCryptPasswordEncoder(MIN_STRENGTH);
+        probe.encode("calibration-warmup");
+
+        long start = System.nanoTime();
+        probe.encode("calibration-probe");
+        double millis = (System.nanoTime() - start) / 1_000_000.0;
+
+        int strength = MIN_STRENGTH;
+        while (strength < MAX_STRENGTH && millis * 2 <= targetMillis) {
+            millis *= 2;
+            strength++;
+        }
+        logger.info("Calibrated BCrypt strength {} (~{} ms per hash, target {} ms)",
+                strength, Math.round(millis), targetMillis);
+        return strength;
+    }
+}
@@ -1,7 +1,5 @@
 package com.ankurshala.backend.security;
 
-import com.ankurshala.backend.entity.User;
-import com.ankurshala.backend.repository.UserRepository;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -28,7 +26,10 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     private JwtTokenProvider tokenProvider;
 
     @Autowired
-    private UserRepository userRepository;
+    private PrincipalResolver principalResolver;
+
+    @Autowired
+    private AccessTokenRevocationService revocationService;
 
     private static final Logger logger = LoggerFactory.getLogger(JwtAuthenticationFilter.class);
 
@@ -37,12 +38,14 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         try {
             String jwt = getJwtFromRequest(request);
 
-            if (StringUtils.hasText(jwt) && tokenProvider.validateToken(jwt) && !tokenProvider.isRefreshToken(jwt)) {
-                Long userId = tokenProvider.getUserIdFromToken(jwt);
+            // Parsed and signature-checked exactly once per request
+            VerifiedToken token = StringUtils.hasText(jwt) ? tokenProvider.verify(jwt) : null;
 
-                User user = userRepository.findById(userId).orElse(null);
-                if (user != null && user.getEnabled()) {
-                    UserPrincipal userPrincipal = UserPrincipal.create(user);
+            // Revocation check is a local Bloom lookup unless the jti might be revoked
+            if (token != null && token.isAccessToken() && !revocationService.isRevoked(token)) {
+                // Built from signed claims; disabled/deleted accounts are checked in memory
+                UserPrincipal userPrincipal = principalResolver.resolve(token);
+                if (userPrincipal != null) {
                     UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
                             userPrincipal, null, userPrincipal.getAuthorities());
                     authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
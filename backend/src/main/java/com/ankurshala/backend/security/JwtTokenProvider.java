@@ -3,13 +3,17 @@ package com.ankurshala.backend.security;
 import com.ankurshala.backend.entity.User;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
 
 import javax.crypto.SecretKey;
 import java.util.Date;
+import java.util.UUID;
 
 @Component
 public class JwtTokenProvider {
@@ -25,20 +29,33 @@ public class JwtTokenProvider {
     @Value("${app.jwt.refresh-token-expiration:604800}") // 7 days
     private int refreshTokenExpirationInSeconds;
 
-    private SecretKey getSigningKey() {
-        return Keys.hmacShaKeyFor(jwtSecret.getBytes());
+    @Autowired
+    private VerifiedTokenCache verifiedTokenCache;
+
+    // Built once: both the key and the parser are immutable and thread-safe
+    private SecretKey signingKey;
+    private JwtParser jwtParser;
+
+    @PostConstruct
+    void init() {
+        this.signingKey = Keys.hmacShaKeyFor(jwtSecret.getBytes());
+        this.jwtParser = Jwts.parser()
+                .verifyWith(signingKey)
+                .build();
     }
 
     public String generateAccessToken(User user) {
         Date expiryDate = new Date(System.currentTimeMillis() + accessTokenExpirationInSeconds * 1000L);
 
         return Jwts.builder()
+                .setId(UUID.randomUUID().toString())
                 .setSubject(user.getId().toString())
                 .claim("email", user.getEmail())
+                .claim("name", user.getName())
                 .claim("role", user.getRole().name())
                 .setIssuedAt(new Date())
                 .setExpiration(expiryDate)
-                .signWith(getSigningKey(), SignatureAlgorithm.HS512)
+                .signWith(signingKey, SignatureAlgorithm.HS512)
                 .compact();
     }
 
@@ -46,41 +63,62 @@ public class JwtTokenProvider {
         Date expiryDate = new Date(System.currentTimeMillis() + refreshTokenExpirationInSeconds * 1000L);
 
         return Jwts.builder()
+                .setId(UUID.randomUUID().toString())
                 .setSubject(user.getId().toString())
                 .claim("type", "refresh")
                 .setIssuedAt(new Date())
                 .setExpiration(expiryDate)
-                .signWith(getSigningKey(), SignatureAlgorithm.HS512)
+                .signWith(signingKey, SignatureAlgorithm.HS512)
                 .compact();
     }
 
+    /**
+     * Verifies the token once and returns its claims, or {@code null} if the token
+     * is malformed, badly signed or expired. Recently verified tokens are served
+     * from {@link VerifiedTokenCache} without repeating the HMAC check.
+     */
+    public VerifiedToken verify(String token) {
+        if (!StringUtils.hasText(token)) {
+            return null;
+        }
+
+        String digest = TokenDigest.sha256Hex(token);
+        VerifiedToken cached = verifiedTokenCache.get(digest);
+        if (cached != null) {
+            return cached;
+        }
+
+        VerifiedToken verified = parse(token);
+        if (verified != null) {
+            verifiedTokenCache.put(digest, verified);
+        }
+        return verified;
+    }
+
     public Long getUserIdFromToken(String token) {
-        Claims claims = Jwts.parser()
-                .verifyWith(getSigningKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
+        Claims claims = jwtParser.parseSignedClaims(token).getPayload();
 
         return Long.parseLong(claims.getSubject());
     }
 
     public String getEmailFromToken(String token) {
-        Claims claims = Jwts.parser()
-                .verifyWith(getSigningKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
+        Claims claims = jwtParser.parseSignedClaims(token).getPayload();
 
         return claims.get("email", String.class);
     }
 
     public boolean validateToken(String authToken) {
+        return verify(authToken) != null;
+    }
+
+    public boolean isRefreshToken(String token) {
+        VerifiedToken verified = verify(token);
+        return verified != null && verified.isRefreshToken();
+    }
+
+    private VerifiedToken parse(String token) {
         try {
-            Jwts.parser()
-                .verifyWith(getSigningKey())
-                .build()
-                .parseSignedClaims(authToken);
-            return true;
+            return VerifiedToken.from(jwtParser.parseSignedClaims(token).getPayload());
         } catch (SecurityException ex) {
             logger.error("Invalid JWT signature");
         } catch (MalformedJwtException ex) {
@@ -91,21 +129,9 @@ public class JwtTokenProvider {
             logger.error("Unsupported JWT token");
         } catch (IllegalArgumentException ex) {
             logger.error("JWT claims string is empty");
+        } catch (JwtException ex) {
+            logger.error("Invalid JWT token: {}", ex.getMessage());
         }
-        return false;
-    }
-
-    public boolean isRefreshToken(String token) {
-        try {
-            Claims claims = Jwts.parser()
-                    .verifyWith(getSigningKey())
-                    .build()
-                    .parseSignedClaims(token)
-                    .getPayload();
-            
-            return "refresh".equals(claims.get("type", String.class));
-        } catch (Exception ex) {
-            return false;
-        }
+        return null;
     }
 }
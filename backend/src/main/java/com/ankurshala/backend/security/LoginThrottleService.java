@@ -0,0 +1,137 @@
+package com.ankurshala.backend.security;
+
+import com.ankurshala.backend.exception.TooManyRequestsException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+import java.util.UUID;
+
+/**
+ * Cluster-wide sign-in throttle, checked before any password is hashed.
+ *
+ * <p>Attempts are counted in Redis sorted-set sliding windows per email and
+ * per client IP, so attempts on different nodes add up. One Lua script call
+ * per attempt checks the lockouts and reserves the attempt as a failure, or
+ * starts a lockout when the reservation goes over a limit; reserving before
+ * the password is checked keeps the limit exact however many attempts run
+ * at once. A failed sign-in needs nothing more. A successful one makes a
+ * second call that clears the email's window and refunds its IP slot, so
+ * many users behind one school NAT do not lock each other out and the IP
+ * limit only catches spraying. Lockouts double with each repeat inside the
+ * strike period.</p>
+ *
+ * <p>If Redis is unavailable the throttle fails open; the bounded hashing pool
+ * still protects the CPU.</p>
+ */
+@Service
+public class LoginThrottleService {
+
+    private static final Logger logger = LoggerFactory.getLogger(LoginThrottleService.class);
+
+    private static final String KEY_PREFIX = "auth:throttle:";
+    private static final String ATTEMPT = "attempt";
+    private static final String SUCCESS = "success";
+    private static final String REFUND = "refund";
+
+    private final StringRedisTemplate redisTemplate;
+    private final RedisScript<Long> script;
+    private final long windowMillis;
+    private final int emailLimit;
+    private final int ipLimit;
+    private final long baseLockMillis;
+    private final long maxLockMillis;
+    private final long strikeTtlMillis;
+
+    public LoginThrottleService(StringRedisTemplate redisTemplate,
+                                @Value("${app.security.login-throttle.window:15m}") Duration window,
+                                @Value("${app.security.login-throttle.email-limit:10}") int emailLimit,
+                                @Value("${app.security.login-throttle.ip-limit:1000}") int ipLimit,
+                                @Value("${app.security.login-throttle.lockout-base:1m}") Duration lockoutBase,
+                                @Value("${app.security.login-throttle.lockout-max:1h}") Duration lockoutMax,
+                                @Value("${app.security.login-throttle.strike-period:24h}") Duration strikePeriod) {
+        this.redisTemplate = redisTemplate;
+        DefaultRedisScript<Long> throttleScript = new DefaultRedisScript<>();
+        throttleScript.setLocation(new ClassPathResource("scripts/login-throttle.lua"));
+        throttleScript.setResultType(Long.class);
+        this.script = throttleScript;
+        this.windowMillis = window.toMillis();
+        this.emailLimit = emailLimit;
+        this.ipLimit = ipLimit;
+        this.baseLockMillis = lockoutBase.toMillis();
+        this.maxLockMillis = lockoutMax.toMillis();
+        this.strikeTtlMillis = strikePeriod.toMillis();
+    }
+
+    /**
+     * Reserves a sign-in attempt, counted as failed until
+     * {@link #recordSuccess} or {@link #refund} says otherwise.
+     *
+     * @return the attempt id to pass back
+     * @throws TooManyRequestsException if the email or IP is locked out, or
+     *                                  this attempt went over a limit
+     */
+    public String reserveAttempt(String email, String clientIp) {
+        String attemptId = UUID.randomUUID().toString();
+        Long waitMillis = run(ATTEMPT, email, clientIp, attemptId);
+        if (waitMillis != null && waitMillis > 0) {
+            logger.warn("Throttled sign-in attempt for {} from {}", emailKey(email), ipKey(clientIp));
+            throw new TooManyRequestsException("Too many sign-in attempts, please try again later",
+                    Math.max(1, (waitMillis + 999) / 1000));
+        }
+        return attemptId;
+    }
+
+    /**
+     * Clears the account's failed attempts and strikes and refunds the IP slot.
+     */
+    public void recordSuccess(String email, String clientIp, String attemptId) {
+        run(SUCCESS, email, clientIp, attemptId);
+    }
+
+    /**
+     * Drops an attempt whose credentials were never checked, e.g. one shed by
+     * the hashing pool.
+     */
+    public void refund(String email, String clientIp, String attemptId) {
+        run(REFUND, email, clientIp, attemptId);
+    }
+
+    private Long run(String mode, String email, String clientIp, String attemptId) {
+        String emailKey = emailKey(email);
+        String ipKey = ipKey(clientIp);
+        try {
+            return redisTemplate.execute(script,
+                    List.of(KEY_PREFIX + "window:" + emailKey, KEY_PREFIX + "lock:" + emailKey, KEY_PREFIX + "strikes:" + emailKey,
+                            KEY_PREFIX + "window:" + ipKey, KEY_PREFIX + "lock:" + ipKey, KEY_PREFIX + "strikes:" + ipKey),
+                    mode,
+                    String.valueOf(System.currentTimeMillis()),
+                    String.valueOf(windowMillis),
+                    String.valueOf(emailLimit),
+                    String.valueOf(ipLimit),
+                    String.valueOf(baseLockMillis),
+                    String.valueOf(maxLockMillis),
+                    String.valueOf(strikeTtlMillis),
+                    attemptId);
+        } catch (Exception e) {
+            logger.warn("Login throttle unavailable ({}), allowing attempt: {}", mode, e.getMessage());
+            return null;
+        }
+    }
+
+    private static String emailKey(String email) {
+        return "email:" + (email == null ? "" : email.trim().toLowerCase(Locale.ROOT));
+    }
+
+    private static String ipKey(String clientIp) {
+        return "ip:" + (clientIp == null ? "unknown" : clientIp);
+    }
+}
@@ -0,0 +1,117 @@
+package com.ankurshala.backend.security;
+
+import com.ankurshala.backend.exception.TooManyRequestsException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs password hashing on a small fixed pool with a bounded queue.
+ *
+ * <p>BCrypt is deliberately CPU-heavy. Running it on Tomcat workers lets a login
+ * storm take every request thread; here at most {@code threads} hashes run at
+ * once and callers wait (parked, not spinning) for a slot. When the queue is full
+ * the request fails fast with {@link TooManyRequestsException} (HTTP 429) and a
+ * Retry-After estimated from the recent hash latency.</p>
+ *
+ * <p>Metrics: {@code auth.password.hash} (timer, tagged by operation),
+ * {@code auth.password.hash.queue} and {@code auth.password.hash.active} (gauges),
+ * {@code auth.password.hash.rejected} (counter).</p>
+ */
+@Component
+public class PasswordHashingExecutor {
+
+    private final ThreadPoolExecutor executor;
+    private final long maxWaitMillis;
+    private final Timer encodeTimer;
+    private final Timer matchesTimer;
+    private final Counter rejected;
+
+    public PasswordHashingExecutor(MeterRegistry meterRegistry,
+                                   @Value("${app.security.password-hashing.threads:0}") int threads,
+                                   @Value("${app.security.password-hashing.queue-capacity:64}") int queueCapacity,
+                                   @Value("${app.security.password-hashing.max-wait-ms:10000}") long maxWaitMillis) {
+        int poolSize = threads > 0 ? threads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        AtomicInteger threadCounter = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "password-hash-" + threadCounter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        this.maxWaitMillis = maxWaitMillis;
+
+        this.encodeTimer = Timer.builder("auth.password.hash").tag("operation", "encode").register(meterRegistry);
+        this.matchesTimer = Timer.builder("auth.password.hash").tag("operation", "matches").register(meterRegistry);
+        this.rejected = Counter.builder("auth.password.hash.rejected").register(meterRegistry);
+        Gauge.builder("auth.password.hash.queue", executor, pool -> pool.getQueue().size()).register(meterRegistry);
+        Gauge.builder("auth.password.hash.active", executor, ThreadPoolExecutor::getActiveCount).register(meterRegistry);
+    }
+
+    public String encode(Callable<String> task) {
+        return run(task, encodeTimer);
+    }
+
+    public boolean matches(Callable<Boolean> task) {
+        return run(task, matchesTimer);
+    }
+
+    private <T> T run(Callable<T> task, Timer timer) {
+        Future<T> future;
+        try {
+            future = executor.submit(() -> timer.recordCallable(task));
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            throw new TooManyRequestsException("Too many sign-in requests, please retry shortly", retryAfterSeconds());
+        }
+
+        try {
+            return future.get(maxWaitMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            rejected.increment();
+            throw new TooManyRequestsException("Too many sign-in requests, please retry shortly", retryAfterSeconds());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            future.cancel(true);
+            throw new IllegalStateException("Interrupted while hashing password", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException("Password hashing failed", cause);
+        }
+    }
+
+    /**
+     * Time for the current backlog to drain, from the mean latency seen so far.
+     */
+    private long retryAfterSeconds() {
+        double meanMillis = Math.max(encodeTimer.mean(TimeUnit.MILLISECONDS), matchesTimer.mean(TimeUnit.MILLISECONDS));
+        double backlog = executor.getQueue().size() + executor.getActiveCount();
+        long seconds = (long) Math.ceil(backlog * meanMillis / executor.getMaximumPoolSize() / 1000.0);
+        return Math.max(1, seconds);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+}
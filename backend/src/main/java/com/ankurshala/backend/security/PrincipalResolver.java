@@ -0,0 +1,48 @@
+package com.ankurshala.backend.security;
+
+import com.ankurshala.backend.entity.Role;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+/**
+ * Builds the authenticated {@link UserPrincipal} straight from signed access-token
+ * claims. The only per-request account check is an in-memory lookup in
+ * {@link AccountStatusRegistry}; no SQL runs on the authentication hot path.
+ */
+@Component
+public class PrincipalResolver {
+
+    private static final Logger logger = LoggerFactory.getLogger(PrincipalResolver.class);
+
+    private final AccountStatusRegistry accountStatusRegistry;
+
+    public PrincipalResolver(AccountStatusRegistry accountStatusRegistry) {
+        this.accountStatusRegistry = accountStatusRegistry;
+    }
+
+    /**
+     * Returns the principal for the token, or {@code null} if the account is
+     * disabled/deleted or the token carries no usable role.
+     */
+    public UserPrincipal resolve(VerifiedToken token) {
+        if (token.getUserId() == null || token.getRole() == null) {
+            return null;
+        }
+        if (accountStatusRegistry.isLocked(token.getUserId())) {
+            logger.debug("Rejecting token for locked account {}", token.getUserId());
+            return null;
+        }
+
+        Role role;
+        try {
+            role = Role.valueOf(token.getRole());
+        } catch (IllegalArgumentException e) {
+            logger.warn("Token for user {} carries unknown role {}", token.getUserId(), token.getRole());
+            return null;
+        }
+
+        // Password is never needed once the request is authenticated by token
+        return new UserPrincipal(token.getUserId(), token.getEmail(), token.getName(), null, role, true);
+    }
+}
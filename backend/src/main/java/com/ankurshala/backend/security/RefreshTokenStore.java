@@ -0,0 +1,229 @@
+package com.ankurshala.backend.security;
+
+import com.ankurshala.backend.entity.RefreshToken;
+import com.ankurshala.backend.entity.User;
+import com.ankurshala.backend.repository.RefreshTokenRepository;
+import com.ankurshala.backend.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Durable store for issued refresh tokens.
+ *
+ * <p>Tokens are never stored in clear: rows are keyed by the SHA-256 digest of
+ * the token. Postgres is the source of truth; active tokens are also cached in
+ * Redis under {@value #KEY_PREFIX}&lt;digest&gt; until they expire, so a refresh
+ * normally costs one Redis GETDEL plus one indexed UPDATE and no SELECT.</p>
+ *
+ * <p>Each login starts a rotation family. With {@link RotationMode#FAMILY} a refresh
+ * only retires the presented token and the replacement joins the same family;
+ * presenting an already-used token revokes the whole family (replay detection).
+ * That revocation commits in its own transaction, so it sticks even when the
+ * caller rolls back after the refresh is rejected.
+ * {@link RotationMode#USER} keeps the previous behaviour of revoking every token
+ * of the user on refresh.</p>
+ */
+@Service
+public class RefreshTokenStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(RefreshTokenStore.class);
+
+    static final String KEY_PREFIX = "auth:refresh:";
+
+    public enum RotationMode {
+        FAMILY,
+        USER
+    }
+
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final UserRepository userRepository;
+    private final JwtTokenProvider jwtTokenProvider;
+    private final StringRedisTemplate redisTemplate;
+    private final RotationMode rotationMode;
+    private final TransactionTemplate replayTransaction;
+
+    public RefreshTokenStore(RefreshTokenRepository refreshTokenRepository,
+                             UserRepository userRepository,
+                             JwtTokenProvider jwtTokenProvider,
+                             StringRedisTemplate redisTemplate,
+                             PlatformTransactionManager transactionManager,
+                             @Value("${app.jwt.refresh-rotation:FAMILY}") RotationMode rotationMode) {
+        this.refreshTokenRepository = refreshTokenRepository;
+        this.userRepository = userRepository;
+        this.jwtTokenProvider = jwtTokenProvider;
+        this.redisTemplate = redisTemplate;
+        this.rotationMode = rotationMode;
+        this.replayTransaction = new TransactionTemplate(transactionManager);
+        this.replayTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * Records a newly issued refresh token. A {@code null} family starts a new one.
+     */
+    @Transactional
+    public void store(User user, String refreshToken, String familyId) {
+        VerifiedToken verified = jwtTokenProvider.verify(refreshToken);
+        if (verified == null || verified.getExpiresAt() == null) {
+            throw new IllegalArgumentException("Refresh token could not be verified");
+        }
+
+        String digest = TokenDigest.sha256Hex(refreshToken);
+        String family = familyId != null ? familyId : UUID.randomUUID().toString();
+        LocalDateTime expiresAt = LocalDateTime.ofInstant(verified.getExpiresAt(), ZoneId.systemDefault());
+        refreshTokenRepository.save(new RefreshToken(user, digest, family, expiresAt));
+
+        Duration ttl = Duration.between(Instant.now(), verified.getExpiresAt());
+        if (!ttl.isNegative() && !ttl.isZero()) {
+            try {
+                redisTemplate.opsForValue().set(KEY_PREFIX + digest, user.getId() + ":" + family, ttl);
+            } catch (Exception e) {
+                // Postgres still has the row; lookups just fall back to it
+                logger.debug("Could not cache refresh token: {}", e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Retires the presented token so it can be exchanged exactly once.
+     *
+     * @return the owner and the family the replacement token should join
+     *         ({@code null} family means start a new one), or {@code null} if the
+     *         token is unknown, expired or has already been used
+     */
+    @Transactional
+    public ConsumedToken consume(String refreshToken) {
+        String digest = TokenDigest.sha256Hex(refreshToken);
+        LocalDateTime now = LocalDateTime.now();
+
+        ConsumedToken cached = ConsumedToken.parse(takeFromCache(digest));
+        if (cached != null) {
+            if (refreshTokenRepository.revokeIfActive(digest, now) == 1) {
+                return rotate(cached);
+            }
+            // Redis and Postgres disagree; trust Postgres and treat it as a replay
+            revokeFamilyOnReplay(cached.getFamilyId());
+            return null;
+        }
+
+        RefreshToken row = refreshTokenRepository.findByTokenHash(digest).orElse(null);
+        if (row == null || row.isExpired()) {
+            return null;
+        }
+        if (row.isRevoked() || refreshTokenRepository.revokeIfActive(digest, now) == 0) {
+            logger.warn("Refresh token reuse detected for user {}; revoking family {}",
+                    row.getUser().getId(), row.getFamilyId());
+            revokeFamilyOnReplay(row.getFamilyId());
+            return null;
+        }
+        return rotate(new ConsumedToken(row.getUser().getId(), row.getFamilyId()));
+    }
+
+    /**
+     * Signs the token's session out: its family in {@link RotationMode#FAMILY},
+     * every session of the user in {@link RotationMode#USER}.
+     */
+    @Transactional
+    public void revoke(String refreshToken) {
+        RefreshToken row = refreshTokenRepository.findByTokenHash(TokenDigest.sha256Hex(refreshToken)).orElse(null);
+        if (row == null) {
+            return;
+        }
+        if (rotationMode == RotationMode.USER) {
+            revokeAllForUser(row.getUser().getId());
+        } else {
+            revokeFamily(row.getFamilyId());
+        }
+    }
+
+    @Transactional
+    public void revokeAllForUser(Long userId) {
+        evictFromCache(refreshTokenRepository.findActiveHashesByUserId(userId));
+        refreshTokenRepository.revokeAllUserTokens(userRepository.getReferenceById(userId), LocalDateTime.now());
+    }
+
+    private void revokeFamily(String familyId) {
+        evictFromCache(refreshTokenRepository.findActiveHashesByFamilyId(familyId));
+        refreshTokenRepository.revokeFamily(familyId, LocalDateTime.now());
+    }
+
+    /**
+     * The caller rejects the refresh and its transaction may roll back, while
+     * the cache evictions cannot; commit the revocation on its own.
+     */
+    private void revokeFamilyOnReplay(String familyId) {
+        replayTransaction.executeWithoutResult(status -> revokeFamily(familyId));
+    }
+
+    private ConsumedToken rotate(ConsumedToken consumed) {
+        if (rotationMode == RotationMode.USER) {
+            revokeAllForUser(consumed.getUserId());
+            return new ConsumedToken(consumed.getUserId(), null);
+        }
+        return consumed;
+    }
+
+    private String takeFromCache(String digest) {
+        try {
+            return redisTemplate.opsForValue().getAndDelete(KEY_PREFIX + digest);
+        } catch (Exception e) {
+            logger.debug("Refresh token cache unavailable, using database: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    private void evictFromCache(List<String> digests) {
+        if (digests.isEmpty()) {
+            return;
+        }
+        try {
+            redisTemplate.delete(digests.stream().map(digest -> KEY_PREFIX + digest).toList());
+        } catch (Exception e) {
+            // Stale entries are harmless: consume() re-checks Postgres before accepting
+            logger.debug("Could not evict refresh tokens from cache: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Owner and rotation family of a refresh token that has just been used.
+     */
+    public static final class ConsumedToken {
+
+        private final Long userId;
+        private final String familyId;
+
+        ConsumedToken(Long userId, String familyId) {
+            this.userId = userId;
+            this.familyId = familyId;
+        }
+
+        static ConsumedToken parse(String cached) {
+            if (cached == null) {
+                return null;
+            }
+            int separator = cached.indexOf(':');
+            return new ConsumedToken(Long.parseLong(cached.substring(0, separator)), cached.substring(separator + 1));
+        }
+
+        public Long getUserId() {
+            return userId;
+        }
+
+        public String getFamilyId() {
+            return familyId;
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package com.ankurshala.backend.security;
+
+import com.ankurshala.backend.repository.RefreshTokenRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Deletes expired refresh tokens in small batches so the table and its indexes
+ * stay proportional to the number of live sessions.
+ *
+ * <p>Batches walk the {@code (expires_at, id)} index with a keyset cursor and run
+ * in their own short transactions, so no long lock is ever held. Each batch first
+ * takes a Postgres advisory lock; when another node is already sweeping, this
+ * node skips the run.</p>
+ */
+@Component
+public class RefreshTokenSweeper {
+
+    private static final Logger logger = LoggerFactory.getLogger(RefreshTokenSweeper.class);
+
+    // Arbitrary application-wide key for pg_try_advisory_xact_lock
+    private static final long SWEEP_LOCK_KEY = 0x52545357L;
+
+    private static final LocalDateTime START = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+
+    public RefreshTokenSweeper(RefreshTokenRepository refreshTokenRepository,
+                               PlatformTransactionManager transactionManager,
+                               @Value("${app.jwt.refresh-sweep.batch-size:500}") int batchSize) {
+        this.refreshTokenRepository = refreshTokenRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+    }
+
+    @Scheduled(fixedDelayString = "${app.jwt.refresh-sweep.interval-ms:300000}",
+               initialDelayString = "${app.jwt.refresh-sweep.interval-ms:300000}")
+    public void sweep() {
+        LocalDateTime cutoff = LocalDateTime.now();
+        LocalDateTime afterExpiresAt = START;
+        Long afterId = 0L;
+        int deleted = 0;
+
+        try {
+            while (true) {
+                LocalDateTime cursorExpiresAt = afterExpiresAt;
+                Long cursorId = afterId;
+                List<Object[]> batch = transactionTemplate.execute(status -> deleteBatch(cutoff, cursorExpiresAt, cursorId));
+                if (batch == null) {
+                    logger.debug("Refresh token sweep already running on another node");
+                    return;
+                }
+                if (batch.isEmpty()) {
+                    break;
+                }
+
+                deleted += batch.size();
+                Object[] last = batch.get(batch.size() - 1);
+                afterId = (Long) last[0];
+                afterExpiresAt = (LocalDateTime) last[1];
+                if (batch.size() < batchSize) {
+                    break;
+                }
+            }
+        } catch (Exception e) {
+            logger.warn("Refresh token sweep stopped after {} rows: {}", deleted, e.getMessage());
+            return;
+        }
+
+        if (deleted > 0) {
+            logger.info("Deleted {} expired refresh tokens", deleted);
+        }
+    }
+
+    /**
+     * Returns the keys deleted by this batch, or {@code null} if the lock is held elsewhere.
+     */
+    private List<Object[]> deleteBatch(LocalDateTime cutoff, LocalDateTime afterExpiresAt, Long afterId) {
+        if (!refreshTokenRepository.tryAdvisoryXactLock(SWEEP_LOCK_KEY)) {
+            return null;
+        }
+        List<Object[]> keys = refreshTokenRepository.findExpiredKeysAfter(
+                cutoff, afterExpiresAt, afterId, PageRequest.of(0, batchSize));
+        if (!keys.isEmpty()) {
+            refreshTokenRepository.deleteByIdIn(keys.stream().map(key -> (Long) key[0]).toList());
+        }
+        return keys;
+    }
+}
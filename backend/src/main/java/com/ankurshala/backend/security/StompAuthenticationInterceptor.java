@@ -0,0 +1,88 @@
+package com.ankurshala.backend.security;
+
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessageDeliveryException;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.messaging.support.MessageHeaderAccessor;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+/**
+ * Authenticates STOMP sessions with the same bearer token as HTTP requests.
+ *
+ * <p>Browsers cannot set headers on the WebSocket handshake, so the token is
+ * taken from the {@code Authorization} header of the STOMP CONNECT frame and
+ * checked like {@link JwtAuthenticationFilter} does. Subscriptions under
+ * {@code /topic/admin/} require the ADMIN role, and so do pattern or
+ * non-normalized destinations, which the simple broker would match against
+ * admin topics. Clients may only SEND to application destinations
+ * ({@code /app/}); the broker topics are published by the server alone.</p>
+ */
+@Component
+public class StompAuthenticationInterceptor implements ChannelInterceptor {
+
+    private static final String ADMIN_DESTINATIONS = "/topic/admin/";
+    private static final String APPLICATION_DESTINATIONS = "/app/";
+
+    private final JwtTokenProvider tokenProvider;
+    private final PrincipalResolver principalResolver;
+    private final AccessTokenRevocationService revocationService;
+
+    public StompAuthenticationInterceptor(JwtTokenProvider tokenProvider,
+                                          PrincipalResolver principalResolver,
+                                          AccessTokenRevocationService revocationService) {
+        this.tokenProvider = tokenProvider;
+        this.principalResolver = principalResolver;
+        this.revocationService = revocationService;
+    }
+
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel) {
+        StompHeaderAccessor accessor = MessageHeaderAccessor.getAccessor(message, StompHeaderAccessor.class);
+        if (accessor == null || accessor.getCommand() == null) {
+            return message;
+        }
+        if (accessor.getCommand() == StompCommand.CONNECT) {
+            accessor.setUser(authenticate(accessor.getFirstNativeHeader("Authorization")));
+        } else if (accessor.getCommand() == StompCommand.SUBSCRIBE) {
+            String destination = accessor.getDestination();
+            if (destination == null || (requiresAdmin(destination) && !isAdmin(accessor.getUser()))) {
+                throw new MessageDeliveryException("Access denied to " + destination);
+            }
+        } else if (accessor.getCommand() == StompCommand.SEND) {
+            String destination = accessor.getDestination();
+            if (destination == null || !destination.startsWith(APPLICATION_DESTINATIONS)) {
+                throw new MessageDeliveryException("Clients may not send to " + destination);
+            }
+        }
+        return message;
+    }
+
+    private Authentication authenticate(String header) {
+        String jwt = StringUtils.hasText(header) && header.startsWith("Bearer ") ? header.substring(7) : null;
+        VerifiedToken token = tokenProvider.verify(jwt);
+        if (token == null || !token.isAccessToken() || revocationService.isRevoked(token)) {
+            throw new MessageDeliveryException("Invalid or missing access token");
+        }
+        UserPrincipal principal = principalResolver.resolve(token);
+        if (principal == null) {
+            throw new MessageDeliveryException("Account is not active");
+        }
+        return new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities());
+    }
+
+    private static boolean requiresAdmin(String destination) {
+        return destination.startsWith(ADMIN_DESTINATIONS) || destination.contains("//")
+                || destination.contains("*") || destination.contains("?") || destination.contains("{");
+    }
+
+    private static boolean isAdmin(Object user) {
+        return user instanceof Authentication authentication && authentication.getAuthorities().stream()
+                .anyMatch(authority -> "ROLE_ADMIN".equals(authority.getAuthority()));
+    }
+}
@@ -0,0 +1,33 @@
+package com.ankurshala.backend.security;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * SHA-256 digests of raw token strings, used wherever a token has to be
+ * looked up or stored without keeping the token itself.
+ */
+public final class TokenDigest {
+
+    private static final ThreadLocal<MessageDigest> SHA_256 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    });
+
+    private TokenDigest() {
+    }
+
+    /**
+     * Returns the lowercase hex SHA-256 digest (64 characters) of the given token.
+     */
+    public static String sha256Hex(String token) {
+        MessageDigest digest = SHA_256.get();
+        digest.reset();
+        return HexFormat.of().formatHex(digest.digest(token.getBytes(StandardCharsets.UTF_8)));
+    }
+}
@@ -0,0 +1,96 @@
+package com.ankurshala.backend.security;
+
+import io.jsonwebtoken.Claims;
+
+import java.time.Instant;
+
+/**
+ * Immutable view of a JWT whose signature and expiry have already been checked.
+ * Produced once per token by {@link JwtTokenProvider#verify(String)} so callers
+ * never need to parse the same token again.
+ */
+public final class VerifiedToken {
+
+    private static final String REFRESH_TYPE = "refresh";
+
+    private final String tokenId;
+    private final Long userId;
+    private final String email;
+    private final String name;
+    private final String role;
+    private final String type;
+    private final Instant issuedAt;
+    private final Instant expiresAt;
+
+    public VerifiedToken(String tokenId, Long userId, String email, String name, String role, String type,
+                         Instant issuedAt, Instant expiresAt) {
+        this.tokenId = tokenId;
+        this.userId = userId;
+        this.email = email;
+        this.name = name;
+        this.role = role;
+        this.type = type;
+        this.issuedAt = issuedAt;
+        this.expiresAt = expiresAt;
+    }
+
+    public static VerifiedToken from(Claims claims) {
+        return new VerifiedToken(
+                claims.getId(),
+                Long.parseLong(claims.getSubject()),
+                claims.get("email", String.class),
+                claims.get("name", String.class),
+                claims.get("role", String.class),
+                claims.get("type", String.class),
+                claims.getIssuedAt() != null ? claims.getIssuedAt().toInstant() : null,
+                claims.getExpiration() != null ? claims.getExpiration().toInstant() : null
+        );
+    }
+
+    /**
+     * The {@code jti} claim; null for tokens issued before revocation support.
+     */
+    public String getTokenId() {
+        return tokenId;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getRole() {
+        return role;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public Instant getIssuedAt() {
+        return issuedAt;
+    }
+
+    public Instant getExpiresAt() {
+        return expiresAt;
+    }
+
+    public boolean isRefreshToken() {
+        return REFRESH_TYPE.equals(type);
+    }
+
+    public boolean isAccessToken() {
+        return !isRefreshToken();
+    }
+
+    public boolean isExpired() {
+        return expiresAt != null && !Instant.now().isBefore(expiresAt);
+    }
+}
@@ -0,0 +1,69 @@
+package com.ankurshala.backend.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Bounded cache of recently verified tokens, keyed by the SHA-256 digest of the
+ * raw token. Each entry expires together with its token, so a cached entry can
+ * never outlive the signature check it stands in for.
+ */
+@Component
+public class VerifiedTokenCache {
+
+    private final Cache<String, VerifiedToken> cache;
+
+    public VerifiedTokenCache(@Value("${app.jwt.verified-cache.max-size:10000}") long maxSize) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new TokenExpiry())
+                .build();
+    }
+
+    public VerifiedToken get(String tokenDigest) {
+        VerifiedToken token = cache.getIfPresent(tokenDigest);
+        if (token != null && token.isExpired()) {
+            cache.invalidate(tokenDigest);
+            return null;
+        }
+        return token;
+    }
+
+    public void put(String tokenDigest, VerifiedToken token) {
+        if (token.getExpiresAt() != null && !token.isExpired()) {
+            cache.put(tokenDigest, token);
+        }
+    }
+
+    public void invalidate(String tokenDigest) {
+        cache.invalidate(tokenDigest);
+    }
+
+    public long estimatedSize() {
+        return cache.estimatedSize();
+    }
+
+    private static final class TokenExpiry implements Expiry<String, VerifiedToken> {
+
+        @Override
+        public long expireAfterCreate(String key, VerifiedToken value, long currentTime) {
+            return Math.max(0L, Duration.between(Instant.now(), value.getExpiresAt()).toNanos());
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, VerifiedToken value, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, value, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, VerifiedToken value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -1,15 +1,19 @@
 package com.ankurshala.backend.service;
 
 import com.ankurshala.backend.dto.admin.BroadcastNotificationRequest;
+import com.ankurshala.backend.dto.admin.CursorPage;
 import com.ankurshala.backend.dto.admin.NotificationDto;
 import com.ankurshala.backend.entity.Notification;
 import com.ankurshala.backend.entity.Role;
 import com.ankurshala.backend.entity.User;
 import com.ankurshala.backend.repository.NotificationRepository;
 import com.ankurshala.backend.repository.UserRepository;
+import com.ankurshala.backend.util.KeysetPager;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -17,11 +21,15 @@ import java.time.LocalDateTime;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 @Service
 @Transactional
 public class AdminNotificationService {
 
+    // Non-null sort keys usable with cursor pagination, see V12 for the indexes
+    private static final Set<String> KEYSET_SORTS = Set.of("id", "createdAt");
+
     @Autowired
     private NotificationRepository notificationRepository;
 
@@ -52,6 +60,16 @@ public class AdminNotificationService {
         return notifications.map(this::convertToDto);
     }
 
+    /**
+     * Keyset-paginated variant of {@link #getNotifications}, listing the same
+     * rows without an OFFSET scan or count query.
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<NotificationDto> getNotificationsAfter(String cursor, int size, String sortBy, Sort.Direction direction) {
+        return KeysetPager.fetch(notificationRepository, Specification.where(null), KEYSET_SORTS,
+                sortBy, direction, cursor, size, this::convertToDto);
+    }
+
     public Map<String, Object> broadcastNotification(BroadcastNotificationRequest request) {
         Notification.NotificationAudience audience = Notification.NotificationAudience.valueOf(
                 request.getAudience().toUpperCase());
@@ -1,5 +1,6 @@
 package com.ankurshala.backend.service;
 
+import com.ankurshala.backend.dto.admin.CursorPage;
 import com.ankurshala.backend.dto.admin.StudentDetailDto;
 import com.ankurshala.backend.dto.admin.StudentListDto;
 import com.ankurshala.backend.dto.admin.StudentUpdateDto;
@@ -9,25 +10,41 @@ import com.ankurshala.backend.entity.StudentProfile;
 import com.ankurshala.backend.entity.User;
 import com.ankurshala.backend.repository.StudentProfileRepository;
 import com.ankurshala.backend.repository.UserRepository;
+import com.ankurshala.backend.security.AccountStatusChangedEvent;
+import com.ankurshala.backend.util.KeysetPager;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.Predicate;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 @Service
 @Transactional
 public class AdminStudentService {
 
+    // Non-null sort keys usable with cursor pagination, see V12 for the indexes
+    private static final Set<String> KEYSET_SORTS = Set.of("id", "createdAt", "firstName", "user.email");
+
     @Autowired
     private StudentProfileRepository studentProfileRepository;
 
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
     public Page<StudentListDto> getStudentsWithFilters(String search, Boolean enabled, 
                                                       EducationalBoard educationalBoard, 
                                                       ClassLevel classLevel, Pageable pageable) {
@@ -37,6 +54,50 @@ public class AdminStudentService {
         return students.map(this::convertToStudentListDto);
     }
 
+    /**
+     * Keyset-paginated variant of {@link #getStudentsWithFilters}: same filters,
+     * no OFFSET scan and no count query.
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<StudentListDto> getStudentsAfter(String cursor, int size, String sortBy, Sort.Direction direction,
+                                                       String search, Boolean enabled,
+                                                       EducationalBoard educationalBoard, ClassLevel classLevel) {
+        return KeysetPager.fetch(studentProfileRepository,
+                studentFilter(search, enabled, educationalBoard, classLevel), KEYSET_SORTS,
+                sortBy, direction, cursor, size, this::convertToStudentListDto);
+    }
+
+    // Same conditions as StudentProfileRepository.findStudentsWithFilters
+    private Specification<StudentProfile> studentFilter(String search, Boolean enabled,
+                                                        EducationalBoard educationalBoard, ClassLevel classLevel) {
+        return (root, query, cb) -> {
+            List<Predicate> predicates = new ArrayList<>();
+            Join<StudentProfile, User> user = root.join("user");
+
+            if (search != null && !search.isEmpty()) {
+                String searchTerm = "%" + search.toLowerCase() + "%";
+                predicates.add(cb.or(
+                        cb.like(cb.lower(cb.coalesce(root.get("firstName"), "")), searchTerm),
+                        cb.like(cb.lower(cb.coalesce(root.get("lastName"), "")), searchTerm),
+                        cb.like(cb.lower(cb.coalesce(root.get("middleName"), "")), searchTerm),
+                        cb.like(cb.lower(cb.coalesce(user.get("email"), "")), searchTerm),
+                        cb.like(cb.lower(cb.coalesce(root.get("mobileNumber"), "")), searchTerm),
+                        cb.like(cb.lower(cb.coalesce(root.get("schoolName"), "")), searchTerm)));
+            }
+            if (enabled != null) {
+                predicates.add(cb.equal(user.get("enabled"), enabled));
+            }
+            if (educationalBoard != null) {
+                predicates.add(cb.equal(root.get("educationalBoard"), educationalBoard));
+            }
+            if (classLevel != null) {
+                predicates.add(cb.equal(root.get("classLevel"), classLevel));
+            }
+
+            return cb.and(predicates.toArray(new Predicate[0]));
+        };
+    }
+
     public Optional<StudentDetailDto> getStudentById(Long id) {
         return studentProfileRepository.findById(id)
                 .map(this::convertToStudentDetailDto);
@@ -55,8 +116,9 @@ public class AdminStudentService {
             }
             user.setEmail(updateDto.getEmail());
         }
-        if (updateDto.getEnabled() != null) {
+        if (updateDto.getEnabled() != null && !updateDto.getEnabled().equals(user.getEnabled())) {
             user.setEnabled(updateDto.getEnabled());
+            eventPublisher.publishEvent(AccountStatusChangedEvent.of(user.getId(), user.getEnabled()));
         }
         userRepository.save(user); // Save user changes
 
@@ -86,6 +148,7 @@ public class AdminStudentService {
         User user = student.getUser();
         user.setEnabled(!user.getEnabled());
         userRepository.save(user);
+        eventPublisher.publishEvent(AccountStatusChangedEvent.of(user.getId(), user.getEnabled()));
         
         return user.getEnabled();
     }
@@ -96,6 +159,7 @@ public class AdminStudentService {
         
         // Delete the user (which will cascade to student profile due to relationship)
         userRepository.delete(student.getUser());
+        eventPublisher.publishEvent(AccountStatusChangedEvent.deleted(student.getUser().getId()));
     }
 
     private StudentListDto convertToStudentListDto(StudentProfile student) {
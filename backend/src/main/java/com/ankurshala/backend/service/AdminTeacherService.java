@@ -1,5 +1,6 @@
 package com.ankurshala.backend.service;
 
+import com.ankurshala.backend.dto.admin.CursorPage;
 import com.ankurshala.backend.dto.admin.TeacherDetailDto;
 import com.ankurshala.backend.dto.admin.TeacherListDto;
 import com.ankurshala.backend.entity.TeacherProfile;
@@ -7,24 +8,41 @@ import com.ankurshala.backend.entity.TeacherStatus;
 import com.ankurshala.backend.entity.User;
 import com.ankurshala.backend.repository.TeacherProfileRepository;
 import com.ankurshala.backend.repository.UserRepository;
+import com.ankurshala.backend.security.AccountStatusChangedEvent;
+import com.ankurshala.backend.util.KeysetPager;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Predicate;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 @Service
 @Transactional
 public class AdminTeacherService {
 
+    // Non-null sort keys usable with cursor pagination, see V12 for the indexes
+    private static final Set<String> KEYSET_SORTS = Set.of("id", "createdAt", "user.email");
+
     @Autowired
     private TeacherProfileRepository teacherProfileRepository;
 
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
     public Page<TeacherListDto> getTeachersWithFilters(String search, Boolean enabled, 
                                                       TeacherStatus status, Boolean verified, 
                                                       Pageable pageable) {
@@ -40,6 +58,48 @@ public class AdminTeacherService {
         return teacherProfiles.map(this::convertToTeacherListDto);
     }
 
+    /**
+     * Keyset-paginated variant of {@link #getTeachersWithFilters}: same filters,
+     * no OFFSET scan and no count query.
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<TeacherListDto> getTeachersAfter(String cursor, int size, String sortBy, Sort.Direction direction,
+                                                       String search, Boolean enabled,
+                                                       TeacherStatus status, Boolean verified) {
+        return KeysetPager.fetch(teacherProfileRepository,
+                teacherFilter(search, enabled, status, verified), KEYSET_SORTS,
+                sortBy, direction, cursor, size, this::convertToTeacherListDto);
+    }
+
+    // Same conditions as TeacherProfileRepository.findTeachersWithFilters
+    private Specification<TeacherProfile> teacherFilter(String search, Boolean enabled,
+                                                        TeacherStatus status, Boolean verified) {
+        return (root, query, cb) -> {
+            List<Predicate> predicates = new ArrayList<>();
+            Join<TeacherProfile, User> user = root.join("user", JoinType.LEFT);
+
+            if (search != null && !search.isEmpty()) {
+                String searchTerm = "%" + search.toLowerCase() + "%";
+                predicates.add(cb.or(
+                        cb.like(cb.coalesce(cb.lower(root.get("firstName")), ""), searchTerm),
+                        cb.like(cb.coalesce(cb.lower(root.get("lastName")), ""), searchTerm),
+                        cb.like(cb.coalesce(cb.lower(user.get("email")), ""), searchTerm),
+                        cb.like(cb.coalesce(cb.lower(root.get("specialization")), ""), searchTerm)));
+            }
+            if (enabled != null) {
+                predicates.add(cb.equal(user.get("enabled"), enabled));
+            }
+            if (status != null) {
+                predicates.add(cb.equal(root.join("teacher", JoinType.LEFT).get("status"), status));
+            }
+            if (verified != null) {
+                predicates.add(cb.equal(root.get("verified"), verified));
+            }
+
+            return cb.and(predicates.toArray(new Predicate[0]));
+        };
+    }
+
     public Optional<TeacherDetailDto> getTeacherById(Long id) {
         return teacherProfileRepository.findById(id)
                 .map(this::convertToTeacherDetailDto);
@@ -89,6 +149,7 @@ public class AdminTeacherService {
         User user = teacherProfile.getUser();
         user.setEnabled(!user.getEnabled());
         userRepository.save(user);
+        eventPublisher.publishEvent(AccountStatusChangedEvent.of(user.getId(), user.getEnabled()));
     }
 
     private TeacherListDto convertToTeacherListDto(TeacherProfile teacherProfile) {
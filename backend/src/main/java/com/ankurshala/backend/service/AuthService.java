@@ -4,35 +4,44 @@ import com.ankurshala.backend.dto.auth.AuthResponse;
 import com.ankurshala.backend.dto.auth.RefreshTokenRequest;
 import com.ankurshala.backend.dto.auth.SigninRequest;
 import com.ankurshala.backend.dto.auth.SignupRequest;
-import com.ankurshala.backend.entity.RefreshToken;
 import com.ankurshala.backend.entity.Role;
 import com.ankurshala.backend.entity.User;
-import com.ankurshala.backend.repository.RefreshTokenRepository;
 import com.ankurshala.backend.repository.UserRepository;
+import com.ankurshala.backend.security.AccessTokenRevocationService;
 import com.ankurshala.backend.security.JwtTokenProvider;
+import com.ankurshala.backend.security.LoginThrottleService;
+import com.ankurshala.backend.security.RefreshTokenStore;
+import com.ankurshala.backend.security.VerifiedToken;
 import com.ankurshala.backend.exception.DuplicateResourceException;
 import com.ankurshala.backend.exception.ResourceNotFoundException;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
-
-import java.time.LocalDateTime;
-import java.util.Optional;
-
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Sign-up, sign-in and token refresh.
+ *
+ * <p>Password hashing can wait in the bounded hash queue, so sign-up and
+ * sign-in hash outside any transaction and only open a short one for their
+ * writes; a queue of waiting logins never holds pooled connections.</p>
+ */
 @Service
-@Transactional
 public class AuthService {
 
     @Autowired
     private UserRepository userRepository;
 
     @Autowired
-    private RefreshTokenRepository refreshTokenRepository;
+    private RefreshTokenStore refreshTokenStore;
 
     @Autowired
     private PasswordEncoder passwordEncoder;
@@ -43,12 +52,28 @@ public class AuthService {
     @Autowired
     private AuthenticationManager authenticationManager;
 
+    @Autowired
+    private AccessTokenRevocationService accessTokenRevocationService;
+
+    @Autowired
+    private LoginThrottleService loginThrottleService;
+
     @Autowired
     private StudentProfileService studentProfileService;
 
     @Autowired
     private TeacherService teacherService;
 
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transactionTemplate;
+
+    @PostConstruct
+    void init() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
     public AuthResponse signupStudent(SignupRequest signupRequest) {
         if (userRepository.existsByEmail(signupRequest.getEmail())) {
             throw new DuplicateResourceException("Email is already in use!");
@@ -61,12 +86,14 @@ public class AuthService {
         user.setRole(Role.STUDENT);
         user.setEnabled(true);
 
-        User savedUser = userRepository.save(user);
+        return transactionTemplate.execute(status -> {
+            User savedUser = userRepository.save(user);
 
-        // Create student profile
-        studentProfileService.createStudentProfile(savedUser, signupRequest.getName());
+            // Create student profile
+            studentProfileService.createStudentProfile(savedUser, signupRequest.getName());
 
-        return generateAuthResponse(savedUser);
+            return generateAuthResponse(savedUser);
+        });
     }
 
     public AuthResponse signupTeacher(SignupRequest signupRequest) {
@@ -81,17 +108,33 @@ public class AuthService {
         user.setRole(Role.TEACHER);
         user.setEnabled(true);
 
-        User savedUser = userRepository.save(user);
+        return transactionTemplate.execute(status -> {
+            User savedUser = userRepository.save(user);
 
-        // Create teacher and teacher profile
-        teacherService.createTeacher(savedUser);
+            // Create teacher and teacher profile
+            teacherService.createTeacher(savedUser);
 
-        return generateAuthResponse(savedUser);
+            return generateAuthResponse(savedUser);
+        });
     }
 
-    public AuthResponse signin(SigninRequest signinRequest) {
-        Authentication authentication = authenticationManager.authenticate(
-                new UsernamePasswordAuthenticationToken(signinRequest.getEmail(), signinRequest.getPassword()));
+    public AuthResponse signin(SigninRequest signinRequest, String clientIp) {
+        // Rejects throttled attempts before any password hash is computed; the attempt counts as failed
+        // unless it succeeds, so a wrong password costs no further Redis call
+        String attemptId = loginThrottleService.reserveAttempt(signinRequest.getEmail(), clientIp);
+
+        Authentication authentication;
+        try {
+            authentication = authenticationManager.authenticate(
+                    new UsernamePasswordAuthenticationToken(signinRequest.getEmail(), signinRequest.getPassword()));
+        } catch (BadCredentialsException e) {
+            throw e;
+        } catch (RuntimeException e) {
+            // Not a wrong password (e.g. shed by the hashing pool), so not a failure either
+            loginThrottleService.refund(signinRequest.getEmail(), clientIp, attemptId);
+            throw e;
+        }
+        loginThrottleService.recordSuccess(signinRequest.getEmail(), clientIp, attemptId);
 
         SecurityContextHolder.getContext().setAuthentication(authentication);
 
@@ -101,6 +144,7 @@ public class AuthService {
         return generateAuthResponse(user);
     }
 
+    @Transactional
     public AuthResponse refreshToken(RefreshTokenRequest refreshTokenRequest) {
         String refreshToken = refreshTokenRequest.getRefreshToken();
         
@@ -108,45 +152,41 @@ public class AuthService {
             throw new RuntimeException("Invalid refresh token");
         }
 
-        Long userId = jwtTokenProvider.getUserIdFromToken(refreshToken);
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new ResourceNotFoundException("User not found"));
-
-        // Verify refresh token exists and is not revoked
-        Optional<RefreshToken> tokenEntity = refreshTokenRepository.findByTokenHash(
-                String.valueOf(refreshToken.hashCode()));
-        
-        if (tokenEntity.isEmpty() || tokenEntity.get().isRevoked() || tokenEntity.get().isExpired()) {
+        // Retire the presented token; fails if it is unknown, expired or already used
+        RefreshTokenStore.ConsumedToken consumed = refreshTokenStore.consume(refreshToken);
+        if (consumed == null) {
             throw new RuntimeException("Invalid refresh token");
         }
 
-        // Revoke old refresh token
-        refreshTokenRepository.revokeAllUserTokens(user, LocalDateTime.now());
+        User user = userRepository.findById(consumed.getUserId())
+                .orElseThrow(() -> new ResourceNotFoundException("User not found"));
 
-        return generateAuthResponse(user);
+        return generateAuthResponse(user, consumed.getFamilyId());
     }
 
-    public void logout(String refreshToken) {
+    @Transactional
+    public void logout(String refreshToken, String accessToken) {
         if (jwtTokenProvider.validateToken(refreshToken) && jwtTokenProvider.isRefreshToken(refreshToken)) {
-            Long userId = jwtTokenProvider.getUserIdFromToken(refreshToken);
-            User user = userRepository.findById(userId).orElse(null);
-            
-            if (user != null) {
-                refreshTokenRepository.revokeAllUserTokens(user, LocalDateTime.now());
-            }
+            refreshTokenStore.revoke(refreshToken);
+        }
+
+        // Revoke the presented access token too, so it stops working immediately
+        VerifiedToken verifiedAccessToken = jwtTokenProvider.verify(accessToken);
+        if (verifiedAccessToken != null && verifiedAccessToken.isAccessToken()) {
+            accessTokenRevocationService.revoke(verifiedAccessToken);
         }
     }
 
     private AuthResponse generateAuthResponse(User user) {
+        return generateAuthResponse(user, null);
+    }
+
+    private AuthResponse generateAuthResponse(User user, String familyId) {
         String accessToken = jwtTokenProvider.generateAccessToken(user);
         String refreshToken = jwtTokenProvider.generateRefreshToken(user);
 
-        // Store refresh token hash in database
-        RefreshToken refreshTokenEntity = new RefreshToken();
-        refreshTokenEntity.setUser(user);
-        refreshTokenEntity.setTokenHash(String.valueOf(refreshToken.hashCode()));
-        refreshTokenEntity.setExpiresAt(LocalDateTime.now().plusDays(7));
-        refreshTokenRepository.save(refreshTokenEntity);
+        // Store the refresh token digest; a null family starts a new session
+        refreshTokenStore.store(user, refreshToken, familyId);
 
         return new AuthResponse(accessToken, refreshToken, user.getId(), user.getName(), user.getEmail(), user.getRole());
     }
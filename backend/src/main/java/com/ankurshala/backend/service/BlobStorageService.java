@@ -0,0 +1,326 @@
+package com.ankurshala.backend.service;
+
+import com.ankurshala.backend.dto.BlobDto;
+import com.ankurshala.backend.exception.ResourceNotFoundException;
+import com.ankurshala.backend.exception.TooManyRequestsException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Content-addressed file store for uploaded documents, photos and note
+ * attachments.
+ *
+ * <p>Uploads are streamed to a temp file while being hashed, then moved to
+ * {@code <dir>/ab/cd/<sha256>}; a second upload of the same bytes only keeps
+ * the existing file. Memory use is one copy buffer whatever the file size. The
+ * directory must be shared by all nodes.</p>
+ *
+ * <p>Entities keep plain URL strings ({@link #urlOf(String)}); the
+ * {@code blobs.ref_count} of each blob follows those fields (see
+ * {@code BlobReferenceTracker}), and blobs that stay unreferenced past the
+ * grace period are swept. Finalizing an upload and sweeping a blob take the
+ * same per-hash advisory lock, so a sweep never removes a file that a
+ * concurrent upload is about to reuse.</p>
+ *
+ * <p>Every upload is recorded per user in {@code blob_uploads}. That grants
+ * the uploader read access before anything references the blob, and it
+ * backs a daily per-user quota of files and bytes. Other readers need to own
+ * an entity that references the blob; see {@link #canRead}.</p>
+ */
+@Service
+public class BlobStorageService {
+
+    private static final Logger logger = LoggerFactory.getLogger(BlobStorageService.class);
+
+    public static final String URL_PREFIX = "/api/blobs/";
+
+    private static final Pattern BLOB_URL = Pattern.compile("/blobs/([0-9a-f]{64})");
+    private static final Pattern SHA256 = Pattern.compile("[0-9a-f]{64}");
+
+    // Advisory lock classes for per-blob and per-uploader locks; two-key locks do not collide with single-key ones
+    private static final int BLOB_LOCK_CLASS = 0x424C4F42;
+    private static final int UPLOADER_LOCK_CLASS = 0x424C5055;
+
+    private static final Duration QUOTA_WINDOW = Duration.ofDays(1);
+
+    private static final String DEFAULT_CONTENT_TYPE = "application/octet-stream";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final Path root;
+    private final Path spoolDir;
+    private final Duration orphanGrace;
+    private final int quotaFiles;
+    private final long quotaBytes;
+
+    public BlobStorageService(JdbcTemplate jdbcTemplate,
+                              PlatformTransactionManager transactionManager,
+                              @Value("${app.blobs.dir:./data/blobs}") String dir,
+                              @Value("${app.blobs.orphan-grace:24h}") Duration orphanGrace,
+                              @Value("${app.blobs.quota.files-per-day:100}") int quotaFiles,
+                              @Value("${app.blobs.quota.bytes-per-day:524288000}") long quotaBytes) throws IOException {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.root = Path.of(dir).toAbsolutePath().normalize();
+        // Same file system as the blobs, so finalizing is an atomic rename
+        this.spoolDir = Files.createDirectories(root.resolve("tmp"));
+        this.orphanGrace = orphanGrace;
+        this.quotaFiles = quotaFiles;
+        this.quotaBytes = quotaBytes;
+    }
+
+    public static String urlOf(String sha256) {
+        return URL_PREFIX + sha256;
+    }
+
+    /**
+     * Hashes of all blob URLs in {@code value}, which may be a single URL or
+     * text holding several (the attachments JSON).
+     */
+    public static List<String> referencedHashes(String value) {
+        if (value == null || value.isEmpty()) {
+            return List.of();
+        }
+        List<String> hashes = new ArrayList<>();
+        Matcher matcher = BLOB_URL.matcher(value);
+        while (matcher.find()) {
+            hashes.add(matcher.group(1));
+        }
+        return hashes;
+    }
+
+    /**
+     * Fails with {@link TooManyRequestsException} if another {@code size} bytes
+     * would take the user over the daily quota. Checked again, under a lock,
+     * when the upload is stored.
+     */
+    public void checkQuota(Long userId, long size) {
+        List<Map<String, Object>> usage = jdbcTemplate.queryForList(
+                "SELECT COUNT(*) AS files, COALESCE(SUM(size_bytes), 0) AS bytes, MIN(uploaded_at) AS oldest " +
+                "FROM blob_uploads WHERE user_id = ? AND uploaded_at > ?",
+                userId, Timestamp.valueOf(LocalDateTime.now().minus(QUOTA_WINDOW)));
+        Map<String, Object> row = usage.get(0);
+        long files = ((Number) row.get("files")).longValue();
+        long bytes = ((Number) row.get("bytes")).longValue();
+        if (files + 1 > quotaFiles || bytes + size > quotaBytes) {
+            Timestamp oldest = (Timestamp) row.get("oldest");
+            long retryAfter = oldest == null ? QUOTA_WINDOW.toSeconds() : Math.max(1,
+                    Duration.between(LocalDateTime.now(), oldest.toLocalDateTime().plus(QUOTA_WINDOW)).toSeconds());
+            throw new TooManyRequestsException("Upload quota exceeded, please try again later", retryAfter);
+        }
+    }
+
+    /**
+     * Stores the stream for {@code uploaderId} and returns the blob,
+     * deduplicated by content. The new blob is unreferenced until an entity
+     * field points at its URL. With {@code enforceQuota} the upload must fit
+     * the uploader's daily quota.
+     */
+    public BlobDto store(InputStream input, String contentType, Long uploaderId, boolean enforceQuota) {
+        String type = contentType == null || contentType.isBlank() ? DEFAULT_CONTENT_TYPE : contentType;
+        Path spool = null;
+        try {
+            spool = Files.createTempFile(spoolDir, "upload-", ".part");
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            long size;
+            try (InputStream in = new DigestInputStream(input, digest);
+                 OutputStream out = Files.newOutputStream(spool)) {
+                size = in.transferTo(out);
+            }
+            String sha256 = HexFormat.of().formatHex(digest.digest());
+            String storedType = finalizeUpload(sha256, spool, size, type, uploaderId, enforceQuota);
+            return new BlobDto(sha256, urlOf(sha256), size, storedType);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not store upload", e);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        } finally {
+            deleteQuietly(spool);
+        }
+    }
+
+    private String finalizeUpload(String sha256, Path spool, long size, String contentType,
+                                  Long uploaderId, boolean enforceQuota) {
+        Path target = pathOf(sha256);
+        return transactionTemplate.execute(status -> {
+            if (enforceQuota) {
+                // Concurrent uploads of one user are counted one after the other
+                jdbcTemplate.queryForList("SELECT pg_advisory_xact_lock(?, ?)", UPLOADER_LOCK_CLASS, uploaderId.intValue());
+                checkQuota(uploaderId, size);
+            }
+            lock(sha256);
+            boolean created = false;
+            try {
+                if (!Files.exists(target)) {
+                    Files.createDirectories(target.getParent());
+                    Files.move(spool, target, StandardCopyOption.ATOMIC_MOVE);
+                    created = true;
+                }
+                // Reuse restarts the grace period so a sweep cannot race the new reference;
+                // the first upload's content type is kept
+                String storedType = jdbcTemplate.queryForObject(
+                        "INSERT INTO blobs (sha256, size_bytes, content_type) VALUES (?, ?, ?) " +
+                        "ON CONFLICT (sha256) DO UPDATE SET touched_at = CURRENT_TIMESTAMP RETURNING content_type",
+                        String.class, sha256, size, contentType);
+                jdbcTemplate.update("INSERT INTO blob_uploads (sha256, user_id, size_bytes) VALUES (?, ?, ?)",
+                        sha256, uploaderId, size);
+                return storedType;
+            } catch (IOException | RuntimeException e) {
+                if (created) {
+                    deleteQuietly(target);
+                }
+                throw e instanceof IOException io ? new UncheckedIOException(io) : (RuntimeException) e;
+            }
+        });
+    }
+
+    /**
+     * The stored blob, or {@link ResourceNotFoundException}.
+     */
+    public StoredBlob get(String sha256) {
+        if (sha256 == null || !SHA256.matcher(sha256).matches()) {
+            throw new ResourceNotFoundException("Blob not found: " + sha256);
+        }
+        List<StoredBlob> rows = jdbcTemplate.query(
+                "SELECT size_bytes, content_type FROM blobs WHERE sha256 = ?",
+                (rs, rowNum) -> new StoredBlob(sha256, pathOf(sha256), rs.getLong(1), rs.getString(2)),
+                sha256);
+        if (rows.isEmpty() || !Files.isReadable(rows.get(0).path())) {
+            throw new ResourceNotFoundException("Blob not found: " + sha256);
+        }
+        return rows.get(0);
+    }
+
+    /**
+     * Whether the user may read the blob: they uploaded it, or they own a
+     * document, photo or ID proof that references it. Topic note attachments
+     * are course content and readable by every signed-in user; they are found
+     * through {@code blobs.note_ref_count}. Admins are checked by the caller.
+     */
+    public boolean canRead(String sha256, Long userId) {
+        String url = "%" + "/blobs/" + sha256 + "%";
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+                "SELECT EXISTS (SELECT 1 FROM blob_uploads WHERE sha256 = ? AND user_id = ?) " +
+                "OR EXISTS (SELECT 1 FROM student_documents d JOIN student_profiles p ON p.id = d.student_id " +
+                "           WHERE p.user_id = ? AND d.document_url LIKE ?) " +
+                "OR EXISTS (SELECT 1 FROM teacher_documents d JOIN teachers t ON t.id = d.teacher_id " +
+                "           WHERE t.user_id = ? AND d.document_url LIKE ?) " +
+                "OR EXISTS (SELECT 1 FROM student_profiles WHERE user_id = ? " +
+                "           AND (student_photo_url LIKE ? OR school_id_card_url LIKE ?)) " +
+                "OR EXISTS (SELECT 1 FROM teacher_profiles WHERE user_id = ? " +
+                "           AND (profile_photo_url LIKE ? OR govt_id_proof_url LIKE ?)) " +
+                "OR EXISTS (SELECT 1 FROM blobs WHERE sha256 = ? AND note_ref_count > 0)",
+                Boolean.class, sha256, userId, userId, url, userId, url, userId, url, url, userId, url, url, sha256));
+    }
+
+    /**
+     * Applies reference count changes, keyed by hash; {@code noteAttachments}
+     * counts them towards the note references too. Joins the caller's
+     * transaction. Hashes without a stored blob are ignored. A count that
+     * would go negative means the counts have drifted from the entity
+     * fields: it is logged and kept as is, and the sweep never removes such
+     * a blob.
+     */
+    public void adjustReferences(Map<String, Integer> deltas, boolean noteAttachments) {
+        List<String> hashes = new ArrayList<>();
+        List<Integer> changes = new ArrayList<>();
+        // Sorted so concurrent flushes lock blob rows in the same order
+        new TreeMap<>(deltas).forEach((sha256, delta) -> {
+            if (delta != 0) {
+                hashes.add(sha256);
+                changes.add(delta);
+            }
+        });
+        if (hashes.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.query(con -> {
+            var ps = con.prepareStatement(
+                    "UPDATE blobs b SET ref_count = b.ref_count + d.delta, " +
+                    "note_ref_count = b.note_ref_count + CASE WHEN ? THEN d.delta ELSE 0 END, touched_at = CURRENT_TIMESTAMP " +
+                    "FROM unnest(?::text[], ?::int[]) AS d(sha256, delta) WHERE b.sha256 = d.sha256 " +
+                    "RETURNING b.sha256, b.ref_count");
+            ps.setBoolean(1, noteAttachments);
+            ps.setArray(2, con.createArrayOf("text", hashes.toArray()));
+            ps.setArray(3, con.createArrayOf("integer", changes.toArray()));
+            return ps;
+        }, rs -> {
+            if (rs.getInt(2) < 0) {
+                logger.error("Reference count of blob {} dropped to {}; counts have drifted from the entity fields",
+                        rs.getString(1), rs.getInt(2));
+            }
+        });
+    }
+
+    @Scheduled(fixedDelayString = "${app.blobs.sweep-interval-ms:3600000}",
+               initialDelayString = "${app.blobs.sweep-interval-ms:3600000}")
+    public void sweepOrphans() {
+        Timestamp cutoff = Timestamp.valueOf(LocalDateTime.now().minus(orphanGrace));
+        List<String> candidates = jdbcTemplate.queryForList(
+                "SELECT sha256 FROM blobs WHERE ref_count = 0 AND touched_at < ? LIMIT 1000", String.class, cutoff);
+        int removed = 0;
+        for (String sha256 : candidates) {
+            Boolean deleted = transactionTemplate.execute(status -> {
+                lock(sha256);
+                // Re-checked under the lock: an upload or reference may have touched it since
+                if (jdbcTemplate.update("DELETE FROM blobs WHERE sha256 = ? AND ref_count = 0 AND touched_at < ?",
+                        sha256, cutoff) == 0) {
+                    return false;
+                }
+                deleteQuietly(pathOf(sha256));
+                return true;
+            });
+            if (Boolean.TRUE.equals(deleted)) {
+                removed++;
+            }
+        }
+        if (removed > 0) {
+            logger.info("Removed {} unreferenced blobs", removed);
+        }
+    }
+
+    private void lock(String sha256) {
+        jdbcTemplate.queryForList("SELECT pg_advisory_xact_lock(?, hashtext(?))", BLOB_LOCK_CLASS, sha256);
+    }
+
+    private Path pathOf(String sha256) {
+        return root.resolve(sha256.substring(0, 2)).resolve(sha256.substring(2, 4)).resolve(sha256);
+    }
+
+    private static void deleteQuietly(Path path) {
+        if (path == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            logger.warn("Could not delete {}: {}", path, e.getMessage());
+        }
+    }
+
+    public record StoredBlob(String sha256, Path path, long sizeBytes, String contentType) {
+    }
+}
@@ -0,0 +1,184 @@
+package com.ankurshala.backend.service;
+
+import com.ankurshala.backend.dto.content.BulkContentUpdateRequest;
+import com.ankurshala.backend.dto.content.BulkContentUpdateRequest.Action;
+import com.ankurshala.backend.dto.content.BulkContentUpdateRequest.Filter;
+import com.ankurshala.backend.exception.DuplicateResourceException;
+import com.ankurshala.backend.exception.ResourceNotFoundException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.*;
+
+/**
+ * Set-based bulk changes to chapters and topics: (de)activate, soft-delete,
+ * restore and re-parent.
+ *
+ * <p>Each chunk of up to {@value #CHUNK_SIZE} ids is one
+ * {@code UPDATE ... WHERE id = ANY(?) RETURNING id}, so 10,000 rows take two
+ * statements instead of a load and a save per row. Rows already in the target
+ * state are skipped by the WHERE clause and not counted as affected. Ids are
+ * sorted first so concurrent bulk updates lock rows in the same order.</p>
+ *
+ * <p>The whole request runs in one transaction; the taxonomy snapshot is
+ * updated once, from the ids the statements actually changed.</p>
+ */
+@Service
+@Slf4j
+public class ContentBulkUpdateService {
+
+    static final int CHUNK_SIZE = 5000;
+
+    private enum Target {
+        CHAPTERS("chapters", "subject_id", "subjects"),
+        TOPICS("topics", "chapter_id", "chapters");
+
+        final String table;
+        final String parentColumn;
+        final String parentTable;
+
+        Target(String table, String parentColumn, String parentTable) {
+            this.table = table;
+            this.parentColumn = parentColumn;
+            this.parentTable = parentTable;
+        }
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+
+    public ContentBulkUpdateService(JdbcTemplate jdbcTemplate, ApplicationEventPublisher eventPublisher) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.eventPublisher = eventPublisher;
+    }
+
+    @Transactional
+    public Map<String, Object> updateChapters(BulkContentUpdateRequest request) {
+        List<Long> ids = resolveIds(Target.CHAPTERS, request);
+        List<Long> changed = apply(Target.CHAPTERS, request, ids);
+        eventPublisher.publishEvent(new ContentTaxonomyChangedEvent(Set.of(), Set.of(), new HashSet<>(changed), Set.of()));
+        return result(request, ids, changed);
+    }
+
+    @Transactional
+    public Map<String, Object> updateTopics(BulkContentUpdateRequest request) {
+        List<Long> ids = resolveIds(Target.TOPICS, request);
+        List<Long> changed = apply(Target.TOPICS, request, ids);
+        eventPublisher.publishEvent(new ContentTaxonomyChangedEvent(Set.of(), Set.of(), Set.of(), new HashSet<>(changed)));
+        return result(request, ids, changed);
+    }
+
+    private List<Long> apply(Target target, BulkContentUpdateRequest request, List<Long> ids) {
+        Long parentId = request.getTargetParentId();
+        if (request.getAction() == Action.MOVE) {
+            if (parentId == null) {
+                throw new IllegalArgumentException("targetParentId is required for MOVE");
+            }
+            Integer exists = jdbcTemplate.queryForObject(
+                    "SELECT count(*) FROM " + target.parentTable + " WHERE id = ?", Integer.class, parentId);
+            if (exists == null || exists == 0) {
+                throw new ResourceNotFoundException("Target parent not found with id: " + parentId);
+            }
+        }
+
+        String sql = "UPDATE " + target.table + " SET " + setClause(target, request.getAction()) +
+                ", updated_at = CURRENT_TIMESTAMP WHERE id = ANY(?) AND " + guard(target, request.getAction()) +
+                " RETURNING id";
+
+        List<Long> changed = new ArrayList<>();
+        try {
+            for (int from = 0; from < ids.size(); from += CHUNK_SIZE) {
+                Object[] chunk = ids.subList(from, Math.min(from + CHUNK_SIZE, ids.size())).toArray();
+                changed.addAll(jdbcTemplate.query(sql, ps -> {
+                    int index = 1;
+                    if (request.getAction() == Action.MOVE) {
+                        ps.setLong(index++, parentId);
+                    }
+                    ps.setArray(index++, ps.getConnection().createArrayOf("bigint", chunk));
+                    if (request.getAction() == Action.MOVE) {
+                        ps.setLong(index, parentId);
+                    }
+                }, (rs, rowNum) -> rs.getLong(1)));
+            }
+        } catch (DataIntegrityViolationException e) {
+            throw new DuplicateResourceException("Bulk " + request.getAction() + " would create duplicate " +
+                    target.table + " under the same parent");
+        }
+
+        log.info("Bulk {} on {}: {} requested, {} changed", request.getAction(), target.table, ids.size(), changed.size());
+        return changed;
+    }
+
+    private List<Long> resolveIds(Target target, BulkContentUpdateRequest request) {
+        boolean hasIds = request.getIds() != null && !request.getIds().isEmpty();
+        Filter filter = request.getFilter();
+        if (hasIds == (filter != null)) {
+            throw new IllegalArgumentException("Provide either ids or filter");
+        }
+        if (hasIds) {
+            return request.getIds().stream().filter(Objects::nonNull).distinct().sorted().toList();
+        }
+
+        StringBuilder sql = new StringBuilder("SELECT t.id FROM ").append(target.table).append(" t");
+        List<Object> args = new ArrayList<>();
+        List<String> conditions = new ArrayList<>();
+        if (filter.getSubjectId() != null) {
+            if (target == Target.TOPICS) {
+                sql.append(" JOIN chapters c ON c.id = t.chapter_id");
+                conditions.add("c.subject_id = ?");
+            } else {
+                conditions.add("t.subject_id = ?");
+            }
+            args.add(filter.getSubjectId());
+        }
+        if (filter.getChapterId() != null) {
+            if (target != Target.TOPICS) {
+                throw new IllegalArgumentException("chapterId filter applies to topics only");
+            }
+            conditions.add("t.chapter_id = ?");
+            args.add(filter.getChapterId());
+        }
+        if (filter.getActive() != null) {
+            conditions.add("t.active = ?");
+            args.add(filter.getActive());
+        }
+        if (conditions.isEmpty()) {
+            // An empty filter would match the whole table
+            throw new IllegalArgumentException("Filter must have at least one condition");
+        }
+        sql.append(" WHERE ").append(String.join(" AND ", conditions)).append(" ORDER BY t.id");
+        return jdbcTemplate.queryForList(sql.toString(), Long.class, args.toArray());
+    }
+
+    private static String setClause(Target target, Action action) {
+        return switch (action) {
+            case ACTIVATE -> "active = true";
+            case DEACTIVATE -> "active = false";
+            case SOFT_DELETE -> "deleted_at = CURRENT_TIMESTAMP";
+            case RESTORE -> "deleted_at = NULL";
+            case MOVE -> target.parentColumn + " = ?";
+        };
+    }
+
+    private static String guard(Target target, Action action) {
+        return switch (action) {
+            case ACTIVATE -> "active = false";
+            case DEACTIVATE -> "active = true";
+            case SOFT_DELETE -> "deleted_at IS NULL";
+            case RESTORE -> "deleted_at IS NOT NULL";
+            case MOVE -> target.parentColumn + " <> ?";
+        };
+    }
+
+    private static Map<String, Object> result(BulkContentUpdateRequest request, List<Long> ids, List<Long> changed) {
+        Map<String, Object> result = new HashMap<>();
+        result.put("action", request.getAction());
+        result.put("matched", ids.size());
+        result.put("affected", changed.size());
+        return result;
+    }
+}
@@ -0,0 +1,165 @@
+package com.ankurshala.backend.service;
+
+import com.ankurshala.backend.dto.content.ContentChangeDto;
+import com.ankurshala.backend.dto.content.ContentChangeFeedDto;
+import com.ankurshala.backend.entity.Board;
+import com.ankurshala.backend.entity.Chapter;
+import com.ankurshala.backend.entity.Subject;
+import com.ankurshala.backend.entity.Topic;
+import com.ankurshala.backend.repository.BoardRepository;
+import com.ankurshala.backend.repository.ChapterRepository;
+import com.ankurshala.backend.repository.SubjectRepository;
+import com.ankurshala.backend.repository.TopicRepository;
+import com.ankurshala.backend.service.TaxonomySnapshot.BoardNode;
+import com.ankurshala.backend.service.TaxonomySnapshot.ChapterNode;
+import com.ankurshala.backend.service.TaxonomySnapshot.SubjectNode;
+import com.ankurshala.backend.service.TaxonomySnapshot.TopicNode;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Content change feed: an append-only log of changed boards, subjects,
+ * chapters and topics, read back as compacted deltas.
+ *
+ * <p>Every writer already publishes {@link ContentTaxonomyChangedEvent}; the
+ * ids are logged just before the writer's transaction commits, so a change and
+ * its log rows commit or roll back together. The insert takes a transaction
+ * advisory lock, which makes seq order match commit order: a reader that has
+ * seen seq N can never later find an uncommitted N - 1 appear.</p>
+ *
+ * <p>Reads return each entity once, with its current state (or DELETE when the
+ * row is gone), ordered by its latest seq.</p>
+ */
+@Service
+public class ContentChangeLogService {
+
+    public static final int MAX_LIMIT = 5000;
+
+    // Arbitrary application-wide key for pg_advisory_xact_lock
+    private static final long LOG_LOCK_KEY = 0x43434C47L;
+
+    private static final String BOARD = "BOARD";
+    private static final String SUBJECT = "SUBJECT";
+    private static final String CHAPTER = "CHAPTER";
+    private static final String TOPIC = "TOPIC";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final BoardRepository boardRepository;
+    private final SubjectRepository subjectRepository;
+    private final ChapterRepository chapterRepository;
+    private final TopicRepository topicRepository;
+    private final TransactionTemplate writeTransaction;
+    private final TransactionTemplate readTransaction;
+
+    public ContentChangeLogService(JdbcTemplate jdbcTemplate,
+                                   BoardRepository boardRepository,
+                                   SubjectRepository subjectRepository,
+                                   ChapterRepository chapterRepository,
+                                   TopicRepository topicRepository,
+                                   PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.boardRepository = boardRepository;
+        this.subjectRepository = subjectRepository;
+        this.chapterRepository = chapterRepository;
+        this.topicRepository = topicRepository;
+        // Joins the writer's transaction; starts one for non-transactional writers
+        this.writeTransaction = new TransactionTemplate(transactionManager);
+        // One snapshot for the log and the entity rows it points to
+        this.readTransaction = new TransactionTemplate(transactionManager);
+        this.readTransaction.setReadOnly(true);
+        this.readTransaction.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void onTaxonomyChanged(ContentTaxonomyChangedEvent event) {
+        if (event.isEmpty()) {
+            return;
+        }
+        writeTransaction.executeWithoutResult(status -> {
+            jdbcTemplate.queryForList("SELECT pg_advisory_xact_lock(?)", LOG_LOCK_KEY);
+            append(BOARD, event.getBoardIds());
+            append(SUBJECT, event.getSubjectIds());
+            append(CHAPTER, event.getChapterIds());
+            append(TOPIC, event.getTopicIds());
+        });
+    }
+
+    private void append(String type, Set<Long> ids) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        Object[] sorted = ids.stream().sorted().toArray();
+        jdbcTemplate.update(con -> {
+            var ps = con.prepareStatement(
+                    "INSERT INTO content_changes (entity_type, entity_id) SELECT ?, unnest(?::bigint[])");
+            ps.setString(1, type);
+            ps.setArray(2, con.createArrayOf("bigint", sorted));
+            return ps;
+        });
+    }
+
+    /**
+     * Changes after {@code since}, at most {@code limit} entities. An entity
+     * changed several times appears once, at the position of its latest change.
+     */
+    public ContentChangeFeedDto getChanges(long since, int limit) {
+        int pageSize = Math.max(1, Math.min(limit, MAX_LIMIT));
+        return readTransaction.execute(status -> {
+            List<LoggedChange> logged = jdbcTemplate.query(
+                    "SELECT entity_type, entity_id, max(seq) AS seq FROM content_changes WHERE seq > ? " +
+                    "GROUP BY entity_type, entity_id ORDER BY seq LIMIT ?",
+                    (rs, rowNum) -> new LoggedChange(rs.getString(1), rs.getLong(2), rs.getLong(3)),
+                    since, pageSize + 1);
+
+            boolean hasMore = logged.size() > pageSize;
+            List<LoggedChange> page = hasMore ? logged.subList(0, pageSize) : logged;
+            Map<String, Map<Long, Object>> current = loadCurrent(page);
+
+            List<ContentChangeDto> changes = new ArrayList<>(page.size());
+            for (LoggedChange change : page) {
+                Object data = current.get(change.type()).get(change.id());
+                changes.add(new ContentChangeDto(change.seq(), change.type(), change.id(),
+                        data != null ? "UPSERT" : "DELETE", data));
+            }
+            long nextSince = page.isEmpty() ? since : page.get(page.size() - 1).seq();
+            return new ContentChangeFeedDto(since, nextSince, hasMore, changes);
+        });
+    }
+
+    private Map<String, Map<Long, Object>> loadCurrent(List<LoggedChange> page) {
+        Map<String, Set<Long>> idsByType = page.stream().collect(Collectors.groupingBy(
+                LoggedChange::type, Collectors.mapping(LoggedChange::id, Collectors.toSet())));
+
+        Map<String, Map<Long, Object>> current = new HashMap<>();
+        current.put(BOARD, byId(boardRepository.findAllById(idsByType.getOrDefault(BOARD, Set.of())),
+                Board::getId, board -> BoardNode.of(board).toDto()));
+        current.put(SUBJECT, byId(subjectRepository.findAllById(idsByType.getOrDefault(SUBJECT, Set.of())),
+                Subject::getId, subject -> SubjectNode.of(subject).toDto()));
+        current.put(CHAPTER, byId(chapterRepository.findAllById(idsByType.getOrDefault(CHAPTER, Set.of())),
+                Chapter::getId, chapter -> ChapterNode.of(chapter).toDto(SubjectNode.of(chapter.getSubject()))));
+        current.put(TOPIC, byId(topicRepository.findAllById(idsByType.getOrDefault(TOPIC, Set.of())),
+                Topic::getId, topic -> {
+                    Chapter chapter = topic.getChapter();
+                    return TopicNode.of(topic).toDto(ChapterNode.of(chapter), SubjectNode.of(chapter.getSubject()));
+                }));
+        return current;
+    }
+
+    private static <T> Map<Long, Object> byId(List<T> rows, Function<T, Long> id, Function<T, Object> toDto) {
+        Map<Long, Object> result = new HashMap<>(rows.size() * 2);
+        rows.forEach(row -> result.put(id.apply(row), toDto.apply(row)));
+        return result;
+    }
+
+    private record LoggedChange(String type, long id, long seq) {
+    }
+}
@@ -1,25 +1,37 @@
 package com.ankurshala.backend.service;
 
+import com.ankurshala.backend.config.FullTextSearchFunctionContributor;
+import com.ankurshala.backend.dto.admin.CursorPage;
 import com.ankurshala.backend.dto.content.*;
 import com.ankurshala.backend.entity.*;
 import com.ankurshala.backend.exception.ResourceNotFoundException;
 import com.ankurshala.backend.repository.*;
+import com.ankurshala.backend.util.KeysetPager;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.data.support.PageableExecutionUtils;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Join;
 import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
+import java.util.Set;
 
 @Service
 @RequiredArgsConstructor
@@ -27,17 +39,45 @@ import java.util.stream.Collectors;
 @Transactional
 public class ContentManagementService {
 
+    // Non-null columns with a matching (column, id) index, see V12
+    private static final Set<String> BOARD_KEYSET_SORTS = Set.of("id", "name", "createdAt");
+    private static final Set<String> SUBJECT_KEYSET_SORTS = Set.of("id", "name", "createdAt");
+    private static final Set<String> CHAPTER_KEYSET_SORTS = Set.of("id", "name", "createdAt");
+    private static final Set<String> TOPIC_KEYSET_SORTS = Set.of("id", "title", "createdAt");
+    private static final Set<String> TOPIC_NOTE_KEYSET_SORTS = Set.of("id", "title", "createdAt");
+
+    private static final int NOTE_EXCERPT_LENGTH = 200;
+
     private final BoardRepository boardRepository;
     private final SubjectRepository subjectRepository;
     private final ChapterRepository chapterRepository;
     private final TopicRepository topicRepository;
     private final TopicNoteRepository topicNoteRepository;
+    private final ContentTaxonomyService contentTaxonomyService;
+    private final TopicGraphService topicGraphService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final EntityManager entityManager;
 
     // ============ BOARDS SERVICE ============
 
     @Transactional(readOnly = true)
     public Page<BoardDto> getBoards(Pageable pageable, String search, Boolean active) {
-        Specification<Board> spec = (root, query, cb) -> {
+        Page<Board> boards = boardRepository.findAll(boardFilter(search, active), pageable);
+        return boards.map(this::convertToBoardDto);
+    }
+
+    /**
+     * Keyset-paginated variant of the list above: no OFFSET scan and no count query.
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<BoardDto> getBoardsAfter(String cursor, int size, String sortBy, Sort.Direction direction,
+                                               String search, Boolean active) {
+        return KeysetPager.fetch(boardRepository, boardFilter(search, active), BOARD_KEYSET_SORTS,
+                sortBy, direction, cursor, size, this::convertToBoardDto);
+    }
+
+    private Specification<Board> boardFilter(String search, Boolean active) {
+        return (root, query, cb) -> {
             List<Predicate> predicates = new ArrayList<>();
 
             if (search != null && !search.trim().isEmpty()) {
@@ -51,9 +91,6 @@ public class ContentManagementService {
 
             return cb.and(predicates.toArray(new Predicate[0]));
         };
-
-        Page<Board> boards = boardRepository.findAll(spec, pageable);
-        return boards.map(this::convertToBoardDto);
     }
 
     public BoardDto createBoard(CreateBoardRequest request) {
@@ -64,6 +101,7 @@ public class ContentManagementService {
         board.setUpdatedAt(LocalDateTime.now());
 
         Board savedBoard = boardRepository.save(board);
+        eventPublisher.publishEvent(ContentTaxonomyChangedEvent.board(savedBoard.getId()));
         log.info("Created board: {}", savedBoard.getName());
         return convertToBoardDto(savedBoard);
     }
@@ -79,6 +117,7 @@ public class ContentManagementService {
         board.setUpdatedAt(LocalDateTime.now());
 
         Board savedBoard = boardRepository.save(board);
+        eventPublisher.publishEvent(ContentTaxonomyChangedEvent.board(savedBoard.getId()));
         log.info("Updated board: {}", savedBoard.getName());
         return convertToBoardDto(savedBoard);
     }
@@ -91,6 +130,7 @@ public class ContentManagementService {
         board.setUpdatedAt(LocalDateTime.now());
 
         Board savedBoard = boardRepository.save(board);
+        eventPublisher.publishEvent(ContentTaxonomyChangedEvent.board(savedBoard.getId()));
         log.info("Updated board status: {} -> {}", savedBoard.getName(), active);
         return convertToBoardDto(savedBoard);
     }
@@ -113,6 +153,7 @@ public class ContentManagementService {
             log.info("Soft deleted board: {}", board.getName());
         }
 
+        eventPublisher.publishEvent(ContentTaxonomyChangedEvent.board(id));
         return result;
     }
 
@@ -120,7 +161,22 @@ public class ContentManagementService {
 
     @Transactional(readOnly = true)
     public Page<SubjectDto> getSubjects(Pageable pageable, String search, Boolean active) {
-        Specification<Subject> spec = (root, query, cb) -> {
+        Page<Subject> subjects = subjectRepository.findAll(subjectFilter(search, active), pageable);
+        return subjects.map(this::convertToSubjectDto);
+    }
+
+    /**
+     * Keyset-paginated variant of the list above: no OFFSET scan and no count query.
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<SubjectDto> getSubjectsAfter(String cursor, int size, String sortBy, Sort.Direction direction,
+                                                   String search, Boolean active) {
+        return KeysetPager.fetch(subjectRepository, subjectFilter(search, active), SUBJECT_KEYSET_SORTS,
+                sortBy, direction, cursor, size, this::convertToSubjectDto);
+    }
+
+    private Specification<Subject> subjectFilter(String search, Boolean active) {
+        return (root, query, cb) -> {
             List<Predicate> predicates = new ArrayList<>();
 
             if (search != null && !search.trim().isEmpty()) {
@@ -134,9 +190,6 @@ public class ContentManagementService {
 
             return cb.and(predicates.toArray(new Predicate[0]));
         };
-
-        Page<Subject> subjects = subjectRepository.findAll(spec, pageable);
-        return subjects.map(this::convertToSubjectDto);
     }
 
     public SubjectDto createSubject(CreateSubjectRequest request) {
@@ -147,6 +200,7 @@ public class ContentManagementService {
         subject.setUpdatedAt(LocalDateTime.now());
 
         Subject savedSubject = subjectRepository.save(subject);
+        eventPublisher.publishEvent(ContentTaxonomyChangedEvent.subject(savedSubject.getId()));
         log.info("Created subject: {}", savedSubject.getName());
         return convertToSubjectDto(savedSubject);
     }
@@ -162,6 +216,7 @@ public class ContentManagementService {
         subject.setUpdatedAt(LocalDateTime.now());
 
         Subject savedSubject = subjectRepository.save(subject);
+        eventPublisher.publishEvent(ContentTaxonomyChangedEvent.subject(savedSubject.getId()));
         log.info("Updated subject: {}", savedSubject.getName());
         return convertToSubjectDto(savedSubject);
     }
@@ -174,6 +229,7 @@ public class ContentManagementService {
         subject.setUpdatedAt(LocalDateTime.now());
 
         Subject savedSubject = subjectRepository.save(subject);
+        eventPublisher.publishEvent(ContentTaxonomyChangedEvent.subject(savedSubject.getId()));
         log.info("Updated subject status: {} -> {}", savedSubject.getName(), active);
         return convertToSubjectDto(savedSubject);
     }
@@ -196,6 +252,7 @@ public class ContentManagementService {
             log.info("Soft deleted subject: {}", subject.getName());
         }
 
+        eventPublisher.publishEvent(ContentTaxonomyChangedEvent.subject(id));
         return result;
     }
 
@@ -203,7 +260,22 @@ public class ContentManagementService {
 
     @Transactional(readOnly = true)
     public Page<ChapterDto> getChapters(Pageable pageable, String search, Boolean active, Long subjectId) {
-        Specification<Chapter> spec = (root, query, cb) -> {
+        Page<Chapter> chapters = chapterRepository.findAll(chapterFilter(search, active, subjectId), pageable);
+        return chapters.map(this::convertToChapterDto);
+    }
+
+    /**
+     * Keyset-paginated variant of the list above: no OFFSET scan and no count query.
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<ChapterDto> getChaptersAfter(String cursor, int size, String sortBy, Sort.Direction direction,
+                                                   String search, Boolean active, Long subjectId) {
+        return KeysetPager.fetch(chapterRepository, chapterFilter(search, active, subjectId), CHAPTER_KEYSET_SORTS,
+                sortBy, direction, cursor, size, this::convertToChapterDto);
+    }
+
+    private Specification<Chapter> chapterFilter(String search, Boolean active, Long subjectId) {
+        return (root, query, cb) -> {
             List<Predicate> predicates = new ArrayList<>();
 
             if (search != null && !search.trim().isEmpty()) {
@@ -224,9 +296,6 @@ public class ContentManagementService {
 
             return cb.and(predicates.toArray(new Predicate[0]));
         };
-
-        Page<Chapter> chapters = chapterRepository.findAll(spec, pageable);
-        return chapters.map(this::convertToChapterDto);
     }
 
     public ChapterDto createChapter(CreateChapterRequest request) {
@@ -241,6 +310,7 @@ public class ContentManagementService {
         chapter.setUpdatedAt(LocalDateTime.now());
 
         Chapter savedChapter = chapterRepository.save(chapter);
+        eventPublisher.publishEvent(ContentTaxonomyChangedEvent.chapter(savedChapter.getId()));
         log.info("Created chapter: {} for subject: {}", savedChapter.getName(), subject.getName());
         return convertToChapterDto(savedChapter);
     }
@@ -260,6 +330,7 @@ public class ContentManagementService {
         chapter.setUpdatedAt(LocalDateTime.now());
 
         Chapter savedChapter = chapterRepository.save(chapter);
+        eventPublisher.publishEvent(ContentTaxonomyChangedEvent.chapter(savedChapter.getId()));
         log.info("Updated chapter: {}", savedChapter.getName());
         return convertToChapterDto(savedChapter);
     }
@@ -272,6 +343,7 @@ public class ContentManagementService {
         chapter.setUpdatedAt(LocalDateTime.now());
 
         Chapter savedChapter = chapterRepository.save(chapter);
+        eventPublisher.publishEvent(ContentTaxonomyChangedEvent.chapter(savedChapter.getId()));
         log.info("Updated chapter status: {} -> {}", savedChapter.getName(), active);
         return convertToChapterDto(savedChapter);
     }
@@ -294,6 +366,7 @@ public class ContentManagementService {
             log.info("Soft deleted chapter: {}", chapter.getName());
         }
 
+        eventPublisher.publishEvent(ContentTaxonomyChangedEvent.chapter(id));
         return result;
     }
 
@@ -301,15 +374,29 @@ public class ContentManagementService {
 
     @Transactional(readOnly = true)
     public Page<TopicDto> getTopics(Pageable pageable, String search, Boolean active, Long chapterId, Long subjectId) {
-        Specification<Topic> spec = (root, query, cb) -> {
+        Page<Topic> topics = topicRepository.findAll(topicFilter(search, active, chapterId, subjectId), pageable);
+        return topics.map(this::convertToTopicDto);
+    }
+
+    /**
+     * Keyset-paginated variant of the list above: no OFFSET scan and no count query.
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<TopicDto> getTopicsAfter(String cursor, int size, String sortBy, Sort.Direction direction,
+                                               String search, Boolean active, Long chapterId, Long subjectId) {
+        return KeysetPager.fetch(topicRepository, topicFilter(search, active, chapterId, subjectId), TOPIC_KEYSET_SORTS,
+                sortBy, direction, cursor, size, this::convertToTopicDto);
+    }
+
+    private Specification<Topic> topicFilter(String search, Boolean active, Long chapterId, Long subjectId) {
+        return (root, query, cb) -> {
             List<Predicate> predicates = new ArrayList<>();
 
             if (search != null && !search.trim().isEmpty()) {
-                String searchTerm = "%" + search.toLowerCase() + "%";
-                Predicate titlePredicate = cb.like(cb.lower(root.get("title")), searchTerm);
-                Predicate descriptionPredicate = cb.like(cb.lower(root.get("description")), searchTerm);
-                Predicate summaryPredicate = cb.like(cb.lower(root.get("summary")), searchTerm);
-                predicates.add(cb.or(titlePredicate, descriptionPredicate, summaryPredicate));
+                // Indexed full-text match on title/summary/description (V11)
+                String tsQuery = ContentSearchService.toPrefixQuery(search);
+                predicates.add(tsQuery == null ? cb.disjunction() : cb.isTrue(cb.function(
+                        FullTextSearchFunctionContributor.TOPIC_MATCH, Boolean.class, root.get("id"), cb.literal(tsQuery))));
             }
 
             if (active != null) {
@@ -329,9 +416,6 @@ public class ContentManagementService {
 
             return cb.and(predicates.toArray(new Predicate[0]));
         };
-
-        Page<Topic> topics = topicRepository.findAll(spec, pageable);
-        return topics.map(this::convertToTopicDto);
     }
 
     public TopicDto createTopic(CreateTopicRequest request) {
@@ -350,6 +434,7 @@ public class ContentManagementService {
         topic.setUpdatedAt(LocalDateTime.now());
 
         Topic savedTopic = topicRepository.save(topic);
+        eventPublisher.publishEvent(ContentTaxonomyChangedEvent.topic(savedTopic.getId()));
         log.info("Created topic: {} for chapter: {}", savedTopic.getTitle(), chapter.getName());
         return convertToTopicDto(savedTopic);
     }
@@ -375,6 +460,7 @@ public class ContentManagementService {
         topic.setUpdatedAt(LocalDateTime.now());
 
         Topic savedTopic = topicRepository.save(topic);
+        eventPublisher.publishEvent(ContentTaxonomyChangedEvent.topic(savedTopic.getId()));
         log.info("Updated topic: {}", savedTopic.getTitle());
         return convertToTopicDto(savedTopic);
     }
@@ -387,6 +473,7 @@ public class ContentManagementService {
         topic.setUpdatedAt(LocalDateTime.now());
 
         Topic savedTopic = topicRepository.save(topic);
+        eventPublisher.publishEvent(ContentTaxonomyChangedEvent.topic(savedTopic.getId()));
         log.info("Updated topic status: {} -> {}", savedTopic.getTitle(), active);
         return convertToTopicDto(savedTopic);
     }
@@ -398,6 +485,8 @@ public class ContentManagementService {
         Map<String, Object> result = new HashMap<>();
         
         if (force) {
+            // topic_links rows reference the topic from both sides
+            topicGraphService.removeAllLinks(id);
             topicRepository.delete(topic);
             result.put("hardDeleted", true);
             log.info("Hard deleted topic: {}", topic.getTitle());
@@ -409,6 +498,7 @@ public class ContentManagementService {
             log.info("Soft deleted topic: {}", topic.getTitle());
         }
 
+        eventPublisher.publishEvent(ContentTaxonomyChangedEvent.topic(id));
         return result;
     }
 
@@ -419,35 +509,70 @@ public class ContentManagementService {
         Topic topic = topicRepository.findById(topicId)
                 .orElseThrow(() -> new ResourceNotFoundException("Topic not found with id: " + topicId));
 
-        Specification<TopicNote> spec = (root, query, cb) -> {
-            List<Predicate> predicates = new ArrayList<>();
-
-            predicates.add(cb.equal(root.get("topic").get("id"), topicId));
-
-            if (search != null && !search.trim().isEmpty()) {
-                String searchTerm = "%" + search.toLowerCase() + "%";
-                Predicate titlePredicate = cb.like(cb.lower(root.get("title")), searchTerm);
-                Predicate contentPredicate = cb.like(cb.lower(root.get("content")), searchTerm);
-                predicates.add(cb.or(titlePredicate, contentPredicate));
-            }
-
-            if (active != null) {
-                predicates.add(cb.equal(root.get("active"), active));
-            }
-
-            // Only show non-deleted notes unless explicitly requested
-            predicates.add(cb.isNull(root.get("deletedAt")));
-
-            return cb.and(predicates.toArray(new Predicate[0]));
-        };
-
-        Page<TopicNote> notes = topicNoteRepository.findAll(spec, pageable);
+        Page<TopicNote> notes = topicNoteRepository.findAll(topicNoteFilter(search, active, topicId), pageable);
         return notes.map(this::convertToTopicNoteDto);
     }
 
     @Transactional(readOnly = true)
     public Page<TopicNoteDto> getAllTopicNotes(Pageable pageable, String search, Boolean active, Long topicId) {
-        Specification<TopicNote> spec = (root, query, cb) -> {
+        Page<TopicNote> notes = topicNoteRepository.findAll(topicNoteFilter(search, active, topicId), pageable);
+        return notes.map(this::convertToTopicNoteDto);
+    }
+
+    /**
+     * Keyset-paginated variant of the list above: no OFFSET scan and no count query.
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<TopicNoteDto> getTopicNotesAfter(String cursor, int size, String sortBy, Sort.Direction direction,
+                                                       String search, Boolean active, Long topicId) {
+        return KeysetPager.fetch(topicNoteRepository, topicNoteFilter(search, active, topicId), TOPIC_NOTE_KEYSET_SORTS,
+                sortBy, direction, cursor, size, this::convertToTopicNoteDto);
+    }
+
+    /**
+     * Note list rows without bodies. Only the listed columns are selected: the
+     * size is the body's stored length and the excerpt a prefix slice, so
+     * Postgres never has to read or decompress a whole large note.
+     */
+    @Transactional(readOnly = true)
+    public Page<TopicNoteSummaryDto> getTopicNoteSummaries(Pageable pageable, String search, Boolean active, Long topicId) {
+        Specification<TopicNote> filter = topicNoteFilter(search, active, topicId);
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<TopicNoteSummaryDto> query = cb.createQuery(TopicNoteSummaryDto.class);
+        Root<TopicNote> root = query.from(TopicNote.class);
+        Join<TopicNote, Topic> topic = root.join("topic");
+
+        query.select(cb.construct(TopicNoteSummaryDto.class,
+                        root.get("id"),
+                        root.get("title"),
+                        topic.get("id"),
+                        topic.get("title"),
+                        cb.function("octet_length", Integer.class, root.get("content")),
+                        cb.substring(root.get("content"), 1, NOTE_EXCERPT_LENGTH),
+                        root.get("active"),
+                        root.get("updatedAt")))
+                .where(filter.toPredicate(root, query, cb))
+                .orderBy(QueryUtils.toOrders(pageable.getSort(), root, cb));
+
+        List<TopicNoteSummaryDto> rows = entityManager.createQuery(query)
+                .setFirstResult((int) pageable.getOffset())
+                .setMaxResults(pageable.getPageSize())
+                .getResultList();
+        return PageableExecutionUtils.getPage(rows, pageable, () -> topicNoteRepository.count(filter));
+    }
+
+    /**
+     * Full note including its body, for when a summary row is opened.
+     */
+    @Transactional(readOnly = true)
+    public TopicNoteDto getTopicNote(Long id) {
+        TopicNote note = topicNoteRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Topic note not found with id: " + id));
+        return convertToTopicNoteDto(note);
+    }
+
+    private Specification<TopicNote> topicNoteFilter(String search, Boolean active, Long topicId) {
+        return (root, query, cb) -> {
             List<Predicate> predicates = new ArrayList<>();
 
             if (topicId != null) {
@@ -455,10 +580,10 @@ public class ContentManagementService {
             }
 
             if (search != null && !search.trim().isEmpty()) {
-                String searchTerm = "%" + search.toLowerCase() + "%";
-                Predicate titlePredicate = cb.like(cb.lower(root.get("title")), searchTerm);
-                Predicate contentPredicate = cb.like(cb.lower(root.get("content")), searchTerm);
-                predicates.add(cb.or(titlePredicate, contentPredicate));
+                // Indexed full-text match on title/content (V11)
+                String tsQuery = ContentSearchService.toPrefixQuery(search);
+                predicates.add(tsQuery == null ? cb.disjunction() : cb.isTrue(cb.function(
+                        FullTextSearchFunctionContributor.TOPIC_NOTE_MATCH, Boolean.class, root.get("id"), cb.literal(tsQuery))));
             }
 
             if (active != null) {
@@ -470,9 +595,6 @@ public class ContentManagementService {
 
             return cb.and(predicates.toArray(new Predicate[0]));
         };
-
-        Page<TopicNote> notes = topicNoteRepository.findAll(spec, pageable);
-        return notes.map(this::convertToTopicNoteDto);
     }
 
     public TopicNoteDto createTopicNote(Long topicId, CreateTopicNoteRequest request) {
@@ -633,35 +755,10 @@ public class ContentManagementService {
 
     // ============ HIERARCHICAL DATA FOR BROWSE PAGE ============
 
-    @Transactional(readOnly = true)
+    /**
+     * Served from the in-memory {@link TaxonomySnapshot}; no queries run on this path.
+     */
     public Map<String, Object> getContentTree() {
-        Map<String, Object> tree = new HashMap<>();
-        
-        // Get all boards
-        List<Board> boards = boardRepository.findByActiveTrue();
-        tree.put("boards", boards.stream().map(this::convertToBoardDto).collect(Collectors.toList()));
-        
-        // Get all grades (hardcoded for now)
-        List<Map<String, Object>> grades = List.of(
-            Map.of("id", 1, "name", "9", "displayName", "Grade 9", "active", true),
-            Map.of("id", 2, "name", "10", "displayName", "Grade 10", "active", true),
-            Map.of("id", 3, "name", "11", "displayName", "Grade 11", "active", true),
-            Map.of("id", 4, "name", "12", "displayName", "Grade 12", "active", true)
-        );
-        tree.put("grades", grades);
-        
-        // Get all subjects
-        List<Subject> subjects = subjectRepository.findByActiveTrue();
-        tree.put("subjects", subjects.stream().map(this::convertToSubjectDto).collect(Collectors.toList()));
-        
-        // Get all chapters
-        List<Chapter> chapters = chapterRepository.findByActiveTrue();
-        tree.put("chapters", chapters.stream().map(this::convertToChapterDto).collect(Collectors.toList()));
-        
-        // Get all topics
-        List<Topic> topics = topicRepository.findByActiveTrue();
-        tree.put("topics", topics.stream().map(this::convertToTopicDto).collect(Collectors.toList()));
-        
-        return tree;
+        return contentTaxonomyService.getContentTree();
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,154 @@
+package com.ankurshala.backend.service;
+
+import com.ankurshala.backend.dto.content.ContentSearchResultDto;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.support.PageableExecutionUtils;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.StringJoiner;
+
+/**
+ * Ranked full-text search over topics and topic notes, backed by the generated
+ * {@code search_vector} columns and their GIN indexes (V11).
+ *
+ * <p>Every word of the query is matched as a stemmed prefix, so "photosyn"
+ * finds "photosynthesis". Results are ordered by {@code ts_rank_cd} (title
+ * matches weigh most) and {@code ts_headline} snippets are built only for the
+ * rows on the requested page.</p>
+ */
+@Service
+@Transactional(readOnly = true)
+public class ContentSearchService {
+
+    private static final int MAX_TERMS = 8;
+    private static final String HEADLINE_OPTIONS =
+            "MaxFragments=2, MaxWords=20, MinWords=5, FragmentDelimiter=\" ... \", StartSel=<mark>, StopSel=</mark>";
+
+    private static final RowMapper<ContentSearchResultDto> RESULT_MAPPER = (rs, rowNum) -> new ContentSearchResultDto(
+            rs.getLong("id"),
+            rs.getString("title"),
+            rs.getString("snippet"),
+            rs.getLong("parent_id"),
+            rs.getString("parent_title"),
+            rs.getDouble("rank"));
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public ContentSearchService(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public Page<ContentSearchResultDto> searchTopics(String search, Boolean active, Long chapterId, Pageable pageable) {
+        String tsQuery = toPrefixQuery(search);
+        if (tsQuery == null) {
+            return Page.empty(pageable);
+        }
+
+        StringBuilder filter = new StringBuilder("t.search_vector @@ q.query AND t.deleted_at IS NULL");
+        List<Object> args = new ArrayList<>();
+        args.add(tsQuery);
+        appendFilters(filter, args, "t", active, "chapter_id", chapterId);
+
+        String sql = "WITH q AS (SELECT to_tsquery('english', ?) AS query), " +
+                "hits AS (SELECT t.id, t.title, t.summary, t.description, t.chapter_id, " +
+                "ts_rank_cd(t.search_vector, q.query) AS rank FROM topics t, q WHERE " + filter +
+                " ORDER BY rank DESC, t.id LIMIT ? OFFSET ?) " +
+                "SELECT h.id, h.title, h.chapter_id AS parent_id, c.name AS parent_title, h.rank, " +
+                "ts_headline('english', concat_ws(' ', h.summary, h.description), q.query, '" + HEADLINE_OPTIONS + "') AS snippet " +
+                "FROM hits h JOIN chapters c ON c.id = h.chapter_id, q ORDER BY h.rank DESC, h.id";
+
+        String countSql = "WITH q AS (SELECT to_tsquery('english', ?) AS query) " +
+                "SELECT count(*) FROM topics t, q WHERE " + filter;
+
+        return page(sql, countSql, args, pageable);
+    }
+
+    public Page<ContentSearchResultDto> searchTopicNotes(String search, Boolean active, Long topicId, Pageable pageable) {
+        String tsQuery = toPrefixQuery(search);
+        if (tsQuery == null) {
+            return Page.empty(pageable);
+        }
+
+        StringBuilder filter = new StringBuilder("n.search_vector @@ q.query AND n.deleted_at IS NULL");
+        List<Object> args = new ArrayList<>();
+        args.add(tsQuery);
+        appendFilters(filter, args, "n", active, "topic_id", topicId);
+
+        String sql = "WITH q AS (SELECT to_tsquery('english', ?) AS query), " +
+                "hits AS (SELECT n.id, n.title, n.content, n.topic_id, " +
+                "ts_rank_cd(n.search_vector, q.query) AS rank FROM topic_notes n, q WHERE " + filter +
+                " ORDER BY rank DESC, n.id LIMIT ? OFFSET ?) " +
+                "SELECT h.id, h.title, h.topic_id AS parent_id, t.title AS parent_title, h.rank, " +
+                "ts_headline('english', h.content, q.query, '" + HEADLINE_OPTIONS + "') AS snippet " +
+                "FROM hits h JOIN topics t ON t.id = h.topic_id, q ORDER BY h.rank DESC, h.id";
+
+        String countSql = "WITH q AS (SELECT to_tsquery('english', ?) AS query) " +
+                "SELECT count(*) FROM topic_notes n, q WHERE " + filter;
+
+        return page(sql, countSql, args, pageable);
+    }
+
+    /**
+     * Turns free text into a prefix {@code to_tsquery} expression, e.g.
+     * "Cell  divis" becomes {@code cell:* & divis:*}. Only letters, combining
+     * marks and digits survive, so user input can never inject tsquery
+     * operators. Returns {@code null} if nothing searchable is left.
+     */
+    public static String toPrefixQuery(String search) {
+        if (search == null) {
+            return null;
+        }
+        StringJoiner query = new StringJoiner(" & ");
+        int terms = 0;
+        for (String term : search.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{M}\\p{N}]+")) {
+            if (term.isEmpty()) {
+                continue;
+            }
+            query.add(term + ":*");
+            if (++terms == MAX_TERMS) {
+                break;
+            }
+        }
+        return terms == 0 ? null : query.toString();
+    }
+
+    private static void appendFilters(StringBuilder filter, List<Object> args, String alias,
+                                      Boolean active, String parentColumn, Long parentId) {
+        if (active != null) {
+            filter.append(" AND ").append(alias).append(".active = ?");
+            args.add(active);
+        }
+        if (parentId != null) {
+            filter.append(" AND ").append(alias).append('.').append(parentColumn).append(" = ?");
+            args.add(parentId);
+        }
+    }
+
+    private Page<ContentSearchResultDto> page(String sql, String countSql, List<Object> filterArgs, Pageable pageable) {
+        if (pageable.isUnpaged()) {
+            List<ContentSearchResultDto> all = jdbcTemplate.query(sql, RESULT_MAPPER,
+                    withPaging(filterArgs, Integer.MAX_VALUE, 0L));
+            return new PageImpl<>(all);
+        }
+        List<ContentSearchResultDto> content = jdbcTemplate.query(sql, RESULT_MAPPER,
+                withPaging(filterArgs, pageable.getPageSize(), pageable.getOffset()));
+        // The count is skipped when the first/last page makes it obvious
+        return PageableExecutionUtils.getPage(content, pageable,
+                () -> jdbcTemplate.queryForObject(countSql, Long.class, filterArgs.toArray()));
+    }
+
+    private static Object[] withPaging(List<Object> filterArgs, int limit, long offset) {
+        List<Object> args = new ArrayList<>(filterArgs);
+        args.add(limit);
+        args.add(offset);
+        return args.toArray();
+    }
+}
@@ -0,0 +1,150 @@
+package com.ankurshala.backend.service;
+
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Published by content writers after boards, grades, subjects, chapters or topics change.
+ * Carries only ids: {@link ContentTaxonomyService} re-reads those rows once the
+ * transaction has committed, and a missing row means it was deleted. Grades are
+ * not part of the snapshot; they are carried for cache eviction.
+ *
+ * <p>A writer that commits many small transactions (a chunked CSV import)
+ * marks its events with {@link #deferSnapshot()}: change log and caches still
+ * follow every commit, but the writer applies the accumulated ids to the
+ * snapshot itself through {@link ContentTaxonomyService#applyChanges}.</p>
+ */
+public class ContentTaxonomyChangedEvent {
+
+    private final Set<Long> boardIds;
+    private final Set<Long> gradeIds;
+    private final Set<Long> subjectIds;
+    private final Set<Long> chapterIds;
+    private final Set<Long> topicIds;
+    private final boolean snapshotDeferred;
+
+    public ContentTaxonomyChangedEvent(Set<Long> boardIds, Set<Long> subjectIds, Set<Long> chapterIds, Set<Long> topicIds) {
+        this(boardIds, Set.of(), subjectIds, chapterIds, topicIds);
+    }
+
+    public ContentTaxonomyChangedEvent(Set<Long> boardIds, Set<Long> gradeIds, Set<Long> subjectIds,
+                                       Set<Long> chapterIds, Set<Long> topicIds) {
+        this(boardIds, gradeIds, subjectIds, chapterIds, topicIds, false);
+    }
+
+    private ContentTaxonomyChangedEvent(Set<Long> boardIds, Set<Long> gradeIds, Set<Long> subjectIds,
+                                        Set<Long> chapterIds, Set<Long> topicIds, boolean snapshotDeferred) {
+        this.boardIds = Set.copyOf(boardIds);
+        this.gradeIds = Set.copyOf(gradeIds);
+        this.subjectIds = Set.copyOf(subjectIds);
+        this.chapterIds = Set.copyOf(chapterIds);
+        this.topicIds = Set.copyOf(topicIds);
+        this.snapshotDeferred = snapshotDeferred;
+    }
+
+    public static ContentTaxonomyChangedEvent board(Long id) {
+        return new ContentTaxonomyChangedEvent(Set.of(id), Set.of(), Set.of(), Set.of());
+    }
+
+    public static ContentTaxonomyChangedEvent grade(Long id) {
+        return new ContentTaxonomyChangedEvent(Set.of(), Set.of(id), Set.of(), Set.of(), Set.of());
+    }
+
+    public static ContentTaxonomyChangedEvent subject(Long id) {
+        return new ContentTaxonomyChangedEvent(Set.of(), Set.of(id), Set.of(), Set.of());
+    }
+
+    public static ContentTaxonomyChangedEvent chapter(Long id) {
+        return new ContentTaxonomyChangedEvent(Set.of(), Set.of(), Set.of(id), Set.of());
+    }
+
+    public static ContentTaxonomyChangedEvent topic(Long id) {
+        return new ContentTaxonomyChangedEvent(Set.of(), Set.of(), Set.of(), Set.of(id));
+    }
+
+    public Set<Long> getBoardIds() {
+        return boardIds;
+    }
+
+    public Set<Long> getGradeIds() {
+        return gradeIds;
+    }
+
+    public Set<Long> getSubjectIds() {
+        return subjectIds;
+    }
+
+    public Set<Long> getChapterIds() {
+        return chapterIds;
+    }
+
+    public Set<Long> getTopicIds() {
+        return topicIds;
+    }
+
+    /**
+     * The same change, left out of the snapshot until the writer applies it.
+     */
+    public ContentTaxonomyChangedEvent deferSnapshot() {
+        return new ContentTaxonomyChangedEvent(boardIds, gradeIds, subjectIds, chapterIds, topicIds, true);
+    }
+
+    public boolean isSnapshotDeferred() {
+        return snapshotDeferred;
+    }
+
+    public boolean isEmpty() {
+        return boardIds.isEmpty() && gradeIds.isEmpty() && subjectIds.isEmpty() && chapterIds.isEmpty() && topicIds.isEmpty();
+    }
+
+    /**
+     * Accumulates ids across many writes (e.g. a CSV import) so they are
+     * applied to the snapshot in a single swap.
+     */
+    public static class Collector {
+
+        private final Set<Long> boardIds = new HashSet<>();
+        private final Set<Long> gradeIds = new HashSet<>();
+        private final Set<Long> subjectIds = new HashSet<>();
+        private final Set<Long> chapterIds = new HashSet<>();
+        private final Set<Long> topicIds = new HashSet<>();
+
+        public Collector board(Long id) {
+            boardIds.add(id);
+            return this;
+        }
+
+        public Collector grade(Long id) {
+            gradeIds.add(id);
+            return this;
+        }
+
+        public Collector subject(Long id) {
+            subjectIds.add(id);
+            return this;
+        }
+
+        public Collector chapter(Long id) {
+            chapterIds.add(id);
+            return this;
+        }
+
+        public Collector topic(Long id) {
+            topicIds.add(id);
+            return this;
+        }
+
+        public Collector add(ContentTaxonomyChangedEvent event) {
+            boardIds.addAll(event.getBoardIds());
+            gradeIds.addAll(event.getGradeIds());
+            subjectIds.addAll(event.getSubjectIds());
+            chapterIds.addAll(event.getChapterIds());
+            topicIds.addAll(event.getTopicIds());
+            return this;
+        }
+
+        public ContentTaxonomyChangedEvent toEvent() {
+            return new ContentTaxonomyChangedEvent(boardIds, gradeIds, subjectIds, chapterIds, topicIds);
+        }
+    }
+}
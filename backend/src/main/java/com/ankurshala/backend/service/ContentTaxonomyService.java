@@ -0,0 +1,283 @@
+package com.ankurshala.backend.service;
+
+import com.ankurshala.backend.entity.Board;
+import com.ankurshala.backend.entity.Chapter;
+import com.ankurshala.backend.entity.Subject;
+import com.ankurshala.backend.entity.Topic;
+import com.ankurshala.backend.repository.BoardRepository;
+import com.ankurshala.backend.repository.ChapterRepository;
+import com.ankurshala.backend.repository.SubjectRepository;
+import com.ankurshala.backend.repository.TopicRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.repository.ListCrudRepository;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.*;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+
+/**
+ * Holds the current {@link TaxonomySnapshot} so content-tree reads never touch
+ * the database.
+ *
+ * <p>Writers publish {@link ContentTaxonomyChangedEvent}; after commit the
+ * changed rows are re-read, applied to a copy of the snapshot and swapped in
+ * atomically. The same ids are broadcast on {@value #CHANNEL} so other nodes
+ * apply the change too, and a periodic full reload covers missed messages.
+ * Every swap publishes a {@link TaxonomySnapshotUpdatedEvent} for indexes
+ * derived from the snapshot. Changed rows are re-read {@value #LOAD_CHUNK}
+ * ids per query; a change touching more than
+ * {@code app.content.taxonomy.full-reload-above} ids (a large syllabus load)
+ * reloads the snapshot instead and broadcasts a reload.</p>
+ *
+ * <p>Metrics: {@code content.taxonomy.version}, {@code content.taxonomy.topics}
+ * and {@code content.taxonomy.bytes} (estimated snapshot size).</p>
+ */
+@Service
+public class ContentTaxonomyService implements MessageListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(ContentTaxonomyService.class);
+
+    static final String CHANNEL = "content:taxonomy";
+    // Well below the driver's 65,535 bind parameters per statement
+    static final int LOAD_CHUNK = 5000;
+
+    private final BoardRepository boardRepository;
+    private final SubjectRepository subjectRepository;
+    private final ChapterRepository chapterRepository;
+    private final TopicRepository topicRepository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final StringRedisTemplate redisTemplate;
+    private final ObjectMapper objectMapper;
+    private final ApplicationEventPublisher eventPublisher;
+    private final int fullReloadAbove;
+
+    // Lets a node ignore its own broadcasts
+    private final String nodeId = UUID.randomUUID().toString();
+    private final AtomicReference<TaxonomySnapshot> snapshot = new AtomicReference<>(TaxonomySnapshot.EMPTY);
+
+    public ContentTaxonomyService(BoardRepository boardRepository,
+                                  SubjectRepository subjectRepository,
+                                  ChapterRepository chapterRepository,
+                                  TopicRepository topicRepository,
+                                  PlatformTransactionManager transactionManager,
+                                  StringRedisTemplate redisTemplate,
+                                  RedisMessageListenerContainer listenerContainer,
+                                  ObjectMapper objectMapper,
+                                  ApplicationEventPublisher eventPublisher,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${app.content.taxonomy.full-reload-above:20000}") int fullReloadAbove) {
+        this.boardRepository = boardRepository;
+        this.subjectRepository = subjectRepository;
+        this.chapterRepository = chapterRepository;
+        this.topicRepository = topicRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        // Change events arrive after commit, so reads must not join the finished transaction
+        this.readOnlyTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.redisTemplate = redisTemplate;
+        this.objectMapper = objectMapper;
+        this.eventPublisher = eventPublisher;
+        this.fullReloadAbove = fullReloadAbove;
+        listenerContainer.addMessageListener(this, new ChannelTopic(CHANNEL));
+
+        Gauge.builder("content.taxonomy.version", snapshot, ref -> ref.get().getVersion()).register(meterRegistry);
+        Gauge.builder("content.taxonomy.topics", snapshot, ref -> ref.get().getTopics().size()).register(meterRegistry);
+        Gauge.builder("content.taxonomy.bytes", snapshot, ref -> ref.get().getEstimatedBytes()).register(meterRegistry);
+    }
+
+    /**
+     * The current snapshot. Loads it on first use if startup has not done so yet.
+     */
+    public TaxonomySnapshot current() {
+        TaxonomySnapshot current = snapshot.get();
+        return current != TaxonomySnapshot.EMPTY ? current : reload();
+    }
+
+    public Map<String, Object> getContentTree() {
+        return current().getContentTree();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        reload();
+    }
+
+    @Scheduled(fixedDelayString = "${app.content.taxonomy.resync-interval-ms:600000}",
+               initialDelayString = "${app.content.taxonomy.resync-interval-ms:600000}")
+    public void scheduledReload() {
+        try {
+            reload();
+        } catch (Exception e) {
+            logger.warn("Content taxonomy reload failed, keeping version {}: {}", snapshot.get().getVersion(), e.getMessage());
+        }
+    }
+
+    /**
+     * Rebuilds the snapshot from the database and swaps it in.
+     */
+    public synchronized TaxonomySnapshot reload() {
+        long started = System.currentTimeMillis();
+        TaxonomySnapshot next = readOnlyTransaction.execute(status -> {
+            TaxonomySnapshot.Builder builder = snapshot.get().toEmptyBuilder();
+            boardRepository.findAll().forEach(builder::board);
+            subjectRepository.findAll().forEach(builder::subject);
+            chapterRepository.findAll().forEach(builder::chapter);
+            topicRepository.findAll().forEach(builder::topic);
+            return builder.build();
+        });
+        swap(next);
+        logger.info("Loaded content taxonomy version {} ({} topics, ~{} KB) in {} ms", next.getVersion(),
+                next.getTopics().size(), next.getEstimatedBytes() / 1024, System.currentTimeMillis() - started);
+        return next;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onTaxonomyChanged(ContentTaxonomyChangedEvent event) {
+        if (!event.isSnapshotDeferred()) {
+            applyChanges(event);
+        }
+    }
+
+    /**
+     * Applies committed changes to the snapshot and broadcasts them. Writers
+     * that defer their events call this once for many commits.
+     */
+    public void applyChanges(ContentTaxonomyChangedEvent event) {
+        if (event.isEmpty()) {
+            return;
+        }
+        if (size(event) > fullReloadAbove) {
+            reload();
+            broadcast(null);
+            return;
+        }
+        apply(event);
+        broadcast(event);
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        try {
+            ChangeMessage change = objectMapper.readValue(message.getBody(), ChangeMessage.class);
+            if (nodeId.equals(change.origin)) {
+                return;
+            }
+            if (change.reload) {
+                reload();
+                return;
+            }
+            apply(new ContentTaxonomyChangedEvent(change.boardIds, change.subjectIds, change.chapterIds, change.topicIds));
+        } catch (Exception e) {
+            logger.warn("Could not apply taxonomy change from another node: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Re-reads the changed rows and swaps in a new snapshot. Rows that no longer
+     * exist were hard-deleted and are removed along with their children.
+     */
+    private synchronized void apply(ContentTaxonomyChangedEvent event) {
+        TaxonomySnapshot next = readOnlyTransaction.execute(status -> {
+            TaxonomySnapshot.Builder builder = snapshot.get().toBuilder();
+
+            Map<Long, Board> boards = load(boardRepository, event.getBoardIds(), Board::getId);
+            event.getBoardIds().forEach(id -> {
+                if (boards.containsKey(id)) builder.board(boards.get(id)); else builder.removeBoard(id);
+            });
+
+            Map<Long, Subject> subjects = load(subjectRepository, event.getSubjectIds(), Subject::getId);
+            event.getSubjectIds().forEach(id -> {
+                if (subjects.containsKey(id)) builder.subject(subjects.get(id)); else builder.removeSubject(id);
+            });
+
+            Map<Long, Chapter> chapters = load(chapterRepository, event.getChapterIds(), Chapter::getId);
+            event.getChapterIds().forEach(id -> {
+                if (chapters.containsKey(id)) builder.chapter(chapters.get(id)); else builder.removeChapter(id);
+            });
+
+            Map<Long, Topic> topics = load(topicRepository, event.getTopicIds(), Topic::getId);
+            event.getTopicIds().forEach(id -> {
+                if (topics.containsKey(id)) builder.topic(topics.get(id)); else builder.removeTopic(id);
+            });
+
+            return builder.build();
+        });
+        swap(next);
+        logger.debug("Content taxonomy now at version {}", next.getVersion());
+    }
+
+    private void swap(TaxonomySnapshot next) {
+        snapshot.set(next);
+        eventPublisher.publishEvent(new TaxonomySnapshotUpdatedEvent(next));
+    }
+
+    /**
+     * Sends the changed ids to the other nodes, or asks them to reload when
+     * {@code event} is {@code null}.
+     */
+    private void broadcast(ContentTaxonomyChangedEvent event) {
+        try {
+            ChangeMessage change = new ChangeMessage();
+            change.origin = nodeId;
+            if (event == null) {
+                change.reload = true;
+            } else {
+                change.boardIds = event.getBoardIds();
+                change.subjectIds = event.getSubjectIds();
+                change.chapterIds = event.getChapterIds();
+                change.topicIds = event.getTopicIds();
+            }
+            redisTemplate.convertAndSend(CHANNEL, objectMapper.writeValueAsString(change));
+        } catch (Exception e) {
+            // Other nodes catch up on their next scheduled reload
+            logger.warn("Could not broadcast taxonomy change: {}", e.getMessage());
+        }
+    }
+
+    private static int size(ContentTaxonomyChangedEvent event) {
+        return event.getBoardIds().size() + event.getSubjectIds().size() + event.getChapterIds().size()
+                + event.getTopicIds().size();
+    }
+
+    private static <T> Map<Long, T> load(ListCrudRepository<T, Long> repository, Set<Long> ids, Function<T, Long> id) {
+        List<Long> pending = new ArrayList<>(ids);
+        Map<Long, T> rows = new HashMap<>();
+        for (int from = 0; from < pending.size(); from += LOAD_CHUNK) {
+            repository.findAllById(pending.subList(from, Math.min(pending.size(), from + LOAD_CHUNK)))
+                    .forEach(row -> rows.put(id.apply(row), row));
+        }
+        return rows;
+    }
+
+    /**
+     * Pub/sub payload: the changed ids, or a request to reload, plus the publishing node.
+     */
+    static class ChangeMessage {
+        public String origin;
+        public boolean reload;
+        public Set<Long> boardIds = Set.of();
+        public Set<Long> subjectIds = Set.of();
+        public Set<Long> chapterIds = Set.of();
+        public Set<Long> topicIds = Set.of();
+    }
+}
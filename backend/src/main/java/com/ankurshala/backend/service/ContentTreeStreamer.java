@@ -0,0 +1,202 @@
+package com.ankurshala.backend.service;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writes the content tree straight to an output stream with Jackson's streaming
+ * generator instead of materialising one response object first. The JSON shape
+ * is the same as {@link ContentManagementService#getContentTree()}.
+ *
+ * <p>Two sources: the shared in-memory {@link TaxonomySnapshot} (default), or a
+ * forward-only database cursor that reads {@value #FETCH_SIZE} rows at a time,
+ * for when the snapshot is not wanted (e.g. verifying it against the database).
+ * Either way per-request memory stays flat as the catalog grows.</p>
+ */
+@Service
+public class ContentTreeStreamer {
+
+    private static final int FETCH_SIZE = 500;
+
+    private final ContentTaxonomyService contentTaxonomyService;
+    private final JdbcTemplate cursorJdbcTemplate;
+    private final TransactionTemplate readOnlyTransaction;
+    private final ObjectMapper objectMapper;
+
+    public ContentTreeStreamer(ContentTaxonomyService contentTaxonomyService,
+                               JdbcTemplate jdbcTemplate,
+                               PlatformTransactionManager transactionManager,
+                               ObjectMapper objectMapper) {
+        this.contentTaxonomyService = contentTaxonomyService;
+        // Postgres only streams with a fetch size inside a transaction (autocommit off)
+        this.cursorJdbcTemplate = new JdbcTemplate(jdbcTemplate.getDataSource());
+        this.cursorJdbcTemplate.setFetchSize(FETCH_SIZE);
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.objectMapper = objectMapper;
+    }
+
+    public void writeFromSnapshot(OutputStream out) throws IOException {
+        Map<String, Object> tree = contentTaxonomyService.current().getContentTree();
+        try (JsonGenerator generator = createGenerator(out)) {
+            generator.writeStartObject();
+            for (String section : List.of("boards", "grades", "subjects", "chapters", "topics")) {
+                generator.writeArrayFieldStart(section);
+                for (Object row : (List<?>) tree.get(section)) {
+                    generator.writeObject(row);
+                }
+                generator.writeEndArray();
+            }
+            generator.writeEndObject();
+        }
+    }
+
+    public void writeFromDatabase(OutputStream out) throws IOException {
+        try (JsonGenerator generator = createGenerator(out)) {
+            generator.writeStartObject();
+            readOnlyTransaction.executeWithoutResult(status -> {
+                try {
+                    streamBoards(generator);
+                    generator.writeArrayFieldStart("grades");
+                    for (Map<String, Object> grade : TaxonomySnapshot.GRADES) {
+                        generator.writeObject(grade);
+                    }
+                    generator.writeEndArray();
+                    streamSubjects(generator);
+                    streamChapters(generator);
+                    streamTopics(generator);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            generator.writeEndObject();
+        }
+    }
+
+    private void streamBoards(JsonGenerator generator) throws IOException {
+        generator.writeArrayFieldStart("boards");
+        cursorJdbcTemplate.query(
+                "SELECT id, name, active, created_at, updated_at FROM boards WHERE active = true ORDER BY id",
+                rows(rs -> {
+                    generator.writeStartObject();
+                    generator.writeNumberField("id", rs.getLong("id"));
+                    generator.writeStringField("name", rs.getString("name"));
+                    generator.writeBooleanField("active", rs.getBoolean("active"));
+                    writeTimestamp(generator, "createdAt", rs.getTimestamp("created_at"));
+                    writeTimestamp(generator, "updatedAt", rs.getTimestamp("updated_at"));
+                    generator.writeEndObject();
+                }));
+        generator.writeEndArray();
+    }
+
+    private void streamSubjects(JsonGenerator generator) throws IOException {
+        generator.writeArrayFieldStart("subjects");
+        cursorJdbcTemplate.query(
+                "SELECT id, name, active, created_at, updated_at FROM subjects WHERE active = true ORDER BY id",
+                rows(rs -> {
+                    generator.writeStartObject();
+                    generator.writeNumberField("id", rs.getLong("id"));
+                    generator.writeStringField("name", rs.getString("name"));
+                    generator.writeBooleanField("active", rs.getBoolean("active"));
+                    writeTimestamp(generator, "createdAt", rs.getTimestamp("created_at"));
+                    writeTimestamp(generator, "updatedAt", rs.getTimestamp("updated_at"));
+                    generator.writeEndObject();
+                }));
+        generator.writeEndArray();
+    }
+
+    private void streamChapters(JsonGenerator generator) throws IOException {
+        generator.writeArrayFieldStart("chapters");
+        cursorJdbcTemplate.query(
+                "SELECT c.id, c.name, c.subject_id, s.name AS subject_name, c.active, c.deleted_at, " +
+                "c.created_at, c.updated_at " +
+                "FROM chapters c JOIN subjects s ON s.id = c.subject_id " +
+                "WHERE c.active = true ORDER BY c.id",
+                rows(rs -> {
+                    generator.writeStartObject();
+                    generator.writeNumberField("id", rs.getLong("id"));
+                    generator.writeStringField("name", rs.getString("name"));
+                    generator.writeNumberField("subjectId", rs.getLong("subject_id"));
+                    generator.writeStringField("subjectName", rs.getString("subject_name"));
+                    generator.writeBooleanField("active", rs.getBoolean("active"));
+                    writeTimestamp(generator, "deletedAt", rs.getTimestamp("deleted_at"));
+                    writeTimestamp(generator, "createdAt", rs.getTimestamp("created_at"));
+                    writeTimestamp(generator, "updatedAt", rs.getTimestamp("updated_at"));
+                    generator.writeEndObject();
+                }));
+        generator.writeEndArray();
+    }
+
+    private void streamTopics(JsonGenerator generator) throws IOException {
+        generator.writeArrayFieldStart("topics");
+        cursorJdbcTemplate.query(
+                "SELECT t.id, t.title, t.code, t.description, t.summary, t.expected_time_mins, t.chapter_id, " +
+                "c.name AS chapter_name, s.name AS subject_name, t.active, t.deleted_at, t.created_at, t.updated_at " +
+                "FROM topics t JOIN chapters c ON c.id = t.chapter_id JOIN subjects s ON s.id = c.subject_id " +
+                "WHERE t.active = true ORDER BY t.id",
+                rows(rs -> {
+                    generator.writeStartObject();
+                    generator.writeNumberField("id", rs.getLong("id"));
+                    generator.writeStringField("title", rs.getString("title"));
+                    generator.writeStringField("code", rs.getString("code"));
+                    generator.writeStringField("description", rs.getString("description"));
+                    generator.writeStringField("summary", rs.getString("summary"));
+                    int expectedTimeMins = rs.getInt("expected_time_mins");
+                    if (rs.wasNull()) {
+                        generator.writeNullField("expectedTimeMins");
+                    } else {
+                        generator.writeNumberField("expectedTimeMins", expectedTimeMins);
+                    }
+                    generator.writeNumberField("chapterId", rs.getLong("chapter_id"));
+                    generator.writeStringField("chapterName", rs.getString("chapter_name"));
+                    generator.writeStringField("subjectName", rs.getString("subject_name"));
+                    generator.writeBooleanField("active", rs.getBoolean("active"));
+                    writeTimestamp(generator, "deletedAt", rs.getTimestamp("deleted_at"));
+                    writeTimestamp(generator, "createdAt", rs.getTimestamp("created_at"));
+                    writeTimestamp(generator, "updatedAt", rs.getTimestamp("updated_at"));
+                    generator.writeEndObject();
+                }));
+        generator.writeEndArray();
+    }
+
+    private JsonGenerator createGenerator(OutputStream out) throws IOException {
+        // The ObjectMapper's codec keeps date formatting identical to the non-streaming endpoint
+        return objectMapper.getFactory().createGenerator(out, JsonEncoding.UTF8);
+    }
+
+    private void writeTimestamp(JsonGenerator generator, String field, Timestamp value) throws IOException {
+        generator.writeFieldName(field);
+        generator.writeObject(value != null ? value.toLocalDateTime() : null);
+    }
+
+    private static RowCallbackHandler rows(RowWriter writer) {
+        return rs -> {
+            try {
+                writer.write(rs);
+            } catch (IOException e) {
+                // Usually the client went away; abandon the cursor
+                throw new UncheckedIOException(e);
+            }
+        };
+    }
+
+    @FunctionalInterface
+    private interface RowWriter {
+        void write(ResultSet rs) throws SQLException, IOException;
+    }
+}
@@ -1,188 +1,932 @@
 package com.ankurshala.backend.service;
 
+import com.ankurshala.backend.dto.admin.ImportProgressDto;
 import com.ankurshala.backend.entity.*;
+import com.ankurshala.backend.exception.ResourceNotFoundException;
 import com.ankurshala.backend.repository.*;
+import com.ankurshala.backend.util.PartitionedChunkPipeline;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import org.apache.commons.csv.CSVFormat;
 import org.apache.commons.csv.CSVParser;
 import org.apache.commons.csv.CSVRecord;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.scheduling.annotation.Async;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
-import java.io.ByteArrayInputStream;
 import java.io.IOException;
-import java.io.InputStreamReader;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.io.UncheckedIOException;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Timestamp;
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.*;
-import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
+/**
+ * Imports the content taxonomy (board, grade, subject, chapter, topic) from CSV.
+ *
+ * <p>Uploads are spooled to disk and parsed record by record. Valid rows go
+ * through a {@link PartitionedChunkPipeline} to writer threads that persist each
+ * chunk in its own transaction, so parsing waits whenever writing falls
+ * behind and heap use does not depend on the file size. A chunk that fails is
+ * retried row by row so one bad row does not lose its neighbours. Topic links
+ * are resolved in a second pass over the spool once every topic exists.</p>
+ *
+ * <p>Rows are partitioned by subject over {@code app.content.import.workers}
+ * writer threads (see {@link #partitionOf}); each partition has its own chunk
+ * transactions, so a failing partition does not hold up the others.</p>
+ *
+ * <p>Parents are resolved through a per-partition {@link TaxonomyImportCache}; the
+ * topics of a chunk are matched with two set-based queries and written with
+ * one JDBC insert batch and one update batch. Cache hit rates, topic counts
+ * and rows/sec end up in {@code ImportJob.stats}.</p>
+ *
+ * <p>For very large loads the {@code copy} mode streams the validated rows
+ * into an unlogged staging table with {@code COPY FROM STDIN} and merges them
+ * with a few set-based upserts in one transaction; see
+ * {@link TaxonomyStagingMerge}.</p>
+ *
+ * <p>Jobs are checkpointed: the job row records how many rows from the top
+ * of the file are settled, and a job whose node stopped is resumed from
+ * there, by this node or another one sharing the spool directory.</p>
+ */
 @Service
 public class CsvContentImportService {
 
+    private static final Logger logger = LoggerFactory.getLogger(CsvContentImportService.class);
+
     @Autowired
     private ImportJobRepository importJobRepository;
 
     @Autowired
-    private BoardRepository boardRepository;
+    private UserRepository userRepository;
 
     @Autowired
-    private GradeRepository gradeRepository;
+    private ApplicationEventPublisher eventPublisher;
 
     @Autowired
-    private SubjectRepository subjectRepository;
+    private ContentTaxonomyService contentTaxonomyService;
 
     @Autowired
-    private ChapterRepository chapterRepository;
+    private TopicGraphService topicGraphService;
 
     @Autowired
-    private TopicRepository topicRepository;
+    private PlatformTransactionManager transactionManager;
 
     @Autowired
-    private UserRepository userRepository;
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ImportProgressService importProgressService;
+
+    @Value("${app.content.import.spool-dir:${java.io.tmpdir}/ankurshala-imports}")
+    private String spoolDir;
+
+    @Value("${app.content.import.chunk-size:500}")
+    private int chunkSize;
+
+    @Value("${app.content.import.queue-chunks:4}")
+    private int queueChunks;
+
+    @Value("${app.content.import.workers:4}")
+    private int workers;
+
+    @Value("${app.content.import.stale-after:1m}")
+    private Duration staleAfter;
+
+    @Value("${app.content.import.partial-chunk-max-age:10s}")
+    private Duration partialChunkMaxAge;
+
+    @Value("${app.content.import.snapshot-interval:5s}")
+    private Duration snapshotInterval;
 
     private static final Set<String> REQUIRED_HEADERS = Set.of(
         "board", "grade", "subject", "chapter", "topictitle", "hours"
     );
 
-    public void validateCsvHeaders(byte[] csvContent) throws IllegalArgumentException {
+    private static final CSVFormat FORMAT = CSVFormat.DEFAULT.builder()
+            .setHeader()
+            .setSkipHeaderRecord(true)
+            .setIgnoreHeaderCase(true)
+            .setTrim(true)
+            .build();
+
+    private static final int MAX_STORED_ERRORS = 20;
+    private static final int LINK_CHUNK_SIZE = 5000;
+    private static final int CODE_CLAIM_SLOTS = 1 << 20;
+    private static final Pattern ERROR_ROW = Pattern.compile("Row (\\d+):");
+
+    private static final String MODE_BATCH = "BATCH";
+    private static final String MODE_COPY = "COPY";
+    private static final String MODE_DRY_RUN = "DRY_RUN";
+
+    private final ExecutorService jobExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "content-import");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    // Jobs queued or running on this node, so a scan does not queue them twice -> whether resumed
+    private final Map<Long, Boolean> queued = new ConcurrentHashMap<>();
+    private volatile boolean stopping;
+
+    private TransactionTemplate transactionTemplate;
+
+    @PostConstruct
+    void init() throws IOException {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        Files.createDirectories(Path.of(spoolDir));
+    }
+
+    @PreDestroy
+    void shutdown() throws InterruptedException {
+        // Writers stop at their next chunk instead of reporting rows the closing pool fails;
+        // the job leaves its checkpoint and is released for another node to resume
+        stopping = true;
+        jobExecutor.shutdownNow();
+        jobExecutor.awaitTermination(30, TimeUnit.SECONDS);
+    }
+
+    /**
+     * An upload spooled to disk, with its size and SHA-256 (hex).
+     */
+    public record SpooledFile(Path path, long size, String sha256) {
+    }
+
+    /**
+     * Copies an upload to a spool file without buffering it in memory. The
+     * caller owns the file until it is handed to {@link #processAsync}.
+     */
+    public SpooledFile spool(InputStream body) throws IOException {
+        Path file = Files.createTempFile(Path.of(spoolDir), "import-", ".csv");
         try {
-            CSVParser parser = CSVParser.parse(
-                new InputStreamReader(new ByteArrayInputStream(csvContent), StandardCharsets.UTF_8),
-                CSVFormat.DEFAULT.withFirstRecordAsHeader()
-            );
-            
-            // Validate headers
-            Set<String> headerSet = parser.getHeaderMap().keySet().stream()
-                .map(String::toLowerCase)
-                .collect(HashSet::new, HashSet::add, HashSet::addAll);
-            
-            Set<String> missingHeaders = new HashSet<>(REQUIRED_HEADERS);
-            missingHeaders.removeAll(headerSet);
-            
-            if (!missingHeaders.isEmpty()) {
-                throw new IllegalArgumentException("Missing required headers: " + missingHeaders);
-            }
-            
-            parser.close();
+            MessageDigest digest = sha256();
+            Files.copy(new DigestInputStream(body, digest), file, StandardCopyOption.REPLACE_EXISTING);
+            return new SpooledFile(file, Files.size(file), HexFormat.of().formatHex(digest.digest()));
+        } catch (IOException e) {
+            Files.deleteIfExists(file);
+            throw e;
+        }
+    }
+
+    public void validateCsvHeaders(Path csvFile) throws IllegalArgumentException {
+        try (Reader reader = Files.newBufferedReader(csvFile, StandardCharsets.UTF_8);
+             CSVParser parser = new CSVParser(reader, FORMAT)) {
+            checkHeaders(parser);
         } catch (IOException e) {
             throw new IllegalArgumentException("Invalid CSV format: " + e.getMessage());
         }
     }
 
+    private static void checkHeaders(CSVParser parser) {
+        Set<String> headerSet = new HashSet<>();
+        parser.getHeaderMap().keySet().forEach(header -> headerSet.add(header.toLowerCase(Locale.ROOT)));
+
+        Set<String> missingHeaders = new TreeSet<>(REQUIRED_HEADERS);
+        missingHeaders.removeAll(headerSet);
+
+        if (!missingHeaders.isEmpty()) {
+            throw new IllegalArgumentException("Missing required headers: " + missingHeaders);
+        }
+    }
 
     @Transactional
     public ImportJob createImportJob(String fileName, Long fileSize, Long userId) {
         ImportJob importJob = new ImportJob(fileName, "CSV", fileSize);
         importJob.setType("CONTENT_CSV");
         importJob.setStatus(ImportJobStatus.PENDING);
-        
+
         if (userId != null) {
             User user = userRepository.findById(userId).orElse(null);
             importJob.setCreatedBy(user);
         }
-        
+
         return importJobRepository.save(importJob);
     }
 
-    @Async
-    public CompletableFuture<ImportJob> processFileAsync(ImportJob importJob, byte[] csvContent, boolean dryRun) {
+    /**
+     * Queues the spooled file for import; jobs run one at a time in the
+     * background. With {@code copy} the rows are merged through the COPY
+     * staging table instead of chunked batches.
+     *
+     * <p>The file is kept as {@code job-<id>.csv} in the spool directory until
+     * the job finishes, so an interrupted job can be resumed from its
+     * checkpoint (see {@link #resumeInterrupted}).</p>
+     */
+    public void processAsync(Long jobId, SpooledFile upload, boolean dryRun, boolean copy) throws IOException {
+        Path csvFile = Path.of(spoolDir, "job-" + jobId + ".csv");
+        Files.move(upload.path(), csvFile, StandardCopyOption.REPLACE_EXISTING);
+        jdbcTemplate.update("UPDATE import_jobs SET import_mode = ?, spool_path = ?, file_sha256 = ? WHERE id = ?",
+                dryRun ? MODE_DRY_RUN : copy ? MODE_COPY : MODE_BATCH, csvFile.toString(), upload.sha256(), jobId);
+        submit(jobId, false);
+    }
+
+    /**
+     * Resumes a job whose heartbeat went stale, on this node. Returns false if
+     * the job is not interrupted or its spool file is not here.
+     */
+    public boolean resume(Long jobId) {
+        ImportJob job = getImportJob(jobId);
+        boolean interrupted = (job.getStatus() == ImportJobStatus.PENDING || job.getStatus() == ImportJobStatus.RUNNING)
+                && job.getUpdatedAt() != null && job.getUpdatedAt().isBefore(staleBefore().toLocalDateTime())
+                && job.getSpoolPath() != null && Files.isReadable(Path.of(job.getSpoolPath()));
+        if (!interrupted) {
+            return false;
+        }
+        submit(jobId, true);
+        return true;
+    }
+
+    /**
+     * Picks up content imports left PENDING or RUNNING by a node that stopped:
+     * no progress flush or checkpoint for {@code app.content.import.stale-after}.
+     * A job is claimed with a conditional update, so when several nodes share
+     * the spool directory only one resumes it. Jobs without a spool file
+     * cannot be resumed and are failed.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${app.content.import.resume-scan-interval-ms:60000}",
+               initialDelayString = "${app.content.import.resume-scan-interval-ms:60000}")
+    public void resumeInterrupted() {
         try {
-            importJob.setStatus(ImportJobStatus.RUNNING);
-            importJob.setStartedAt(LocalDateTime.now());
-            importJobRepository.save(importJob);
+            Timestamp staleBefore = staleBefore();
+            List<Map<String, Object>> jobs = jdbcTemplate.queryForList(
+                    "SELECT id, spool_path FROM import_jobs WHERE type = 'CONTENT_CSV' " +
+                    "AND status IN ('PENDING', 'RUNNING') AND updated_at < ? ORDER BY id", staleBefore);
+            for (Map<String, Object> job : jobs) {
+                Long jobId = ((Number) job.get("id")).longValue();
+                String spoolPath = (String) job.get("spool_path");
+                if (spoolPath == null) {
+                    jdbcTemplate.update("UPDATE import_jobs SET status = 'FAILED', error_message = ?, completed_at = ?, " +
+                                    "updated_at = ? WHERE id = ? AND status IN ('PENDING', 'RUNNING') AND updated_at < ?",
+                            "Import was interrupted and cannot be resumed; upload the file again",
+                            now(), now(), jobId, staleBefore);
+                } else if (!Files.isReadable(Path.of(spoolPath))) {
+                    logger.warn("Interrupted content import job {} has no spool file on this node: {}", jobId, spoolPath);
+                } else {
+                    submit(jobId, true);
+                }
+            }
+        } catch (RuntimeException e) {
+            logger.warn("Could not scan for interrupted content imports: {}", e.getMessage());
+        }
+    }
 
-            // Parse CSV and validate headers
-            List<Map<String, String>> records = parseCsvContent(csvContent, importJob);
-            
-            if (!dryRun) {
-                // Process records and create/update content
-                processRecords(records, importJob);
+    /**
+     * Moves the heartbeat of jobs queued on this node behind another import,
+     * so other nodes do not take them for interrupted and start them early.
+     * Once a job runs, its progress flushes are the heartbeat. Resumed jobs
+     * are left alone: their claim needs the heartbeat to stay stale.
+     */
+    @Scheduled(fixedDelayString = "${app.content.import.queued-heartbeat-interval-ms:15000}")
+    public void heartbeatQueued() {
+        Long[] ids = queued.entrySet().stream()
+                .filter(entry -> !entry.getValue())
+                .map(Map.Entry::getKey)
+                .toArray(Long[]::new);
+        if (ids.length == 0) {
+            return;
+        }
+        try {
+            jdbcTemplate.update(con -> {
+                var ps = con.prepareStatement("UPDATE import_jobs SET updated_at = ? WHERE id = ANY(?) AND status = 'PENDING'");
+                ps.setTimestamp(1, now());
+                ps.setArray(2, con.createArrayOf("bigint", ids));
+                return ps;
+            });
+        } catch (RuntimeException e) {
+            logger.warn("Could not refresh queued content imports: {}", e.getMessage());
+        }
+    }
+
+    public ImportJob getImportJob(Long jobId) {
+        return importJobRepository.findById(jobId)
+                .filter(job -> "CONTENT_CSV".equals(job.getType()))
+                .orElseThrow(() -> new ResourceNotFoundException("Content import job not found: " + jobId));
+    }
+
+    /**
+     * Progress as stored on the job row; live streams continue from here.
+     */
+    public ImportProgressDto getProgress(ImportJob job) {
+        return new ImportProgressDto(job.getId(), job.getStatus(), job.getTotalRows(), job.getSuccessRows(),
+                job.getErrorRows(), job.getStatus() == ImportJobStatus.PENDING || job.getStatus() == ImportJobStatus.RUNNING
+                        ? null : Double.valueOf(100.0), null, null);
+    }
+
+    private void submit(Long jobId, boolean resume) {
+        if (queued.putIfAbsent(jobId, resume) != null) {
+            return;
+        }
+        jobExecutor.execute(() -> {
+            try {
+                run(jobId, resume);
+            } finally {
+                queued.remove(jobId);
             }
-            
-            importJob.setStatus(ImportJobStatus.SUCCEEDED);
-            importJob.setCompletedAt(LocalDateTime.now());
-            
-        } catch (Exception e) {
+        });
+    }
+
+    private void run(Long jobId, boolean resume) {
+        // Claiming moves updated_at forward, so no other node treats the job as stale while it runs
+        int claimed = resume
+                ? jdbcTemplate.update("UPDATE import_jobs SET status = 'RUNNING', updated_at = ? " +
+                        "WHERE id = ? AND status IN ('PENDING', 'RUNNING') AND updated_at < ?", now(), jobId, staleBefore())
+                : jdbcTemplate.update("UPDATE import_jobs SET status = 'RUNNING', updated_at = ? " +
+                        "WHERE id = ? AND status = 'PENDING'", now(), jobId);
+        ImportJob importJob = claimed == 0 ? null : importJobRepository.findById(jobId).orElse(null);
+        if (importJob == null) {
+            return;
+        }
+        Path csvFile = Path.of(importJob.getSpoolPath());
+        if (resume && !hasDigest(csvFile, importJob.getFileSha256())) {
             importJob.setStatus(ImportJobStatus.FAILED);
+            importJob.setErrorMessage("The spooled file is missing or has changed; upload the file again");
             importJob.setCompletedAt(LocalDateTime.now());
+            importJobRepository.save(importJob);
+            return;
+        }
+        if (resume) {
+            logger.info("Resuming content import job {} after row {}", jobId, importJob.getCheckpointRows());
+        }
+        if (process(importJob, csvFile)) {
+            try {
+                Files.deleteIfExists(csvFile);
+            } catch (IOException e) {
+                logger.warn("Could not delete import spool {}: {}", csvFile, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Runs the job from its checkpoint. Returns false if it was interrupted,
+     * in which case the job stays RUNNING and its spool file is kept.
+     */
+    private boolean process(ImportJob importJob, Path csvFile) {
+        Long jobId = importJob.getId();
+        long started = System.currentTimeMillis();
+        ImportProgress progress = new ImportProgress(importJob, restoredErrors(importJob));
+        ImportProgressService.Tracker tracker =
+                importProgressService.track(jobId, () -> progress.snapshot(jobId, ImportJobStatus.RUNNING));
+
+        try {
+            progress.fileSize = Files.size(csvFile);
+            if (importJob.getStartedAt() == null) {
+                importJob.setStartedAt(LocalDateTime.now());
+            }
+            importJob = importJobRepository.save(importJob);
+
+            if (MODE_DRY_RUN.equals(importJob.getImportMode())) {
+                importRows(csvFile, true, progress);
+            } else if (MODE_COPY.equals(importJob.getImportMode())) {
+                progress.details.put("mode", "copy");
+                if (progress.resumeAfter == 0) {
+                    importRowsByCopy(jobId, csvFile, progress);
+                }
+                importTopicLinks(csvFile);
+            } else {
+                importRows(csvFile, false, progress);
+                importTopicLinks(csvFile);
+            }
+
+            importJob.setStatus(progress.errorRows.get() == 0 ? ImportJobStatus.SUCCEEDED
+                    : progress.successRows.get() > 0 ? ImportJobStatus.PARTIALLY_SUCCEEDED : ImportJobStatus.FAILED);
+        } catch (Exception e) {
+            // Closing the writer pipeline reports an interrupt unchecked, with the flag set
+            if (e instanceof InterruptedException || Thread.currentThread().isInterrupted() || stopping) {
+                if (e instanceof InterruptedException) {
+                    Thread.currentThread().interrupt();
+                }
+                release(importJob, progress);
+                tracker.close(progress.snapshot(jobId, ImportJobStatus.RUNNING));
+                logger.warn("Content import job {} was interrupted; it resumes from its last checkpoint", jobId);
+                return false;
+            }
+            logger.error("Content import job {} failed: {}", jobId, e.getMessage(), e);
+            importJob.setStatus(progress.successRows.get() > 0 ? ImportJobStatus.PARTIALLY_SUCCEEDED : ImportJobStatus.FAILED);
             importJob.setErrorMessage(e.getMessage());
-            System.err.println("Import failed: " + e.getMessage());
-            e.printStackTrace();
-        }
-        
-        return CompletableFuture.completedFuture(importJobRepository.save(importJob));
-    }
-
-    private List<Map<String, String>> parseCsvContent(byte[] csvContent, ImportJob importJob) throws IOException {
-        List<Map<String, String>> records = new ArrayList<>();
-        List<String> errors = new ArrayList<>();
-        
-        try (ByteArrayInputStream inputStream = new ByteArrayInputStream(csvContent);
-             InputStreamReader reader = new InputStreamReader(inputStream, StandardCharsets.UTF_8);
-             CSVParser parser = new CSVParser(reader, CSVFormat.DEFAULT.withFirstRecordAsHeader().withIgnoreHeaderCase().withTrim())) {
-            
-            // Validate headers
-            Set<String> headerSet = parser.getHeaderMap().keySet().stream()
-                .map(String::toLowerCase)
-                .collect(HashSet::new, HashSet::add, HashSet::addAll);
-            
-            Set<String> missingHeaders = new HashSet<>(REQUIRED_HEADERS);
-            missingHeaders.removeAll(headerSet);
-            
-            if (!missingHeaders.isEmpty()) {
-                throw new IllegalArgumentException("Missing required headers: " + missingHeaders);
+        }
+
+        importJob.setTotalRows(progress.totalRows.get());
+        importJob.setSuccessRows(progress.successRows.get());
+        importJob.setErrorRows(progress.errorRows.get());
+        importJob.setCheckpointRows(progress.totalRows.get());
+        importJob.setCheckpointSuccessRows(progress.successRows.get());
+        importJob.setCheckpointErrorRows(progress.errorRows.get());
+        importJob.setStats(toJson(progress.stats(System.currentTimeMillis() - started)));
+        List<String> errors = progress.errors();
+        if (!errors.isEmpty()) {
+            importJob.setErrors(toJson(errors));
+        }
+        importJob.setCompletedAt(LocalDateTime.now());
+        try {
+            importJobRepository.save(importJob);
+        } finally {
+            tracker.close(progress.snapshot(jobId, importJob.getStatus()));
+        }
+        logger.info("Content import job {} finished: {} rows, {} imported, {} errors in {} ms", jobId,
+                progress.totalRows.get(), progress.successRows.get(), progress.errorRows.get(),
+                System.currentTimeMillis() - started);
+        return true;
+    }
+
+    /**
+     * Saves the checkpoint of an interrupted job and backdates its heartbeat,
+     * so the next scan resumes it without waiting out {@code stale-after}.
+     */
+    private void release(ImportJob importJob, ImportProgress progress) {
+        try {
+            if (!progress.dryRun) {
+                saveCheckpoint(progress, progress.checkpoint.advanced());
+            }
+            jdbcTemplate.update("UPDATE import_jobs SET updated_at = ? WHERE id = ? AND status = 'RUNNING'",
+                    Timestamp.valueOf(LocalDateTime.now().minus(staleAfter).minusSeconds(1)), importJob.getId());
+        } catch (RuntimeException e) {
+            // The heartbeat goes stale on its own; the job resumes from its last saved checkpoint
+            logger.warn("Could not release interrupted import job {}: {}", importJob.getId(), e.getMessage());
+        }
+    }
+
+    /**
+     * Stores how far the job got once the settled prefix has moved. Rows after
+     * it are replayed on resume; re-applying a row is an upsert, so a row
+     * that had already committed is simply written again.
+     */
+    private void saveCheckpoint(ImportProgress progress, ImportCheckpoint.Position position) {
+        if (position == null) {
+            return;
+        }
+        List<String> errors = progress.errors();
+        jdbcTemplate.update("UPDATE import_jobs SET checkpoint_rows = ?, checkpoint_success_rows = ?, " +
+                        "checkpoint_error_rows = ?, errors = ?, updated_at = ? WHERE id = ? AND checkpoint_rows < ?",
+                position.rows(), position.successRows(), position.errorRows(), errors.isEmpty() ? null : toJson(errors),
+                now(), progress.jobId, position.rows());
+    }
+
+    /**
+     * Stored messages for rows up to the checkpoint; later rows are replayed
+     * and report their errors again.
+     */
+    private List<String> restoredErrors(ImportJob importJob) {
+        if (importJob.getCheckpointRows() == 0 || importJob.getErrors() == null) {
+            return List.of();
+        }
+        try {
+            List<String> restored = new ArrayList<>();
+            for (String error : objectMapper.readValue(importJob.getErrors(), new TypeReference<List<String>>() {})) {
+                Matcher row = ERROR_ROW.matcher(error);
+                // Row numbers count the header, checkpoint rows do not
+                if (row.lookingAt() && Integer.parseInt(row.group(1)) - 1 <= importJob.getCheckpointRows()) {
+                    restored.add(error);
+                }
+            }
+            return restored;
+        } catch (JsonProcessingException | NumberFormatException e) {
+            return List.of();
+        }
+    }
+
+    private Timestamp staleBefore() {
+        return Timestamp.valueOf(LocalDateTime.now().minus(staleAfter));
+    }
+
+    private static Timestamp now() {
+        return Timestamp.valueOf(LocalDateTime.now());
+    }
+
+    private static boolean hasDigest(Path file, String sha256) {
+        if (sha256 == null || !Files.isReadable(file)) {
+            return false;
+        }
+        MessageDigest digest = sha256();
+        try (InputStream in = new DigestInputStream(Files.newInputStream(file), digest)) {
+            in.transferTo(OutputStream.nullOutputStream());
+        } catch (IOException e) {
+            return false;
+        }
+        return HexFormat.of().formatHex(digest.digest()).equals(sha256);
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private void importRows(Path csvFile, boolean dryRun, ImportProgress progress) throws IOException, InterruptedException {
+        // Bounded by cores; each writer holds a pooled connection while it writes a chunk
+        int partitions = dryRun ? 1 : Math.max(1, Math.min(workers, Runtime.getRuntime().availableProcessors()));
+        TaxonomyImportCache[] caches = new TaxonomyImportCache[partitions];
+        if (!dryRun) {
+            for (int i = 0; i < partitions; i++) {
+                caches[i] = new TaxonomyImportCache(jdbcTemplate).preload();
+            }
+        }
+        byte[] codeClaims = new byte[CODE_CLAIM_SLOTS];
+        // What the writers hold when every partition is busy; a larger open window means a
+        // partial chunk is holding the checkpoint back
+        int windowRows = partitions * chunkSize * (queueChunks + 2);
+        long flushedAt = System.nanoTime();
+
+        try (Reader reader = Files.newBufferedReader(csvFile, StandardCharsets.UTF_8);
+             CSVParser parser = new CSVParser(reader, FORMAT);
+             PartitionedChunkPipeline<ImportRow> writer = dryRun ? null
+                     : new PartitionedChunkPipeline<>("content-import-writer", partitions, chunkSize, queueChunks,
+                             partition -> chunk -> writeChunk(chunk, caches[partition], progress),
+                             partition -> chunk -> discardChunk(chunk, progress))) {
+            checkHeaders(parser);
+
+            for (CSVRecord record : parser) {
+                int recordNumber = (int) record.getRecordNumber();
+                if (recordNumber <= progress.resumeAfter) {
+                    continue; // settled before the job was interrupted
+                }
+                int rowNumber = recordNumber + 1; // header is row 1
+                progress.position = record.getCharacterPosition();
+                progress.totalRows.incrementAndGet();
+                ImportRow row;
+                try {
+                    row = parseRecord(record, rowNumber);
+                } catch (IllegalArgumentException e) {
+                    progress.error(rowNumber, e.getMessage());
+                    progress.checkpoint.settled(recordNumber, false);
+                    continue;
+                }
+                if (writer != null) {
+                    progress.checkpoint.pending(recordNumber);
+                    writer.submit(partitionOf(row, partitions, codeClaims), row);
+                    if (progress.checkpoint.openRows() >= windowRows
+                            || System.nanoTime() - flushedAt >= partialChunkMaxAge.toNanos()) {
+                        writer.flush();
+                        flushedAt = System.nanoTime();
+                        // Cap the window until the writers catch up; a failed writer may leave rows
+                        // unsettled, so stop waiting then
+                        while (!progress.checkpoint.awaitOpenBelow(2 * windowRows, 1000) && !writer.failed()) {
+                            writer.flush();
+                        }
+                    }
+                } else {
+                    progress.successRows.incrementAndGet();
+                }
+            }
+        } finally {
+            if (!dryRun) {
+                // The writers are closed by now, so every committed chunk is in
+                applyTaxonomyChanges(progress, true);
+                List<Map<String, Object>> cacheStats = new ArrayList<>();
+                for (TaxonomyImportCache cache : caches) {
+                    cacheStats.add(cache.stats());
+                }
+                progress.details.put("workers", partitions);
+                progress.details.put("cache", cacheStats);
             }
-            
-            List<CSVRecord> csvRecords = parser.getRecords();
-            importJob.setTotalRows(csvRecords.size());
-            
-            int successCount = 0;
-            int errorCount = 0;
-            
-            for (int i = 0; i < csvRecords.size(); i++) {
-                CSVRecord record = csvRecords.get(i);
+        }
+    }
+
+    /**
+     * Picks the writer for a row. Subjects never share chapters or topics, so
+     * a subject's rows all go to one partition, in file order. Topic codes are
+     * global, though: a code seen again under another subject follows the
+     * partition that claimed it first, so every row for a topic is applied by
+     * one writer in file order and the result does not depend on scheduling.
+     * Claims are kept per hash slot; a collision only moves a row to another
+     * partition, which parents tolerate because they are upserted.
+     */
+    private static int partitionOf(ImportRow row, int partitions, byte[] codeClaims) {
+        int partition = Math.floorMod(row.subject().hashCode(), partitions);
+        String code = codeOf(row);
+        if (code == null || partitions == 1) {
+            return partition;
+        }
+        int slot = Math.floorMod(code.hashCode(), codeClaims.length);
+        if (codeClaims[slot] == 0) {
+            codeClaims[slot] = (byte) (partition + 1);
+        }
+        return codeClaims[slot] - 1;
+    }
+
+    /**
+     * Copies every valid row into the staging table and merges it in a single
+     * transaction. Rows the merge rejects are reported like row errors; any
+     * other failure rolls the whole load back.
+     */
+    private void importRowsByCopy(Long jobId, Path csvFile, ImportProgress progress) {
+        TaxonomyStagingMerge staging = new TaxonomyStagingMerge(jdbcTemplate, jobId);
+        transactionTemplate.executeWithoutResult(status -> {
+            int[] staged = {0};
+            staging.copy(rows -> {
+                try (Reader reader = Files.newBufferedReader(csvFile, StandardCharsets.UTF_8);
+                     CSVParser parser = new CSVParser(reader, FORMAT)) {
+                    checkHeaders(parser);
+                    for (CSVRecord record : parser) {
+                        int rowNumber = (int) record.getRecordNumber() + 1; // header is row 1
+                        progress.position = record.getCharacterPosition();
+                        progress.totalRows.incrementAndGet();
+                        ImportRow row;
+                        try {
+                            row = parseRecord(record, rowNumber);
+                            checkLengths(row);
+                        } catch (IllegalArgumentException e) {
+                            progress.error(rowNumber, e.getMessage());
+                            continue;
+                        }
+                        rows.accept(new Object[]{row.rowNumber(), row.board(), row.grade(), row.subject(), row.chapter(),
+                                row.topicTitle(), codeOf(row), textOf(row.description()), textOf(row.summary()),
+                                row.expectedTimeMins(), Boolean.parseBoolean(row.active())});
+                        staged[0]++;
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+
+            ContentTaxonomyChangedEvent.Collector changes = new ContentTaxonomyChangedEvent.Collector();
+            TaxonomyStagingMerge.Result result = staging.merge(changes, progress::error);
+            staging.clear();
+            progress.successRows.set(staged[0] - result.rejected);
+            progress.topicsInserted.set(result.topicsInserted);
+            progress.topicsUpdated.set(result.topicsUpdated);
+            progress.details.put("merge", result.toMap());
+            eventPublisher.publishEvent(changes.toEvent());
+        });
+        // The merge is all or nothing, so the whole file settles with it
+        saveCheckpoint(progress, new ImportCheckpoint.Position(progress.totalRows.get(), progress.successRows.get(),
+                progress.errorRows.get()));
+    }
+
+    /**
+     * A bad row must not abort the COPY, so column limits are checked up front.
+     */
+    private static void checkLengths(ImportRow row) {
+        checkLength("Board", row.board(), 100);
+        checkLength("Grade", row.grade(), 50);
+        checkLength("Subject", row.subject(), 100);
+        checkLength("Chapter", row.chapter(), 200);
+        checkLength("TopicTitle", row.topicTitle(), 300);
+        checkLength("TopicCode", codeOf(row), 100);
+    }
+
+    private static void checkLength(String field, String value, int max) {
+        if (value != null && value.length() > max) {
+            throw new IllegalArgumentException(field + " is longer than " + max + " characters");
+        }
+    }
+
+    /**
+     * Writes one chunk in a single transaction. If that fails, the rows are
+     * retried one transaction each so only the bad rows are reported. The
+     * checkpoint moves once the chunk's rows are settled.
+     */
+    private void writeChunk(List<ImportRow> chunk, TaxonomyImportCache cache, ImportProgress progress) {
+        if (stopping) {
+            throw new IllegalStateException("Import stopped for shutdown");
+        }
+        try {
+            writeInTransaction(chunk, cache, progress);
+            progress.successRows.addAndGet(chunk.size());
+            chunk.forEach(row -> progress.checkpoint.settled(row.rowNumber() - 1, true));
+        } catch (RuntimeException chunkFailure) {
+            for (ImportRow row : chunk) {
                 try {
-                    Map<String, String> recordMap = parseRecord(record, i + 2); // +2 because header is row 1
-                    records.add(recordMap);
-                    successCount++;
-                } catch (Exception e) {
-                    errorCount++;
-                    errors.add("Row " + (i + 2) + ": " + e.getMessage());
-                    if (errors.size() > 20) { // Limit errors stored
-                        errors.add("... and more errors");
-                        break;
+                    writeInTransaction(List.of(row), cache, progress);
+                    progress.successRows.incrementAndGet();
+                    progress.checkpoint.settled(row.rowNumber() - 1, true);
+                } catch (RuntimeException e) {
+                    if (stopping) {
+                        throw e; // left unsettled, so the row is replayed on resume
                     }
+                    progress.error(row.rowNumber(), e.getMessage());
+                    progress.checkpoint.settled(row.rowNumber() - 1, false);
                 }
             }
-            
-            importJob.setSuccessRows(successCount);
-            importJob.setErrorRows(errorCount);
-            
-            if (!errors.isEmpty()) {
-                // Store first 20 errors as JSON
-                // Convert errors to JSON array format
-                StringBuilder errorsJson = new StringBuilder("[");
-                for (int i = 0; i < Math.min(errors.size(), 20); i++) {
-                    if (i > 0) errorsJson.append(",");
-                    errorsJson.append("\"").append(errors.get(i).replace("\"", "\\\"").replace("\n", "\\n")).append("\"");
+        }
+        saveCheckpoint(progress, progress.checkpoint.advanced());
+        applyTaxonomyChanges(progress, false);
+    }
+
+    /**
+     * Swaps the taxonomy snapshot once for every chunk committed since the
+     * last swap, at most every {@code app.content.import.snapshot-interval}
+     * unless {@code force}d at the end of the job. Per chunk, copying the
+     * snapshot and re-indexing autocomplete would cost more than the writes.
+     */
+    private void applyTaxonomyChanges(ImportProgress progress, boolean force) {
+        ContentTaxonomyChangedEvent changes = progress.drainTaxonomyChanges(force ? 0 : snapshotInterval.toNanos());
+        if (changes == null) {
+            return;
+        }
+        try {
+            contentTaxonomyService.applyChanges(changes);
+        } catch (RuntimeException e) {
+            // The scheduled resync picks the rows up
+            logger.warn("Could not apply imported taxonomy changes for job {}: {}", progress.jobId, e.getMessage());
+        }
+    }
+
+    /**
+     * Accounts for rows a writer dropped after its consumer failed, so they
+     * show up as row errors and the checkpoint can move past them. At
+     * shutdown they stay unsettled and are replayed on resume.
+     */
+    private void discardChunk(List<ImportRow> chunk, ImportProgress progress) {
+        if (stopping) {
+            return;
+        }
+        for (ImportRow row : chunk) {
+            progress.error(row.rowNumber(), "Not imported: an earlier write failure stopped this writer");
+            progress.checkpoint.settled(row.rowNumber() - 1, false);
+        }
+    }
+
+    private void writeInTransaction(List<ImportRow> rows, TaxonomyImportCache cache, ImportProgress progress) {
+        int[] written;
+        ContentTaxonomyChangedEvent.Collector changes = new ContentTaxonomyChangedEvent.Collector();
+        try {
+            written = transactionTemplate.execute(status -> writeRows(rows, cache, changes));
+        } catch (RuntimeException e) {
+            cache.rollback();
+            throw e;
+        }
+        cache.commit();
+        progress.taxonomyChanged(changes.toEvent());
+        progress.topicsInserted.addAndGet(written[0]);
+        progress.topicsUpdated.addAndGet(written[1]);
+    }
+
+    /**
+     * Upserts the rows' topics and returns {inserted, updated}. Rows are applied
+     * in file order: a topic that appears twice is inserted once and then
+     * updated, so the last row wins as it would row by row.
+     */
+    private int[] writeRows(List<ImportRow> rows, TaxonomyImportCache cache, ContentTaxonomyChangedEvent.Collector changes) {
+
+        // Board and grade are dictionaries only; topics hang off subject -> chapter.
+        // Parents are taken in sorted order so concurrent writers never wait on each other in a cycle.
+        rows.stream().map(ImportRow::board).distinct().sorted().forEach(board -> cache.board(board, changes));
+        rows.stream().map(ImportRow::grade).distinct().sorted().forEach(grade -> cache.grade(grade, changes));
+        Map<String, Long> subjectIds = new TreeMap<>();
+        rows.forEach(row -> subjectIds.put(row.subject(), null));
+        subjectIds.replaceAll((subject, id) -> cache.subject(subject, changes));
+        Map<ChapterRef, Long> chapterIdsByRef = new TreeMap<>(ChapterRef.ORDER);
+        rows.forEach(row -> chapterIdsByRef.put(new ChapterRef(row.subject(), row.chapter()), null));
+        chapterIdsByRef.replaceAll((ref, id) -> cache.chapter(subjectIds.get(ref.subject()), ref.chapter(), changes));
+        long[] chapterIds = new long[rows.size()];
+        for (int i = 0; i < rows.size(); i++) {
+            chapterIds[i] = chapterIdsByRef.get(new ChapterRef(rows.get(i).subject(), rows.get(i).chapter()));
+        }
+
+        // Existing topics of the chunk: by code if the row has one, else by chapter and title
+        Map<String, Long> byCode = findTopicsByCode(rows);
+        Map<String, Long> byChapterTitle = findTopicsByChapterTitle(rows, chapterIds);
+
+        // Topics new to this chunk get slots first, ids are reserved in one round trip
+        int[] slots = new int[rows.size()];
+        Long[] existing = new Long[rows.size()];
+        int newTopics = 0;
+        Map<String, Integer> newByCode = new HashMap<>();
+        Map<String, Integer> newByChapterTitle = new HashMap<>();
+        for (int i = 0; i < rows.size(); i++) {
+            ImportRow row = rows.get(i);
+            String code = codeOf(row);
+            String titleKey = chapterIds[i] + "\u0000" + row.topicTitle();
+            if (code != null) {
+                existing[i] = byCode.get(code);
+                slots[i] = existing[i] == null ? newByCode.getOrDefault(code, -1) : -1;
+            } else {
+                existing[i] = byChapterTitle.get(titleKey);
+                slots[i] = existing[i] == null ? newByChapterTitle.getOrDefault(titleKey, -1) : -1;
+            }
+            if (existing[i] == null && slots[i] < 0) {
+                slots[i] = newTopics++;
+                if (code != null) {
+                    newByCode.put(code, slots[i]);
                 }
-                errorsJson.append("]");
-                importJob.setErrors(errorsJson.toString());
-                
-                if (errorCount > successCount) {
-                    importJob.setStatus(ImportJobStatus.PARTIALLY_SUCCEEDED);
+                newByChapterTitle.put(titleKey, slots[i]);
+            }
+        }
+        List<Long> newIds = newTopics == 0 ? List.of() : jdbcTemplate.queryForList(
+                "SELECT nextval('topics_id_seq') FROM generate_series(1, ?)", Long.class, newTopics);
+
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> inserts = new ArrayList<>();
+        List<Object[]> updates = new ArrayList<>();
+        boolean[] inserted = new boolean[newTopics];
+        for (int i = 0; i < rows.size(); i++) {
+            ImportRow row = rows.get(i);
+            Long topicId = existing[i] != null ? existing[i] : newIds.get(slots[i]);
+            if (existing[i] == null && !inserted[slots[i]]) {
+                inserted[slots[i]] = true;
+                inserts.add(new Object[]{topicId, chapterIds[i], row.topicTitle(), codeOf(row), textOf(row.description()),
+                        textOf(row.summary()), row.expectedTimeMins(), Boolean.parseBoolean(row.active()), now, now});
+            } else {
+                updates.add(new Object[]{row.topicTitle(), codeOf(row), textOf(row.description()), textOf(row.summary()),
+                        row.expectedTimeMins(), Boolean.parseBoolean(row.active()), now, topicId});
+            }
+            changes.topic(topicId);
+        }
+
+        if (!inserts.isEmpty()) {
+            jdbcTemplate.batchUpdate(
+                    "INSERT INTO topics (id, chapter_id, title, code, description, summary, expected_time_mins, active, " +
+                    "created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)", inserts);
+        }
+        if (!updates.isEmpty()) {
+            // Empty optional cells keep the stored value, as in the form editors
+            int[] counts = jdbcTemplate.batchUpdate(
+                    "UPDATE topics SET title = ?, code = COALESCE(?, code), description = COALESCE(?, description), " +
+                    "summary = COALESCE(?, summary), expected_time_mins = ?, active = ?, updated_at = ? WHERE id = ?", updates);
+            for (int count : counts) {
+                if (count == 0) {
+                    throw new IllegalStateException("Topic was deleted during the import");
                 }
             }
         }
-        
-        return records;
+
+        // Change log and caches follow the chunk's commit; the snapshot is swapped per checkpoint interval
+        eventPublisher.publishEvent(changes.toEvent().deferSnapshot());
+        return new int[]{inserts.size(), updates.size()};
+    }
+
+    private Map<String, Long> findTopicsByCode(List<ImportRow> rows) {
+        Object[] codes = rows.stream().map(CsvContentImportService::codeOf).filter(Objects::nonNull).distinct().toArray();
+        Map<String, Long> byCode = new HashMap<>();
+        if (codes.length > 0) {
+            jdbcTemplate.query(con -> {
+                var ps = con.prepareStatement("SELECT id, code FROM topics WHERE code = ANY(?)");
+                ps.setArray(1, con.createArrayOf("text", codes));
+                return ps;
+            }, rs -> { byCode.put(rs.getString(2), rs.getLong(1)); });
+        }
+        return byCode;
+    }
+
+    private Map<String, Long> findTopicsByChapterTitle(List<ImportRow> rows, long[] chapterIds) {
+        List<Object> chapters = new ArrayList<>();
+        List<Object> titles = new ArrayList<>();
+        for (int i = 0; i < rows.size(); i++) {
+            if (codeOf(rows.get(i)) == null) {
+                chapters.add(chapterIds[i]);
+                titles.add(rows.get(i).topicTitle());
+            }
+        }
+        Map<String, Long> byChapterTitle = new HashMap<>();
+        if (!titles.isEmpty()) {
+            jdbcTemplate.query(con -> {
+                var ps = con.prepareStatement(
+                        "SELECT t.id, t.chapter_id, t.title FROM topics t " +
+                        "JOIN unnest(?::bigint[], ?::text[]) AS k(chapter_id, title) " +
+                        "ON t.chapter_id = k.chapter_id AND t.title = k.title");
+                ps.setArray(1, con.createArrayOf("bigint", chapters.toArray()));
+                ps.setArray(2, con.createArrayOf("text", titles.toArray()));
+                return ps;
+            }, rs -> { byChapterTitle.put(rs.getLong(2) + "\u0000" + rs.getString(3), rs.getLong(1)); });
+        }
+        return byChapterTitle;
+    }
+
+    private static String codeOf(ImportRow row) {
+        return row.topicCode() != null && !row.topicCode().trim().isEmpty() ? row.topicCode().trim() : null;
+    }
+
+    private static String textOf(String value) {
+        return value != null && !value.trim().isEmpty() ? value.trim() : null;
     }
 
-    private Map<String, String> parseRecord(CSVRecord record, int rowNumber) {
-        Map<String, String> recordMap = new HashMap<>();
-        
+    private ImportRow parseRecord(CSVRecord record, int rowNumber) {
         // Validate required fields
         String board = getFieldValue(record, "board");
         String grade = getFieldValue(record, "grade");
@@ -190,7 +934,7 @@ public class CsvContentImportService {
         String chapter = getFieldValue(record, "chapter");
         String topicTitle = getFieldValue(record, "topictitle");
         String hours = getFieldValue(record, "hours");
-        
+
         if (board == null || board.trim().isEmpty()) {
             throw new IllegalArgumentException("Board is required");
         }
@@ -209,42 +953,37 @@ public class CsvContentImportService {
         if (hours == null || hours.trim().isEmpty()) {
             throw new IllegalArgumentException("Hours is required");
         }
-        
+
         // Validate and convert hours to minutes
         Integer expectedTimeMins = parseHoursToMinutes(hours);
         if (expectedTimeMins == null) {
             throw new IllegalArgumentException("Invalid Hours value: " + hours);
         }
-        
+
         // Normalize grade (accept "9" or "Grade 9" -> store "9")
         String normalizedGrade = normalizeGrade(grade);
-        
-        recordMap.put("board", board.trim());
-        recordMap.put("grade", normalizedGrade);
-        recordMap.put("subject", subject.trim());
-        recordMap.put("chapter", chapter.trim());
-        recordMap.put("topictitle", topicTitle.trim());
-        recordMap.put("expectedTimeMins", expectedTimeMins.toString());
-        
-        // Optional fields
-        recordMap.put("description", getFieldValue(record, "description"));
-        recordMap.put("summary", getFieldValue(record, "summary"));
-        recordMap.put("topiccode", getFieldValue(record, "topiccode"));
-        recordMap.put("prerequisites", getFieldValue(record, "prerequisites"));
-        recordMap.put("relatedtopics", getFieldValue(record, "relatedtopics"));
-        
+
         String active = getFieldValue(record, "active");
-        recordMap.put("active", active != null ? active.trim() : "true");
-        
-        return recordMap;
+        return new ImportRow(
+                rowNumber,
+                board.trim(),
+                normalizedGrade,
+                subject.trim(),
+                chapter.trim(),
+                topicTitle.trim(),
+                expectedTimeMins,
+                // Optional fields
+                getFieldValue(record, "description"),
+                getFieldValue(record, "summary"),
+                getFieldValue(record, "topiccode"),
+                getFieldValue(record, "prerequisites"),
+                getFieldValue(record, "relatedtopics"),
+                active != null ? active.trim() : "true");
     }
 
     private String getFieldValue(CSVRecord record, String fieldName) {
-        try {
-            return record.get(fieldName);
-        } catch (IllegalArgumentException e) {
-            return null;
-        }
+        // Short rows are allowed; missing trailing cells read as absent
+        return record.isMapped(fieldName) && record.isSet(fieldName) ? record.get(fieldName) : null;
     }
 
     private Integer parseHoursToMinutes(String hoursStr) {
@@ -258,104 +997,136 @@ public class CsvContentImportService {
 
     private String normalizeGrade(String grade) {
         if (grade == null) return null;
-        
+
         String normalized = grade.trim().toLowerCase();
-        
+
         // Remove "grade " prefix if present
         if (normalized.startsWith("grade ")) {
             normalized = normalized.substring(6);
         }
-        
+
         return normalized;
     }
 
-    @Transactional
-    private void processRecords(List<Map<String, String>> records, ImportJob importJob) {
-        for (Map<String, String> record : records) {
-            try {
-                processRecord(record);
-            } catch (Exception e) {
-                // Log error but continue processing
-                System.err.println("Error processing record: " + e.getMessage());
+    /**
+     * Resolves the Prerequisites and RelatedTopics cells (topic codes or titles,
+     * separated by ';' or '|') in a second pass over the file, once every row's
+     * topic exists, so a row may refer to a topic defined further down. A
+     * non-empty cell replaces that topic's links of the type; references that
+     * match no topic are skipped. Links are written in chunks.
+     */
+    private void importTopicLinks(Path csvFile) throws IOException {
+        TaxonomySnapshot snapshot = contentTaxonomyService.current();
+        Map<String, Long> byCode = new HashMap<>();
+        Map<String, Long> exactCode = new HashMap<>();
+        Map<String, List<TaxonomySnapshot.TopicNode>> byTitle = new HashMap<>();
+        Map<String, Long> byChapterTitle = new HashMap<>();
+        for (TaxonomySnapshot.TopicNode topic : snapshot.getTopics()) {
+            if (topic.deletedAt() != null) {
+                continue;
+            }
+            if (topic.code() != null) {
+                byCode.put(topic.code().toLowerCase(Locale.ROOT), topic.id());
+                exactCode.put(topic.code(), topic.id());
+            }
+            byTitle.computeIfAbsent(topic.title().toLowerCase(Locale.ROOT), k -> new ArrayList<>()).add(topic);
+            byChapterTitle.put(topic.chapterId() + "\u0000" + topic.title(), topic.id());
+        }
+        Map<String, Long> subjectByName = new HashMap<>();
+        snapshot.getSubjects().forEach(subject -> subjectByName.put(subject.name(), subject.id()));
+        Map<String, Long> chapterBySubjectName = new HashMap<>();
+        snapshot.getChapters().forEach(chapter -> chapterBySubjectName.put(chapter.subjectId() + "\u0000" + chapter.name(), chapter.id()));
+
+        Map<Long, List<Long>> prerequisites = new LinkedHashMap<>();
+        Map<Long, List<Long>> related = new LinkedHashMap<>();
+        try (Reader reader = Files.newBufferedReader(csvFile, StandardCharsets.UTF_8);
+             CSVParser parser = new CSVParser(reader, FORMAT)) {
+            for (CSVRecord record : parser) {
+                String prerequisiteCell = getFieldValue(record, "prerequisites");
+                String relatedCell = getFieldValue(record, "relatedtopics");
+                if ((prerequisiteCell == null || prerequisiteCell.isBlank()) && (relatedCell == null || relatedCell.isBlank())) {
+                    continue;
+                }
+                ImportRow row;
+                try {
+                    row = parseRecord(record, (int) record.getRecordNumber() + 1);
+                } catch (IllegalArgumentException e) {
+                    continue; // already reported by the first pass
+                }
+                // The topic this row wrote: by code, else by chapter and title
+                Long topicId = row.topicCode() != null && !row.topicCode().isEmpty() ? exactCode.get(row.topicCode()) : null;
+                if (topicId == null) {
+                    Long subjectId = subjectByName.get(row.subject());
+                    Long chapterId = subjectId != null ? chapterBySubjectName.get(subjectId + "\u0000" + row.chapter()) : null;
+                    topicId = chapterId != null ? byChapterTitle.get(chapterId + "\u0000" + row.topicTitle()) : null;
+                }
+                TaxonomySnapshot.TopicNode topic = topicId != null ? snapshot.getTopic(topicId) : null;
+                if (topic == null) {
+                    continue;
+                }
+                resolveLinks(row.prerequisites(), topic, snapshot, byCode, byTitle)
+                        .ifPresent(ids -> prerequisites.put(topic.id(), ids));
+                resolveLinks(row.relatedTopics(), topic, snapshot, byCode, byTitle)
+                        .ifPresent(ids -> related.put(topic.id(), ids));
+                if (prerequisites.size() + related.size() >= LINK_CHUNK_SIZE) {
+                    replaceLinks(prerequisites, related);
+                }
             }
         }
+        replaceLinks(prerequisites, related);
+    }
+
+    private void replaceLinks(Map<Long, List<Long>> prerequisites, Map<Long, List<Long>> related) {
+        if (prerequisites.isEmpty() && related.isEmpty()) {
+            return;
+        }
+        for (String skipped : topicGraphService.replaceLinks(prerequisites, related)) {
+            logger.warn("Skipped topic link: {}", skipped);
+        }
+        prerequisites.clear();
+        related.clear();
     }
 
-    private void processRecord(Map<String, String> record) {
-        // Upsert taxonomy: Board -> Grade -> Subject -> Chapter -> Topic
-        String boardName = record.get("board");
-        String gradeName = record.get("grade");
-        String subjectName = record.get("subject");
-        String chapterName = record.get("chapter");
-        String topicTitle = record.get("topictitle");
-        String topicCode = record.get("topiccode");
-        
-        // Find or create Board
-        boardRepository.findByName(boardName)
-                .orElseGet(() -> boardRepository.save(new Board(boardName)));
-        
-        // Find or create Grade
-        gradeRepository.findByName(gradeName)
-                .orElseGet(() -> {
-                    String displayName = "Grade " + gradeName;
-                    return gradeRepository.save(new Grade(gradeName, displayName));
-                });
-        
-        // Find or create Subject
-        Subject subject = subjectRepository.findByName(subjectName)
-                .orElseGet(() -> subjectRepository.save(new Subject(subjectName)));
-        
-        // Find or create Chapter
-        Chapter chapter = chapterRepository.findBySubjectIdAndName(subject.getId(), chapterName)
-                .orElseGet(() -> chapterRepository.save(new Chapter(subject, chapterName)));
-        
-        // Find or create Topic (by code if provided, else by chapter and title)
-        Topic topic;
-        if (topicCode != null && !topicCode.trim().isEmpty()) {
-            topic = topicRepository.findByCode(topicCode)
-                    .orElseGet(() -> createNewTopic(chapter, record));
-        } else {
-            topic = topicRepository.findByChapterIdAndTitle(chapter.getId(), topicTitle)
-                    .orElseGet(() -> createNewTopic(chapter, record));
-        }
-        
-        // Update topic with new data
-        updateTopicFromRecord(topic, record);
-        topicRepository.save(topic);
-    }
-
-    private Topic createNewTopic(Chapter chapter, Map<String, String> record) {
-        Topic topic = new Topic(chapter, record.get("topictitle"));
-        updateTopicFromRecord(topic, record);
-        return topic;
-    }
-
-    private void updateTopicFromRecord(Topic topic, Map<String, String> record) {
-        topic.setTitle(record.get("topictitle"));
-        
-        String topicCode = record.get("topiccode");
-        if (topicCode != null && !topicCode.trim().isEmpty()) {
-            topic.setCode(topicCode.trim());
-        }
-        
-        String description = record.get("description");
-        if (description != null && !description.trim().isEmpty()) {
-            topic.setDescription(description.trim());
-        }
-        
-        String summary = record.get("summary");
-        if (summary != null && !summary.trim().isEmpty()) {
-            topic.setSummary(summary.trim());
-        }
-        
-        String expectedTimeMinsStr = record.get("expectedTimeMins");
-        if (expectedTimeMinsStr != null) {
-            topic.setExpectedTimeMins(Integer.parseInt(expectedTimeMinsStr));
-        }
-        
-        String active = record.get("active");
-        if (active != null) {
-            topic.setActive(Boolean.parseBoolean(active));
+    private Optional<List<Long>> resolveLinks(String cell, TaxonomySnapshot.TopicNode topic, TaxonomySnapshot snapshot,
+                                              Map<String, Long> byCode,
+                                              Map<String, List<TaxonomySnapshot.TopicNode>> byTitle) {
+        if (cell == null || cell.isBlank()) {
+            return Optional.empty();
+        }
+        Long subjectId = subjectOf(snapshot, topic);
+        List<Long> ids = new ArrayList<>();
+        for (String reference : cell.split("[;|]")) {
+            String key = reference.trim().toLowerCase(Locale.ROOT);
+            if (key.isEmpty()) {
+                continue;
+            }
+            Long linkedId = byCode.get(key);
+            if (linkedId == null) {
+                // Prefer a topic with that title in the same chapter, then the same subject, then a unique match
+                List<TaxonomySnapshot.TopicNode> candidates = byTitle.getOrDefault(key, List.of());
+                linkedId = candidates.stream().filter(c -> c.chapterId().equals(topic.chapterId()))
+                        .map(TaxonomySnapshot.TopicNode::id).findFirst()
+                        .or(() -> candidates.stream().filter(c -> Objects.equals(subjectOf(snapshot, c), subjectId))
+                                .map(TaxonomySnapshot.TopicNode::id).findFirst())
+                        .orElse(candidates.size() == 1 ? candidates.get(0).id() : null);
+            }
+            if (linkedId != null && !linkedId.equals(topic.id()) && !ids.contains(linkedId)) {
+                ids.add(linkedId);
+            }
+        }
+        return Optional.of(ids);
+    }
+
+    private static Long subjectOf(TaxonomySnapshot snapshot, TaxonomySnapshot.TopicNode topic) {
+        TaxonomySnapshot.ChapterNode chapter = snapshot.getChapter(topic.chapterId());
+        return chapter != null ? chapter.subjectId() : null;
+    }
+
+    private String toJson(Object value) {
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
         }
     }
 
@@ -370,4 +1141,130 @@ public class CsvContentImportService {
     public org.springframework.data.domain.Page<ImportJob> getAllImportJobs(int page, int size) {
         return importJobRepository.findAll(org.springframework.data.domain.PageRequest.of(page, size));
     }
+
+    /**
+     * One validated CSV row; {@code rowNumber} counts the header as row 1.
+     */
+    private record ImportRow(int rowNumber, String board, String grade, String subject, String chapter,
+                             String topicTitle, int expectedTimeMins, String description, String summary,
+                             String topicCode, String prerequisites, String relatedTopics, String active) {
+    }
+
+    private record ChapterRef(String subject, String chapter) {
+        static final Comparator<ChapterRef> ORDER =
+                Comparator.comparing(ChapterRef::subject).thenComparing(ChapterRef::chapter);
+    }
+
+    /**
+     * Counters shared by the parsing thread and the writer threads; only the
+     * first {@value #MAX_STORED_ERRORS} error messages are kept.
+     */
+    private static class ImportProgress {
+        final Long jobId;
+        final boolean dryRun;
+        final int resumeAfter; // rows settled before this run, skipped by the parser
+        private final int resumedSuccessRows;
+        final ImportCheckpoint checkpoint;
+        final AtomicInteger totalRows;
+        final AtomicInteger successRows;
+        final AtomicInteger errorRows;
+        final AtomicInteger topicsInserted = new AtomicInteger();
+        final AtomicInteger topicsUpdated = new AtomicInteger();
+        final Map<String, Object> details = new ConcurrentHashMap<>();
+        final long startedAt = System.currentTimeMillis();
+        volatile long fileSize;
+        volatile long position; // characters parsed, roughly bytes for CSV
+        private final List<String> errors;
+        private ContentTaxonomyChangedEvent.Collector taxonomyChanges = new ContentTaxonomyChangedEvent.Collector();
+        private long taxonomyAppliedAt = System.nanoTime();
+
+        /**
+         * Starts from the job's checkpoint; dry runs always start over.
+         */
+        ImportProgress(ImportJob job, List<String> restoredErrors) {
+            jobId = job.getId();
+            dryRun = MODE_DRY_RUN.equals(job.getImportMode());
+            resumeAfter = dryRun ? 0 : job.getCheckpointRows();
+            int success = dryRun ? 0 : job.getCheckpointSuccessRows();
+            int failed = dryRun ? 0 : job.getCheckpointErrorRows();
+            resumedSuccessRows = success;
+            checkpoint = new ImportCheckpoint(resumeAfter, success, failed);
+            totalRows = new AtomicInteger(resumeAfter);
+            successRows = new AtomicInteger(success);
+            errorRows = new AtomicInteger(failed);
+            errors = new ArrayList<>(dryRun ? List.of() : restoredErrors);
+            if (resumeAfter > 0) {
+                details.put("resumedAfterRow", resumeAfter);
+            }
+        }
+
+        /**
+         * Records a committed chunk's changes for the next snapshot swap.
+         */
+        synchronized void taxonomyChanged(ContentTaxonomyChangedEvent event) {
+            taxonomyChanges.add(event);
+        }
+
+        /**
+         * The changes since the last swap, or {@code null} if there are none
+         * or the last swap is more recent than {@code minIntervalNanos}.
+         */
+        synchronized ContentTaxonomyChangedEvent drainTaxonomyChanges(long minIntervalNanos) {
+            long now = System.nanoTime();
+            if (now - taxonomyAppliedAt < minIntervalNanos) {
+                return null;
+            }
+            ContentTaxonomyChangedEvent event = taxonomyChanges.toEvent();
+            taxonomyChanges = new ContentTaxonomyChangedEvent.Collector();
+            taxonomyAppliedAt = now;
+            return event.isEmpty() ? null : event;
+        }
+
+        void error(int rowNumber, String message) {
+            errorRows.incrementAndGet();
+            synchronized (errors) {
+                if (errors.size() < MAX_STORED_ERRORS) {
+                    errors.add("Row " + rowNumber + ": " + message);
+                }
+            }
+        }
+
+        List<String> errors() {
+            synchronized (errors) {
+                return List.copyOf(errors);
+            }
+        }
+
+        /**
+         * ETA extrapolates the row count from how far into the file parsing
+         * is, and divides what is left by the write rate so far.
+         */
+        ImportProgressDto snapshot(Long jobId, ImportJobStatus status) {
+            int parsed = totalRows.get();
+            int written = successRows.get();
+            int failed = errorRows.get();
+            long elapsed = Math.max(1, System.currentTimeMillis() - startedAt);
+            long rowsPerSecond = (written - resumedSuccessRows) * 1000L / elapsed;
+            boolean running = status == ImportJobStatus.RUNNING;
+            double fraction = fileSize > 0 ? Math.min(1.0, (double) position / fileSize) : 0;
+            Double percent = running ? (fileSize > 0 ? Math.round(fraction * 1000) / 10.0 : null) : Double.valueOf(100.0);
+            Long eta = null;
+            if (running && fraction > 0 && rowsPerSecond > 0) {
+                long expectedRows = Math.round(parsed / fraction);
+                eta = Math.max(0, expectedRows - written - failed) / rowsPerSecond;
+            }
+            return new ImportProgressDto(jobId, status, parsed, written, failed, percent, rowsPerSecond, eta);
+        }
+
+        Map<String, Object> stats(long durationMs) {
+            Map<String, Object> stats = new LinkedHashMap<>();
+            stats.put("durationMs", durationMs);
+            int written = successRows.get() - resumedSuccessRows;
+            stats.put("rowsPerSecond", durationMs == 0 ? written : Math.round(1000.0 * written / durationMs));
+            stats.put("topicsInserted", topicsInserted.get());
+            stats.put("topicsUpdated", topicsUpdated.get());
+            stats.putAll(details);
+            return stats;
+        }
+    }
 }
@@ -0,0 +1,94 @@
+package com.ankurshala.backend.service;
+
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * How many data rows from the top of an import file are settled, while
+ * writers settle them out of order.
+ *
+ * <p>The parser registers every record in file order, either as pending or
+ * as already settled (a parse error); writers settle pending records when
+ * their chunk ends. The checkpoint is the longest settled prefix, with the
+ * success and error counts of that prefix, so resuming after it re-applies
+ * only rows whose outcome was not yet known. Only the open window between
+ * the checkpoint and the parser is held in memory; the parser keeps it
+ * bounded with {@link #awaitOpenBelow}.</p>
+ */
+class ImportCheckpoint {
+
+    record Position(int rows, int successRows, int errorRows) {
+    }
+
+    // Record number -> outcome, null while pending
+    private final TreeMap<Integer, Boolean> open = new TreeMap<>();
+    private int rows;
+    private int successRows;
+    private int errorRows;
+    private int savedRows;
+
+    ImportCheckpoint(int rows, int successRows, int errorRows) {
+        this.rows = rows;
+        this.successRows = successRows;
+        this.errorRows = errorRows;
+        this.savedRows = rows;
+    }
+
+    synchronized void pending(int record) {
+        open.put(record, null);
+    }
+
+    synchronized void settled(int record, boolean success) {
+        open.put(record, success);
+        boolean advanced = false;
+        Map.Entry<Integer, Boolean> first;
+        while ((first = open.firstEntry()) != null && first.getValue() != null) {
+            open.pollFirstEntry();
+            advanced = true;
+            rows = first.getKey();
+            if (first.getValue()) {
+                successRows++;
+            } else {
+                errorRows++;
+            }
+        }
+        if (advanced) {
+            notifyAll();
+        }
+    }
+
+    /**
+     * Records between the checkpoint and the parser, settled or not.
+     */
+    synchronized int openRows() {
+        return open.size();
+    }
+
+    /**
+     * Waits up to {@code timeoutMillis} for the open window to shrink below
+     * {@code limit}. Returns whether it did.
+     */
+    synchronized boolean awaitOpenBelow(int limit, long timeoutMillis) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + timeoutMillis;
+        long remaining;
+        while (open.size() >= limit && (remaining = deadline - System.currentTimeMillis()) > 0) {
+            wait(remaining);
+        }
+        return open.size() < limit;
+    }
+
+    synchronized Position position() {
+        return new Position(rows, successRows, errorRows);
+    }
+
+    /**
+     * The current position if it moved since the last call, else {@code null}.
+     */
+    synchronized Position advanced() {
+        if (rows == savedRows) {
+            return null;
+        }
+        savedRows = rows;
+        return position();
+    }
+}
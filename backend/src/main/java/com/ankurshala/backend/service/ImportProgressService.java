@@ -0,0 +1,221 @@
+package com.ankurshala.backend.service;
+
+import com.ankurshala.backend.dto.admin.ImportProgressDto;
+import com.ankurshala.backend.entity.ImportJobStatus;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Pushes import progress to admins instead of having them poll the job row.
+ *
+ * <p>While a job runs, its in-memory counters are sampled at a fixed interval
+ * and published, so the event rate does not depend on the row rate. Samples
+ * go through Redis pub/sub and every node relays them to its own STOMP
+ * subscribers ({@code /topic/admin/imports/{jobId}}) and SSE streams, so it
+ * does not matter which node the admin is connected to. Every
+ * {@code flush-interval} the counters are also written to {@code import_jobs}.</p>
+ */
+@Service
+public class ImportProgressService implements MessageListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(ImportProgressService.class);
+
+    static final String CHANNEL = "import:progress";
+    public static final String TOPIC_PREFIX = "/topic/admin/imports/";
+    private static final int RECENTLY_FINISHED = 100;
+
+    private final SimpMessagingTemplate messagingTemplate;
+    private final StringRedisTemplate redisTemplate;
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final long intervalMillis;
+    private final long flushIntervalMillis;
+    private final long sseTimeoutMillis;
+
+    private final Map<Long, List<SseEmitter>> emitters = new ConcurrentHashMap<>();
+    // Final events, for streams opened just as their job finished
+    private final Map<Long, ImportProgressDto> finished = Collections.synchronizedMap(new LinkedHashMap<>() {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, ImportProgressDto> eldest) {
+            return size() > RECENTLY_FINISHED;
+        }
+    });
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "import-progress");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public ImportProgressService(SimpMessagingTemplate messagingTemplate,
+                                 StringRedisTemplate redisTemplate,
+                                 RedisMessageListenerContainer listenerContainer,
+                                 JdbcTemplate jdbcTemplate,
+                                 ObjectMapper objectMapper,
+                                 @Value("${app.content.import.progress.interval:1s}") Duration interval,
+                                 @Value("${app.content.import.progress.flush-interval:10s}") Duration flushInterval,
+                                 @Value("${app.content.import.progress.sse-timeout:30m}") Duration sseTimeout) {
+        this.messagingTemplate = messagingTemplate;
+        this.redisTemplate = redisTemplate;
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+        this.intervalMillis = interval.toMillis();
+        this.flushIntervalMillis = flushInterval.toMillis();
+        this.sseTimeoutMillis = sseTimeout.toMillis();
+        listenerContainer.addMessageListener(this, new ChannelTopic(CHANNEL));
+    }
+
+    @PreDestroy
+    void shutdown() {
+        scheduler.shutdownNow();
+    }
+
+    /**
+     * Starts sampling a running job. Close the returned tracker with the final
+     * progress when the job ends; that sample is always published.
+     */
+    public Tracker track(Long jobId, Supplier<ImportProgressDto> sample) {
+        long[] lastFlush = {System.currentTimeMillis()};
+        boolean[] closed = {false};
+        Object lock = new Object();
+        ScheduledFuture<?> task = scheduler.scheduleAtFixedRate(() -> {
+            synchronized (lock) {
+                if (closed[0]) {
+                    return;
+                }
+                try {
+                    ImportProgressDto progress = sample.get();
+                    publish(progress);
+                    if (System.currentTimeMillis() - lastFlush[0] >= flushIntervalMillis) {
+                        lastFlush[0] = System.currentTimeMillis();
+                        flush(progress);
+                    }
+                } catch (Exception e) {
+                    // Keep sampling; a missed sample only delays the next update
+                    logger.warn("Could not publish progress of import job {}: {}", jobId, e.getMessage());
+                }
+            }
+        }, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+        return finalProgress -> {
+            task.cancel(false);
+            // A sample already running finishes first, so nothing follows the final event
+            synchronized (lock) {
+                closed[0] = true;
+                publish(finalProgress);
+            }
+        };
+    }
+
+    /**
+     * Opens an SSE stream for a job, starting with {@code current}. The stream
+     * completes after the event for a finished job.
+     */
+    public SseEmitter subscribe(ImportProgressDto current) {
+        SseEmitter emitter = new SseEmitter(sseTimeoutMillis);
+        Long jobId = current.getJobId();
+        if (!isFinished(current.getStatus())) {
+            List<SseEmitter> jobEmitters = emitters.computeIfAbsent(jobId, id -> new CopyOnWriteArrayList<>());
+            jobEmitters.add(emitter);
+            Runnable remove = () -> jobEmitters.remove(emitter);
+            emitter.onCompletion(remove);
+            emitter.onTimeout(remove);
+            emitter.onError(e -> remove.run());
+        }
+        send(emitter, current);
+        ImportProgressDto last = finished.get(jobId);
+        if (last != null && !isFinished(current.getStatus())) {
+            emitters.getOrDefault(jobId, List.of()).remove(emitter);
+            send(emitter, last);
+        }
+        return emitter;
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        try {
+            deliver(objectMapper.readValue(message.getBody(), ImportProgressDto.class));
+        } catch (IOException e) {
+            logger.warn("Ignoring malformed import progress message: {}", e.getMessage());
+        }
+    }
+
+    private void publish(ImportProgressDto progress) {
+        try {
+            redisTemplate.convertAndSend(CHANNEL, objectMapper.writeValueAsString(progress));
+        } catch (Exception e) {
+            // Admins connected to this node still get it
+            logger.debug("Could not broadcast import progress, delivering locally: {}", e.getMessage());
+            deliver(progress);
+        }
+    }
+
+    private void deliver(ImportProgressDto progress) {
+        messagingTemplate.convertAndSend(TOPIC_PREFIX + progress.getJobId(), progress);
+        if (isFinished(progress.getStatus())) {
+            finished.put(progress.getJobId(), progress);
+        }
+        List<SseEmitter> jobEmitters = isFinished(progress.getStatus())
+                ? emitters.remove(progress.getJobId())
+                : emitters.get(progress.getJobId());
+        if (jobEmitters != null) {
+            jobEmitters.forEach(emitter -> send(emitter, progress));
+        }
+    }
+
+    private void send(SseEmitter emitter, ImportProgressDto progress) {
+        try {
+            emitter.send(SseEmitter.event().name("progress").data(progress));
+            if (isFinished(progress.getStatus())) {
+                emitter.complete();
+            }
+        } catch (IOException | IllegalStateException e) {
+            // Client went away; onError/onCompletion drop the emitter
+            emitter.completeWithError(e);
+        }
+    }
+
+    private void flush(ImportProgressDto progress) {
+        // Only while running: the job's final save must not be overwritten by a late sample
+        // Also the job's heartbeat; app time, as the stale-job scan compares against it
+        jdbcTemplate.update("UPDATE import_jobs SET total_rows = ?, success_rows = ?, error_rows = ?, updated_at = ? " +
+                        "WHERE id = ? AND status = 'RUNNING'",
+                progress.getParsedRows(), progress.getWrittenRows(), progress.getErrorRows(),
+                Timestamp.valueOf(LocalDateTime.now()), progress.getJobId());
+    }
+
+    private static boolean isFinished(ImportJobStatus status) {
+        return status != ImportJobStatus.PENDING && status != ImportJobStatus.RUNNING;
+    }
+
+    @FunctionalInterface
+    public interface Tracker {
+        void close(ImportProgressDto finalProgress);
+    }
+}
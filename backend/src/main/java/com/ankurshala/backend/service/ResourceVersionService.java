@@ -0,0 +1,98 @@
+package com.ankurshala.backend.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Cluster-wide version counters for cacheable read scopes, used to answer
+ * conditional GETs without touching the database.
+ *
+ * <p>A scope is either the whole content tree ({@value #CONTENT}) or the
+ * profile data of one user ({@link #user(Long)}). Each scope is a Redis hash
+ * holding a version and the time of the last committed write; reading it is a
+ * single Lua round trip. Versions of new or lost keys start at the current
+ * time in millis, so they never repeat a version handed out earlier.</p>
+ *
+ * <p>If Redis is unavailable reads return {@code null} and callers serve the
+ * full response; a missed bump is covered by the key TTL.</p>
+ */
+@Service
+public class ResourceVersionService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ResourceVersionService.class);
+
+    public static final String CONTENT = "content";
+
+    private static final String KEY_PREFIX = "http:version:";
+
+    private final StringRedisTemplate redisTemplate;
+    private final RedisScript<String> readScript;
+    private final RedisScript<Long> bumpScript;
+    private final long ttlMillis;
+
+    public ResourceVersionService(StringRedisTemplate redisTemplate,
+                                  @Value("${app.cache.resource-versions.ttl:24h}") Duration ttl) {
+        this.redisTemplate = redisTemplate;
+        this.readScript = script("scripts/resource-version.lua", String.class);
+        this.bumpScript = script("scripts/resource-version-bump.lua", Long.class);
+        this.ttlMillis = ttl.toMillis();
+    }
+
+    public static String user(Long userId) {
+        return "user:" + userId;
+    }
+
+    /**
+     * Current version of {@code scope}, or {@code null} if it cannot be read.
+     */
+    public ResourceVersion current(String scope) {
+        try {
+            String result = redisTemplate.execute(readScript, List.of(KEY_PREFIX + scope),
+                    String.valueOf(System.currentTimeMillis()), String.valueOf(ttlMillis));
+            int separator = result == null ? -1 : result.indexOf(':');
+            if (separator < 0) {
+                return null;
+            }
+            return new ResourceVersion(Long.parseLong(result.substring(0, separator)),
+                    Long.parseLong(result.substring(separator + 1)));
+        } catch (Exception e) {
+            logger.debug("Resource version unavailable for {}: {}", scope, e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Moves each scope to a new version. Call after the write has committed.
+     */
+    public void bump(Collection<String> scopes) {
+        String now = String.valueOf(System.currentTimeMillis());
+        for (String scope : scopes) {
+            try {
+                redisTemplate.execute(bumpScript, List.of(KEY_PREFIX + scope), now, String.valueOf(ttlMillis));
+            } catch (Exception e) {
+                // Clients holding the old version revalidate once the key expires
+                logger.warn("Could not bump resource version for {}: {}", scope, e.getMessage());
+            }
+        }
+    }
+
+    private static <T> RedisScript<T> script(String location, Class<T> resultType) {
+        DefaultRedisScript<T> script = new DefaultRedisScript<>();
+        script.setLocation(new ClassPathResource(location));
+        script.setResultType(resultType);
+        return script;
+    }
+
+    public record ResourceVersion(long version, long lastModified) {
+    }
+}
@@ -0,0 +1,358 @@
+package com.ankurshala.backend.service;
+
+import com.ankurshala.backend.dto.auth.SignupRequest;
+import com.ankurshala.backend.entity.ImportJob;
+import com.ankurshala.backend.entity.ImportJobStatus;
+import com.ankurshala.backend.entity.Role;
+import com.ankurshala.backend.exception.ResourceNotFoundException;
+import com.ankurshala.backend.repository.ImportJobRepository;
+import com.ankurshala.backend.repository.UserRepository;
+import com.ankurshala.backend.security.BoundedPasswordEncoder;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVParser;
+import org.apache.commons.csv.CSVRecord;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+
+/**
+ * Creates student or teacher accounts in bulk from a roster CSV
+ * ({@code name,email,password}), tracked as an {@link ImportJob} of type
+ * {@value #JOB_TYPE}.
+ *
+ * <p>Unlike repeated signups, the whole roster is checked against existing
+ * emails in one {@code email = ANY(?)} query, passwords are hashed in parallel
+ * on a dedicated bounded pool (so sign-ins keep their own hashing capacity),
+ * and rows are written with batched JDBC inserts using ids preallocated from
+ * the table sequences.</p>
+ */
+@Service
+public class RosterProvisioningService {
+
+    private static final Logger logger = LoggerFactory.getLogger(RosterProvisioningService.class);
+
+    public static final String JOB_TYPE = "USER_ROSTER";
+
+    private static final Set<String> REQUIRED_HEADERS = Set.of("name", "email", "password");
+    private static final int INSERT_CHUNK_SIZE = 500;
+    private static final int MAX_STORED_ERRORS = 20;
+
+    private final ImportJobRepository importJobRepository;
+    private final UserRepository userRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final PasswordEncoder passwordEncoder;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+    private final ExecutorService jobExecutor;
+    private final ExecutorService hashingPool;
+
+    public RosterProvisioningService(ImportJobRepository importJobRepository,
+                                     UserRepository userRepository,
+                                     JdbcTemplate jdbcTemplate,
+                                     PlatformTransactionManager transactionManager,
+                                     PasswordEncoder passwordEncoder,
+                                     Validator validator,
+                                     ObjectMapper objectMapper,
+                                     @Value("${app.roster.hash-threads:0}") int hashThreads) {
+        this.importJobRepository = importJobRepository;
+        this.userRepository = userRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        // Bulk hashing bypasses the sign-in queue and uses its own pool instead
+        this.passwordEncoder = passwordEncoder instanceof BoundedPasswordEncoder bounded
+                ? bounded.getDelegate() : passwordEncoder;
+        this.validator = validator;
+        this.objectMapper = objectMapper;
+        this.jobExecutor = Executors.newSingleThreadExecutor(runnable -> daemon(runnable, "roster-import"));
+        int threads = hashThreads > 0 ? hashThreads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        this.hashingPool = Executors.newFixedThreadPool(threads, runnable -> daemon(runnable, "roster-hash"));
+    }
+
+    public void validateHeaders(byte[] csvContent) {
+        try (CSVParser parser = openParser(csvContent)) {
+            Set<String> headers = parser.getHeaderMap().keySet().stream()
+                    .map(header -> header.toLowerCase(Locale.ROOT))
+                    .collect(Collectors.toSet());
+            Set<String> missing = new TreeSet<>(REQUIRED_HEADERS);
+            missing.removeAll(headers);
+            if (!missing.isEmpty()) {
+                throw new IllegalArgumentException("Missing required headers: " + missing);
+            }
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Invalid CSV format: " + e.getMessage());
+        }
+    }
+
+    @Transactional
+    public ImportJob createJob(String fileName, long fileSize, Role role, Long userId) {
+        if (role != Role.STUDENT && role != Role.TEACHER) {
+            throw new IllegalArgumentException("Rosters can only provision STUDENT or TEACHER accounts");
+        }
+        ImportJob importJob = new ImportJob(fileName, "CSV", fileSize);
+        importJob.setType(JOB_TYPE);
+        importJob.setStatus(ImportJobStatus.PENDING);
+        if (userId != null) {
+            importJob.setCreatedBy(userRepository.getReferenceById(userId));
+        }
+        return importJobRepository.save(importJob);
+    }
+
+    /**
+     * Queues the roster for provisioning; jobs run one at a time in the background.
+     */
+    public void processAsync(Long jobId, byte[] csvContent, Role role) {
+        jobExecutor.execute(() -> process(jobId, csvContent, role));
+    }
+
+    public ImportJob getJob(Long jobId) {
+        return importJobRepository.findById(jobId)
+                .filter(job -> JOB_TYPE.equals(job.getType()))
+                .orElseThrow(() -> new ResourceNotFoundException("Roster import job not found: " + jobId));
+    }
+
+    private void process(Long jobId, byte[] csvContent, Role role) {
+        ImportJob job = importJobRepository.findById(jobId).orElse(null);
+        if (job == null) {
+            return;
+        }
+        long started = System.currentTimeMillis();
+        List<String> errors = new ArrayList<>();
+        int created = 0;
+
+        try {
+            job.setStatus(ImportJobStatus.RUNNING);
+            job.setStartedAt(LocalDateTime.now());
+            job = importJobRepository.save(job);
+
+            List<RosterRow> rows = parseRows(csvContent, errors);
+            job.setTotalRows(rows.size() + errors.size());
+            int invalid = errors.size();
+
+            // One set-based query instead of existsByEmail per row
+            Set<String> existing = findExistingEmails(rows.stream().map(RosterRow::email).toList());
+            List<RosterRow> fresh = new ArrayList<>(rows.size());
+            for (RosterRow row : rows) {
+                if (existing.contains(row.email())) {
+                    errors.add("Row " + row.line() + ": email already registered");
+                } else {
+                    fresh.add(row);
+                }
+            }
+            int duplicates = errors.size() - invalid;
+            job.setErrorRows(errors.size());
+            job = importJobRepository.save(job);
+
+            List<String> hashes = hashPasswords(fresh);
+
+            for (int from = 0; from < fresh.size(); from += INSERT_CHUNK_SIZE) {
+                int to = Math.min(from + INSERT_CHUNK_SIZE, fresh.size());
+                List<RosterRow> chunk = fresh.subList(from, to);
+                List<String> chunkHashes = hashes.subList(from, to);
+                try {
+                    transactionTemplate.executeWithoutResult(status -> insertChunk(chunk, chunkHashes, role));
+                    created += chunk.size();
+                } catch (Exception e) {
+                    // Usually an email registered concurrently; the rest of the roster still goes in
+                    logger.warn("Roster job {} failed to insert rows {}-{}: {}", jobId,
+                            chunk.get(0).line(), chunk.get(chunk.size() - 1).line(), e.getMessage());
+                    errors.add("Rows " + chunk.get(0).line() + "-" + chunk.get(chunk.size() - 1).line()
+                            + ": " + e.getMessage());
+                    job.setErrorRows(job.getErrorRows() + chunk.size());
+                }
+                job.setSuccessRows(created);
+                job = importJobRepository.save(job);
+            }
+
+            Map<String, Object> stats = new LinkedHashMap<>();
+            stats.put("role", role.name());
+            stats.put("created", created);
+            stats.put("duplicates", duplicates);
+            stats.put("invalid", invalid);
+            stats.put("durationMs", System.currentTimeMillis() - started);
+            job.setStats(toJson(stats));
+            job.setStatus(errors.isEmpty() ? ImportJobStatus.SUCCEEDED
+                    : created > 0 ? ImportJobStatus.PARTIALLY_SUCCEEDED : ImportJobStatus.FAILED);
+        } catch (Exception e) {
+            logger.error("Roster job {} failed: {}", jobId, e.getMessage(), e);
+            job.setStatus(created > 0 ? ImportJobStatus.PARTIALLY_SUCCEEDED : ImportJobStatus.FAILED);
+            job.setErrorMessage(e.getMessage());
+        }
+
+        if (!errors.isEmpty()) {
+            job.setErrors(toJson(errors.subList(0, Math.min(errors.size(), MAX_STORED_ERRORS))));
+        }
+        job.setSuccessRows(created);
+        job.setCompletedAt(LocalDateTime.now());
+        importJobRepository.save(job);
+        logger.info("Roster job {} provisioned {} {} accounts in {} ms", jobId, created, role,
+                System.currentTimeMillis() - started);
+    }
+
+    private List<RosterRow> parseRows(byte[] csvContent, List<String> errors) throws IOException {
+        List<RosterRow> rows = new ArrayList<>();
+        Set<String> seenEmails = new HashSet<>();
+
+        try (CSVParser parser = openParser(csvContent)) {
+            for (CSVRecord record : parser) {
+                int line = (int) record.getRecordNumber() + 1; // header is line 1
+                SignupRequest request = new SignupRequest();
+                request.setName(value(record, "name"));
+                request.setEmail(value(record, "email"));
+                request.setPassword(value(record, "password"));
+
+                // Same rules as self-service signup
+                Set<ConstraintViolation<SignupRequest>> violations = validator.validate(request);
+                if (!violations.isEmpty()) {
+                    errors.add("Row " + line + ": " + violations.stream()
+                            .map(ConstraintViolation::getMessage).sorted().collect(Collectors.joining("; ")));
+                    continue;
+                }
+                if (!seenEmails.add(request.getEmail())) {
+                    errors.add("Row " + line + ": duplicate email in file");
+                    continue;
+                }
+                rows.add(new RosterRow(line, request.getName(), request.getEmail(), request.getPassword()));
+            }
+        }
+        return rows;
+    }
+
+    private Set<String> findExistingEmails(List<String> emails) {
+        if (emails.isEmpty()) {
+            return Set.of();
+        }
+        return new HashSet<>(jdbcTemplate.query(
+                "SELECT email FROM users WHERE email = ANY(?)",
+                ps -> ps.setArray(1, ps.getConnection().createArrayOf("varchar", emails.toArray())),
+                (rs, rowNum) -> rs.getString(1)));
+    }
+
+    private List<String> hashPasswords(List<RosterRow> rows) throws InterruptedException, ExecutionException {
+        List<Future<String>> futures = new ArrayList<>(rows.size());
+        for (RosterRow row : rows) {
+            futures.add(hashingPool.submit(() -> passwordEncoder.encode(row.password())));
+        }
+        List<String> hashes = new ArrayList<>(rows.size());
+        for (Future<String> future : futures) {
+            hashes.add(future.get());
+        }
+        return hashes;
+    }
+
+    private void insertChunk(List<RosterRow> rows, List<String> hashes, Role role) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Long> userIds = nextIds("users_id_seq", rows.size());
+
+        List<Object[]> users = new ArrayList<>(rows.size());
+        for (int i = 0; i < rows.size(); i++) {
+            RosterRow row = rows.get(i);
+            users.add(new Object[]{userIds.get(i), row.name(), row.email(), hashes.get(i), role.name(), true, now, now});
+        }
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO users (id, name, email, password, role, enabled, created_at, updated_at) " +
+                "VALUES (?, ?, ?, ?, ?, ?, ?, ?)", users);
+
+        if (role == Role.STUDENT) {
+            List<Object[]> profiles = new ArrayList<>(rows.size());
+            for (int i = 0; i < rows.size(); i++) {
+                // Same first/last split as StudentProfileService.createStudentProfile
+                String[] nameParts = rows.get(i).name().split(" ", 2);
+                profiles.add(new Object[]{userIds.get(i), nameParts[0], nameParts.length > 1 ? nameParts[1] : "", now, now});
+            }
+            jdbcTemplate.batchUpdate(
+                    "INSERT INTO student_profiles (user_id, first_name, last_name, created_at, updated_at) " +
+                    "VALUES (?, ?, ?, ?, ?)", profiles);
+        } else {
+            List<Long> teacherIds = nextIds("teachers_id_seq", rows.size());
+            List<Object[]> teachers = new ArrayList<>(rows.size());
+            List<Object[]> profiles = new ArrayList<>(rows.size());
+            for (int i = 0; i < rows.size(); i++) {
+                RosterRow row = rows.get(i);
+                teachers.add(new Object[]{teacherIds.get(i), userIds.get(i), row.name(), row.email(), "PENDING", now, now});
+                profiles.add(new Object[]{userIds.get(i), teacherIds.get(i), now, now});
+            }
+            jdbcTemplate.batchUpdate(
+                    "INSERT INTO teachers (id, user_id, name, email, status, created_at, updated_at) " +
+                    "VALUES (?, ?, ?, ?, ?, ?, ?)", teachers);
+            jdbcTemplate.batchUpdate(
+                    "INSERT INTO teacher_profiles (user_id, teacher_id, created_at, updated_at) " +
+                    "VALUES (?, ?, ?, ?)", profiles);
+        }
+    }
+
+    /**
+     * Reserves {@code count} ids from a sequence in one round trip so parent and
+     * child rows can be batch-inserted without reading generated keys back.
+     */
+    private List<Long> nextIds(String sequence, int count) {
+        return jdbcTemplate.queryForList(
+                "SELECT nextval('" + sequence + "') FROM generate_series(1, ?)", Long.class, count);
+    }
+
+    private CSVParser openParser(byte[] csvContent) throws IOException {
+        return CSVParser.parse(
+                new InputStreamReader(new ByteArrayInputStream(csvContent), StandardCharsets.UTF_8),
+                CSVFormat.DEFAULT.builder()
+                        .setHeader()
+                        .setSkipHeaderRecord(true)
+                        .setIgnoreHeaderCase(true)
+                        .setTrim(true)
+                        .build());
+    }
+
+    private String value(CSVRecord record, String header) {
+        if (!record.isMapped(header) || !record.isSet(header)) {
+            return null;
+        }
+        String value = record.get(header);
+        return value.isEmpty() ? null : value;
+    }
+
+    private String toJson(Object value) {
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            return null;
+        }
+    }
+
+    private static Thread daemon(Runnable runnable, String name) {
+        Thread thread = new Thread(runnable, name);
+        thread.setDaemon(true);
+        return thread;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        jobExecutor.shutdownNow();
+        hashingPool.shutdownNow();
+    }
+
+    private record RosterRow(int line, String name, String email, String password) {
+    }
+}
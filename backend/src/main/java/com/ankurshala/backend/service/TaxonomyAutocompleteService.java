@@ -0,0 +1,137 @@
+package com.ankurshala.backend.service;
+
+import com.ankurshala.backend.dto.content.TaxonomySuggestionDto;
+import com.ankurshala.backend.service.TaxonomySnapshot.BoardNode;
+import com.ankurshala.backend.service.TaxonomySnapshot.ChapterNode;
+import com.ankurshala.backend.service.TaxonomySnapshot.SubjectNode;
+import com.ankurshala.backend.service.TaxonomySnapshot.TopicNode;
+import com.ankurshala.backend.util.PrefixTrigramIndex;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Typo-tolerant autocomplete over board, subject, chapter and topic names for
+ * the admin pickers, answered entirely from memory.
+ *
+ * <p>The index follows {@link ContentTaxonomyService}: on every
+ * {@link TaxonomySnapshotUpdatedEvent} only nodes that differ from the last
+ * indexed snapshot are re-indexed. Hierarchy paths are resolved from the
+ * snapshot at query time, so renaming a subject does not touch its topics'
+ * entries. Inactive and soft-deleted nodes are not suggested.</p>
+ *
+ * <p>Metric: {@code content.autocomplete.entries}.</p>
+ */
+@Service
+public class TaxonomyAutocompleteService {
+
+    public static final int MAX_LIMIT = 50;
+
+    public enum NodeType { BOARD, SUBJECT, CHAPTER, TOPIC }
+
+    record NodeKey(NodeType type, Long id) {
+    }
+
+    private final ContentTaxonomyService contentTaxonomyService;
+    private final PrefixTrigramIndex<NodeKey> index = new PrefixTrigramIndex<>();
+
+    private volatile TaxonomySnapshot indexed = TaxonomySnapshot.EMPTY;
+
+    public TaxonomyAutocompleteService(ContentTaxonomyService contentTaxonomyService, MeterRegistry meterRegistry) {
+        this.contentTaxonomyService = contentTaxonomyService;
+        Gauge.builder("content.autocomplete.entries", index, PrefixTrigramIndex::size).register(meterRegistry);
+    }
+
+    /**
+     * Ranked suggestions for {@code query}, optionally restricted to some node types.
+     */
+    public List<TaxonomySuggestionDto> suggest(String query, Set<NodeType> types, int limit) {
+        TaxonomySnapshot snapshot = indexed;
+        if (snapshot == TaxonomySnapshot.EMPTY) {
+            sync(contentTaxonomyService.current());
+            snapshot = indexed;
+        }
+
+        Predicate<NodeKey> filter = types == null || types.isEmpty() ? key -> true : key -> types.contains(key.type());
+        List<TaxonomySuggestionDto> suggestions = new ArrayList<>();
+        for (PrefixTrigramIndex.Match<NodeKey> match : index.search(query, Math.min(limit, MAX_LIMIT), filter)) {
+            NodeKey key = match.key();
+            suggestions.add(new TaxonomySuggestionDto(key.type().name(), key.id(), match.text(),
+                    pathOf(snapshot, key), match.score()));
+        }
+        return suggestions;
+    }
+
+    @EventListener
+    public void onSnapshotUpdated(TaxonomySnapshotUpdatedEvent event) {
+        sync(event.getSnapshot());
+    }
+
+    private synchronized void sync(TaxonomySnapshot next) {
+        TaxonomySnapshot previous = indexed;
+        if (next.getVersion() < previous.getVersion()) {
+            return;
+        }
+        syncNodes(NodeType.BOARD, previous.getBoards(), next.getBoards(), previous::getBoard, next::getBoard,
+                BoardNode::id, BoardNode::name, BoardNode::active);
+        syncNodes(NodeType.SUBJECT, previous.getSubjects(), next.getSubjects(), previous::getSubject, next::getSubject,
+                SubjectNode::id, SubjectNode::name, SubjectNode::active);
+        syncNodes(NodeType.CHAPTER, previous.getChapters(), next.getChapters(), previous::getChapter, next::getChapter,
+                ChapterNode::id, ChapterNode::name, chapter -> chapter.active() && chapter.deletedAt() == null);
+        syncNodes(NodeType.TOPIC, previous.getTopics(), next.getTopics(), previous::getTopic, next::getTopic,
+                TopicNode::id, TopicNode::title, topic -> topic.active() && topic.deletedAt() == null);
+        indexed = next;
+    }
+
+    private <N> void syncNodes(NodeType type, Collection<N> before, Collection<N> after,
+                               Function<Long, N> beforeById, Function<Long, N> afterById,
+                               Function<N, Long> id, Function<N, String> name, Predicate<N> suggestible) {
+        for (N node : after) {
+            // Unchanged nodes are the same (or an equal) record in both snapshots
+            if (node.equals(beforeById.apply(id.apply(node)))) {
+                continue;
+            }
+            NodeKey key = new NodeKey(type, id.apply(node));
+            if (suggestible.test(node) && name.apply(node) != null) {
+                index.put(key, name.apply(node));
+            } else {
+                index.remove(key);
+            }
+        }
+        for (N node : before) {
+            if (afterById.apply(id.apply(node)) == null) {
+                index.remove(new NodeKey(type, id.apply(node)));
+            }
+        }
+    }
+
+    private static List<String> pathOf(TaxonomySnapshot snapshot, NodeKey key) {
+        switch (key.type()) {
+            case CHAPTER -> {
+                ChapterNode chapter = snapshot.getChapter(key.id());
+                SubjectNode subject = chapter != null ? snapshot.getSubject(chapter.subjectId()) : null;
+                return subject != null ? List.of(subject.name()) : List.of();
+            }
+            case TOPIC -> {
+                TopicNode topic = snapshot.getTopic(key.id());
+                ChapterNode chapter = topic != null ? snapshot.getChapter(topic.chapterId()) : null;
+                if (chapter == null) {
+                    return List.of();
+                }
+                SubjectNode subject = snapshot.getSubject(chapter.subjectId());
+                return subject != null ? List.of(subject.name(), chapter.name()) : List.of(chapter.name());
+            }
+            default -> {
+                return List.of();
+            }
+        }
+    }
+}
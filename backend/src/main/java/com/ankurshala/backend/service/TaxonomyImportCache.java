@@ -0,0 +1,153 @@
+package com.ankurshala.backend.service;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Board, grade, subject and chapter ids for one import job, loaded once and
+ * extended as rows create new parents.
+ *
+ * <p>Parents are created with {@code INSERT ... ON CONFLICT DO NOTHING} in the
+ * caller's transaction. Ids created in a transaction stay pending until
+ * {@link #commit()}; {@link #rollback()} drops them, so a rolled-back chunk
+ * never leaves ids of rows that do not exist. Not thread-safe: one writer per
+ * instance.</p>
+ */
+class TaxonomyImportCache {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Dictionary boards = new Dictionary();
+    private final Dictionary grades = new Dictionary();
+    private final Dictionary subjects = new Dictionary();
+    private final Dictionary chapters = new Dictionary();
+
+    TaxonomyImportCache(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    TaxonomyImportCache preload() {
+        jdbcTemplate.query("SELECT id, name FROM boards",
+                rs -> { boards.committed.put(rs.getString(2), rs.getLong(1)); });
+        jdbcTemplate.query("SELECT id, name FROM grades",
+                rs -> { grades.committed.put(rs.getString(2), rs.getLong(1)); });
+        jdbcTemplate.query("SELECT id, name FROM subjects",
+                rs -> { subjects.committed.put(rs.getString(2), rs.getLong(1)); });
+        jdbcTemplate.query("SELECT id, subject_id, name FROM chapters",
+                rs -> { chapters.committed.put(chapterKey(rs.getLong(2), rs.getString(3)), rs.getLong(1)); });
+        return this;
+    }
+
+    Long board(String name, ContentTaxonomyChangedEvent.Collector changes) {
+        return boards.resolve(name, () -> {
+            Long id = insertOrSelect("INSERT INTO boards (name) VALUES (?) ON CONFLICT (name) DO NOTHING RETURNING id",
+                    "SELECT id FROM boards WHERE name = ?", name);
+            changes.board(id);
+            return id;
+        });
+    }
+
+    Long grade(String name, ContentTaxonomyChangedEvent.Collector changes) {
+        return grades.resolve(name, () -> {
+            Long id = insertOrSelect(
+                    "INSERT INTO grades (name, display_name) VALUES (?, ?) ON CONFLICT (name) DO NOTHING RETURNING id",
+                    "SELECT id FROM grades WHERE name = ?", name, "Grade " + name);
+            changes.grade(id);
+            return id;
+        });
+    }
+
+    Long subject(String name, ContentTaxonomyChangedEvent.Collector changes) {
+        return subjects.resolve(name, () -> {
+            Long id = insertOrSelect("INSERT INTO subjects (name) VALUES (?) ON CONFLICT (name) DO NOTHING RETURNING id",
+                    "SELECT id FROM subjects WHERE name = ?", name);
+            changes.subject(id);
+            return id;
+        });
+    }
+
+    Long chapter(Long subjectId, String name, ContentTaxonomyChangedEvent.Collector changes) {
+        return chapters.resolve(chapterKey(subjectId, name), () -> {
+            List<Long> inserted = jdbcTemplate.queryForList(
+                    "INSERT INTO chapters (subject_id, name) VALUES (?, ?) " +
+                    "ON CONFLICT (subject_id, name) DO NOTHING RETURNING id", Long.class, subjectId, name);
+            Long id = !inserted.isEmpty() ? inserted.get(0) : jdbcTemplate.queryForObject(
+                    "SELECT id FROM chapters WHERE subject_id = ? AND name = ?", Long.class, subjectId, name);
+            changes.chapter(id);
+            return id;
+        });
+    }
+
+    void commit() {
+        for (Dictionary dictionary : List.of(boards, grades, subjects, chapters)) {
+            dictionary.committed.putAll(dictionary.pending);
+            dictionary.pending.clear();
+        }
+    }
+
+    void rollback() {
+        for (Dictionary dictionary : List.of(boards, grades, subjects, chapters)) {
+            dictionary.pending.clear();
+        }
+    }
+
+    /**
+     * Lookups answered from memory and lookups that went to the database, per dictionary.
+     */
+    Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("boards", boards.stats());
+        stats.put("grades", grades.stats());
+        stats.put("subjects", subjects.stats());
+        stats.put("chapters", chapters.stats());
+        return stats;
+    }
+
+    private Long insertOrSelect(String insert, String select, String name, Object... extra) {
+        Object[] args = new Object[extra.length + 1];
+        args[0] = name;
+        System.arraycopy(extra, 0, args, 1, extra.length);
+        List<Long> inserted = jdbcTemplate.queryForList(insert, Long.class, args);
+        // Nothing returned means the row already exists, possibly committed by a concurrent writer
+        return !inserted.isEmpty() ? inserted.get(0) : jdbcTemplate.queryForObject(select, Long.class, name);
+    }
+
+    private static String chapterKey(long subjectId, String name) {
+        return subjectId + "\u0000" + name;
+    }
+
+    private static class Dictionary {
+        final Map<String, Long> committed = new HashMap<>();
+        final Map<String, Long> pending = new HashMap<>();
+        long hits;
+        long misses;
+
+        Long resolve(String key, Supplier<Long> create) {
+            Long id = committed.get(key);
+            if (id == null) {
+                id = pending.get(key);
+            }
+            if (id != null) {
+                hits++;
+                return id;
+            }
+            misses++;
+            id = create.get();
+            pending.put(key, id);
+            return id;
+        }
+
+        Map<String, Object> stats() {
+            Map<String, Object> stats = new LinkedHashMap<>();
+            stats.put("size", committed.size());
+            stats.put("hits", hits);
+            stats.put("misses", misses);
+            stats.put("hitRate", hits + misses == 0 ? 1.0 : Math.round(10000.0 * hits / (hits + misses)) / 10000.0);
+            return stats;
+        }
+    }
+}
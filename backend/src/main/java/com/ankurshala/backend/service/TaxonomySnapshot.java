@@ -0,0 +1,305 @@
+package com.ankurshala.backend.service;
+
+import com.ankurshala.backend.dto.content.BoardDto;
+import com.ankurshala.backend.dto.content.ChapterDto;
+import com.ankurshala.backend.dto.content.SubjectDto;
+import com.ankurshala.backend.dto.content.TopicDto;
+import com.ankurshala.backend.entity.Board;
+import com.ankurshala.backend.entity.Chapter;
+import com.ankurshala.backend.entity.Subject;
+import com.ankurshala.backend.entity.Topic;
+
+import java.time.LocalDateTime;
+import java.util.*;
+
+/**
+ * Immutable, versioned view of the content taxonomy (boards, subjects,
+ * chapters, topics).
+ *
+ * <p>Nodes are stored normalised by id, so renaming a chapter touches one entry
+ * rather than every topic below it. Changes go through {@link #toBuilder()},
+ * which copies the maps, and produce a new snapshot; readers holding the old one
+ * are unaffected. The rendered content tree is built lazily once per version.</p>
+ */
+public final class TaxonomySnapshot {
+
+    static final List<Map<String, Object>> GRADES = List.of(
+        Map.of("id", 1, "name", "9", "displayName", "Grade 9", "active", true),
+        Map.of("id", 2, "name", "10", "displayName", "Grade 10", "active", true),
+        Map.of("id", 3, "name", "11", "displayName", "Grade 11", "active", true),
+        Map.of("id", 4, "name", "12", "displayName", "Grade 12", "active", true)
+    );
+
+    public static final TaxonomySnapshot EMPTY = new TaxonomySnapshot(0, Map.of(), Map.of(), Map.of(), Map.of());
+
+    private final long version;
+    private final Map<Long, BoardNode> boards;
+    private final Map<Long, SubjectNode> subjects;
+    private final Map<Long, ChapterNode> chapters;
+    private final Map<Long, TopicNode> topics;
+    private final long estimatedBytes;
+
+    private volatile Map<String, Object> contentTree;
+
+    private TaxonomySnapshot(long version, Map<Long, BoardNode> boards, Map<Long, SubjectNode> subjects,
+                             Map<Long, ChapterNode> chapters, Map<Long, TopicNode> topics) {
+        this.version = version;
+        this.boards = boards;
+        this.subjects = subjects;
+        this.chapters = chapters;
+        this.topics = topics;
+        this.estimatedBytes = estimateBytes();
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public Collection<BoardNode> getBoards() {
+        return boards.values();
+    }
+
+    public Collection<SubjectNode> getSubjects() {
+        return subjects.values();
+    }
+
+    public Collection<ChapterNode> getChapters() {
+        return chapters.values();
+    }
+
+    public Collection<TopicNode> getTopics() {
+        return topics.values();
+    }
+
+    public BoardNode getBoard(Long id) {
+        return boards.get(id);
+    }
+
+    public SubjectNode getSubject(Long id) {
+        return subjects.get(id);
+    }
+
+    public ChapterNode getChapter(Long id) {
+        return chapters.get(id);
+    }
+
+    public TopicNode getTopic(Long id) {
+        return topics.get(id);
+    }
+
+    /**
+     * Rough retained size of the snapshot (nodes, strings, timestamps and map entries).
+     */
+    public long getEstimatedBytes() {
+        return estimatedBytes;
+    }
+
+    /**
+     * The browse-page tree in the shape {@code ContentManagementService.getContentTree}
+     * has always returned, rendered once per version and shared by all readers.
+     */
+    public Map<String, Object> getContentTree() {
+        Map<String, Object> tree = contentTree;
+        if (tree == null) {
+            tree = renderContentTree();
+            contentTree = tree;
+        }
+        return tree;
+    }
+
+    public Builder toBuilder() {
+        return new Builder(this, false);
+    }
+
+    /**
+     * A builder with no rows whose result still carries the next version number,
+     * used for full reloads.
+     */
+    public Builder toEmptyBuilder() {
+        return new Builder(this, true);
+    }
+
+    private Map<String, Object> renderContentTree() {
+        // Same filter as before: each level lists its active rows only
+        Map<String, Object> tree = new LinkedHashMap<>();
+        tree.put("boards", sorted(boards).stream().filter(BoardNode::active).map(BoardNode::toDto).toList());
+        tree.put("grades", GRADES);
+        tree.put("subjects", sorted(subjects).stream().filter(SubjectNode::active).map(SubjectNode::toDto).toList());
+        tree.put("chapters", sorted(chapters).stream()
+                .filter(ChapterNode::active)
+                .map(chapter -> chapter.toDto(subjects.get(chapter.subjectId())))
+                .toList());
+        tree.put("topics", sorted(topics).stream()
+                .filter(TopicNode::active)
+                .map(topic -> {
+                    ChapterNode chapter = chapters.get(topic.chapterId());
+                    SubjectNode subject = chapter != null ? subjects.get(chapter.subjectId()) : null;
+                    return topic.toDto(chapter, subject);
+                })
+                .toList());
+        return Collections.unmodifiableMap(tree);
+    }
+
+    private static <T> List<T> sorted(Map<Long, T> nodes) {
+        return new TreeMap<>(nodes).values().stream().toList();
+    }
+
+    private long estimateBytes() {
+        // Per node: object header and fields, three LocalDateTime instances, one map entry and boxed key
+        final long nodeOverhead = 64 + 3 * 72 + 48;
+        long bytes = 0;
+        for (BoardNode board : boards.values()) {
+            bytes += nodeOverhead + sizeOf(board.name());
+        }
+        for (SubjectNode subject : subjects.values()) {
+            bytes += nodeOverhead + sizeOf(subject.name());
+        }
+        for (ChapterNode chapter : chapters.values()) {
+            bytes += nodeOverhead + sizeOf(chapter.name());
+        }
+        for (TopicNode topic : topics.values()) {
+            bytes += nodeOverhead + sizeOf(topic.title()) + sizeOf(topic.code())
+                    + sizeOf(topic.description()) + sizeOf(topic.summary());
+        }
+        return bytes;
+    }
+
+    private static long sizeOf(String value) {
+        // String header plus backing array; Latin-1 text is stored one byte per char
+        return value == null ? 0 : 40 + value.length();
+    }
+
+    public record BoardNode(Long id, String name, boolean active, LocalDateTime createdAt, LocalDateTime updatedAt) {
+
+        static BoardNode of(Board board) {
+            return new BoardNode(board.getId(), board.getName(), Boolean.TRUE.equals(board.getActive()),
+                    board.getCreatedAt(), board.getUpdatedAt());
+        }
+
+        BoardDto toDto() {
+            return new BoardDto(id, name, active, createdAt, updatedAt);
+        }
+    }
+
+    public record SubjectNode(Long id, String name, boolean active, LocalDateTime createdAt, LocalDateTime updatedAt) {
+
+        static SubjectNode of(Subject subject) {
+            return new SubjectNode(subject.getId(), subject.getName(), Boolean.TRUE.equals(subject.getActive()),
+                    subject.getCreatedAt(), subject.getUpdatedAt());
+        }
+
+        SubjectDto toDto() {
+            return new SubjectDto(id, name, active, createdAt, updatedAt);
+        }
+    }
+
+    public record ChapterNode(Long id, String name, Long subjectId, boolean active, LocalDateTime deletedAt,
+                              LocalDateTime createdAt, LocalDateTime updatedAt) {
+
+        static ChapterNode of(Chapter chapter) {
+            // getSubject().getId() reads the proxy's id without loading the subject
+            return new ChapterNode(chapter.getId(), chapter.getName(), chapter.getSubject().getId(),
+                    Boolean.TRUE.equals(chapter.getActive()), chapter.getDeletedAt(),
+                    chapter.getCreatedAt(), chapter.getUpdatedAt());
+        }
+
+        ChapterDto toDto(SubjectNode subject) {
+            return new ChapterDto(id, name, subjectId, subject != null ? subject.name() : null,
+                    active, deletedAt, createdAt, updatedAt);
+        }
+    }
+
+    public record TopicNode(Long id, String title, String code, String description, String summary,
+                            Integer expectedTimeMins, Long chapterId, boolean active, LocalDateTime deletedAt,
+                            LocalDateTime createdAt, LocalDateTime updatedAt) {
+
+        static TopicNode of(Topic topic) {
+            return new TopicNode(topic.getId(), topic.getTitle(), topic.getCode(), topic.getDescription(),
+                    topic.getSummary(), topic.getExpectedTimeMins(), topic.getChapter().getId(),
+                    Boolean.TRUE.equals(topic.getActive()), topic.getDeletedAt(),
+                    topic.getCreatedAt(), topic.getUpdatedAt());
+        }
+
+        TopicDto toDto(ChapterNode chapter, SubjectNode subject) {
+            return new TopicDto(id, title, code, description, summary, expectedTimeMins, chapterId,
+                    chapter != null ? chapter.name() : null, subject != null ? subject.name() : null,
+                    active, deletedAt, createdAt, updatedAt);
+        }
+    }
+
+    /**
+     * Mutable working copy used to derive exactly one next snapshot.
+     */
+    public static final class Builder {
+
+        private final long baseVersion;
+        private final Map<Long, BoardNode> boards;
+        private final Map<Long, SubjectNode> subjects;
+        private final Map<Long, ChapterNode> chapters;
+        private final Map<Long, TopicNode> topics;
+
+        private Builder(TaxonomySnapshot base, boolean empty) {
+            this.baseVersion = base.version;
+            this.boards = empty ? new HashMap<>() : new HashMap<>(base.boards);
+            this.subjects = empty ? new HashMap<>() : new HashMap<>(base.subjects);
+            this.chapters = empty ? new HashMap<>() : new HashMap<>(base.chapters);
+            this.topics = empty ? new HashMap<>() : new HashMap<>(base.topics);
+        }
+
+        public Builder board(Board board) {
+            boards.put(board.getId(), BoardNode.of(board));
+            return this;
+        }
+
+        public Builder subject(Subject subject) {
+            subjects.put(subject.getId(), SubjectNode.of(subject));
+            return this;
+        }
+
+        public Builder chapter(Chapter chapter) {
+            chapters.put(chapter.getId(), ChapterNode.of(chapter));
+            return this;
+        }
+
+        public Builder topic(Topic topic) {
+            topics.put(topic.getId(), TopicNode.of(topic));
+            return this;
+        }
+
+        public Builder removeBoard(Long id) {
+            boards.remove(id);
+            return this;
+        }
+
+        /**
+         * Removes a hard-deleted subject together with its chapters and topics,
+         * mirroring the database cascade.
+         */
+        public Builder removeSubject(Long id) {
+            subjects.remove(id);
+            List<Long> chapterIds = chapters.values().stream()
+                    .filter(chapter -> id.equals(chapter.subjectId()))
+                    .map(ChapterNode::id)
+                    .toList();
+            chapterIds.forEach(this::removeChapter);
+            return this;
+        }
+
+        public Builder removeChapter(Long id) {
+            chapters.remove(id);
+            topics.values().removeIf(topic -> id.equals(topic.chapterId()));
+            return this;
+        }
+
+        public Builder removeTopic(Long id) {
+            topics.remove(id);
+            return this;
+        }
+
+        public TaxonomySnapshot build() {
+            return new TaxonomySnapshot(baseVersion + 1, Collections.unmodifiableMap(boards),
+                    Collections.unmodifiableMap(subjects), Collections.unmodifiableMap(chapters),
+                    Collections.unmodifiableMap(topics));
+        }
+    }
+}
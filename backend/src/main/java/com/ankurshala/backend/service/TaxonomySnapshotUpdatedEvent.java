@@ -0,0 +1,20 @@
+package com.ankurshala.backend.service;
+
+/**
+ * Published by {@link ContentTaxonomyService} each time a new snapshot is swapped
+ * in, on the thread that swapped it. Listeners keeping derived indexes should
+ * diff against the snapshot they last saw rather than assume every version is
+ * delivered in order.
+ */
+public class TaxonomySnapshotUpdatedEvent {
+
+    private final TaxonomySnapshot snapshot;
+
+    public TaxonomySnapshotUpdatedEvent(TaxonomySnapshot snapshot) {
+        this.snapshot = snapshot;
+    }
+
+    public TaxonomySnapshot getSnapshot() {
+        return snapshot;
+    }
+}
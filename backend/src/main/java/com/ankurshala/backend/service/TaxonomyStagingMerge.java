@@ -0,0 +1,220 @@
+package com.ankurshala.backend.service;
+
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVPrinter;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.PGCopyOutputStream;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.LongConsumer;
+
+/**
+ * Loads CSV rows into {@code content_import_staging} with {@code COPY FROM STDIN}
+ * and merges them into boards, grades, subjects, chapters and topics with a
+ * fixed number of set-based statements, however many rows there are.
+ *
+ * <p>Must run inside one transaction: the staged rows are only visible to it
+ * and are removed by {@link #clear} (or the rollback). Topics are matched as
+ * in the row-by-row import: by code when the row has one, else by chapter and
+ * title; empty optional cells keep the stored value. Of several rows for the
+ * same topic the last one wins.</p>
+ */
+class TaxonomyStagingMerge {
+
+    private static final String COPY_SQL =
+            "COPY content_import_staging (job_id, row_no, board, grade, subject, chapter, title, code, description, " +
+            "summary, expected_time_mins, active) FROM STDIN WITH (FORMAT csv)";
+
+    private static final String RESOLVE_CHAPTERS_SQL =
+            "UPDATE content_import_staging st SET chapter_id = c.id FROM subjects s JOIN chapters c ON c.subject_id = s.id " +
+            "WHERE st.job_id = ? AND s.name = st.subject AND c.name = st.chapter";
+
+    // Earlier rows for the same topic key, as the row-by-row import would overwrite them
+    private static final String DROP_SUPERSEDED_SQL =
+            "DELETE FROM content_import_staging st USING (" +
+            "  SELECT row_no, row_number() OVER (PARTITION BY code, CASE WHEN code IS NULL THEN chapter_id END, " +
+            "    CASE WHEN code IS NULL THEN title END ORDER BY row_no DESC) AS rank " +
+            "  FROM content_import_staging WHERE job_id = ?) d " +
+            "WHERE st.job_id = ? AND st.row_no = d.row_no AND d.rank > 1";
+
+    private static final String MATCH_BY_CODE_SQL =
+            "UPDATE content_import_staging st SET topic_id = t.id FROM topics t " +
+            "WHERE st.job_id = ? AND st.code IS NOT NULL AND t.code = st.code";
+
+    private static final String MATCH_BY_TITLE_SQL =
+            "UPDATE content_import_staging st SET topic_id = t.id FROM topics t " +
+            "WHERE st.job_id = ? AND st.code IS NULL AND t.chapter_id = st.chapter_id AND t.title = st.title";
+
+    // Rows that would take a chapter/title pair held by another topic, stored or staged earlier
+    private static final String DROP_CONFLICTS_SQL =
+            "WITH target AS (" +
+            "  SELECT st.row_no, st.topic_id, COALESCE(t.chapter_id, st.chapter_id) AS chapter_id, st.title " +
+            "  FROM content_import_staging st LEFT JOIN topics t ON t.id = st.topic_id WHERE st.job_id = ?), " +
+            "ranked AS (" +
+            "  SELECT target.*, first_value(row_no) OVER w AS first_row, first_value(topic_id) OVER w AS first_topic " +
+            "  FROM target WINDOW w AS (PARTITION BY chapter_id, title ORDER BY row_no)) " +
+            "DELETE FROM content_import_staging st USING ranked r " +
+            "WHERE st.job_id = ? AND st.row_no = r.row_no AND (" +
+            "  (r.row_no <> r.first_row AND (r.topic_id IS NULL OR r.topic_id IS DISTINCT FROM r.first_topic)) " +
+            "  OR EXISTS (SELECT 1 FROM topics o WHERE o.chapter_id = r.chapter_id AND o.title = r.title " +
+            "    AND o.id IS DISTINCT FROM r.topic_id)) " +
+            "RETURNING st.row_no, st.title";
+
+    private static final String UPSERT_BY_CODE_SQL =
+            "INSERT INTO topics (chapter_id, title, code, description, summary, expected_time_mins, active) " +
+            "SELECT chapter_id, title, code, description, summary, expected_time_mins, active " +
+            "FROM content_import_staging WHERE job_id = ? AND code IS NOT NULL " +
+            "ON CONFLICT (code) WHERE code IS NOT NULL DO UPDATE SET title = EXCLUDED.title, " +
+            "  description = COALESCE(EXCLUDED.description, topics.description), " +
+            "  summary = COALESCE(EXCLUDED.summary, topics.summary), " +
+            "  expected_time_mins = EXCLUDED.expected_time_mins, active = EXCLUDED.active, updated_at = now() " +
+            "WHERE (topics.title, topics.description, topics.summary, topics.expected_time_mins, topics.active) " +
+            "  IS DISTINCT FROM (EXCLUDED.title, COALESCE(EXCLUDED.description, topics.description), " +
+            "  COALESCE(EXCLUDED.summary, topics.summary), EXCLUDED.expected_time_mins, EXCLUDED.active) " +
+            "RETURNING id, xmax = 0 AS inserted";
+
+    private static final String UPSERT_BY_TITLE_SQL =
+            "INSERT INTO topics (chapter_id, title, description, summary, expected_time_mins, active) " +
+            "SELECT chapter_id, title, description, summary, expected_time_mins, active " +
+            "FROM content_import_staging WHERE job_id = ? AND code IS NULL " +
+            "ON CONFLICT ON CONSTRAINT uk_topics_chapter_title DO UPDATE SET " +
+            "  description = COALESCE(EXCLUDED.description, topics.description), " +
+            "  summary = COALESCE(EXCLUDED.summary, topics.summary), " +
+            "  expected_time_mins = EXCLUDED.expected_time_mins, active = EXCLUDED.active, updated_at = now() " +
+            "WHERE (topics.description, topics.summary, topics.expected_time_mins, topics.active) " +
+            "  IS DISTINCT FROM (COALESCE(EXCLUDED.description, topics.description), " +
+            "  COALESCE(EXCLUDED.summary, topics.summary), EXCLUDED.expected_time_mins, EXCLUDED.active) " +
+            "RETURNING id, xmax = 0 AS inserted";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final long jobId;
+
+    TaxonomyStagingMerge(JdbcTemplate jdbcTemplate, long jobId) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.jobId = jobId;
+    }
+
+    /**
+     * Streams rows into the staging table. The writer prints
+     * {@code row_no, board, grade, subject, chapter, title, code, description,
+     * summary, expected_time_mins, active} per row; nulls are sent as SQL NULL.
+     */
+    void copy(RowWriter rows) {
+        jdbcTemplate.execute((ConnectionCallback<Void>) con -> {
+            PGConnection pg = con.unwrap(PGConnection.class);
+            try (Writer out = new OutputStreamWriter(new PGCopyOutputStream(pg, COPY_SQL), StandardCharsets.UTF_8);
+                 CSVPrinter printer = new CSVPrinter(out, CSVFormat.POSTGRESQL_CSV)) {
+                rows.write(values -> {
+                    try {
+                        printer.print(jobId);
+                        printer.printRecord(values);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return null;
+        });
+    }
+
+    /**
+     * Merges the staged rows. Rows that cannot be applied are reported to
+     * {@code rejected} (row number, reason) and left out; ids of every inserted
+     * or changed entity go to {@code changes}.
+     */
+    Result merge(ContentTaxonomyChangedEvent.Collector changes, BiConsumer<Integer, String> rejected) {
+        Result result = new Result();
+        result.boardsInserted = insertParents(
+                "INSERT INTO boards (name) SELECT DISTINCT board FROM content_import_staging WHERE job_id = ? " +
+                "ON CONFLICT (name) DO NOTHING RETURNING id", changes::board);
+        result.gradesInserted = insertParents(
+                "INSERT INTO grades (name, display_name) SELECT DISTINCT grade, 'Grade ' || grade " +
+                "FROM content_import_staging WHERE job_id = ? ON CONFLICT (name) DO NOTHING RETURNING id", changes::grade);
+        result.subjectsInserted = insertParents(
+                "INSERT INTO subjects (name) SELECT DISTINCT subject FROM content_import_staging WHERE job_id = ? " +
+                "ON CONFLICT (name) DO NOTHING RETURNING id", changes::subject);
+        result.chaptersInserted = insertParents(
+                "INSERT INTO chapters (subject_id, name) SELECT DISTINCT s.id, st.chapter " +
+                "FROM content_import_staging st JOIN subjects s ON s.name = st.subject WHERE st.job_id = ? " +
+                "ON CONFLICT (subject_id, name) DO NOTHING RETURNING id", changes::chapter);
+
+        jdbcTemplate.update(RESOLVE_CHAPTERS_SQL, jobId);
+        result.superseded = jdbcTemplate.update(DROP_SUPERSEDED_SQL, jobId, jobId);
+        jdbcTemplate.update(MATCH_BY_CODE_SQL, jobId);
+        jdbcTemplate.update(MATCH_BY_TITLE_SQL, jobId);
+        jdbcTemplate.query(DROP_CONFLICTS_SQL, rs -> {
+            result.rejected++;
+            rejected.accept(rs.getInt(1), "Topic '" + rs.getString(2) + "' already exists in this chapter");
+        }, jobId, jobId);
+
+        Integer staged = jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM content_import_staging WHERE job_id = ?", Integer.class, jobId);
+        for (String upsert : new String[]{UPSERT_BY_CODE_SQL, UPSERT_BY_TITLE_SQL}) {
+            jdbcTemplate.query(upsert, rs -> {
+                changes.topic(rs.getLong(1));
+                if (rs.getBoolean(2)) {
+                    result.topicsInserted++;
+                } else {
+                    result.topicsUpdated++;
+                }
+            }, jobId);
+        }
+        result.topicsUnchanged = staged - result.topicsInserted - result.topicsUpdated;
+        return result;
+    }
+
+    void clear() {
+        jdbcTemplate.update("DELETE FROM content_import_staging WHERE job_id = ?", jobId);
+    }
+
+    private int insertParents(String sql, LongConsumer inserted) {
+        int[] count = {0};
+        jdbcTemplate.query(sql, rs -> {
+            inserted.accept(rs.getLong(1));
+            count[0]++;
+        }, jobId);
+        return count[0];
+    }
+
+    @FunctionalInterface
+    interface RowWriter {
+        void write(Consumer<Object[]> row);
+    }
+
+    static class Result {
+        int boardsInserted;
+        int gradesInserted;
+        int subjectsInserted;
+        int chaptersInserted;
+        int topicsInserted;
+        int topicsUpdated;
+        int topicsUnchanged;
+        int superseded;
+        int rejected;
+
+        Map<String, Object> toMap() {
+            Map<String, Object> map = new LinkedHashMap<>();
+            map.put("boardsInserted", boardsInserted);
+            map.put("gradesInserted", gradesInserted);
+            map.put("subjectsInserted", subjectsInserted);
+            map.put("chaptersInserted", chaptersInserted);
+            map.put("topicsInserted", topicsInserted);
+            map.put("topicsUpdated", topicsUpdated);
+            map.put("topicsUnchanged", topicsUnchanged);
+            map.put("supersededRows", superseded);
+            return map;
+        }
+    }
+}
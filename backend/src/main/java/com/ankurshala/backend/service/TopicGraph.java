@@ -0,0 +1,377 @@
+package com.ankurshala.backend.service;
+
+import java.util.*;
+
+/**
+ * Immutable topic link graph in compressed sparse row form.
+ *
+ * <p>Topics that take part in at least one link get a dense index (position in
+ * the sorted {@code ids} array). For each index, {@code prerequisites[prereqStart[i] .. prereqStart[i + 1])}
+ * lists the topics it depends on; {@code dependents} is the reverse and
+ * {@code related} holds RELATED links. Traversals only touch int arrays and a
+ * {@link BitSet}, so typical queries run in microseconds.</p>
+ *
+ * <p>Changes go through {@link #toBuilder()}, which rejects prerequisite links
+ * that would close a cycle.</p>
+ */
+public final class TopicGraph {
+
+    public static final TopicGraph EMPTY = new Builder().build();
+
+    private final long[] ids;
+    private final int[] prereqStart;
+    private final int[] prerequisites;
+    private final int[] dependentStart;
+    private final int[] dependents;
+    private final int[] relatedStart;
+    private final int[] related;
+
+    private TopicGraph(long[] ids, int[] prereqStart, int[] prerequisites, int[] dependentStart, int[] dependents,
+                       int[] relatedStart, int[] related) {
+        this.ids = ids;
+        this.prereqStart = prereqStart;
+        this.prerequisites = prerequisites;
+        this.dependentStart = dependentStart;
+        this.dependents = dependents;
+        this.relatedStart = relatedStart;
+        this.related = related;
+    }
+
+    public int getTopicCount() {
+        return ids.length;
+    }
+
+    public int getPrerequisiteLinkCount() {
+        return prerequisites.length;
+    }
+
+    public long[] getPrerequisites(long topicId) {
+        return neighbours(topicId, prereqStart, prerequisites);
+    }
+
+    public long[] getDependents(long topicId) {
+        return neighbours(topicId, dependentStart, dependents);
+    }
+
+    public long[] getRelated(long topicId) {
+        return neighbours(topicId, relatedStart, related);
+    }
+
+    /**
+     * Every topic {@code topicId} depends on, directly or indirectly, nearest first.
+     */
+    public long[] getTransitivePrerequisites(long topicId) {
+        return reachable(topicId, prereqStart, prerequisites);
+    }
+
+    /**
+     * Every topic that depends on {@code topicId}, directly or indirectly, nearest first.
+     */
+    public long[] getTransitiveDependents(long topicId) {
+        return reachable(topicId, dependentStart, dependents);
+    }
+
+    /**
+     * True if making {@code prerequisiteId} a prerequisite of {@code topicId} would
+     * close a cycle, i.e. the prerequisite already depends on the topic.
+     */
+    public boolean wouldCreateCycle(long topicId, long prerequisiteId) {
+        if (topicId == prerequisiteId) {
+            return true;
+        }
+        int from = indexOf(prerequisiteId);
+        int target = indexOf(topicId);
+        if (from < 0 || target < 0) {
+            return false;
+        }
+        BitSet visited = new BitSet(ids.length);
+        int[] queue = new int[ids.length];
+        int head = 0;
+        int tail = 0;
+        queue[tail++] = from;
+        visited.set(from);
+        while (head < tail) {
+            int node = queue[head++];
+            for (int e = prereqStart[node]; e < prereqStart[node + 1]; e++) {
+                int next = prerequisites[e];
+                if (next == target) {
+                    return true;
+                }
+                if (!visited.get(next)) {
+                    visited.set(next);
+                    queue[tail++] = next;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Orders {@code scope} so every topic comes after its prerequisites within
+     * the scope (Kahn's algorithm on the induced subgraph). Ties keep the order
+     * of {@code scope}. Topics caught in a cycle cannot be ordered and are
+     * returned separately.
+     */
+    public Ordering order(long[] scope) {
+        Map<Long, Integer> position = new HashMap<>(scope.length * 2);
+        for (int i = 0; i < scope.length; i++) {
+            position.putIfAbsent(scope[i], i);
+        }
+
+        int[] pending = new int[scope.length];
+        for (int i = 0; i < scope.length; i++) {
+            int node = indexOf(scope[i]);
+            if (node >= 0) {
+                for (int e = prereqStart[node]; e < prereqStart[node + 1]; e++) {
+                    if (position.containsKey(ids[prerequisites[e]])) {
+                        pending[i]++;
+                    }
+                }
+            }
+        }
+
+        PriorityQueue<Integer> ready = new PriorityQueue<>();
+        for (int i = 0; i < scope.length; i++) {
+            if (pending[i] == 0 && position.get(scope[i]) == i) {
+                ready.add(i);
+            }
+        }
+
+        long[] ordered = new long[position.size()];
+        int count = 0;
+        while (!ready.isEmpty()) {
+            int i = ready.poll();
+            ordered[count++] = scope[i];
+            int node = indexOf(scope[i]);
+            if (node < 0) {
+                continue;
+            }
+            for (int e = dependentStart[node]; e < dependentStart[node + 1]; e++) {
+                Integer dependent = position.get(ids[dependents[e]]);
+                if (dependent != null && --pending[dependent] == 0) {
+                    ready.add(dependent);
+                }
+            }
+        }
+
+        long[] cyclic = new long[position.size() - count];
+        int c = 0;
+        for (int i = 0; i < scope.length; i++) {
+            if (pending[i] > 0 && position.get(scope[i]) == i) {
+                cyclic[c++] = scope[i];
+            }
+        }
+        return new Ordering(Arrays.copyOf(ordered, count), cyclic);
+    }
+
+    public Builder toBuilder() {
+        Builder builder = new Builder();
+        for (int node = 0; node < ids.length; node++) {
+            for (int e = prereqStart[node]; e < prereqStart[node + 1]; e++) {
+                builder.prerequisites.computeIfAbsent(ids[node], k -> new LinkedHashSet<>()).add(ids[prerequisites[e]]);
+            }
+            for (int e = relatedStart[node]; e < relatedStart[node + 1]; e++) {
+                builder.related.computeIfAbsent(ids[node], k -> new LinkedHashSet<>()).add(ids[related[e]]);
+            }
+        }
+        return builder;
+    }
+
+    private int indexOf(long topicId) {
+        int index = Arrays.binarySearch(ids, topicId);
+        return index >= 0 ? index : -1;
+    }
+
+    private long[] neighbours(long topicId, int[] start, int[] targets) {
+        int node = indexOf(topicId);
+        if (node < 0) {
+            return new long[0];
+        }
+        long[] result = new long[start[node + 1] - start[node]];
+        for (int e = start[node]; e < start[node + 1]; e++) {
+            result[e - start[node]] = ids[targets[e]];
+        }
+        return result;
+    }
+
+    private long[] reachable(long topicId, int[] start, int[] targets) {
+        int from = indexOf(topicId);
+        if (from < 0) {
+            return new long[0];
+        }
+        BitSet visited = new BitSet(ids.length);
+        int[] queue = new int[ids.length];
+        int head = 0;
+        int tail = 0;
+        queue[tail++] = from;
+        visited.set(from);
+        while (head < tail) {
+            int node = queue[head++];
+            for (int e = start[node]; e < start[node + 1]; e++) {
+                int next = targets[e];
+                if (!visited.get(next)) {
+                    visited.set(next);
+                    queue[tail++] = next;
+                }
+            }
+        }
+        // Skip the start topic itself
+        long[] result = new long[tail - 1];
+        for (int i = 1; i < tail; i++) {
+            result[i - 1] = ids[queue[i]];
+        }
+        return result;
+    }
+
+    public record Ordering(long[] ordered, long[] cyclic) {
+    }
+
+    /**
+     * Mutable adjacency lists used to derive the next graph.
+     */
+    public static final class Builder {
+
+        private final Map<Long, Set<Long>> prerequisites = new HashMap<>();
+        private final Map<Long, Set<Long>> related = new HashMap<>();
+
+        /**
+         * Adds the link unless it would close a cycle.
+         *
+         * @return false if the link was rejected because of a cycle
+         */
+        public boolean addPrerequisite(long topicId, long prerequisiteId) {
+            if (topicId == prerequisiteId || dependsOn(prerequisiteId, topicId)) {
+                return false;
+            }
+            prerequisites.computeIfAbsent(topicId, k -> new LinkedHashSet<>()).add(prerequisiteId);
+            return true;
+        }
+
+        /**
+         * Adds a stored link without the cycle check, for loading rows that are
+         * already in the database.
+         */
+        Builder putPrerequisite(long topicId, long prerequisiteId) {
+            prerequisites.computeIfAbsent(topicId, k -> new LinkedHashSet<>()).add(prerequisiteId);
+            return this;
+        }
+
+        public Builder removePrerequisite(long topicId, long prerequisiteId) {
+            Set<Long> links = prerequisites.get(topicId);
+            if (links != null) {
+                links.remove(prerequisiteId);
+            }
+            return this;
+        }
+
+        public Builder clearPrerequisites(long topicId) {
+            prerequisites.remove(topicId);
+            return this;
+        }
+
+        public Builder addRelated(long topicId, long relatedId) {
+            if (topicId != relatedId) {
+                related.computeIfAbsent(topicId, k -> new LinkedHashSet<>()).add(relatedId);
+            }
+            return this;
+        }
+
+        public Builder removeRelated(long topicId, long relatedId) {
+            Set<Long> links = related.get(topicId);
+            if (links != null) {
+                links.remove(relatedId);
+            }
+            return this;
+        }
+
+        public Builder clearRelated(long topicId) {
+            related.remove(topicId);
+            return this;
+        }
+
+        /**
+         * Drops every link from or to the topic, e.g. before it is hard-deleted.
+         */
+        public Builder removeTopic(long topicId) {
+            prerequisites.remove(topicId);
+            related.remove(topicId);
+            prerequisites.values().forEach(links -> links.remove(topicId));
+            related.values().forEach(links -> links.remove(topicId));
+            return this;
+        }
+
+        public Set<Long> getPrerequisites(long topicId) {
+            return prerequisites.getOrDefault(topicId, Set.of());
+        }
+
+        public Set<Long> getRelated(long topicId) {
+            return related.getOrDefault(topicId, Set.of());
+        }
+
+        private boolean dependsOn(long from, long target) {
+            Deque<Long> stack = new ArrayDeque<>();
+            Set<Long> visited = new HashSet<>();
+            stack.push(from);
+            while (!stack.isEmpty()) {
+                long node = stack.pop();
+                for (long next : prerequisites.getOrDefault(node, Set.of())) {
+                    if (next == target) {
+                        return true;
+                    }
+                    if (visited.add(next)) {
+                        stack.push(next);
+                    }
+                }
+            }
+            return false;
+        }
+
+        public TopicGraph build() {
+            TreeSet<Long> topicIds = new TreeSet<>();
+            prerequisites.forEach((topic, links) -> {
+                if (!links.isEmpty()) {
+                    topicIds.add(topic);
+                    topicIds.addAll(links);
+                }
+            });
+            related.forEach((topic, links) -> {
+                if (!links.isEmpty()) {
+                    topicIds.add(topic);
+                    topicIds.addAll(links);
+                }
+            });
+            long[] ids = topicIds.stream().mapToLong(Long::longValue).toArray();
+
+            int[][] prereq = csr(ids, prerequisites, false);
+            int[][] dependent = csr(ids, prerequisites, true);
+            int[][] rel = csr(ids, related, false);
+            return new TopicGraph(ids, prereq[0], prereq[1], dependent[0], dependent[1], rel[0], rel[1]);
+        }
+
+        private static int[][] csr(long[] ids, Map<Long, Set<Long>> links, boolean reverse) {
+            int[] start = new int[ids.length + 1];
+            int edges = 0;
+            for (Map.Entry<Long, Set<Long>> entry : links.entrySet()) {
+                for (long target : entry.getValue()) {
+                    int source = Arrays.binarySearch(ids, reverse ? target : entry.getKey());
+                    start[source + 1]++;
+                    edges++;
+                }
+            }
+            for (int i = 0; i < ids.length; i++) {
+                start[i + 1] += start[i];
+            }
+            int[] fill = Arrays.copyOf(start, ids.length);
+            int[] targets = new int[edges];
+            // Sorted sources keep each node's neighbour list in a stable order
+            for (Map.Entry<Long, Set<Long>> entry : new TreeMap<>(links).entrySet()) {
+                for (long target : entry.getValue()) {
+                    long from = reverse ? target : entry.getKey();
+                    long to = reverse ? entry.getKey() : target;
+                    targets[fill[Arrays.binarySearch(ids, from)]++] = Arrays.binarySearch(ids, to);
+                }
+            }
+            return new int[][]{start, targets};
+        }
+    }
+}
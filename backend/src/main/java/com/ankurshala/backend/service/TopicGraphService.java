@@ -0,0 +1,372 @@
+package com.ankurshala.backend.service;
+
+import com.ankurshala.backend.dto.content.LearningPathDto;
+import com.ankurshala.backend.dto.content.TopicGraphNodeDto;
+import com.ankurshala.backend.entity.TopicLink.TopicLinkType;
+import com.ankurshala.backend.exception.DuplicateResourceException;
+import com.ankurshala.backend.exception.ResourceNotFoundException;
+import com.ankurshala.backend.service.TaxonomySnapshot.ChapterNode;
+import com.ankurshala.backend.service.TaxonomySnapshot.TopicNode;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Topic prerequisite graph: link writes with cycle detection, and transitive
+ * prerequisite and learning-path queries answered from an in-memory
+ * {@link TopicGraph} instead of recursive SQL.
+ *
+ * <p>The graph is rebuilt from topic_links after every committed link change
+ * and on other nodes via {@value #CHANNEL}, with a periodic reload as backstop.
+ * Writes take a Postgres advisory lock and check cycles against the committed
+ * rows, so two concurrent writes cannot close a cycle between them. Topic
+ * titles, chapters and expected times come from the {@link TaxonomySnapshot}.</p>
+ *
+ * <p>Metrics: {@code content.topic_graph.topics} and
+ * {@code content.topic_graph.prerequisites}.</p>
+ */
+@Service
+public class TopicGraphService implements MessageListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(TopicGraphService.class);
+
+    static final String CHANNEL = "content:topic-graph";
+
+    // Arbitrary application-wide key for pg_advisory_xact_lock
+    private static final long LINK_LOCK_KEY = 0x544C4E4BL;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate readOnlyTransaction;
+    private final ContentTaxonomyService contentTaxonomyService;
+    private final StringRedisTemplate redisTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final String nodeId = UUID.randomUUID().toString();
+    private volatile TopicGraph graph;
+
+    public TopicGraphService(JdbcTemplate jdbcTemplate,
+                             PlatformTransactionManager transactionManager,
+                             ContentTaxonomyService contentTaxonomyService,
+                             StringRedisTemplate redisTemplate,
+                             RedisMessageListenerContainer listenerContainer,
+                             ApplicationEventPublisher eventPublisher,
+                             MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.readOnlyTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.contentTaxonomyService = contentTaxonomyService;
+        this.redisTemplate = redisTemplate;
+        this.eventPublisher = eventPublisher;
+        listenerContainer.addMessageListener(this, new ChannelTopic(CHANNEL));
+
+        Gauge.builder("content.topic_graph.topics", this, s -> s.graph != null ? s.graph.getTopicCount() : 0)
+                .register(meterRegistry);
+        Gauge.builder("content.topic_graph.prerequisites", this, s -> s.graph != null ? s.graph.getPrerequisiteLinkCount() : 0)
+                .register(meterRegistry);
+    }
+
+    /**
+     * The current graph. Loads it on first use if startup has not done so yet.
+     */
+    public TopicGraph current() {
+        TopicGraph current = graph;
+        return current != null ? current : reload();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        reload();
+    }
+
+    @Scheduled(fixedDelayString = "${app.content.topic-graph.resync-interval-ms:600000}",
+               initialDelayString = "${app.content.topic-graph.resync-interval-ms:600000}")
+    public void scheduledReload() {
+        try {
+            reload();
+        } catch (Exception e) {
+            logger.warn("Topic graph reload failed, keeping the current graph: {}", e.getMessage());
+        }
+    }
+
+    public synchronized TopicGraph reload() {
+        long started = System.currentTimeMillis();
+        TopicGraph next = readOnlyTransaction.execute(status -> load());
+        graph = next;
+        logger.info("Loaded topic graph ({} topics, {} prerequisite links) in {} ms", next.getTopicCount(),
+                next.getPrerequisiteLinkCount(), System.currentTimeMillis() - started);
+        return next;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onLinksChanged(TopicLinksChangedEvent event) {
+        reload();
+        try {
+            redisTemplate.convertAndSend(CHANNEL, nodeId);
+        } catch (Exception e) {
+            // Other nodes catch up on their next scheduled reload
+            logger.warn("Could not broadcast topic graph change: {}", e.getMessage());
+        }
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        if (nodeId.equals(new String(message.getBody(), StandardCharsets.UTF_8))) {
+            return;
+        }
+        try {
+            reload();
+        } catch (Exception e) {
+            logger.warn("Could not reload topic graph after change on another node: {}", e.getMessage());
+        }
+    }
+
+    // ============ QUERIES ============
+
+    public List<TopicGraphNodeDto> getPrerequisites(Long topicId, boolean transitive) {
+        TaxonomySnapshot snapshot = requireTopic(topicId);
+        TopicGraph current = current();
+        return toNodes(snapshot, transitive ? current.getTransitivePrerequisites(topicId) : current.getPrerequisites(topicId));
+    }
+
+    public List<TopicGraphNodeDto> getDependents(Long topicId, boolean transitive) {
+        TaxonomySnapshot snapshot = requireTopic(topicId);
+        TopicGraph current = current();
+        return toNodes(snapshot, transitive ? current.getTransitiveDependents(topicId) : current.getDependents(topicId));
+    }
+
+    public List<TopicGraphNodeDto> getRelated(Long topicId) {
+        TaxonomySnapshot snapshot = requireTopic(topicId);
+        return toNodes(snapshot, current().getRelated(topicId));
+    }
+
+    /**
+     * Everything needed to study {@code topicId}: its transitive prerequisites in
+     * dependency order, ending with the topic itself.
+     */
+    public LearningPathDto getTopicLearningPath(Long topicId) {
+        TaxonomySnapshot snapshot = requireTopic(topicId);
+        long[] prerequisites = current().getTransitivePrerequisites(topicId);
+        long[] scope = Arrays.copyOf(prerequisites, prerequisites.length + 1);
+        scope[prerequisites.length] = topicId;
+        return learningPath("TOPIC", topicId, snapshot, scope);
+    }
+
+    public LearningPathDto getChapterLearningPath(Long chapterId) {
+        TaxonomySnapshot snapshot = contentTaxonomyService.current();
+        if (snapshot.getChapter(chapterId) == null) {
+            throw new ResourceNotFoundException("Chapter not found with id: " + chapterId);
+        }
+        return learningPath("CHAPTER", chapterId, snapshot, topicIds(snapshot, topic -> chapterId.equals(topic.chapterId())));
+    }
+
+    public LearningPathDto getSubjectLearningPath(Long subjectId) {
+        TaxonomySnapshot snapshot = contentTaxonomyService.current();
+        if (snapshot.getSubject(subjectId) == null) {
+            throw new ResourceNotFoundException("Subject not found with id: " + subjectId);
+        }
+        return learningPath("SUBJECT", subjectId, snapshot, topicIds(snapshot, topic -> {
+            ChapterNode chapter = snapshot.getChapter(topic.chapterId());
+            return chapter != null && subjectId.equals(chapter.subjectId());
+        }));
+    }
+
+    private LearningPathDto learningPath(String scopeType, Long scopeId, TaxonomySnapshot snapshot, long[] scope) {
+        // Inactive and soft-deleted topics are skipped; ties fall back to chapter, then id
+        long[] visible = Arrays.stream(scope)
+                .mapToObj(snapshot::getTopic)
+                .filter(topic -> topic != null && topic.active() && topic.deletedAt() == null)
+                .sorted(Comparator.comparing(TopicNode::chapterId).thenComparing(TopicNode::id))
+                .mapToLong(TopicNode::id)
+                .toArray();
+        TopicGraph.Ordering ordering = current().order(visible);
+
+        List<TopicGraphNodeDto> topics = toNodes(snapshot, ordering.ordered());
+        int total = topics.stream()
+                .map(TopicGraphNodeDto::getExpectedTimeMins)
+                .filter(Objects::nonNull)
+                .mapToInt(Integer::intValue)
+                .sum();
+        List<Long> cyclic = Arrays.stream(ordering.cyclic()).boxed().toList();
+        return new LearningPathDto(scopeType, scopeId, topics, total, cyclic);
+    }
+
+    // ============ WRITES ============
+
+    /**
+     * Adds one link. A prerequisite that already (transitively) depends on the
+     * topic is rejected, as it would close a cycle.
+     */
+    @Transactional
+    public void addLink(Long topicId, TopicLinkType type, Long linkedTopicId) {
+        if (topicId.equals(linkedTopicId)) {
+            throw new IllegalArgumentException("A topic cannot be linked to itself");
+        }
+        Integer found = jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM topics WHERE id IN (?, ?)", Integer.class, topicId, linkedTopicId);
+        if (found == null || found < 2) {
+            throw new ResourceNotFoundException("Topic not found with id: " + topicId + " or " + linkedTopicId);
+        }
+
+        TopicGraph.Builder builder = lockAndLoad().toBuilder();
+        if (type == TopicLinkType.PREREQUISITE && !builder.addPrerequisite(topicId, linkedTopicId)) {
+            throw new IllegalArgumentException("Topic " + linkedTopicId + " already depends on topic " + topicId +
+                    "; adding it as a prerequisite would create a cycle");
+        }
+        int inserted = jdbcTemplate.update(
+                "INSERT INTO topic_links (topic_id, type, linked_topic_id) VALUES (?, ?, ?) ON CONFLICT DO NOTHING",
+                topicId, type.name(), linkedTopicId);
+        if (inserted == 0) {
+            throw new DuplicateResourceException("Topic " + topicId + " already has " + type + " link to " + linkedTopicId);
+        }
+        eventPublisher.publishEvent(new TopicLinksChangedEvent());
+    }
+
+    @Transactional
+    public void removeLink(Long topicId, TopicLinkType type, Long linkedTopicId) {
+        int deleted = jdbcTemplate.update(
+                "DELETE FROM topic_links WHERE topic_id = ? AND type = ? AND linked_topic_id = ?",
+                topicId, type.name(), linkedTopicId);
+        if (deleted == 0) {
+            throw new ResourceNotFoundException("No " + type + " link from topic " + topicId + " to " + linkedTopicId);
+        }
+        eventPublisher.publishEvent(new TopicLinksChangedEvent());
+    }
+
+    /**
+     * Replaces the links of every topic in the maps, e.g. from a CSV import.
+     * Prerequisites that would close a cycle are skipped.
+     *
+     * @return one message per skipped link
+     */
+    @Transactional
+    public List<String> replaceLinks(Map<Long, ? extends Collection<Long>> prerequisites,
+                                     Map<Long, ? extends Collection<Long>> related) {
+        if (prerequisites.isEmpty() && related.isEmpty()) {
+            return List.of();
+        }
+        TopicGraph.Builder builder = lockAndLoad().toBuilder();
+        List<String> skipped = new ArrayList<>();
+
+        prerequisites.forEach((topicId, linked) -> {
+            builder.clearPrerequisites(topicId);
+            for (Long prerequisiteId : linked) {
+                if (!builder.addPrerequisite(topicId, prerequisiteId)) {
+                    skipped.add("Prerequisite " + prerequisiteId + " of topic " + topicId + " would create a cycle");
+                }
+            }
+        });
+        related.forEach((topicId, linked) -> {
+            builder.clearRelated(topicId);
+            linked.forEach(relatedId -> builder.addRelated(topicId, relatedId));
+        });
+
+        rewrite(TopicLinkType.PREREQUISITE, prerequisites.keySet(), builder::getPrerequisites);
+        rewrite(TopicLinkType.RELATED, related.keySet(), builder::getRelated);
+        eventPublisher.publishEvent(new TopicLinksChangedEvent());
+        return skipped;
+    }
+
+    /**
+     * Deletes every link from or to the topic, which must happen before a hard delete.
+     */
+    @Transactional
+    public void removeAllLinks(Long topicId) {
+        int deleted = jdbcTemplate.update("DELETE FROM topic_links WHERE topic_id = ? OR linked_topic_id = ?",
+                topicId, topicId);
+        if (deleted > 0) {
+            eventPublisher.publishEvent(new TopicLinksChangedEvent());
+        }
+    }
+
+    private void rewrite(TopicLinkType type, Set<Long> topicIds, Function<Long, Set<Long>> links) {
+        if (topicIds.isEmpty()) {
+            return;
+        }
+        Object[] ids = topicIds.toArray();
+        jdbcTemplate.update(con -> {
+            var ps = con.prepareStatement("DELETE FROM topic_links WHERE type = ? AND topic_id = ANY(?)");
+            ps.setString(1, type.name());
+            ps.setArray(2, con.createArrayOf("bigint", ids));
+            return ps;
+        });
+        List<Object[]> rows = new ArrayList<>();
+        for (Long topicId : topicIds) {
+            for (Long linkedId : links.apply(topicId)) {
+                rows.add(new Object[]{topicId, type.name(), linkedId});
+            }
+        }
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO topic_links (topic_id, type, linked_topic_id) VALUES (?, ?, ?) ON CONFLICT DO NOTHING", rows);
+    }
+
+    /**
+     * Serialises link writers and reads the committed links, so the cycle check
+     * sees every link written before it.
+     */
+    private TopicGraph lockAndLoad() {
+        jdbcTemplate.queryForList("SELECT pg_advisory_xact_lock(?)", LINK_LOCK_KEY);
+        return load();
+    }
+
+    private TopicGraph load() {
+        TopicGraph.Builder builder = new TopicGraph.Builder();
+        jdbcTemplate.query("SELECT topic_id, type, linked_topic_id FROM topic_links ORDER BY id", rs -> {
+            if (TopicLinkType.PREREQUISITE.name().equals(rs.getString(2))) {
+                builder.putPrerequisite(rs.getLong(1), rs.getLong(3));
+            } else {
+                builder.addRelated(rs.getLong(1), rs.getLong(3));
+            }
+        });
+        return builder.build();
+    }
+
+    private TaxonomySnapshot requireTopic(Long topicId) {
+        TaxonomySnapshot snapshot = contentTaxonomyService.current();
+        if (snapshot.getTopic(topicId) == null) {
+            throw new ResourceNotFoundException("Topic not found with id: " + topicId);
+        }
+        return snapshot;
+    }
+
+    private static long[] topicIds(TaxonomySnapshot snapshot, Predicate<TopicNode> inScope) {
+        return snapshot.getTopics().stream().filter(inScope).mapToLong(TopicNode::id).toArray();
+    }
+
+    private static List<TopicGraphNodeDto> toNodes(TaxonomySnapshot snapshot, long[] topicIds) {
+        List<TopicGraphNodeDto> nodes = new ArrayList<>(topicIds.length);
+        for (long id : topicIds) {
+            TopicNode topic = snapshot.getTopic(id);
+            if (topic == null) {
+                continue;
+            }
+            ChapterNode chapter = snapshot.getChapter(topic.chapterId());
+            nodes.add(new TopicGraphNodeDto(topic.id(), topic.title(), topic.code(), topic.chapterId(),
+                    chapter != null ? chapter.name() : null, topic.expectedTimeMins()));
+        }
+        return nodes;
+    }
+}
@@ -0,0 +1,8 @@
+package com.ankurshala.backend.service;
+
+/**
+ * Published after topic_links rows are written. {@link TopicGraphService}
+ * rebuilds the prerequisite graph once the transaction has committed.
+ */
+public class TopicLinksChangedEvent {
+}
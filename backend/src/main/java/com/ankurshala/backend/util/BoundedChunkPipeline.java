@@ -0,0 +1,170 @@
+package com.ankurshala.backend.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+/**
+ * Hands items from one producer thread to one consumer thread in chunks, with
+ * back-pressure.
+ *
+ * <p>Items are grouped into chunks of {@code chunkSize} and queued for the
+ * consumer; at most {@code capacity} chunks wait in the queue and
+ * {@link #submit} blocks while it is full. So no more than
+ * {@code capacity + 2} chunks are held at once, however many items pass
+ * through.</p>
+ *
+ * <p>If the consumer throws, the remaining chunks are discarded, the next
+ * {@link #submit} fails fast and {@link #close} rethrows the failure. Every
+ * discarded item, queued or submitted later, goes to the optional
+ * {@code discarded} callback so the caller can account for it; it runs on
+ * the consumer or the producer thread.
+ * {@link #close} is interruptible: it restores the interrupt flag and throws
+ * an {@link IllegalStateException}.</p>
+ */
+public class BoundedChunkPipeline<T> implements AutoCloseable {
+
+    private final List<T> end = new ArrayList<>(0);
+    private final BlockingQueue<List<T>> queue;
+    private final int chunkSize;
+    private final Consumer<List<T>> consumer;
+    private final Consumer<List<T>> discarded;
+    private final Thread consumerThread;
+    private final AtomicReference<Throwable> failure = new AtomicReference<>();
+
+    private List<T> current;
+    private boolean closed;
+
+    public BoundedChunkPipeline(String name, int chunkSize, int capacity, Consumer<List<T>> consumer) {
+        this(name, chunkSize, capacity, consumer, chunk -> { });
+    }
+
+    public BoundedChunkPipeline(String name, int chunkSize, int capacity, Consumer<List<T>> consumer,
+                                Consumer<List<T>> discarded) {
+        if (chunkSize < 1 || capacity < 1) {
+            throw new IllegalArgumentException("chunkSize and capacity must be positive");
+        }
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.chunkSize = chunkSize;
+        this.consumer = consumer;
+        this.discarded = discarded;
+        this.current = new ArrayList<>(chunkSize);
+        this.consumerThread = new Thread(this::consume, name);
+        this.consumerThread.setDaemon(true);
+        this.consumerThread.start();
+    }
+
+    /**
+     * Adds an item, blocking while the consumer is {@code capacity} chunks behind.
+     */
+    public void submit(T item) throws InterruptedException {
+        if (failure.get() != null) {
+            current.add(item);
+            discard(current);
+            current = new ArrayList<>(chunkSize);
+            throwIfFailed();
+        }
+        current.add(item);
+        if (current.size() >= chunkSize) {
+            queue.put(current);
+            current = new ArrayList<>(chunkSize);
+        }
+    }
+
+    /**
+     * Hands over the partial chunk now instead of when it fills, blocking like
+     * {@link #submit}. Lets a caller bound how long an item can wait for a
+     * slow-filling chunk.
+     */
+    public void flush() throws InterruptedException {
+        if (current.isEmpty()) {
+            return;
+        }
+        if (failure.get() != null) {
+            discard(current);
+            current = new ArrayList<>(chunkSize);
+            throwIfFailed();
+        }
+        queue.put(current);
+        current = new ArrayList<>(chunkSize);
+    }
+
+    /**
+     * Whether the consumer has failed; later items will be discarded.
+     */
+    public boolean failed() {
+        return failure.get() != null;
+    }
+
+    /**
+     * Hands over the last partial chunk and waits until every chunk has been consumed.
+     */
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            if (!current.isEmpty()) {
+                if (failure.get() == null) {
+                    queue.put(current);
+                } else {
+                    discard(current);
+                }
+            }
+            current = List.of();
+            queue.put(end);
+            consumerThread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for the chunk consumer", e);
+        }
+        throwIfFailed();
+    }
+
+    private void consume() {
+        try {
+            List<T> chunk;
+            while ((chunk = queue.take()) != end) {
+                if (failure.get() == null) {
+                    try {
+                        consumer.accept(chunk);
+                    } catch (Throwable t) {
+                        // Keep draining so the producer never blocks on a dead consumer
+                        failure.compareAndSet(null, t);
+                    }
+                } else {
+                    discard(chunk);
+                }
+            }
+        } catch (InterruptedException e) {
+            failure.compareAndSet(null, e);
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void discard(List<T> chunk) {
+        try {
+            discarded.accept(chunk);
+        } catch (RuntimeException e) {
+            // The original failure is what close() reports
+        }
+    }
+
+    private void throwIfFailed() {
+        Throwable t = failure.get();
+        if (t instanceof RuntimeException runtime) {
+            throw runtime;
+        }
+        if (t instanceof Error error) {
+            throw error;
+        }
+        if (t != null) {
+            throw new IllegalStateException("Chunk consumer failed", t);
+        }
+    }
+}
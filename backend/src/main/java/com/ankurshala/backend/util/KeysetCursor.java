@@ -0,0 +1,41 @@
+package com.ankurshala.backend.util;
+
+import org.springframework.data.domain.Sort;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Position in a keyset-paginated list: the sort property and direction plus the
+ * sort value and id of the last row returned. Clients only ever see the opaque
+ * {@link #encode() token}.
+ */
+public record KeysetCursor(String sortProperty, Sort.Direction direction, Long id, String value) {
+
+    private static final String VERSION = "k1";
+
+    public String encode() {
+        String raw = String.join("\n", VERSION, sortProperty, direction.name(), String.valueOf(id), value);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Parses a token produced by {@link #encode()}.
+     *
+     * @throws IllegalArgumentException if the token is malformed
+     */
+    public static KeysetCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            // The value goes last so it may itself contain newlines
+            String[] parts = raw.split("\n", 5);
+            if (parts.length != 5 || !VERSION.equals(parts[0])) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            return new KeysetCursor(parts[1], Sort.Direction.valueOf(parts[2]), Long.valueOf(parts[3]), parts[4]);
+        } catch (IllegalArgumentException e) {
+            // Also covers bad Base64, unknown directions and non-numeric ids
+            throw new IllegalArgumentException("Invalid cursor", e);
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package com.ankurshala.backend.util;
+
+import com.ankurshala.backend.dto.admin.CursorPage;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.springframework.beans.BeanWrapper;
+import org.springframework.beans.PropertyAccessorFactory;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Keyset (seek) pagination over a {@link JpaSpecificationExecutor}.
+ *
+ * <p>Rows are ordered by {@code (sortProperty, id)} and each slice starts
+ * strictly after the cursor's row, so the database walks an index from that
+ * point instead of skipping OFFSET rows, and no count query is run. One extra
+ * row is fetched to tell whether another slice follows. The seek carries a
+ * plain {@code sortProperty >= value} bound next to the tie-break, because
+ * Postgres cannot start an index range scan from an {@code OR}.</p>
+ *
+ * <p>Only non-null sort properties may be used (a null sort value has no
+ * position to seek from); each list passes its own whitelist.</p>
+ */
+public final class KeysetPager {
+
+    public static final int MAX_SIZE = 500;
+
+    private static final String ID = "id";
+
+    private KeysetPager() {
+    }
+
+    /**
+     * Fetches the slice after {@code cursorToken} (or the first slice when it is blank).
+     *
+     * @throws IllegalArgumentException for a sort property outside {@code allowedSorts}
+     *                                  or a cursor issued for a different sort
+     */
+    public static <T, D> CursorPage<D> fetch(JpaSpecificationExecutor<T> repository,
+                                             Specification<T> filter,
+                                             Set<String> allowedSorts,
+                                             String sortProperty,
+                                             Sort.Direction direction,
+                                             String cursorToken,
+                                             int size,
+                                             Function<T, D> mapper) {
+        if (!allowedSorts.contains(sortProperty)) {
+            throw new IllegalArgumentException("Cursor pagination cannot sort by '" + sortProperty +
+                    "'; use one of " + allowedSorts);
+        }
+        int limit = Math.max(1, Math.min(size, MAX_SIZE));
+
+        Specification<T> spec = filter;
+        if (cursorToken != null && !cursorToken.isBlank()) {
+            KeysetCursor cursor = KeysetCursor.decode(cursorToken);
+            if (!cursor.sortProperty().equals(sortProperty) || cursor.direction() != direction) {
+                throw new IllegalArgumentException("Cursor was issued for a different sort order");
+            }
+            spec = spec.and(after(cursor));
+        }
+
+        Sort sort = ID.equals(sortProperty)
+                ? Sort.by(direction, ID)
+                : Sort.by(direction, sortProperty).and(Sort.by(direction, ID));
+        List<T> rows = repository.findBy(spec, query -> query.sortBy(sort).limit(limit + 1).all());
+
+        boolean hasNext = rows.size() > limit;
+        List<T> slice = hasNext ? rows.subList(0, limit) : rows;
+        String nextCursor = hasNext ? cursorAt(slice.get(slice.size() - 1), sortProperty, direction).encode() : null;
+        return new CursorPage<>(slice.stream().map(mapper).toList(), slice.size(), hasNext, nextCursor);
+    }
+
+    private static <T> Specification<T> after(KeysetCursor cursor) {
+        return (root, query, cb) -> {
+            boolean ascending = cursor.direction().isAscending();
+            Path<Long> id = root.get(ID);
+            Predicate idAfter = ascending ? cb.greaterThan(id, cursor.id()) : cb.lessThan(id, cursor.id());
+            if (ID.equals(cursor.sortProperty())) {
+                return idAfter;
+            }
+
+            Path<Comparable<Object>> key = path(root, cursor.sortProperty());
+            Comparable<Object> value = parse(cursor.value(), key.getJavaType());
+            Predicate keyAfter = ascending ? cb.greaterThan(key, value) : cb.lessThan(key, value);
+            // Same rows as the OR alone; the first conjunct is the index range start
+            Predicate keyFrom = ascending ? cb.greaterThanOrEqualTo(key, value) : cb.lessThanOrEqualTo(key, value);
+            return cb.and(keyFrom, cb.or(keyAfter, cb.and(cb.equal(key, value), idAfter)));
+        };
+    }
+
+    private static KeysetCursor cursorAt(Object row, String sortProperty, Sort.Direction direction) {
+        BeanWrapper wrapper = PropertyAccessorFactory.forBeanPropertyAccess(row);
+        Long id = (Long) wrapper.getPropertyValue(ID);
+        Object value = wrapper.getPropertyValue(sortProperty);
+        return new KeysetCursor(sortProperty, direction, id, format(value));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <X> Path<X> path(Root<?> root, String property) {
+        Path<?> path = root;
+        for (String segment : property.split("\\.")) {
+            path = path.get(segment);
+        }
+        return (Path<X>) path;
+    }
+
+    private static String format(Object value) {
+        if (value == null) {
+            throw new IllegalStateException("Keyset sort value must not be null");
+        }
+        return value instanceof Enum<?> e ? e.name() : value.toString();
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Comparable<Object> parse(String value, Class<?> type) {
+        try {
+            Object parsed;
+            if (type == String.class) {
+                parsed = value;
+            } else if (type == Long.class || type == long.class) {
+                parsed = Long.valueOf(value);
+            } else if (type == Integer.class || type == int.class) {
+                parsed = Integer.valueOf(value);
+            } else if (type == LocalDateTime.class) {
+                parsed = LocalDateTime.parse(value);
+            } else if (type == LocalDate.class) {
+                parsed = LocalDate.parse(value);
+            } else if (type == BigDecimal.class) {
+                parsed = new BigDecimal(value);
+            } else if (type == Boolean.class || type == boolean.class) {
+                parsed = Boolean.valueOf(value);
+            } else if (type.isEnum()) {
+                parsed = Enum.valueOf((Class<? extends Enum>) type, value);
+            } else {
+                throw new IllegalArgumentException("Unsupported keyset sort type " + type.getSimpleName());
+            }
+            return (Comparable<Object>) parsed;
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid cursor", e);
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package com.ankurshala.backend.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.IntFunction;
+
+/**
+ * A {@link BoundedChunkPipeline} per partition, each with its own consumer
+ * thread, fed by one producer.
+ *
+ * <p>Items of a partition reach its consumer in submission order, so as long
+ * as the partition of an item depends only on the item, every consumer sees
+ * the same chunks however the threads are scheduled. A partition whose
+ * consumer fails hands its remaining items, queued or submitted later, to its
+ * {@code discarded} callback instead; the other partitions carry on and
+ * {@link #close} rethrows the first failure once all of them are done.</p>
+ */
+public class PartitionedChunkPipeline<T> implements AutoCloseable {
+
+    private final List<BoundedChunkPipeline<T>> partitions;
+    private final List<Consumer<List<T>>> discarded;
+    private final RuntimeException[] failures;
+
+    public PartitionedChunkPipeline(String name, int partitions, int chunkSize, int capacity,
+                                    IntFunction<Consumer<List<T>>> consumers) {
+        this(name, partitions, chunkSize, capacity, consumers, partition -> chunk -> { });
+    }
+
+    public PartitionedChunkPipeline(String name, int partitions, int chunkSize, int capacity,
+                                    IntFunction<Consumer<List<T>>> consumers,
+                                    IntFunction<Consumer<List<T>>> discarded) {
+        if (partitions < 1) {
+            throw new IllegalArgumentException("partitions must be positive");
+        }
+        this.partitions = new ArrayList<>(partitions);
+        this.discarded = new ArrayList<>(partitions);
+        this.failures = new RuntimeException[partitions];
+        for (int i = 0; i < partitions; i++) {
+            this.discarded.add(discarded.apply(i));
+            this.partitions.add(new BoundedChunkPipeline<>(name + "-" + i, chunkSize, capacity, consumers.apply(i),
+                    this.discarded.get(i)));
+        }
+    }
+
+    public int partitions() {
+        return partitions.size();
+    }
+
+    /**
+     * Adds an item to a partition, blocking while that partition's consumer is behind.
+     */
+    public void submit(int partition, T item) throws InterruptedException {
+        if (failures[partition] != null) {
+            discarded.get(partition).accept(List.of(item));
+            return;
+        }
+        try {
+            partitions.get(partition).submit(item);
+        } catch (RuntimeException e) {
+            // The partition already handed the item to its discarded callback
+            failures[partition] = e;
+        }
+    }
+
+    /**
+     * Whether any partition's consumer has failed so far.
+     */
+    public boolean failed() {
+        for (int i = 0; i < partitions.size(); i++) {
+            if (failures[i] != null || partitions.get(i).failed()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Hands over the partial chunk of every partition that has not failed.
+     */
+    public void flush() throws InterruptedException {
+        for (int i = 0; i < partitions.size(); i++) {
+            if (failures[i] != null) {
+                continue;
+            }
+            try {
+                partitions.get(i).flush();
+            } catch (RuntimeException e) {
+                failures[i] = e;
+            }
+        }
+    }
+
+    /**
+     * Closes every partition, then rethrows the first failure. If interrupted,
+     * the interrupt flag is set and an {@link IllegalStateException} is thrown.
+     */
+    @Override
+    public void close() {
+        RuntimeException first = null;
+        for (int i = 0; i < partitions.size(); i++) {
+            try {
+                partitions.get(i).close();
+            } catch (RuntimeException e) {
+                if (failures[i] == null) {
+                    failures[i] = e;
+                }
+            }
+            if (first == null) {
+                first = failures[i];
+            }
+        }
+        if (first != null) {
+            throw first;
+        }
+    }
+}
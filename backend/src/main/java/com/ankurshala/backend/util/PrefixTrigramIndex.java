@@ -0,0 +1,208 @@
+package com.ankurshala.backend.util;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.Predicate;
+
+/**
+ * In-memory autocomplete index over short texts (names, titles).
+ *
+ * <p>Two structures are kept per entry: an ordered word index, where a prefix
+ * lookup is a single range scan, and a trigram index used when the prefix
+ * lookup finds too little, so that typos ("photosinthesis") still match.
+ * Trigrams follow pg_trgm: each word padded with two leading spaces and one
+ * trailing space, scored by shared / (query + entry - shared).</p>
+ *
+ * <p>Reads are lock-free; {@link #put} and {@link #remove} are serialised, and a
+ * concurrent reader sees each entry either before or after an update.</p>
+ *
+ * @param <K> entry key, must implement equals/hashCode
+ */
+public class PrefixTrigramIndex<K> {
+
+    private static final double MIN_SIMILARITY = 0.3;
+
+    private final ConcurrentHashMap<K, Entry<K>> entries = new ConcurrentHashMap<>();
+    private final ConcurrentSkipListMap<String, Set<K>> words = new ConcurrentSkipListMap<>();
+    private final ConcurrentHashMap<String, Set<K>> trigrams = new ConcurrentHashMap<>();
+
+    public synchronized void put(K key, String text) {
+        Entry<K> previous = entries.get(key);
+        if (previous != null && previous.text.equals(text)) {
+            return;
+        }
+        if (previous != null) {
+            unlink(previous);
+        }
+        Entry<K> entry = new Entry<>(key, text);
+        entries.put(key, entry);
+        for (String word : entry.words) {
+            words.computeIfAbsent(word, w -> ConcurrentHashMap.newKeySet()).add(key);
+        }
+        for (String trigram : entry.trigrams) {
+            trigrams.computeIfAbsent(trigram, t -> ConcurrentHashMap.newKeySet()).add(key);
+        }
+    }
+
+    public synchronized void remove(K key) {
+        Entry<K> entry = entries.remove(key);
+        if (entry != null) {
+            unlink(entry);
+        }
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * Returns up to {@code limit} entries accepted by {@code filter}, best first.
+     * Entries where every query word is a prefix of one of their words rank
+     * above fuzzy (trigram) matches.
+     */
+    public List<Match<K>> search(String query, int limit, Predicate<K> filter) {
+        String[] queryWords = normalize(query);
+        if (queryWords.length == 0 || limit <= 0) {
+            return List.of();
+        }
+        String normalizedQuery = String.join(" ", queryWords);
+
+        Map<K, Match<K>> matches = new HashMap<>();
+        // Scan the range of the longest (most selective) query word, then check the rest
+        String longest = Arrays.stream(queryWords).max(Comparator.comparingInt(String::length)).orElseThrow();
+        for (Set<K> keys : words.subMap(longest, true, longest + Character.MAX_VALUE, false).values()) {
+            for (K key : keys) {
+                Entry<K> entry = entries.get(key);
+                if (entry == null || matches.containsKey(key) || !filter.test(key) || !entry.matchesPrefixes(queryWords)) {
+                    continue;
+                }
+                matches.put(key, new Match<>(key, entry.text, prefixScore(entry, normalizedQuery)));
+            }
+        }
+
+        if (matches.size() < limit) {
+            addFuzzyMatches(queryWords, matches, filter);
+        }
+
+        return matches.values().stream()
+                .sorted(Comparator.comparingDouble((Match<K> m) -> -m.score())
+                        .thenComparingInt(m -> m.text().length())
+                        .thenComparing(Match::text))
+                .limit(limit)
+                .toList();
+    }
+
+    private void addFuzzyMatches(String[] queryWords, Map<K, Match<K>> matches, Predicate<K> filter) {
+        Set<String> queryTrigrams = trigramsOf(queryWords);
+        Map<K, Integer> shared = new HashMap<>();
+        for (String trigram : queryTrigrams) {
+            Set<K> keys = trigrams.get(trigram);
+            if (keys != null) {
+                for (K key : keys) {
+                    shared.merge(key, 1, Integer::sum);
+                }
+            }
+        }
+        for (Map.Entry<K, Integer> candidate : shared.entrySet()) {
+            K key = candidate.getKey();
+            Entry<K> entry = entries.get(key);
+            if (entry == null || matches.containsKey(key) || !filter.test(key)) {
+                continue;
+            }
+            int common = candidate.getValue();
+            double similarity = (double) common / (queryTrigrams.size() + entry.trigrams.size() - common);
+            if (similarity >= MIN_SIMILARITY) {
+                matches.put(key, new Match<>(key, entry.text, similarity));
+            }
+        }
+    }
+
+    private static double prefixScore(Entry<?> entry, String normalizedQuery) {
+        // Always above any trigram similarity (at most 1.0)
+        if (entry.normalized.equals(normalizedQuery)) {
+            return 4.0;
+        }
+        if (entry.normalized.startsWith(normalizedQuery)) {
+            return 3.0;
+        }
+        return 2.0;
+    }
+
+    private void unlink(Entry<K> entry) {
+        for (String word : entry.words) {
+            detach(words, word, entry.key);
+        }
+        for (String trigram : entry.trigrams) {
+            detach(trigrams, trigram, entry.key);
+        }
+    }
+
+    private static <K> void detach(Map<String, Set<K>> postings, String term, K key) {
+        Set<K> keys = postings.get(term);
+        if (keys != null) {
+            keys.remove(key);
+            if (keys.isEmpty()) {
+                postings.remove(term);
+            }
+        }
+    }
+
+    /**
+     * Lower-cases and splits on anything that is not a letter, combining mark or digit.
+     */
+    static String[] normalize(String text) {
+        if (text == null) {
+            return new String[0];
+        }
+        return Arrays.stream(text.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{M}\\p{N}]+"))
+                .filter(word -> !word.isEmpty())
+                .toArray(String[]::new);
+    }
+
+    static Set<String> trigramsOf(String[] words) {
+        Set<String> result = new HashSet<>();
+        for (String word : words) {
+            String padded = "  " + word + " ";
+            for (int i = 0; i + 3 <= padded.length(); i++) {
+                result.add(padded.substring(i, i + 3));
+            }
+        }
+        return result;
+    }
+
+    public record Match<K>(K key, String text, double score) {
+    }
+
+    private static final class Entry<K> {
+        final K key;
+        final String text;
+        final String normalized;
+        final String[] words;
+        final Set<String> trigrams;
+
+        Entry(K key, String text) {
+            this.key = key;
+            this.text = text;
+            this.words = normalize(text);
+            this.normalized = String.join(" ", words);
+            this.trigrams = trigramsOf(words);
+        }
+
+        boolean matchesPrefixes(String[] queryWords) {
+            for (String queryWord : queryWords) {
+                boolean found = false;
+                for (String word : words) {
+                    if (word.startsWith(queryWord)) {
+                        found = true;
+                        break;
+                    }
+                }
+                if (!found) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
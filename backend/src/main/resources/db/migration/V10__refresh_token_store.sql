@@ -0,0 +1,17 @@
+-- Refresh tokens are now stored as SHA-256 hex digests grouped into rotation families.
+-- Rows written with the old String.hashCode() key can never match a digest again,
+-- so they are dropped rather than migrated (affected users simply sign in again).
+DELETE FROM refresh_tokens WHERE length(token_hash) <> 64;
+
+ALTER TABLE refresh_tokens ADD COLUMN family_id VARCHAR(36);
+UPDATE refresh_tokens SET family_id = md5(id::text || random()::text)::uuid::text WHERE family_id IS NULL;
+ALTER TABLE refresh_tokens ALTER COLUMN family_id SET NOT NULL;
+
+-- Digests are unique, so the lookup index can be unique as well
+DROP INDEX IF EXISTS idx_refresh_token_hash;
+CREATE UNIQUE INDEX idx_refresh_token_hash ON refresh_tokens(token_hash);
+
+CREATE INDEX idx_refresh_family ON refresh_tokens(family_id);
+
+-- Keyset order for the expiry sweeper
+CREATE INDEX idx_refresh_expires_id ON refresh_tokens(expires_at, id);
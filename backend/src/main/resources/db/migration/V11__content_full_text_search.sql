@@ -0,0 +1,19 @@
+-- Full-text search over topics and topic notes.
+-- Generated tsvector columns are kept in sync by Postgres on every write;
+-- GIN indexes replace the sequential scans of LOWER(col) LIKE '%term%'.
+
+ALTER TABLE topics
+ADD COLUMN search_vector tsvector GENERATED ALWAYS AS (
+    setweight(to_tsvector('english'::regconfig, coalesce(title, '')), 'A') ||
+    setweight(to_tsvector('english'::regconfig, coalesce(summary, '')), 'B') ||
+    setweight(to_tsvector('english'::regconfig, coalesce(description, '')), 'C')
+) STORED;
+
+ALTER TABLE topic_notes
+ADD COLUMN search_vector tsvector GENERATED ALWAYS AS (
+    setweight(to_tsvector('english'::regconfig, coalesce(title, '')), 'A') ||
+    setweight(to_tsvector('english'::regconfig, coalesce(content, '')), 'B')
+) STORED;
+
+CREATE INDEX idx_topics_search_vector ON topics USING GIN (search_vector);
+CREATE INDEX idx_topic_notes_search_vector ON topic_notes USING GIN (search_vector);
@@ -0,0 +1,28 @@
+-- Composite (sort column, id) indexes for keyset pagination of admin lists.
+-- A seek of the form (col, id) > (:value, :id) ORDER BY col, id reads these
+-- from the cursor position onward, so deep pages cost the same as the first.
+-- Lists of chapters, topics and notes always exclude soft-deleted rows, hence
+-- the partial indexes.
+
+CREATE INDEX idx_boards_created_id ON boards(created_at, id);
+CREATE INDEX idx_subjects_created_id ON subjects(created_at, id);
+
+CREATE INDEX idx_chapters_name_id ON chapters(name, id) WHERE deleted_at IS NULL;
+CREATE INDEX idx_chapters_created_id ON chapters(created_at, id) WHERE deleted_at IS NULL;
+
+CREATE INDEX idx_topics_title_id ON topics(title, id) WHERE deleted_at IS NULL;
+CREATE INDEX idx_topics_created_id ON topics(created_at, id) WHERE deleted_at IS NULL;
+
+CREATE INDEX idx_topic_notes_title_id ON topic_notes(title, id) WHERE deleted_at IS NULL;
+CREATE INDEX idx_topic_notes_created_id ON topic_notes(created_at, id) WHERE deleted_at IS NULL;
+
+CREATE INDEX idx_student_profiles_created_id ON student_profiles(created_at, id);
+CREATE INDEX idx_student_profiles_first_name_id ON student_profiles(first_name, id);
+CREATE INDEX idx_teacher_profiles_created_id ON teacher_profiles(created_at, id);
+
+-- Keyset needs a non-null sort value; the entity already treats created_at as required
+UPDATE notifications SET created_at = CURRENT_TIMESTAMP WHERE created_at IS NULL;
+ALTER TABLE notifications ALTER COLUMN created_at SET NOT NULL;
+
+DROP INDEX IF EXISTS idx_notifications_created_at;
+CREATE INDEX idx_notifications_created_id ON notifications(created_at, id);
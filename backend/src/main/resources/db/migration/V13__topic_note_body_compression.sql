@@ -0,0 +1,13 @@
+-- Note bodies and attachment JSON are the only large columns in topic_notes.
+-- Compress them with LZ4 (Postgres 14+), which is several times faster to
+-- decompress than the default pglz, and let rows move their bodies out of
+-- line from 256 bytes instead of ~2 KB. List queries that select only the
+-- short columns then read dense heap pages and never touch the TOAST table;
+-- octet_length() reads the stored size without decompressing.
+--
+-- The body stays TEXT so the generated search_vector (V11) keeps working.
+-- Existing rows keep their current storage until they are next updated.
+
+ALTER TABLE topic_notes ALTER COLUMN content SET COMPRESSION lz4;
+ALTER TABLE topic_notes ALTER COLUMN attachments SET COMPRESSION lz4;
+ALTER TABLE topic_notes SET (toast_tuple_target = 256);
@@ -0,0 +1,16 @@
+-- Append-only log of content taxonomy changes for incremental client sync.
+-- Writers insert one row per changed board/subject/chapter/topic in the same
+-- transaction as the change; readers ask for everything after a seq and get
+-- the latest state of each entity once.
+CREATE TABLE content_changes (
+    seq BIGSERIAL PRIMARY KEY,
+    entity_type VARCHAR(20) NOT NULL CHECK (entity_type IN ('BOARD', 'SUBJECT', 'CHAPTER', 'TOPIC')),
+    entity_id BIGINT NOT NULL,
+    changed_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+-- Existing content, so that since=0 returns the whole catalog
+INSERT INTO content_changes (entity_type, entity_id) SELECT 'BOARD', id FROM boards ORDER BY id;
+INSERT INTO content_changes (entity_type, entity_id) SELECT 'SUBJECT', id FROM subjects ORDER BY id;
+INSERT INTO content_changes (entity_type, entity_id) SELECT 'CHAPTER', id FROM chapters ORDER BY id;
+INSERT INTO content_changes (entity_type, entity_id) SELECT 'TOPIC', id FROM topics ORDER BY id;
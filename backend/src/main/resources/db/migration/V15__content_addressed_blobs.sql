@@ -0,0 +1,13 @@
+-- Uploaded files, stored once per distinct content under their SHA-256.
+-- ref_count is the number of URL fields (documents, photos, note attachments)
+-- pointing at the blob; blobs left at zero past the grace period are removed.
+CREATE TABLE blobs (
+    sha256 CHAR(64) PRIMARY KEY,
+    size_bytes BIGINT NOT NULL,
+    content_type VARCHAR(255) NOT NULL,
+    ref_count INTEGER NOT NULL DEFAULT 0,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    touched_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE INDEX idx_blobs_orphans ON blobs(touched_at) WHERE ref_count = 0;
@@ -0,0 +1,22 @@
+-- Staging area for COPY-based content imports. Rows are streamed in with
+-- COPY FROM STDIN and merged into the taxonomy with set-based statements in
+-- the same transaction, so nothing here outlives a job. UNLOGGED: the rows
+-- are throwaway, so they skip the WAL (and are emptied after a crash).
+CREATE UNLOGGED TABLE content_import_staging (
+    job_id BIGINT NOT NULL,
+    row_no INTEGER NOT NULL,
+    board VARCHAR(100) NOT NULL,
+    grade VARCHAR(50) NOT NULL,
+    subject VARCHAR(100) NOT NULL,
+    chapter VARCHAR(200) NOT NULL,
+    title VARCHAR(300) NOT NULL,
+    code VARCHAR(100),
+    description TEXT,
+    summary TEXT,
+    expected_time_mins INTEGER NOT NULL,
+    active BOOLEAN NOT NULL,
+    -- Resolved during the merge
+    chapter_id BIGINT,
+    topic_id BIGINT,
+    PRIMARY KEY (job_id, row_no)
+);
@@ -0,0 +1,15 @@
+-- Resumable content imports. The uploaded file stays in the spool directory
+-- (named after the job) until the job finishes, with its SHA-256 so a resume
+-- can tell it is the same file. checkpoint_rows is how many data rows from
+-- the top of the file are settled (committed or reported as errors), and the
+-- checkpoint counters are the totals as of that row.
+ALTER TABLE import_jobs
+    ADD COLUMN import_mode VARCHAR(20),
+    ADD COLUMN spool_path VARCHAR(500),
+    ADD COLUMN file_sha256 VARCHAR(64),
+    ADD COLUMN checkpoint_rows INTEGER NOT NULL DEFAULT 0,
+    ADD COLUMN checkpoint_success_rows INTEGER NOT NULL DEFAULT 0,
+    ADD COLUMN checkpoint_error_rows INTEGER NOT NULL DEFAULT 0;
+
+-- Interrupted-job scan: unfinished jobs whose heartbeat (updated_at) went stale
+CREATE INDEX idx_import_jobs_unfinished ON import_jobs(updated_at) WHERE status IN ('PENDING', 'RUNNING');
@@ -0,0 +1,13 @@
+-- Who uploaded which blob, and when. A blob may be read by its uploaders
+-- before any entity references it, and recent rows count towards the
+-- per-user upload quota.
+CREATE TABLE blob_uploads (
+    id BIGSERIAL PRIMARY KEY,
+    sha256 CHAR(64) NOT NULL REFERENCES blobs(sha256) ON DELETE CASCADE,
+    user_id BIGINT NOT NULL REFERENCES users(id) ON DELETE CASCADE,
+    size_bytes BIGINT NOT NULL,
+    uploaded_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE INDEX idx_blob_uploads_user ON blob_uploads(user_id, uploaded_at);
+CREATE INDEX idx_blob_uploads_blob ON blob_uploads(sha256, user_id);
@@ -0,0 +1,10 @@
+-- How many topic note attachment fields point at each blob. Note attachments
+-- are readable by every signed-in user, so the download check reads this
+-- instead of scanning the compressed attachments text of every note.
+ALTER TABLE blobs ADD COLUMN note_ref_count INTEGER NOT NULL DEFAULT 0;
+
+UPDATE blobs b SET note_ref_count = r.refs
+FROM (SELECT m[1] AS sha256, COUNT(*) AS refs
+      FROM topic_notes n, regexp_matches(n.attachments, '/blobs/([0-9a-f]{64})', 'g') AS m
+      GROUP BY m[1]) r
+WHERE b.sha256 = r.sha256;
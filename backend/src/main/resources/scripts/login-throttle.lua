@@ -0,0 +1,66 @@
+-- Sliding-window login throttle over sign-in attempts, per email and per IP.
+-- KEYS: email window, email lock, email strikes, ip window, ip lock, ip strikes
+-- ARGV: mode, now ms, window ms, email limit, ip limit, base lock ms, max lock ms, strike ttl ms, attempt id
+-- Modes:
+--   attempt - rejects a locked email or IP; otherwise reserves the attempt in both windows
+--             as a failure. Returns the milliseconds left on the lockout that rejects it, 0 if allowed
+--   success - clears the email's failures and strikes and refunds the attempt's IP slot; returns 0
+--   refund  - drops the attempt from both windows (it was never checked); returns 0
+-- Reserving up front keeps the limit exact under concurrent attempts, and a failed sign-in
+-- needs no second call. A limit of 0 or less disables that key.
+
+local mode = ARGV[1]
+local now = tonumber(ARGV[2])
+local window = tonumber(ARGV[3])
+local attempt = ARGV[9]
+
+local function remaining_lock(lock_key)
+  local ttl = redis.call('PTTL', lock_key)
+  if ttl > 0 then
+    return ttl
+  end
+  return 0
+end
+
+local function reserve(window_key, lock_key, strikes_key, limit)
+  if limit <= 0 then
+    return 0
+  end
+  redis.call('ZREMRANGEBYSCORE', window_key, '-inf', now - window)
+  redis.call('ZADD', window_key, now, attempt)
+  redis.call('PEXPIRE', window_key, window)
+  if redis.call('ZCARD', window_key) <= limit then
+    return 0
+  end
+  -- Each lockout in the strike period doubles the next one
+  local strikes = redis.call('INCR', strikes_key)
+  redis.call('PEXPIRE', strikes_key, ARGV[8])
+  local lock = math.floor(math.min(tonumber(ARGV[6]) * 2 ^ (strikes - 1), tonumber(ARGV[7])))
+  redis.call('SET', lock_key, '1', 'PX', lock)
+  redis.call('DEL', window_key)
+  return lock
+end
+
+if mode == 'attempt' then
+  local locked = math.max(remaining_lock(KEYS[2]), remaining_lock(KEYS[5]))
+  if locked > 0 then
+    return locked
+  end
+  local lock = math.max(reserve(KEYS[1], KEYS[2], KEYS[3], tonumber(ARGV[4])),
+                        reserve(KEYS[4], KEYS[5], KEYS[6], tonumber(ARGV[5])))
+  if lock > 0 then
+    -- A rejected attempt is not a failure of the key that still had room
+    redis.call('ZREM', KEYS[1], attempt)
+    redis.call('ZREM', KEYS[4], attempt)
+  end
+  return lock
+end
+
+if mode == 'success' then
+  redis.call('DEL', KEYS[1], KEYS[3])
+  redis.call('ZREM', KEYS[4], attempt)
+elseif mode == 'refund' then
+  redis.call('ZREM', KEYS[1], attempt)
+  redis.call('ZREM', KEYS[4], attempt)
+end
+return 0
@@ -0,0 +1,15 @@
+-- Moves one resource scope to a new version after a committed write.
+-- KEYS: scope hash (fields v = version, t = last modified ms)
+-- ARGV: now ms, key ttl ms
+-- Returns the new version.
+
+local version
+if redis.call('HSETNX', KEYS[1], 'v', ARGV[1]) == 1 then
+  version = tonumber(ARGV[1])
+else
+  version = redis.call('HINCRBY', KEYS[1], 'v', 1)
+end
+
+redis.call('HSET', KEYS[1], 't', ARGV[1])
+redis.call('PEXPIRE', KEYS[1], ARGV[2])
+return version
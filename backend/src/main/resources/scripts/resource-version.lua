@@ -0,0 +1,14 @@
+-- Current version of one resource scope, created on first use.
+-- KEYS: scope hash (fields v = version, t = last modified ms)
+-- ARGV: now ms, key ttl ms
+-- Returns "version:last modified ms". New scopes start at the current time so a
+-- lost key (eviction, flush) can never bring back a version a client already holds.
+
+local entry = redis.call('HMGET', KEYS[1], 'v', 't')
+if entry[1] then
+  return entry[1] .. ':' .. entry[2]
+end
+
+redis.call('HSET', KEYS[1], 'v', ARGV[1], 't', ARGV[1])
+redis.call('PEXPIRE', KEYS[1], ARGV[2])
+return ARGV[1] .. ':' .. ARGV[1]
@@ -0,0 +1,124 @@
+package com.ankurshala.backend.benchmark;
+
+import com.ankurshala.backend.entity.Role;
+import com.ankurshala.backend.entity.User;
+import com.ankurshala.backend.security.JwtTokenProvider;
+import com.ankurshala.backend.security.VerifiedToken;
+import com.ankurshala.backend.security.VerifiedTokenCache;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the per-request cost of authenticating a bearer token.
+ *
+ * <ul>
+ *   <li>{@code legacyTripleParse} - the previous filter path: validate, isRefreshToken and
+ *       getUserId each rebuilt the HMAC key and re-verified the token.</li>
+ *   <li>{@code singleParse} - one verification with the prebuilt parser (cache miss).</li>
+ *   <li>{@code cachedVerify} - {@link JwtTokenProvider#verify(String)} on a warm cache.</li>
+ * </ul>
+ *
+ * Run with: {@code mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.ankurshala.backend.benchmark.JwtVerificationBenchmark}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtVerificationBenchmark {
+
+    private static final String SECRET =
+            "benchmark-jwt-secret-key-for-hs512-that-is-at-least-64-characters-long-123456";
+
+    private JwtTokenProvider cachedProvider;
+    private JwtParser prebuiltParser;
+    private String accessToken;
+
+    @Setup
+    public void setUp() {
+        cachedProvider = provider(new VerifiedTokenCache(10_000));
+        // Same parser the provider builds once at startup, used here without the cache
+        prebuiltParser = Jwts.parser()
+                .verifyWith(Keys.hmacShaKeyFor(SECRET.getBytes()))
+                .build();
+
+        User user = new User("Bench User", "bench@ankurshala.com", "n/a", Role.STUDENT);
+        user.setId(42L);
+        accessToken = cachedProvider.generateAccessToken(user);
+        cachedProvider.verify(accessToken);
+    }
+
+    @Benchmark
+    public Long legacyTripleParse() {
+        if (legacyValidate(accessToken) && !legacyIsRefresh(accessToken)) {
+            return Long.parseLong(legacyClaims(accessToken).getSubject());
+        }
+        return null;
+    }
+
+    @Benchmark
+    public Long singleParse() {
+        VerifiedToken token = VerifiedToken.from(prebuiltParser.parseSignedClaims(accessToken).getPayload());
+        return token != null && token.isAccessToken() ? token.getUserId() : null;
+    }
+
+    @Benchmark
+    public Long cachedVerify() {
+        VerifiedToken token = cachedProvider.verify(accessToken);
+        return token != null && token.isAccessToken() ? token.getUserId() : null;
+    }
+
+    private static JwtTokenProvider provider(VerifiedTokenCache cache) {
+        JwtTokenProvider provider = new JwtTokenProvider();
+        ReflectionTestUtils.setField(provider, "jwtSecret", SECRET);
+        ReflectionTestUtils.setField(provider, "accessTokenExpirationInSeconds", 900);
+        ReflectionTestUtils.setField(provider, "refreshTokenExpirationInSeconds", 604800);
+        ReflectionTestUtils.setField(provider, "verifiedTokenCache", cache);
+        ReflectionTestUtils.invokeMethod(provider, "init");
+        return provider;
+    }
+
+    private static Claims legacyClaims(String token) {
+        return Jwts.parser()
+                .verifyWith(Keys.hmacShaKeyFor(SECRET.getBytes()))
+                .build()
+                .parseSignedClaims(token)
+                .getPayload();
+    }
+
+    private static boolean legacyValidate(String token) {
+        try {
+            legacyClaims(token);
+            return true;
+        } catch (RuntimeException ex) {
+            return false;
+        }
+    }
+
+    private static boolean legacyIsRefresh(String token) {
+        try {
+            return "refresh".equals(legacyClaims(token).get("type", String.class));
+        } catch (RuntimeException ex) {
+            return false;
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(JwtVerificationBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
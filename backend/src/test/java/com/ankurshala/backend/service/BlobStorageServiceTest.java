@@ -0,0 +1,29 @@
+package com.ankurshala.backend.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for the blob URL parsing used by reference counting.
+ */
+public class BlobStorageServiceTest {
+
+    private static final String A = "a".repeat(64);
+    private static final String B = "0123456789abcdef".repeat(4);
+
+    @Test
+    void referencedHashes_findsEveryBlobUrlInText() {
+        String attachments = "[\"" + BlobStorageService.urlOf(A) + "\",\"https://example.com/x.pdf\",\"/api/blobs/" + B + "\"]";
+
+        assertThat(BlobStorageService.referencedHashes(attachments)).containsExactly(A, B);
+        assertThat(BlobStorageService.referencedHashes(BlobStorageService.urlOf(A))).containsExactly(A);
+    }
+
+    @Test
+    void referencedHashes_ignoresOtherUrlsAndEmptyValues() {
+        assertThat(BlobStorageService.referencedHashes("https://cdn.example.com/photo.png")).isEmpty();
+        assertThat(BlobStorageService.referencedHashes("/api/blobs/" + A.substring(1))).isEmpty();
+        assertThat(BlobStorageService.referencedHashes(null)).isEmpty();
+    }
+}
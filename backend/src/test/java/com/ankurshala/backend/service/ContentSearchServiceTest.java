@@ -0,0 +1,38 @@
+package com.ankurshala.backend.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for ContentSearchService query building.
+ * Free text must become a safe prefix tsquery regardless of what the user types.
+ */
+public class ContentSearchServiceTest {
+
+    @Test
+    void toPrefixQuery_matchesEveryWordAsPrefix() {
+        assertThat(ContentSearchService.toPrefixQuery("  Cell  divis ")).isEqualTo("cell:* & divis:*");
+    }
+
+    @Test
+    void toPrefixQuery_dropsTsqueryOperators() {
+        assertThat(ContentSearchService.toPrefixQuery("a & !b | (c:*)")).isEqualTo("a:* & b:* & c:*");
+    }
+
+    @Test
+    void toPrefixQuery_keepsNonLatinScripts() {
+        assertThat(ContentSearchService.toPrefixQuery("प्रकाश")).isEqualTo("प्रकाश:*");
+    }
+
+    @Test
+    void toPrefixQuery_returnsNullWhenNothingSearchable() {
+        assertThat(ContentSearchService.toPrefixQuery(null)).isNull();
+        assertThat(ContentSearchService.toPrefixQuery(" &|! ")).isNull();
+    }
+
+    @Test
+    void toPrefixQuery_capsNumberOfTerms() {
+        assertThat(ContentSearchService.toPrefixQuery("a b c d e f g h i j").split(" & ")).hasSize(8);
+    }
+}
@@ -0,0 +1,60 @@
+package com.ankurshala.backend.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for ImportCheckpoint.
+ * Covers the settled prefix when rows finish out of order and the wait
+ * for the open window to shrink.
+ */
+public class ImportCheckpointTest {
+
+    @Test
+    void settled_advancesOnlyOverAContiguousPrefix() {
+        ImportCheckpoint checkpoint = new ImportCheckpoint(0, 0, 0);
+        for (int record = 1; record <= 4; record++) {
+            checkpoint.pending(record);
+        }
+        checkpoint.settled(2, true);
+        checkpoint.settled(4, true);
+        assertThat(checkpoint.position().rows()).isZero();
+
+        checkpoint.settled(1, false);
+        assertThat(checkpoint.position()).isEqualTo(new ImportCheckpoint.Position(2, 1, 1));
+
+        checkpoint.settled(3, true);
+        assertThat(checkpoint.position()).isEqualTo(new ImportCheckpoint.Position(4, 3, 1));
+    }
+
+    @Test
+    void advanced_reportsEachNewPositionOnce() {
+        ImportCheckpoint checkpoint = new ImportCheckpoint(10, 9, 1);
+        assertThat(checkpoint.advanced()).isNull();
+
+        checkpoint.settled(11, false);
+        assertThat(checkpoint.advanced()).isEqualTo(new ImportCheckpoint.Position(11, 9, 2));
+        assertThat(checkpoint.advanced()).isNull();
+    }
+
+    @Test
+    void awaitOpenBelow_returnsOnceThePrefixSettles() throws Exception {
+        ImportCheckpoint checkpoint = new ImportCheckpoint(0, 0, 0);
+        for (int record = 1; record <= 3; record++) {
+            checkpoint.pending(record);
+        }
+        checkpoint.settled(3, true);
+        assertThat(checkpoint.openRows()).isEqualTo(3);
+        assertThat(checkpoint.awaitOpenBelow(2, 10)).isFalse();
+
+        Thread writer = new Thread(() -> {
+            checkpoint.settled(2, true);
+            checkpoint.settled(1, true);
+        });
+        writer.start();
+        assertThat(checkpoint.awaitOpenBelow(2, 5000)).isTrue();
+        writer.join();
+        assertThat(checkpoint.openRows()).isZero();
+    }
+}
@@ -0,0 +1,64 @@
+package com.ankurshala.backend.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for TopicGraph.
+ * Chain used below: 3 needs 2, 2 needs 1, and 4 needs 1.
+ */
+public class TopicGraphTest {
+
+    private static TopicGraph chain() {
+        TopicGraph.Builder builder = new TopicGraph.Builder();
+        builder.addPrerequisite(3, 2);
+        builder.addPrerequisite(2, 1);
+        builder.addPrerequisite(4, 1);
+        return builder.build();
+    }
+
+    @Test
+    void transitivePrerequisites_walksTheWholeChainNearestFirst() {
+        TopicGraph graph = chain();
+
+        assertThat(graph.getTransitivePrerequisites(3)).containsExactly(2L, 1L);
+        assertThat(graph.getTransitiveDependents(1)).containsExactlyInAnyOrder(2L, 3L, 4L);
+        assertThat(graph.getTransitivePrerequisites(99)).isEmpty();
+    }
+
+    @Test
+    void addPrerequisite_rejectsLinksThatCloseACycle() {
+        TopicGraph graph = chain();
+        TopicGraph.Builder builder = graph.toBuilder();
+
+        assertThat(graph.wouldCreateCycle(1, 3)).isTrue();
+        assertThat(builder.addPrerequisite(1, 3)).isFalse();
+        assertThat(builder.addPrerequisite(1, 1)).isFalse();
+        assertThat(builder.addPrerequisite(4, 3)).isTrue();
+        assertThat(builder.build().getTransitivePrerequisites(4)).containsExactlyInAnyOrder(1L, 3L, 2L);
+    }
+
+    @Test
+    void order_putsPrerequisitesFirstAndKeepsScopeOrderForTies() {
+        TopicGraph graph = chain();
+
+        TopicGraph.Ordering ordering = graph.order(new long[]{4, 3, 5, 2, 1});
+
+        assertThat(ordering.ordered()).containsExactly(5L, 1L, 4L, 2L, 3L);
+        assertThat(ordering.cyclic()).isEmpty();
+    }
+
+    @Test
+    void order_reportsStoredCyclesInsteadOfLooping() {
+        TopicGraph.Builder builder = new TopicGraph.Builder();
+        builder.putPrerequisite(1, 2);
+        builder.putPrerequisite(2, 1);
+        builder.putPrerequisite(3, 1);
+
+        TopicGraph.Ordering ordering = builder.build().order(new long[]{1, 2, 3, 4});
+
+        assertThat(ordering.ordered()).containsExactly(4L);
+        assertThat(ordering.cyclic()).containsExactly(1L, 2L, 3L);
+    }
+}
@@ -0,0 +1,84 @@
+package com.ankurshala.backend.test;
+
+import com.ankurshala.backend.dto.auth.SigninRequest;
+import com.ankurshala.backend.dto.auth.SignupRequest;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureWebMvc;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+
+import java.util.UUID;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Integration tests for the sign-in throttle (default limit of 10 failures per email).
+ * Covers the lockout after repeated failures and the reset on a successful sign-in.
+ */
+@AutoConfigureWebMvc
+public class LoginThrottleTest extends BaseIntegrationTest {
+
+    private static final String PASSWORD = "SecurePass123!";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void signin_locksTheAccountAfterTooManyFailures() throws Exception {
+        String email = signup();
+        for (int i = 0; i < 10; i++) {
+            signin(email, "WrongPassword123!").andExpect(status().isUnauthorized());
+        }
+
+        signin(email, "WrongPassword123!")
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().exists("Retry-After"));
+        signin(email, PASSWORD).andExpect(status().isTooManyRequests());
+    }
+
+    @Test
+    void signin_successClearsEarlierFailures() throws Exception {
+        String email = signup();
+        for (int i = 0; i < 9; i++) {
+            signin(email, "WrongPassword123!").andExpect(status().isUnauthorized());
+        }
+        signin(email, PASSWORD).andExpect(status().isOk());
+
+        for (int i = 0; i < 9; i++) {
+            signin(email, "WrongPassword123!").andExpect(status().isUnauthorized());
+        }
+        signin(email, PASSWORD).andExpect(status().isOk());
+    }
+
+    private String signup() throws Exception {
+        // Throttle keys live in Redis across runs, so every run uses a fresh account
+        String email = "throttle." + UUID.randomUUID() + "@example.com";
+        SignupRequest signupRequest = new SignupRequest();
+        signupRequest.setName("Throttle Student");
+        signupRequest.setEmail(email);
+        signupRequest.setPassword(PASSWORD);
+
+        mockMvc.perform(post("/auth/signup/student")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(signupRequest)))
+                .andExpect(status().isOk());
+        return email;
+    }
+
+    private ResultActions signin(String email, String password) throws Exception {
+        SigninRequest signinRequest = new SigninRequest();
+        signinRequest.setEmail(email);
+        signinRequest.setPassword(password);
+        return mockMvc.perform(post("/auth/signin")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(signinRequest)));
+    }
+}
@@ -0,0 +1,71 @@
+package com.ankurshala.backend.test;
+
+import com.ankurshala.backend.dto.auth.AuthResponse;
+import com.ankurshala.backend.dto.auth.RefreshTokenRequest;
+import com.ankurshala.backend.dto.auth.SignupRequest;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureWebMvc;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Integration tests for refresh token rotation.
+ * Covers single use of each token and revocation of the family on replay.
+ */
+@AutoConfigureWebMvc
+public class RefreshTokenRotationTest extends BaseIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void refresh_rotatesTokenWithinTheFamily() throws Exception {
+        AuthResponse session = signup("rotation.student@example.com");
+
+        AuthResponse rotated = read(refresh(session.getRefreshToken()).andExpect(status().isOk()));
+        read(refresh(rotated.getRefreshToken()).andExpect(status().isOk()));
+    }
+
+    @Test
+    void refresh_replayRevokesTheWholeFamily() throws Exception {
+        AuthResponse session = signup("replay.student@example.com");
+        AuthResponse rotated = read(refresh(session.getRefreshToken()).andExpect(status().isOk()));
+
+        // Replaying the retired token is rejected and takes its sibling down with it
+        refresh(session.getRefreshToken()).andExpect(status().isUnauthorized());
+        refresh(rotated.getRefreshToken()).andExpect(status().isUnauthorized());
+    }
+
+    private AuthResponse signup(String email) throws Exception {
+        SignupRequest signupRequest = new SignupRequest();
+        signupRequest.setName("Rotation Student");
+        signupRequest.setEmail(email);
+        signupRequest.setPassword("SecurePass123!");
+
+        return read(mockMvc.perform(post("/auth/signup/student")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(signupRequest)))
+                .andExpect(status().isOk()));
+    }
+
+    private ResultActions refresh(String refreshToken) throws Exception {
+        RefreshTokenRequest refreshRequest = new RefreshTokenRequest();
+        refreshRequest.setRefreshToken(refreshToken);
+        return mockMvc.perform(post("/auth/refresh")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(refreshRequest)));
+    }
+
+    private AuthResponse read(ResultActions result) throws Exception {
+        return objectMapper.readValue(result.andReturn().getResponse().getContentAsString(), AuthResponse.class);
+    }
+}
@@ -0,0 +1,54 @@
+package com.ankurshala.backend.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Unit tests for BloomFilter.
+ * Checks there are no false negatives and the false-positive rate stays near its target.
+ */
+public class BloomFilterTest {
+
+    @Test
+    void mightContain_returnsTrueForEveryInsertedValue() {
+        BloomFilter filter = new BloomFilter(10_000, 0.001);
+        String[] values = new String[10_000];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = UUID.randomUUID().toString();
+            filter.put(values[i]);
+        }
+
+        for (String value : values) {
+            assertThat(filter.mightContain(value)).isTrue();
+        }
+    }
+
+    @Test
+    void mightContain_staysCloseToConfiguredFalsePositiveRate() {
+        BloomFilter filter = new BloomFilter(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            filter.put(UUID.randomUUID().toString());
+        }
+
+        int falsePositives = 0;
+        int probes = 100_000;
+        for (int i = 0; i < probes; i++) {
+            if (filter.mightContain(UUID.randomUUID().toString())) {
+                falsePositives++;
+            }
+        }
+
+        // Generous bound: the filter is sized for 1%
+        assertThat((double) falsePositives / probes).isLessThan(0.02);
+    }
+
+    @Test
+    void constructor_rejectsInvalidSizing() {
+        assertThatThrownBy(() -> new BloomFilter(0, 0.01)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new BloomFilter(100, 1.0)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,94 @@
+package com.ankurshala.backend.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Unit tests for BoundedChunkPipeline.
+ * Covers chunking, early flushes, back-pressure on a slow consumer and
+ * consumer failures.
+ */
+public class BoundedChunkPipelineTest {
+
+    @Test
+    void close_deliversEveryItemInOrderAndInChunks() throws Exception {
+        List<List<Integer>> chunks = new ArrayList<>();
+        try (BoundedChunkPipeline<Integer> pipeline = new BoundedChunkPipeline<>("test", 3, 2, chunks::add)) {
+            for (int i = 1; i <= 7; i++) {
+                pipeline.submit(i);
+            }
+        }
+
+        assertThat(chunks).containsExactly(List.of(1, 2, 3), List.of(4, 5, 6), List.of(7));
+    }
+
+    @Test
+    void flush_handsOverThePartialChunk() throws Exception {
+        List<List<Integer>> chunks = new ArrayList<>();
+        try (BoundedChunkPipeline<Integer> pipeline = new BoundedChunkPipeline<>("test", 3, 2, chunks::add)) {
+            pipeline.submit(1);
+            pipeline.submit(2);
+            pipeline.flush();
+            pipeline.flush();
+            pipeline.submit(3);
+        }
+
+        assertThat(chunks).containsExactly(List.of(1, 2), List.of(3));
+    }
+
+    @Test
+    void submit_blocksWhileTheQueueIsFull() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger submitted = new AtomicInteger();
+        BoundedChunkPipeline<Integer> pipeline = new BoundedChunkPipeline<>("test", 1, 1, chunk -> {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        Thread producer = new Thread(() -> {
+            try {
+                for (int i = 0; i < 10; i++) {
+                    pipeline.submit(i);
+                    submitted.incrementAndGet();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        producer.start();
+        producer.join(300);
+
+        // One chunk in the consumer, one in the queue, the third submit waits
+        assertThat(submitted.get()).isEqualTo(2);
+
+        release.countDown();
+        producer.join(TimeUnit.SECONDS.toMillis(5));
+        pipeline.close();
+        assertThat(submitted.get()).isEqualTo(10);
+    }
+
+    @Test
+    void close_rethrowsConsumerFailureAndSubmitFailsFast() throws Exception {
+        BoundedChunkPipeline<Integer> pipeline = new BoundedChunkPipeline<>("test", 1, 1, chunk -> {
+            throw new IllegalStateException("boom");
+        });
+
+        assertThatThrownBy(() -> {
+            for (int i = 0; i < 1000; i++) {
+                pipeline.submit(i);
+                Thread.sleep(1);
+            }
+        }).isInstanceOf(IllegalStateException.class).hasMessage("boom");
+        assertThatThrownBy(pipeline::close).isInstanceOf(IllegalStateException.class).hasMessage("boom");
+    }
+}
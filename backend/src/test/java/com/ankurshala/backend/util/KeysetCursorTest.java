@@ -0,0 +1,43 @@
+package com.ankurshala.backend.util;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Sort;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Unit tests for KeysetCursor.
+ * Tokens must round-trip exactly and reject anything that was not issued by encode().
+ */
+public class KeysetCursorTest {
+
+    @Test
+    void decode_returnsWhatWasEncoded() {
+        KeysetCursor cursor = new KeysetCursor("createdAt", Sort.Direction.DESC, 42L, "2024-05-01T10:15:30.123456");
+
+        assertThat(KeysetCursor.decode(cursor.encode())).isEqualTo(cursor);
+    }
+
+    @Test
+    void decode_keepsValuesWithSeparators() {
+        KeysetCursor cursor = new KeysetCursor("title", Sort.Direction.ASC, 7L, "Line one\nLine two");
+
+        assertThat(KeysetCursor.decode(cursor.encode())).isEqualTo(cursor);
+    }
+
+    @Test
+    void encode_isUrlSafe() {
+        String token = new KeysetCursor("name", Sort.Direction.ASC, 1L, "???>>>").encode();
+
+        assertThat(token).matches("[A-Za-z0-9_-]+");
+    }
+
+    @Test
+    void decode_rejectsMalformedTokens() {
+        assertThatThrownBy(() -> KeysetCursor.decode("not a cursor"))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> KeysetCursor.decode("aGVsbG8"))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,67 @@
+package com.ankurshala.backend.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Unit tests for PartitionedChunkPipeline.
+ * Covers per-partition ordering, isolation of a failing partition and
+ * reporting of the items it drops.
+ */
+public class PartitionedChunkPipelineTest {
+
+    @Test
+    void close_deliversEachPartitionInSubmissionOrder() throws Exception {
+        List<List<List<Integer>>> received = List.of(
+                Collections.synchronizedList(new ArrayList<>()), Collections.synchronizedList(new ArrayList<>()));
+        try (PartitionedChunkPipeline<Integer> pipeline =
+                     new PartitionedChunkPipeline<>("test", 2, 2, 1, partition -> received.get(partition)::add)) {
+            for (int i = 1; i <= 7; i++) {
+                pipeline.submit(i % 2, i);
+            }
+        }
+
+        assertThat(received.get(0)).containsExactly(List.of(2, 4), List.of(6));
+        assertThat(received.get(1)).containsExactly(List.of(1, 3), List.of(5, 7));
+    }
+
+    @Test
+    void close_rethrowsFailureAfterOtherPartitionsFinish() throws Exception {
+        List<Integer> healthy = Collections.synchronizedList(new ArrayList<>());
+        PartitionedChunkPipeline<Integer> pipeline = new PartitionedChunkPipeline<>("test", 2, 1, 1, partition ->
+                partition == 0 ? chunk -> { throw new IllegalStateException("boom"); } : chunk -> healthy.addAll(chunk));
+
+        for (int i = 0; i < 100; i++) {
+            pipeline.submit(i % 2, i);
+        }
+
+        assertThatThrownBy(pipeline::close).isInstanceOf(IllegalStateException.class).hasMessage("boom");
+        assertThat(healthy).hasSize(50).isSorted();
+    }
+
+    @Test
+    void submit_handsEveryDroppedItemToTheDiscardedCallback() throws Exception {
+        List<Integer> failed = Collections.synchronizedList(new ArrayList<>());
+        List<Integer> discarded = Collections.synchronizedList(new ArrayList<>());
+        PartitionedChunkPipeline<Integer> pipeline = new PartitionedChunkPipeline<>("test", 1, 2, 1,
+                partition -> chunk -> {
+                    failed.addAll(chunk);
+                    throw new IllegalStateException("boom");
+                },
+                partition -> discarded::addAll);
+
+        for (int i = 0; i < 20; i++) {
+            pipeline.submit(0, i);
+        }
+
+        assertThatThrownBy(pipeline::close).isInstanceOf(IllegalStateException.class).hasMessage("boom");
+        assertThat(failed).containsExactly(0, 1);
+        assertThat(discarded).hasSize(18).doesNotHaveDuplicates().doesNotContain(0, 1);
+    }
+}
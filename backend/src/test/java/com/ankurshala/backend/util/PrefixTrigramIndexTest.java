@@ -0,0 +1,76 @@
+package com.ankurshala.backend.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for PrefixTrigramIndex.
+ * Checks prefix and typo matching, ranking, filtering and incremental updates.
+ */
+public class PrefixTrigramIndexTest {
+
+    @Test
+    void search_matchesWordPrefixesInAnyPosition() {
+        PrefixTrigramIndex<Long> index = new PrefixTrigramIndex<>();
+        index.put(1L, "Light - Reflection and Refraction");
+        index.put(2L, "Life Processes");
+
+        assertThat(keys(index.search("refr", 10, k -> true))).containsExactly(1L);
+        assertThat(keys(index.search("li ref", 10, k -> true))).containsExactly(1L);
+    }
+
+    @Test
+    void search_ranksExactAndLeadingMatchesFirst() {
+        PrefixTrigramIndex<Long> index = new PrefixTrigramIndex<>();
+        index.put(1L, "Chemical Reactions");
+        index.put(2L, "Acids and Chemical Reactions");
+        index.put(3L, "Chemical");
+
+        assertThat(keys(index.search("chemical", 10, k -> true))).containsExactly(3L, 1L, 2L);
+    }
+
+    @Test
+    void search_toleratesTypos() {
+        PrefixTrigramIndex<Long> index = new PrefixTrigramIndex<>();
+        index.put(1L, "Photosynthesis");
+        index.put(2L, "Magnetism");
+
+        List<PrefixTrigramIndex.Match<Long>> matches = index.search("photosinthesis", 10, k -> true);
+
+        assertThat(keys(matches)).containsExactly(1L);
+        assertThat(matches.get(0).score()).isLessThan(1.0);
+    }
+
+    @Test
+    void search_appliesFilterAndLimit() {
+        PrefixTrigramIndex<Long> index = new PrefixTrigramIndex<>();
+        for (long i = 1; i <= 20; i++) {
+            index.put(i, "Topic " + i);
+        }
+
+        assertThat(index.search("topic", 5, k -> true)).hasSize(5);
+        assertThat(keys(index.search("topic", 50, k -> k % 10 == 0))).containsExactlyInAnyOrder(10L, 20L);
+    }
+
+    @Test
+    void putAndRemove_updateIndexIncrementally() {
+        PrefixTrigramIndex<Long> index = new PrefixTrigramIndex<>();
+        index.put(1L, "Gravitation");
+        index.put(1L, "Motion");
+
+        assertThat(index.search("grav", 10, k -> true)).isEmpty();
+        assertThat(keys(index.search("mot", 10, k -> true))).containsExactly(1L);
+
+        index.remove(1L);
+
+        assertThat(index.search("mot", 10, k -> true)).isEmpty();
+        assertThat(index.size()).isZero();
+    }
+
+    private static List<Long> keys(List<PrefixTrigramIndex.Match<Long>> matches) {
+        return matches.stream().map(PrefixTrigramIndex.Match::key).toList();
+    }
+}